@@ -0,0 +1,227 @@
+package com.soulsurf.backend.core.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Stale-while-revalidate cache for slow upstream lookups.
+ * <p>
+ * An entry is fresh for {@code ttl}. After that, and until {@code ttl + maxStale}, reads still
+ * return the old value immediately while a single background reload runs on {@code executor};
+ * if the reload fails the old value stays. Older entries are dropped and the next read loads
+ * synchronously. Concurrent loads of the same key share one upstream call (single-flight).
+ * <p>
+ * An optional bulk loader lets {@link #getAllAsync(Collection)} fetch every missing key with one
+ * upstream call; without it, each missing key goes to the single-key loader.
+ * <p>
+ * Loaders built with {@link #async} return futures (e.g. from a non-blocking HTTP client) and hold no
+ * thread while the upstream answers, so slow or cold loads cannot queue up behind a small executor.
+ * <p>
+ * Registers {@code <metricPrefix>.requests{result=hit|miss}}, {@code <metricPrefix>.loads} (upstream
+ * calls, refreshes included), {@code <metricPrefix>.loads.saved} (requests answered without an
+ * upstream call of their own), {@code <metricPrefix>.load.failures} and {@code <metricPrefix>.size}.
+ */
+public class RefreshingCache<K, V> {
+
+    private final AsyncLoadingCache<K, V> cache;
+
+    public RefreshingCache(Function<K, V> loader,
+            Duration ttl,
+            Duration maxStale,
+            long maximumSize,
+            Executor executor,
+            MeterRegistry meterRegistry,
+            String metricPrefix) {
+        this(loader, null, ttl, maxStale, maximumSize, executor, meterRegistry, metricPrefix, Ticker.systemTicker());
+    }
+
+    public RefreshingCache(Function<K, V> loader,
+            Function<Set<K>, Map<K, V>> bulkLoader,
+            Duration ttl,
+            Duration maxStale,
+            long maximumSize,
+            Executor executor,
+            MeterRegistry meterRegistry,
+            String metricPrefix) {
+        this(loader, bulkLoader, ttl, maxStale, maximumSize, executor, meterRegistry, metricPrefix,
+                Ticker.systemTicker());
+    }
+
+    RefreshingCache(Function<K, V> loader,
+            Function<Set<K>, Map<K, V>> bulkLoader,
+            Duration ttl,
+            Duration maxStale,
+            long maximumSize,
+            Executor executor,
+            MeterRegistry meterRegistry,
+            String metricPrefix,
+            Ticker ticker) {
+        this(cacheLoader(loader, bulkLoader), ttl, maxStale, maximumSize, executor, meterRegistry, metricPrefix,
+                ticker);
+    }
+
+    private RefreshingCache(AsyncCacheLoader<K, V> loader,
+            Duration ttl,
+            Duration maxStale,
+            long maximumSize,
+            Executor executor,
+            MeterRegistry meterRegistry,
+            String metricPrefix,
+            Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(ttl)
+                .expireAfterWrite(ttl.plus(maxStale))
+                .executor(executor)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync(loader);
+
+        counter(meterRegistry, metricPrefix + ".requests", "hit", CacheStats::hitCount);
+        counter(meterRegistry, metricPrefix + ".requests", "miss", CacheStats::missCount);
+        FunctionCounter.builder(metricPrefix + ".loads", cache, c -> c.synchronous().stats().loadCount())
+                .register(meterRegistry);
+        FunctionCounter.builder(metricPrefix + ".loads.saved", cache, c -> {
+                    CacheStats stats = c.synchronous().stats();
+                    return Math.max(0, stats.requestCount() - stats.loadCount());
+                })
+                .register(meterRegistry);
+        FunctionCounter.builder(metricPrefix + ".load.failures", cache, c -> c.synchronous().stats().loadFailureCount())
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".size", cache, c -> c.synchronous().estimatedSize())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cache whose loaders are non-blocking: each call starts the upstream request and returns its
+     * future. {@code bulkLoader} may be {@code null}. The common pool only runs Caffeine's own
+     * bookkeeping, never a load.
+     */
+    public static <K, V> RefreshingCache<K, V> async(Function<K, CompletableFuture<V>> loader,
+            Function<Set<K>, CompletableFuture<Map<K, V>>> bulkLoader,
+            Duration ttl,
+            Duration maxStale,
+            long maximumSize,
+            MeterRegistry meterRegistry,
+            String metricPrefix) {
+        return new RefreshingCache<>(asyncCacheLoader(loader, bulkLoader), ttl, maxStale, maximumSize,
+                ForkJoinPool.commonPool(), meterRegistry, metricPrefix, Ticker.systemTicker());
+    }
+
+    /**
+     * Returns the cached value, loading it on a miss. Upstream failures on a miss are rethrown as is.
+     */
+    public V get(K key) {
+        CompletableFuture<V> future = cache.get(key);
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Falhas nao ficam no cache: a proxima leitura tenta de novo
+            cache.asMap().remove(key, future);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #get(Object)}: the future completes when the value is available,
+     * so several lookups can run concurrently.
+     */
+    public CompletableFuture<V> getAsync(K key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Looks up several keys at once. Keys already cached or being loaded are shared; the rest go
+     * to the bulk loader in a single call, or to the single-key loader one by one when there is none.
+     */
+    public CompletableFuture<Map<K, V>> getAllAsync(Collection<K> keys) {
+        return cache.getAll(keys);
+    }
+
+    /**
+     * Reloads {@code key} in the background before it goes stale. Readers keep getting the current
+     * value meanwhile, and a failed reload keeps it too; the future reports the outcome.
+     */
+    public CompletableFuture<V> refresh(K key) {
+        // O Caffeine so grava o valor depois de completar o futuro; grava antes para quem espera por ele
+        return cache.synchronous().refresh(key).thenApply(value -> {
+            if (value != null) {
+                cache.synchronous().asMap().replace(key, value);
+            }
+            return value;
+        });
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    private static <K, V> CacheLoader<K, V> cacheLoader(Function<K, V> loader, Function<Set<K>, Map<K, V>> bulkLoader) {
+        if (bulkLoader == null) {
+            // Sem sobrescrever loadAll o Caffeine trata o loader como unitario e o getAll carrega chave por chave
+            return loader::apply;
+        }
+        return new CacheLoader<>() {
+            @Override
+            public V load(K key) {
+                return loader.apply(key);
+            }
+
+            @Override
+            public Map<? extends K, ? extends V> loadAll(Set<? extends K> keys) {
+                return bulkLoader.apply(new LinkedHashSet<>(keys));
+            }
+        };
+    }
+
+    private static <K, V> AsyncCacheLoader<K, V> asyncCacheLoader(Function<K, CompletableFuture<V>> loader,
+            Function<Set<K>, CompletableFuture<Map<K, V>>> bulkLoader) {
+        if (bulkLoader == null) {
+            return (key, executor) -> loader.apply(key);
+        }
+        return new AsyncCacheLoader<>() {
+            @Override
+            public CompletableFuture<? extends V> asyncLoad(K key, Executor executor) {
+                return loader.apply(key);
+            }
+
+            @Override
+            public CompletableFuture<? extends Map<? extends K, ? extends V>> asyncLoadAll(Set<? extends K> keys,
+                    Executor executor) {
+                return bulkLoader.apply(new LinkedHashSet<>(keys));
+            }
+        };
+    }
+
+    private void counter(MeterRegistry meterRegistry, String name, String result, ToDoubleFunction<CacheStats> value) {
+        FunctionCounter.builder(name, cache, c -> value.applyAsDouble(c.synchronous().stats()))
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
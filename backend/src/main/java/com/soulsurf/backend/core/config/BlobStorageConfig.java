@@ -0,0 +1,56 @@
+package com.soulsurf.backend.core.config;
+
+import com.soulsurf.backend.core.storage.BlobStorage;
+import com.soulsurf.backend.core.storage.InMemoryBlobStorage;
+import com.soulsurf.backend.core.storage.LocalBlobStorage;
+import com.soulsurf.backend.core.storage.OciBlobStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Chooses the {@link BlobStorage} behind uploads with {@code storage.backend}: {@code oci}
+ * (default, needs the {@code oci.storage.*} credentials), {@code local} (a directory, served by
+ * the app itself) or {@code memory}. Only active with {@code feature.blob.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "feature.blob.enabled", havingValue = "true")
+public class BlobStorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "oci", matchIfMissing = true)
+    public BlobStorage ociBlobStorage(
+            @Value("${oci.storage.region}") String region,
+            @Value("${oci.storage.bucket-name}") String bucketName,
+            @Value("${oci.storage.namespace}") String namespace,
+            @Value("${oci.storage.user-id}") String userId,
+            @Value("${oci.storage.tenancy-id}") String tenancyId,
+            @Value("${oci.storage.fingerprint}") String fingerprint,
+            @Value("${oci.storage.private-key}") String privateKey,
+            @Value("${oci.storage.upload.multipart-threshold-mb:16}") long multipartThresholdMb,
+            @Value("${oci.storage.upload.part-size-mb:10}") int partSizeMb,
+            @Value("${oci.storage.upload.parallel-parts:3}") int parallelParts) {
+        return new OciBlobStorage(region, bucketName, namespace, userId, tenancyId, fingerprint, privateKey,
+                multipartThresholdMb, partSizeMb, parallelParts);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+    public LocalBlobStorage localBlobStorage(
+            @Value("${storage.local.root:${java.io.tmpdir}/soulsurf-blobs}") String root,
+            @Value("${storage.local.base-url:http://localhost:8080/blobs/}") String baseUrl,
+            @Value("${storage.local.upload-secret:}") String uploadSecret) throws IOException {
+        return new LocalBlobStorage(Path.of(root), baseUrl, uploadSecret);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "memory")
+    public BlobStorage inMemoryBlobStorage(
+            @Value("${storage.local.base-url:http://localhost:8080/blobs/}") String baseUrl) {
+        return new InMemoryBlobStorage(baseUrl);
+    }
+}
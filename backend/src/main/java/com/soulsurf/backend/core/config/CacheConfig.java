@@ -1,24 +1,97 @@
 package com.soulsurf.backend.core.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.soulsurf.backend.modules.post.dto.PostIdPage;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.cache.Cache;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.cache.CacheManager;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
 
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Bounded Caffeine (W-TinyLFU) caches, one spec per cache name.
+ * <p>
+ * {@link #DEFAULT_SPECS} is the only place the defaults live; a deployment overrides a single
+ * cache with {@code app.cache.specs.<name>} using the Caffeine spec syntax, e.g.
+ * {@code maximumWeight=2000,expireAfterWrite=2m}. With {@code maximumWeight} an entry weighs as
+ * many units as the posts it holds (a feed page of 20 posts = 20), so the bound follows memory use
+ * rather than key count. Statistics are always recorded; Spring Boot
+ * Actuator exports them to Prometheus as {@code cache_gets}, {@code cache_evictions},
+ * {@code cache_size} and friends, tagged with the cache name.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    // Feeds guardam so ids (maximumWeight = numero de ids); postById guarda um PostDTO compartilhado por post
+    static final Map<String, String> DEFAULT_SPECS = Map.of(
+            "publicFeed", "maximumWeight=10000,expireAfterWrite=60s",
+            "userPosts", "maximumWeight=50000,expireAfterWrite=5m",
+            "followingPosts", "maximumWeight=50000,expireAfterWrite=2m",
+            "beachPosts", "maximumWeight=20000,expireAfterWrite=5m",
+            "postById", "maximumSize=10000,expireAfterWrite=10m"
+    );
+
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
-            "publicFeed",
-            "userPosts", 
-            "followingPosts",
-            "beachPosts",
-            "postById"
-        );
+    public CacheManager cacheManager(Environment environment) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Apenas os caches declarados; nomes desconhecidos falham em vez de criar caches sem limite
+        cacheManager.setCacheNames(DEFAULT_SPECS.keySet());
+        DEFAULT_SPECS.forEach((name, defaultSpec) -> {
+            String spec = environment.getProperty("app.cache.specs." + name, defaultSpec);
+            cacheManager.registerCustomCache(name, buildCache(spec).build());
+        });
         return cacheManager;
     }
+
+    /**
+     * Cumulative hit ratio per cache ({@code cache_hit_ratio}), next to the raw counters that
+     * Actuator already exports.
+     */
+    @Bean
+    public MeterBinder cacheHitRatioMetrics(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                Cache cache = cacheManager.getCache(name);
+                if (cache instanceof CaffeineCache caffeineCache) {
+                    Gauge.builder("cache.hit.ratio", caffeineCache.getNativeCache(), c -> c.stats().hitRate())
+                            .tag("cache", name)
+                            .description("Fracao de leituras atendidas pelo cache desde o inicio")
+                            .register(registry);
+                }
+            }
+        };
+    }
+
+    static Caffeine<Object, Object> buildCache(String spec) {
+        CaffeineSpec caffeineSpec = CaffeineSpec.parse(spec);
+        Caffeine<Object, Object> builder = Caffeine.from(caffeineSpec).recordStats();
+        if (spec.contains("maximumWeight")) {
+            return builder.weigher((Object key, Object value) -> weightOf(value));
+        }
+        return builder;
+    }
+
+    static int weightOf(Object value) {
+        if (value instanceof PostIdPage page) {
+            return Math.max(1, page.postIds().size());
+        }
+        if (value instanceof Page<?> page) {
+            return Math.max(1, page.getNumberOfElements());
+        }
+        if (value instanceof Collection<?> collection) {
+            return Math.max(1, collection.size());
+        }
+        return 1;
+    }
 }
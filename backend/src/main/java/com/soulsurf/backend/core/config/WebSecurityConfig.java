@@ -71,6 +71,9 @@ public class WebSecurityConfig {
                         .requestMatchers("/api/notifications/**").authenticated()
                         .requestMatchers("/api/beaches/*/mensagens").authenticated()
                         .requestMatchers("/api/files/**").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/blobs/**").permitAll()
+                        // Uploads diretos do backend local: autorizados pela assinatura da URL, nao pelo JWT
+                        .requestMatchers(HttpMethod.PUT, "/blobs/**").permitAll()
                         .requestMatchers("/ws", "/ws/**").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/prometheus").permitAll()
                         .requestMatchers("/api/chat/**").authenticated()
@@ -58,6 +58,22 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponse(message));
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<MessageResponse> handleUpstreamUnavailableException(UpstreamUnavailableException e) {
+        log.warn("Integracao externa indisponivel: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse(e.getMessage()));
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<MessageResponse> handleServiceBusyException(ServiceBusyException e) {
+        log.warn("Servico ocupado: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse(e.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<MessageResponse> handleRuntimeException(RuntimeException e) {
         log.error("Erro interno: {}", e.getMessage(), e);
@@ -0,0 +1,12 @@
+package com.soulsurf.backend.core.exception;
+
+/**
+ * A bounded local resource (worker pool, queue) is full and the request was refused instead of
+ * queued without limit. Answered with 503 so clients can retry later.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
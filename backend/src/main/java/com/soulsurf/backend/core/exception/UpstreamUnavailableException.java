@@ -0,0 +1,12 @@
+package com.soulsurf.backend.core.exception;
+
+/**
+ * An external integration failed, timed out or was short-circuited, and there is no fallback
+ * value to serve. Answered with 503 so clients can retry later.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,170 @@
+package com.soulsurf.backend.core.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Transport for outbound HTTP: one named connection pool per upstream (open-meteo, apolo11,
+ * semace, openweathermap, expo, resend), shared by every client of that upstream.
+ * <p>
+ * Every setting is read from {@code outbound.<name>.<key>}, falling back to
+ * {@code outbound.default.<key>} and then to the defaults below: connect/read timeouts, pool size
+ * ({@code max-connections}), queue of requests waiting for a connection
+ * ({@code pending-acquire-max}, {@code pending-acquire-timeout-ms}), idle/lifetime eviction
+ * ({@code max-idle-time-ms}, {@code max-life-time-ms}, {@code evict-interval-ms}), gzip
+ * ({@code compress}), HTTP/2 over TLS with HTTP/1.1 fallback ({@code http2}) and the response
+ * size buffered in memory ({@code max-in-memory-size-bytes}).
+ * <p>
+ * Reactor Netty pools publish {@code reactor.netty.connection.provider.*} gauges tagged with the
+ * pool name; OkHttp pools publish {@code okhttp.pool.*} gauges and {@code okhttp.requests} timers
+ * tagged {@code pool=<name>}.
+ */
+@Component
+public class OutboundHttpClients {
+
+    private static final String PREFIX = "outbound.";
+    private static final long DEFAULT_CONNECT_TIMEOUT_MS = 2_000;
+    private static final long DEFAULT_READ_TIMEOUT_MS = 5_000;
+    private static final int DEFAULT_MAX_CONNECTIONS = 16;
+    private static final int DEFAULT_PENDING_ACQUIRE_MAX = 64;
+    private static final long DEFAULT_PENDING_ACQUIRE_TIMEOUT_MS = 2_000;
+    private static final long DEFAULT_MAX_IDLE_TIME_MS = 30_000;
+    private static final long DEFAULT_MAX_LIFE_TIME_MS = 300_000;
+    private static final long DEFAULT_EVICT_INTERVAL_MS = 30_000;
+    private static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ConnectionProvider> connectionProviders = new ConcurrentHashMap<>();
+    private final Map<String, ClientHttpConnector> connectors = new ConcurrentHashMap<>();
+    private final Map<String, OkHttpClient> okHttpClients = new ConcurrentHashMap<>();
+
+    public OutboundHttpClients(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Connector and codec limits of pool {@code name} for a {@link WebClient.Builder}.
+     */
+    public Consumer<WebClient.Builder> webClient(String name) {
+        ClientHttpConnector connector = connector(name);
+        int maxInMemorySize = intSetting(name, "max-in-memory-size-bytes", DEFAULT_MAX_IN_MEMORY_SIZE);
+        return builder -> builder
+                .clientConnector(connector)
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxInMemorySize));
+    }
+
+    public ClientHttpConnector connector(String name) {
+        return connectors.computeIfAbsent(name, this::createConnector);
+    }
+
+    /**
+     * OkHttp client of pool {@code name}; one instance per name, so calls share its connection pool.
+     */
+    public OkHttpClient okHttpClient(String name) {
+        return okHttpClients.computeIfAbsent(name, this::createOkHttpClient);
+    }
+
+    public Duration connectTimeout(String name) {
+        return Duration.ofMillis(longSetting(name, "connect-timeout-ms", DEFAULT_CONNECT_TIMEOUT_MS));
+    }
+
+    public Duration readTimeout(String name) {
+        return Duration.ofMillis(longSetting(name, "read-timeout-ms", DEFAULT_READ_TIMEOUT_MS));
+    }
+
+    @PreDestroy
+    void close() {
+        connectionProviders.values().forEach(ConnectionProvider::dispose);
+        okHttpClients.values().forEach(client -> {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        });
+    }
+
+    private ClientHttpConnector createConnector(String name) {
+        ConnectionProvider provider = connectionProviders.computeIfAbsent(name, poolName -> ConnectionProvider.builder(poolName)
+                .maxConnections(intSetting(poolName, "max-connections", DEFAULT_MAX_CONNECTIONS))
+                .pendingAcquireMaxCount(intSetting(poolName, "pending-acquire-max", DEFAULT_PENDING_ACQUIRE_MAX))
+                .pendingAcquireTimeout(Duration.ofMillis(
+                        longSetting(poolName, "pending-acquire-timeout-ms", DEFAULT_PENDING_ACQUIRE_TIMEOUT_MS)))
+                .maxIdleTime(Duration.ofMillis(longSetting(poolName, "max-idle-time-ms", DEFAULT_MAX_IDLE_TIME_MS)))
+                .maxLifeTime(Duration.ofMillis(longSetting(poolName, "max-life-time-ms", DEFAULT_MAX_LIFE_TIME_MS)))
+                .evictInBackground(Duration.ofMillis(
+                        longSetting(poolName, "evict-interval-ms", DEFAULT_EVICT_INTERVAL_MS)))
+                .metrics(true)
+                .build());
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout(name).toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(readTimeout(name))
+                .compress(booleanSetting(name, "compress", true));
+        // HTTP/2 so e negociado via ALPN em conexoes TLS; em http:// segue HTTP/1.1
+        if (booleanSetting(name, "http2", false)) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    private OkHttpClient createOkHttpClient(String name) {
+        Duration readTimeout = readTimeout(name);
+        int maxConnections = intSetting(name, "max-connections", DEFAULT_MAX_CONNECTIONS);
+        ConnectionPool connectionPool = new ConnectionPool(maxConnections,
+                longSetting(name, "max-idle-time-ms", DEFAULT_MAX_IDLE_TIME_MS), TimeUnit.MILLISECONDS);
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConnections);
+        dispatcher.setMaxRequestsPerHost(maxConnections);
+
+        Tags tags = Tags.of("pool", name);
+        new OkHttpConnectionPoolMetrics(connectionPool, "okhttp.pool", tags).bindTo(meterRegistry);
+        // OkHttp ja envia Accept-Encoding: gzip e descompacta sozinho
+        return new OkHttpClient.Builder()
+                .connectTimeout(connectTimeout(name))
+                .readTimeout(readTimeout)
+                .writeTimeout(readTimeout)
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .eventListener(OkHttpMetricsEventListener.builder(meterRegistry, "okhttp.requests")
+                        .tags(tags)
+                        .uriMapper(request -> request.url().encodedPath())
+                        .build())
+                .build();
+    }
+
+    private long longSetting(String name, String key, long fallback) {
+        Long specific = environment.getProperty(PREFIX + name + "." + key, Long.class);
+        return specific != null ? specific : environment.getProperty(PREFIX + "default." + key, Long.class, fallback);
+    }
+
+    private int intSetting(String name, String key, int fallback) {
+        return (int) longSetting(name, key, fallback);
+    }
+
+    private boolean booleanSetting(String name, String key, boolean fallback) {
+        Boolean specific = environment.getProperty(PREFIX + name + "." + key, Boolean.class);
+        return specific != null ? specific : environment.getProperty(PREFIX + "default." + key, Boolean.class, fallback);
+    }
+}
@@ -0,0 +1,155 @@
+package com.soulsurf.backend.core.image;
+
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * EXIF {@code Orientation} (tag 0x0112) of a JPEG and the transform that makes it upright.
+ * <p>
+ * Cameras store portrait photos sideways and record the rotation in this tag. The renditions are
+ * encoded without metadata, so the rotation has to be baked into the pixels. Only the JPEG marker
+ * segments before the scan are read; anything missing or malformed counts as {@link #NORMAL}.
+ */
+final class ExifOrientation {
+
+    static final int NORMAL = 1;
+
+    private static final int MARKER_SOI = 0xD8;
+    private static final int MARKER_EOI = 0xD9;
+    private static final int MARKER_SOS = 0xDA;
+    private static final int MARKER_APP1 = 0xE1;
+    private static final int TAG_ORIENTATION = 0x0112;
+    private static final int TYPE_SHORT = 3;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+
+    private ExifOrientation() {
+    }
+
+    /**
+     * Reads the orientation from the JPEG at the current position of {@code input}, leaving the
+     * position unchanged.
+     */
+    static int read(ImageInputStream input) throws IOException {
+        input.mark();
+        try {
+            return scanMarkers(input);
+        } catch (EOFException e) {
+            // Cabecalho truncado: o reader decide se a imagem e valida
+            return NORMAL;
+        } finally {
+            input.reset();
+        }
+    }
+
+    private static int scanMarkers(ImageInputStream input) throws IOException {
+        if (input.read() != 0xFF || input.read() != MARKER_SOI) {
+            return NORMAL;
+        }
+        while (true) {
+            int marker = input.read();
+            if (marker != 0xFF) {
+                return NORMAL;
+            }
+            while (marker == 0xFF) {
+                // Bytes 0xFF extras sao preenchimento permitido entre segmentos
+                marker = input.read();
+            }
+            if (marker < 0 || marker == MARKER_SOS || marker == MARKER_EOI) {
+                return NORMAL;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            int length = input.readUnsignedShort() - 2;
+            if (length < 0) {
+                return NORMAL;
+            }
+            if (marker == MARKER_APP1 && length > EXIF_HEADER.length) {
+                byte[] segment = new byte[length];
+                input.readFully(segment);
+                Integer orientation = fromExif(segment);
+                if (orientation != null) {
+                    return orientation;
+                }
+            } else {
+                input.skipBytes(length);
+            }
+        }
+    }
+
+    // APP1 = "Exif\0\0" + cabecalho TIFF; a orientacao fica no IFD0
+    private static Integer fromExif(byte[] segment) {
+        for (int i = 0; i < EXIF_HEADER.length; i++) {
+            if (segment[i] != EXIF_HEADER[i]) {
+                return null;
+            }
+        }
+        try {
+            ByteBuffer tiff = ByteBuffer.wrap(segment, EXIF_HEADER.length, segment.length - EXIF_HEADER.length).slice();
+            short byteOrder = tiff.getShort(0);
+            if (byteOrder == 0x4949) {
+                tiff.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (byteOrder != 0x4D4D) {
+                return null;
+            }
+            int ifd = tiff.getInt(4);
+            int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+            for (int i = 0; i < entries; i++) {
+                int entry = ifd + 2 + i * 12;
+                if (Short.toUnsignedInt(tiff.getShort(entry)) == TAG_ORIENTATION
+                        && tiff.getShort(entry + 2) == TYPE_SHORT) {
+                    int value = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                    return value >= 1 && value <= 8 ? value : NORMAL;
+                }
+            }
+            return NORMAL;
+        } catch (IndexOutOfBoundsException | BufferUnderflowException e) {
+            return NORMAL;
+        }
+    }
+
+    /**
+     * Returns {@code image} as it should be displayed for {@code orientation}: rotated and/or
+     * mirrored, with width and height swapped for orientations 5 to 8.
+     */
+    static BufferedImage apply(BufferedImage image, int orientation, boolean alpha) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, width);
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+
+        boolean swap = orientation >= 5;
+        BufferedImage target = new BufferedImage(swap ? height : width, swap ? width : height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            // Rotacoes de 90 graus mapeiam pixel a pixel: sem interpolacao
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                    RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
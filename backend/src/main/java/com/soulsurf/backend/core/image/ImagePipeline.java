@@ -0,0 +1,276 @@
+package com.soulsurf.backend.core.image;
+
+import com.soulsurf.backend.core.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns an uploaded photo into its {@link ImageRendition}s.
+ * <p>
+ * The upload is decoded once; each rendition is scaled down from the previous, larger one and
+ * encoded as WebP when an ImageIO WebP encoder is present and works on this platform, otherwise
+ * as JPEG (or PNG when the source has transparency). Work runs on a fixed pool
+ * ({@code image.pipeline.threads}) with a bounded queue ({@code image.pipeline.queue-capacity});
+ * when both are full the upload is refused with {@link ServiceBusyException} rather than piling
+ * decoded bitmaps on the heap. Sources above {@code image.pipeline.max-pixels} are rejected from
+ * the header, before decoding. The EXIF orientation of JPEGs is applied right after decoding,
+ * since the renditions carry no metadata.
+ * <p>
+ * Metrics: {@code image.pipeline.duration}, {@code image.pipeline.rejected} and
+ * {@code image.pipeline.queue.depth}.
+ */
+@Component
+@Slf4j
+public class ImagePipeline {
+
+    private static final List<ImageRendition> LARGEST_FIRST =
+            List.of(ImageRendition.FULL, ImageRendition.FEED, ImageRendition.THUMBNAIL);
+
+    public record EncodedImage(ImageRendition rendition, byte[] bytes, String contentType, String extension) {
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final Duration timeout;
+    private final long maxPixels;
+    private final float quality;
+    private final boolean webp;
+    private final Timer processingTimer;
+    private final Counter rejections;
+
+    public ImagePipeline(@Value("${image.pipeline.threads:2}") int threads,
+                         @Value("${image.pipeline.queue-capacity:8}") int queueCapacity,
+                         @Value("${image.pipeline.timeout-ms:20000}") long timeoutMs,
+                         @Value("${image.pipeline.max-pixels:40000000}") long maxPixels,
+                         @Value("${image.pipeline.quality:0.8}") float quality,
+                         @Value("${image.pipeline.webp-enabled:true}") boolean webpEnabled,
+                         MeterRegistry meterRegistry) {
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxPixels = maxPixels;
+        this.quality = quality;
+
+        AtomicInteger threadSequence = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-pipeline-" + threadSequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.webp = webpEnabled && webpEncoderWorks();
+        log.info("Pipeline de imagens: {} thread(s), fila {}, formato {}", threads, queueCapacity,
+                webp ? "WebP" : "JPEG/PNG");
+
+        this.processingTimer = Timer.builder("image.pipeline.duration").register(meterRegistry);
+        this.rejections = Counter.builder("image.pipeline.rejected").register(meterRegistry);
+        Gauge.builder("image.pipeline.queue.depth", workers, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    public boolean webpEnabled() {
+        return webp;
+    }
+
+    /**
+     * Decodes {@code file} and returns its renditions, largest first.
+     *
+     * @throws IllegalArgumentException when the file is not a decodable image or is too large
+     * @throws ServiceBusyException     when the pool is saturated or processing times out
+     */
+    public List<EncodedImage> process(MultipartFile file) throws IOException {
+        Future<List<EncodedImage>> task;
+        try {
+            task = workers.submit(() -> processingTimer.recordCallable(() -> renditions(file)));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceBusyException("Processamento de imagens ocupado. Tente novamente em instantes.", e);
+        }
+
+        try {
+            return task.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw new ServiceBusyException("Processamento da imagem excedeu o tempo limite.", e);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Processamento da imagem interrompido.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Falha ao processar a imagem.", cause);
+        }
+    }
+
+    private List<EncodedImage> renditions(MultipartFile file) throws IOException {
+        BufferedImage source = decode(file);
+        boolean alpha = source.getColorModel().hasAlpha();
+
+        List<EncodedImage> renditions = new ArrayList<>(LARGEST_FIRST.size());
+        BufferedImage current = source;
+        // Cada variante parte da anterior: o original so e percorrido uma vez
+        for (ImageRendition rendition : LARGEST_FIRST) {
+            current = scale(current, rendition.maxEdge(), alpha);
+            renditions.add(encode(rendition, current, alpha));
+        }
+        return renditions;
+    }
+
+    private BufferedImage decode(MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = imageInput == null ? null : ImageIO.getImageReaders(imageInput);
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("Formato de imagem nao suportado.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                int orientation = "jpeg".equalsIgnoreCase(reader.getFormatName())
+                        ? ExifOrientation.read(imageInput) : ExifOrientation.NORMAL;
+                reader.setInput(imageInput, true, true);
+                // Dimensoes vem do cabecalho: recusa antes de alocar o bitmap
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new IllegalArgumentException("Imagem excede a resolucao maxima permitida.");
+                }
+                BufferedImage decoded = reader.read(0);
+                // Fotos em retrato chegam deitadas com a rotacao no EXIF: endireita antes de reduzir
+                return ExifOrientation.apply(decoded, orientation, decoded.getColorModel().hasAlpha());
+            } catch (IIOException e) {
+                throw new IllegalArgumentException("Imagem invalida ou corrompida.", e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Reducao em passos de no maximo 2x: um unico passo bilinear em fatores grandes serrilha a imagem
+    static BufferedImage scale(BufferedImage source, int maxEdge, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double factor = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * factor));
+        int targetHeight = Math.max(1, (int) Math.round(height * factor));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        if (targetWidth == width && targetHeight == height && source.getType() == type) {
+            return source;
+        }
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            current = draw(current, width, height, type);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, int type) {
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private EncodedImage encode(ImageRendition rendition, BufferedImage image, boolean alpha) throws IOException {
+        if (webp) {
+            return new EncodedImage(rendition, write(image, "webp", true), "image/webp", "webp");
+        }
+        if (alpha) {
+            return new EncodedImage(rendition, write(image, "png", false), "image/png", "png");
+        }
+        return new EncodedImage(rendition, write(image, "jpeg", true), "image/jpeg", "jpg");
+    }
+
+    private byte[] write(BufferedImage image, String formatName, boolean lossy) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext()) {
+            throw new IOException("Nenhum encoder ImageIO para " + formatName);
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (lossy && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0) {
+                    param.setCompressionType(lossyCompressionType(types));
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private static String lossyCompressionType(String[] types) {
+        for (String type : types) {
+            if ("Lossy".equalsIgnoreCase(type)) {
+                return type;
+            }
+        }
+        return types[0];
+    }
+
+    // O plugin WebP usa libwebp nativa: so vale se carregar e codificar de fato nesta plataforma
+    private boolean webpEncoderWorks() {
+        try {
+            return write(new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB), "webp", true).length > 0;
+        } catch (IOException | RuntimeException | LinkageError e) {
+            log.warn("Encoder WebP indisponivel, renditions em JPEG/PNG: {}", e.toString());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.soulsurf.backend.core.image;
+
+/**
+ * Variants produced for every uploaded photo, by the longest edge in pixels. Smaller sources are
+ * never upscaled.
+ */
+public enum ImageRendition {
+    THUMBNAIL(320),
+    FEED(1080),
+    FULL(2048);
+
+    private final int maxEdge;
+
+    ImageRendition(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    public int maxEdge() {
+        return maxEdge;
+    }
+}
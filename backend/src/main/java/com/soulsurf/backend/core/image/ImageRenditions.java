@@ -0,0 +1,8 @@
+package com.soulsurf.backend.core.image;
+
+/**
+ * Public URLs of the stored renditions of one photo. {@code full} takes the place of the original
+ * upload in {@code caminhoFoto}, {@code fotoPerfil} and {@code fotoCapa}.
+ */
+public record ImageRenditions(String thumbnail, String feed, String full) {
+}
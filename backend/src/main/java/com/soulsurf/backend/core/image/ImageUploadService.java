@@ -0,0 +1,39 @@
+package com.soulsurf.backend.core.image;
+
+import com.soulsurf.backend.core.storage.BlobStorageService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Upload path for user photos: runs the {@link ImagePipeline} and stores every rendition in the
+ * bucket. Renditions are content-addressed like any other object, so re-uploading the same photo
+ * resolves to the objects already stored. The original upload itself is not kept.
+ */
+@Service
+@ConditionalOnProperty(name = "feature.blob.enabled", havingValue = "true")
+public class ImageUploadService {
+
+    private final ImagePipeline imagePipeline;
+    private final BlobStorageService storageService;
+
+    public ImageUploadService(ImagePipeline imagePipeline, BlobStorageService storageService) {
+        this.imagePipeline = imagePipeline;
+        this.storageService = storageService;
+    }
+
+    public ImageRenditions upload(MultipartFile file) throws IOException {
+        Map<ImageRendition, String> urls = new EnumMap<>(ImageRendition.class);
+        for (ImagePipeline.EncodedImage image : imagePipeline.process(file)) {
+            urls.put(image.rendition(), storageService.upload(image.bytes(), image.contentType(), image.extension()));
+        }
+        return new ImageRenditions(
+                urls.get(ImageRendition.THUMBNAIL),
+                urls.get(ImageRendition.FEED),
+                urls.get(ImageRendition.FULL));
+    }
+}
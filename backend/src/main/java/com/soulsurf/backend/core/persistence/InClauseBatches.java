@@ -0,0 +1,33 @@
+package com.soulsurf.backend.core.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits values bound to an {@code IN (...)} list into batches a single query can take.
+ * <p>
+ * Oracle rejects {@code IN} lists longer than 1000 elements (ORA-01795); batches of
+ * {@link #MAX_SIZE} stay well below that. Every query that binds an unbounded collection of ids
+ * goes through {@link #partition(Collection)}.
+ */
+public final class InClauseBatches {
+
+    public static final int MAX_SIZE = 500;
+
+    private InClauseBatches() {
+    }
+
+    /**
+     * {@code values} in iteration order, cut into consecutive batches of at most {@link #MAX_SIZE}.
+     * An empty collection gives no batch.
+     */
+    public static <T> List<List<T>> partition(Collection<T> values) {
+        List<T> list = values instanceof List<T> ordered ? ordered : new ArrayList<>(values);
+        List<List<T>> batches = new ArrayList<>((list.size() + MAX_SIZE - 1) / MAX_SIZE);
+        for (int start = 0; start < list.size(); start += MAX_SIZE) {
+            batches.add(list.subList(start, Math.min(start + MAX_SIZE, list.size())));
+        }
+        return batches;
+    }
+}
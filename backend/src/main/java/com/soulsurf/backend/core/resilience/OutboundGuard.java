@@ -0,0 +1,150 @@
+package com.soulsurf.backend.core.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import com.soulsurf.backend.core.http.OutboundHttpClients;
+import okhttp3.OkHttpClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Resilience layer shared by every outbound integration (Open-Meteo, Apolo11, SEMACE,
+ * OpenWeather, Expo, Resend).
+ * <p>
+ * Each integration gets, by name:
+ * <ul>
+ *     <li>its connection pool, timeouts and codec limits from {@link OutboundHttpClients};</li>
+ *     <li>a circuit breaker ({@code resilience4j.circuitbreaker.instances.<name>}) that records
+ *     connection errors, timeouts and 5xx answers;</li>
+ *     <li>a semaphore bulkhead ({@code resilience4j.bulkhead.instances.<name>}) that rejects calls
+ *     beyond the in-flight limit instead of queueing request threads.</li>
+ * </ul>
+ * A WebClient call holds its bulkhead permit until the response body is fully read, and the breaker
+ * records the outcome of the body too: errors or timeouts while reading count as failures, and the
+ * duration covers the whole download. Rejections surface as {@link CallNotPermittedException} /
+ * {@link BulkheadFullException}; callers map them to their own fallback. Breaker state, call latency and bulkhead usage are published
+ * to Micrometer by the Resilience4j auto-configuration.
+ */
+@Component
+public class OutboundGuard {
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final OutboundHttpClients httpClients;
+
+    public OutboundGuard(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+            OutboundHttpClients httpClients) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.httpClients = httpClients;
+    }
+
+    /**
+     * Configures a {@link WebClient.Builder} for {@code integration}: the integration's pooled
+     * connector and codec limits, and breaker + bulkhead around every exchange. Apply it to a
+     * {@code clone()} of a shared builder.
+     */
+    public Consumer<WebClient.Builder> webClient(String integration) {
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(integration);
+        Bulkhead bulkhead = bulkheads.bulkhead(integration);
+        Consumer<WebClient.Builder> transport = httpClients.webClient(integration);
+
+        return builder -> builder
+                .apply(transport)
+                .filter((request, next) -> Mono.defer(() -> {
+                    // O bulkhead fica por fora: chamada rejeitada por lotacao nao conta como falha da integracao
+                    if (!bulkhead.tryAcquirePermission()) {
+                        return Mono.error(BulkheadFullException.createBulkheadFullException(bulkhead));
+                    }
+                    if (!circuitBreaker.tryAcquirePermission()) {
+                        bulkhead.onComplete();
+                        return Mono.error(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+                    }
+                    GuardedExchange guarded = new GuardedExchange(circuitBreaker, bulkhead);
+                    return next.exchange(request)
+                            .flatMap(response -> response.statusCode().is5xxServerError()
+                                    ? response.createException().flatMap(Mono::error)
+                                    // Permissao e resultado so fecham quando o corpo termina
+                                    : Mono.just(response.mutate()
+                                            .body(body -> body
+                                                    .doOnComplete(guarded::succeeded)
+                                                    .doOnError(guarded::failed)
+                                                    .doOnCancel(guarded::cancelled))
+                                            .build()))
+                            .doOnError(guarded::failed)
+                            .doOnCancel(guarded::cancelled);
+                }));
+    }
+
+    /**
+     * Pooled OkHttp client of {@code integration}. Wrap its calls in {@link #call(String, Supplier)}.
+     */
+    public OkHttpClient okHttpClient(String integration) {
+        return httpClients.okHttpClient(integration);
+    }
+
+    /**
+     * Runs a blocking call of {@code integration} through its bulkhead and circuit breaker.
+     */
+    public <T> T call(String integration, Supplier<T> call) {
+        Supplier<T> guarded = CircuitBreaker.decorateSupplier(circuitBreakers.circuitBreaker(integration), call);
+        return Bulkhead.decorateSupplier(bulkheads.bulkhead(integration), guarded).get();
+    }
+
+    /**
+     * One WebClient call holding a breaker and a bulkhead permission; the first terminal signal
+     * (headers error, body end, body error or cancellation) releases both.
+     */
+    private static final class GuardedExchange {
+        private final CircuitBreaker circuitBreaker;
+        private final Bulkhead bulkhead;
+        private final long start;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private GuardedExchange(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+            this.circuitBreaker = circuitBreaker;
+            this.bulkhead = bulkhead;
+            this.start = circuitBreaker.getCurrentTimestamp();
+        }
+
+        void succeeded() {
+            if (finished.compareAndSet(false, true)) {
+                circuitBreaker.onSuccess(elapsed(), circuitBreaker.getTimestampUnit());
+                bulkhead.onComplete();
+            }
+        }
+
+        void failed(Throwable error) {
+            if (finished.compareAndSet(false, true)) {
+                circuitBreaker.onError(elapsed(), circuitBreaker.getTimestampUnit(), error);
+                bulkhead.onComplete();
+            }
+        }
+
+        // Cancelamento antes do fim do corpo vem dos timeouts de quem chama: conta como falha
+        void cancelled() {
+            failed(new CancellationException("Chamada cancelada antes do fim da resposta"));
+        }
+
+        private long elapsed() {
+            return circuitBreaker.getCurrentTimestamp() - start;
+        }
+    }
+
+    /**
+     * Whether {@code error} means the call was not even attempted (open breaker or full bulkhead).
+     */
+    public static boolean isRejected(Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException;
+    }
+}
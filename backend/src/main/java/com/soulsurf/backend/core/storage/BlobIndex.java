@@ -0,0 +1,100 @@
+package com.soulsurf.backend.core.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Local index of the objects in the bucket ({@code stored_blobs}): digest to object name for
+ * content-addressed uploads, and the source of file listings so they do not call OCI.
+ * <p>
+ * Entries are written in their own transaction: an upload usually happens inside the caller's
+ * transaction (creating a post, updating a profile) and a lost race on a key must not roll that
+ * back.
+ */
+@Component
+@ConditionalOnProperty(name = "feature.blob.enabled", havingValue = "true")
+@Slf4j
+public class BlobIndex {
+
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BlobIndex(StoredBlobRepository storedBlobRepository, PlatformTransactionManager transactionManager) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<String> objectName(String digest) {
+        return storedBlobRepository.findByDigest(digest).map(StoredBlob::getObjectName);
+    }
+
+    public void record(String digest, String objectName, String contentType, long sizeBytes) {
+        insert(blob(objectName, digest, contentType, sizeBytes, LocalDateTime.now()));
+    }
+
+    /**
+     * Up to {@code limit} entries whose name starts with {@code prefix}, in name order, after
+     * {@code startAfter} (exclusive) when given.
+     */
+    public List<StoredBlob> page(String prefix, String startAfter, int limit) {
+        // No Oracle '' e NULL: sem cursor a comparacao por nome nao pode entrar na consulta
+        if (startAfter == null || startAfter.isEmpty()) {
+            return storedBlobRepository.findByObjectNameStartingWithOrderByObjectNameAsc(prefix, Limit.of(limit));
+        }
+        return storedBlobRepository.findByObjectNameStartingWithAndObjectNameGreaterThanOrderByObjectNameAsc(
+                prefix, startAfter, Limit.of(limit));
+    }
+
+    /**
+     * Adds the objects not indexed yet, without a digest, and returns how many were added.
+     */
+    public int addMissing(Collection<StoredBlob> objects) {
+        Set<String> indexed = storedBlobRepository.findAllById(objects.stream().map(StoredBlob::getObjectName).toList())
+                .stream()
+                .map(StoredBlob::getObjectName)
+                .collect(Collectors.toSet());
+        int added = 0;
+        for (StoredBlob object : objects) {
+            if (!indexed.contains(object.getObjectName()) && insert(object)) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    static StoredBlob blob(String objectName, String digest, String contentType, long sizeBytes,
+                           LocalDateTime createdAt) {
+        StoredBlob blob = new StoredBlob();
+        blob.setObjectName(objectName);
+        blob.setDigest(digest);
+        blob.setContentType(contentType);
+        blob.setSizeBytes(sizeBytes);
+        blob.setCreatedAt(createdAt);
+        return blob;
+    }
+
+    private boolean insert(StoredBlob blob) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> storedBlobRepository.saveAndFlush(blob));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Upload concorrente do mesmo conteudo (ou sincronizacao): a outra linha basta
+            log.debug("Objeto {} ja indexado", blob.getObjectName());
+            return false;
+        }
+    }
+}
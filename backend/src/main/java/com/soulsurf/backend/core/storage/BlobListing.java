@@ -0,0 +1,10 @@
+package com.soulsurf.backend.core.storage;
+
+import java.util.List;
+
+/**
+ * One page of {@link BlobStorage#list}. {@code nextStartWith} is the name to pass as
+ * {@code start} for the next page ({@code null} on the last one).
+ */
+public record BlobListing(List<BlobObject> objects, String nextStartWith) {
+}
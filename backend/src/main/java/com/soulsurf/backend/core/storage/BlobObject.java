@@ -0,0 +1,10 @@
+package com.soulsurf.backend.core.storage;
+
+import java.time.Instant;
+
+/**
+ * An object as seen by {@link BlobStorage#list}. {@code createdAt} may be null when the backend
+ * does not report it.
+ */
+public record BlobObject(String name, long size, Instant createdAt) {
+}
@@ -0,0 +1,119 @@
+package com.soulsurf.backend.core.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Byte store behind {@link BlobStorageService}, selected by {@code storage.backend}:
+ * {@link OciBlobStorage} ({@code oci}, the default), {@link LocalBlobStorage} ({@code local}, a
+ * directory on disk for development and load tests) and {@link InMemoryBlobStorage}
+ * ({@code memory}, for tests).
+ * <p>
+ * Object names are {@code /}-separated paths: not empty, not starting with {@code /}, no empty,
+ * {@code .} or {@code ..} segment and no segment starting with a dot. Listings are ordered by
+ * name. All implementations are checked by the same contract suite
+ * ({@code BlobStorageContractTest}).
+ */
+public interface BlobStorage {
+
+    int MAX_NAME_LENGTH = 1024;
+
+    /**
+     * Stores exactly {@code contentLength} bytes of {@code body} as {@code objectName}, replacing
+     * any previous object with that name. A body shorter than {@code contentLength} fails the
+     * upload and leaves no partial object.
+     */
+    void put(String objectName, InputStream body, long contentLength, String contentType) throws IOException;
+
+    /**
+     * Stores the content of {@code source}. Implementations that can move bytes file-to-file
+     * without copying them through the heap override this.
+     */
+    default void put(String objectName, Path source, String contentType) throws IOException {
+        try (InputStream body = Files.newInputStream(source)) {
+            put(objectName, body, Files.size(source), contentType);
+        }
+    }
+
+    /**
+     * Opens the object for reading; the caller closes the stream.
+     *
+     * @throws NoSuchFileException when there is no object with that name
+     */
+    InputStream open(String objectName) throws IOException;
+
+    boolean exists(String objectName) throws IOException;
+
+    /**
+     * Name, size and creation time of the object, without reading its content.
+     *
+     * @throws NoSuchFileException when there is no object with that name
+     */
+    BlobObject stat(String objectName) throws IOException;
+
+    /**
+     * The first {@code maxBytes} bytes of the object (fewer if it is shorter), e.g. to check its
+     * file signature. Implementations that can ask for a byte range override this.
+     */
+    default byte[] readHead(String objectName, int maxBytes) throws IOException {
+        try (InputStream body = open(objectName)) {
+            return body.readNBytes(maxBytes);
+        }
+    }
+
+    /** Removes the object; removing a missing object is not an error. */
+    void delete(String objectName) throws IOException;
+
+    /**
+     * Up to {@code limit} objects whose name starts with {@code prefix}, from {@code start}
+     * (inclusive, {@code null} for the beginning) in name order.
+     */
+    BlobListing list(String prefix, String start, int limit) throws IOException;
+
+    /** Public URL clients use to download the object. */
+    String url(String objectName);
+
+    /**
+     * Whether {@link #uploadUrl} is available, i.e. clients can send bytes straight to the backend.
+     * Check this before offering a direct upload.
+     */
+    default boolean supportsDirectUploads() {
+        return false;
+    }
+
+    /**
+     * URL a client can {@code PUT} exactly {@code contentLength} bytes to, creating
+     * {@code objectName} without the bytes passing through the app; valid until
+     * {@code expiresAt} or until revoked with {@link #revokeUploadUrl}.
+     *
+     * @throws UnsupportedOperationException when {@link #supportsDirectUploads()} is {@code false}
+     */
+    default UploadUrl uploadUrl(String objectName, long contentLength, Instant expiresAt) throws IOException {
+        throw new UnsupportedOperationException("Backend de storage sem upload direto");
+    }
+
+    /**
+     * Withdraws write access granted by the {@link #uploadUrl} with this {@link UploadUrl#id()}
+     * before it expires. A {@code null} id, or an URL that expired or was already revoked, is not
+     * an error.
+     */
+    default void revokeUploadUrl(String uploadUrlId) throws IOException {
+    }
+
+    static String requireValidName(String objectName) {
+        if (objectName == null || objectName.isEmpty() || objectName.length() > MAX_NAME_LENGTH
+                || objectName.startsWith("/") || objectName.indexOf('\\') >= 0) {
+            throw new IllegalArgumentException("Nome de objeto invalido: " + objectName);
+        }
+        for (String segment : objectName.split("/", -1)) {
+            if (segment.isEmpty() || segment.startsWith(".")) {
+                throw new IllegalArgumentException("Nome de objeto invalido: " + objectName);
+            }
+        }
+        return objectName;
+    }
+}
@@ -0,0 +1,237 @@
+package com.soulsurf.backend.core.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Uploads to and lists the configured {@link BlobStorage} (OCI bucket, local directory or memory,
+ * see {@code storage.backend}).
+ * <p>
+ * Objects are content-addressed: the name is the SHA-256 of the bytes plus the extension of the
+ * first upload ({@code 3f2a...c9.webp}). The digest is computed while the upload is spooled and
+ * looked up in the {@link BlobIndex}; content that is already stored is not sent again and the
+ * existing URL is returned. Metrics: {@code storage.uploads} (tag {@code result}: stored,
+ * deduplicated) and {@code storage.uploads.bytes.saved}.
+ * <p>
+ * Listings are served from the same index, by name with a {@code startAfter} cursor; a periodic
+ * sync ({@code oci.storage.index.sync-interval-ms}) pages through the storage and adds objects
+ * the index does not know yet.
+ */
+@Service
+@ConditionalOnProperty(name = "feature.blob.enabled", havingValue = "true")
+@Slf4j
+public class BlobStorageService {
+
+    // Maximo por pagina do ListObjects da OCI
+    private static final int LIST_BATCH_SIZE = 1000;
+
+    private final BlobStorage blobStorage;
+    private final BlobIndex blobIndex;
+    private final Counter storedUploads;
+    private final Counter deduplicatedUploads;
+    private final Counter bytesSaved;
+
+    public BlobStorageService(BlobStorage blobStorage, BlobIndex blobIndex, MeterRegistry meterRegistry) {
+        this.blobStorage = blobStorage;
+        this.blobIndex = blobIndex;
+        this.storedUploads = Counter.builder("storage.uploads").tag("result", "stored").register(meterRegistry);
+        this.deduplicatedUploads = Counter.builder("storage.uploads").tag("result", "deduplicated")
+                .register(meterRegistry);
+        this.bytesSaved = Counter.builder("storage.uploads.bytes.saved").baseUnit("bytes").register(meterRegistry);
+    }
+
+    public String uploadFile(MultipartFile file) throws IOException {
+        String extension = extensionOf(sanitizeFilename(file.getOriginalFilename()));
+
+        // Copia o multipart para um arquivo proprio calculando o SHA-256 na mesma passada; o
+        // backend le do arquivo (em partes na OCI, por transferFrom no disco local), sem trazer
+        // o conteudo para o heap
+        Path spoolFile = Files.createTempFile("blob-upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            try (InputStream input = new DigestInputStream(file.getInputStream(), sha256)) {
+                Files.copy(input, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String digest = HexFormat.of().formatHex(sha256.digest());
+            return store(digest, extension, Files.size(spoolFile), file.getContentType(),
+                    objectName -> blobStorage.put(objectName, spoolFile, file.getContentType()));
+        } finally {
+            Files.deleteIfExists(spoolFile);
+        }
+    }
+
+    /**
+     * Stores {@code content} under its digest and returns the public URL; identical content
+     * uploaded before resolves to the existing object without a PUT.
+     *
+     * @param extension file extension without the dot, e.g. {@code webp}
+     */
+    public String upload(byte[] content, String contentType, String extension) throws IOException {
+        String digest = HexFormat.of().formatHex(sha256().digest(content));
+        return store(digest, "." + extension.toLowerCase(Locale.ROOT), content.length, contentType,
+                objectName -> blobStorage.put(objectName, new ByteArrayInputStream(content), content.length,
+                        contentType));
+    }
+
+    private String store(String digest, String extension, long contentLength, String contentType,
+                         Upload upload) throws IOException {
+        Optional<String> existing = blobIndex.objectName(digest);
+        if (existing.isPresent()) {
+            deduplicatedUploads.increment();
+            bytesSaved.increment(contentLength);
+            return blobStorage.url(existing.get());
+        }
+
+        // Sobrescrever e seguro: mesmo nome implica mesmos bytes
+        String objectName = digest + extension;
+        upload.to(objectName);
+
+        // So indexa depois do PUT: uma entrada nunca aponta para um objeto que nao existe
+        blobIndex.record(digest, objectName, contentType, contentLength);
+        storedUploads.increment();
+        return blobStorage.url(objectName);
+    }
+
+    /**
+     * A page of the listing, answered from the local {@link BlobIndex} without calling the storage.
+     * Pass the returned {@link StoredFilePage#nextStartAfter()} as {@code startAfter} to continue.
+     */
+    public StoredFilePage listFiles(String prefix, String startAfter, int limit) {
+        List<StoredBlob> rows = blobIndex.page(prefix, startAfter, limit + 1);
+        // Uma linha a mais so para saber se existe proxima pagina
+        List<StoredFile> items = rows.stream().limit(limit).map(this::toStoredFile).toList();
+        String nextStartAfter = rows.size() > limit ? items.get(items.size() - 1).name() : null;
+        return new StoredFilePage(items, nextStartAfter);
+    }
+
+    /**
+     * Hands every indexed file matching {@code prefix} (after {@code startAfter}) to
+     * {@code action}, reading the index in batches so the listing is never held in memory.
+     */
+    public void forEachFile(String prefix, String startAfter, Consumer<StoredFile> action) {
+        String cursor = startAfter;
+        List<StoredBlob> batch;
+        do {
+            batch = blobIndex.page(prefix, cursor, LIST_BATCH_SIZE);
+            for (StoredBlob row : batch) {
+                action.accept(toStoredFile(row));
+            }
+            cursor = batch.isEmpty() ? cursor : batch.get(batch.size() - 1).getObjectName();
+        } while (batch.size() == LIST_BATCH_SIZE);
+    }
+
+    @Scheduled(
+            initialDelayString = "${oci.storage.index.sync-initial-delay-ms:60000}",
+            fixedDelayString = "${oci.storage.index.sync-interval-ms:21600000}"
+    )
+    void syncIndex() {
+        try {
+            int added = syncIndexFromStorage();
+            if (added > 0) {
+                log.info("Indice do storage: {} objeto(s) adicionados pela sincronizacao", added);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha ao sincronizar o indice do storage: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Walks the whole storage page by page ({@code nextStartWith}) and indexes objects that are
+     * missing locally, e.g. uploaded before the index existed. Returns how many were added.
+     */
+    int syncIndexFromStorage() throws IOException {
+        int added = 0;
+        String start = null;
+        do {
+            BlobListing page = blobStorage.list("", start, LIST_BATCH_SIZE);
+
+            List<StoredBlob> objects = new ArrayList<>(page.objects().size());
+            for (BlobObject object : page.objects()) {
+                LocalDateTime createdAt = object.createdAt() == null
+                        ? LocalDateTime.now()
+                        : LocalDateTime.ofInstant(object.createdAt(), ZoneId.systemDefault());
+                objects.add(BlobIndex.blob(object.name(), null, null, object.size(), createdAt));
+            }
+            added += blobIndex.addMissing(objects);
+            start = page.nextStartWith();
+        } while (start != null);
+        return added;
+    }
+
+    private StoredFile toStoredFile(StoredBlob row) {
+        return new StoredFile(row.getObjectName(), blobStorage.url(row.getObjectName()), row.getSizeBytes(),
+                row.getContentType(), row.getCreatedAt());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponivel", e);
+        }
+    }
+
+    private static String extensionOf(String filename) {
+        int dotIndex = filename.lastIndexOf('.');
+        if (dotIndex > 0 && dotIndex < filename.length() - 1 && filename.length() - dotIndex <= 10) {
+            return filename.substring(dotIndex).toLowerCase(Locale.ROOT);
+        }
+        return "";
+    }
+
+    private String sanitizeFilename(String originalFilename) {
+        String candidate = originalFilename == null ? "upload.bin" : originalFilename.trim();
+        candidate = candidate.replace("\\", "/");
+        int lastSlash = candidate.lastIndexOf('/');
+        if (lastSlash >= 0) {
+            candidate = candidate.substring(lastSlash + 1);
+        }
+
+        candidate = candidate.replaceAll("[^a-zA-Z0-9._-]", "_");
+        candidate = candidate.replaceAll("_+", "_");
+
+        if (candidate.isBlank()) {
+            candidate = "upload.bin";
+        }
+
+        if (candidate.length() > 120) {
+            String extension = "";
+            int dotIndex = candidate.lastIndexOf('.');
+            if (dotIndex > 0 && dotIndex < candidate.length() - 1) {
+                extension = candidate.substring(dotIndex).toLowerCase(Locale.ROOT);
+                candidate = candidate.substring(0, dotIndex);
+            }
+            candidate = candidate.substring(0, Math.min(candidate.length(), 110)) + extension;
+        }
+
+        return candidate;
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        void to(String objectName) throws IOException;
+    }
+}
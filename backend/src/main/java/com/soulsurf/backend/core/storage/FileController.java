@@ -1,16 +1,25 @@
 package com.soulsurf.backend.core.storage;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soulsurf.backend.core.exception.ServiceBusyException;
+import com.soulsurf.backend.core.image.ImageRenditions;
+import com.soulsurf.backend.core.image.ImageUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
@@ -22,27 +31,37 @@ import java.util.Set;
 public class FileController {
 
     private static final long MAX_UPLOAD_SIZE_BYTES = 10L * 1024L * 1024L;
+    private static final int MAX_PAGE_SIZE = 1000;
     private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of(
             "image/jpeg",
             "image/png",
             "image/webp");
 
-    private final Optional<OracleStorageService> blobStorageService;
+    private final Optional<BlobStorageService> blobStorageService;
+    private final Optional<ImageUploadService> imageUploadService;
+    private final Optional<UploadIntentService> uploadIntentService;
+    private final ObjectMapper objectMapper;
 
-    public FileController(Optional<OracleStorageService> blobStorageService) {
+    public FileController(Optional<BlobStorageService> blobStorageService,
+            Optional<ImageUploadService> imageUploadService,
+            Optional<UploadIntentService> uploadIntentService,
+            ObjectMapper objectMapper) {
         this.blobStorageService = blobStorageService;
+        this.imageUploadService = imageUploadService;
+        this.uploadIntentService = uploadIntentService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(
             summary = "Faz o upload de um ficheiro",
             description = "Envia um ficheiro para o armazenamento na nuvem (OCI Object Storage). Requer autenticacao JWT e o Content-Type deve ser multipart/form-data.",
             security = @SecurityRequirement(name = "bearerAuth"))
-    @ApiResponse(responseCode = "200", description = "Ficheiro enviado com sucesso, retorna a URL publica")
+    @ApiResponse(responseCode = "200", description = "Ficheiro enviado com sucesso, retorna a URL publica e as variantes thumbnail/feed")
     @ApiResponse(responseCode = "400", description = "Ficheiro invalido")
     @ApiResponse(responseCode = "503", description = "Servico de armazenamento indisponivel")
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
-        if (blobStorageService.isEmpty()) {
+        if (imageUploadService.isEmpty()) {
             return ResponseEntity.status(503).body(Map.of("message", "Servico de upload indisponivel."));
         }
 
@@ -67,25 +86,92 @@ public class FileController {
         }
 
         try {
-            String url = blobStorageService.get().uploadFile(file);
-            return ResponseEntity.ok(Map.of("url", url));
+            ImageRenditions renditions = imageUploadService.get().upload(file);
+            return ResponseEntity.ok(Map.of(
+                    "url", renditions.full(),
+                    "thumbnail", renditions.thumbnail(),
+                    "feed", renditions.feed()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(500).body(Map.of("message", "Erro no upload do ficheiro."));
         }
     }
 
     @Operation(
-            summary = "Lista todos os ficheiros",
-            description = "Retorna uma lista de URLs para todos os ficheiros armazenados. Requer autenticacao JWT.",
+            summary = "Inicia um upload direto",
+            description = "Retorna uma URL de curta duracao para enviar o ficheiro direto ao armazenamento (PUT com os headers indicados), sem passar pela API. Depois do envio, confirme em /upload-intents/{id}/confirm. Requer autenticacao JWT.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "URL de upload emitida")
+    @ApiResponse(responseCode = "400", description = "Tipo ou tamanho de ficheiro invalido")
+    @ApiResponse(responseCode = "503", description = "Upload direto indisponivel")
+    @PostMapping("/upload-intents")
+    public ResponseEntity<?> createUploadIntent(@Valid @RequestBody UploadIntentRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        if (uploadIntentService.isEmpty()) {
+            return ResponseEntity.status(503).body(Map.of("message", "Servico de upload indisponivel."));
+        }
+        if (!uploadIntentService.get().supportsDirectUploads()) {
+            return ResponseEntity.status(503).body(Map.of("message", "Upload direto indisponivel neste ambiente."));
+        }
+        return ResponseEntity.ok(uploadIntentService.get()
+                .create(userDetails.getUsername(), request.contentType(), request.size()));
+    }
+
+    @Operation(
+            summary = "Confirma um upload direto",
+            description = "Confere tamanho e tipo do ficheiro enviado pela URL do upload direto e o registra. Ficheiros que nao correspondem ao declarado sao removidos. Requer autenticacao JWT.",
             security = @SecurityRequirement(name = "bearerAuth"))
-    @ApiResponse(responseCode = "200", description = "Lista de URLs retornada com sucesso")
-    @GetMapping("/list")
-    public ResponseEntity<List<String>> listFiles() {
+    @ApiResponse(responseCode = "200", description = "Upload confirmado, retorna o ficheiro com a URL publica")
+    @ApiResponse(responseCode = "400", description = "Upload inexistente, expirado, ainda nao enviado ou diferente do declarado")
+    @ApiResponse(responseCode = "403", description = "Upload iniciado por outro usuario")
+    @PostMapping("/upload-intents/{id}/confirm")
+    public ResponseEntity<?> confirmUploadIntent(@PathVariable String id,
+            @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        if (uploadIntentService.isEmpty()) {
+            return ResponseEntity.status(503).body(Map.of("message", "Servico de upload indisponivel."));
+        }
+        return ResponseEntity.ok(uploadIntentService.get().confirm(userDetails.getUsername(), id));
+    }
+
+    @Operation(
+            summary = "Lista os ficheiros",
+            description = "Retorna uma pagina de ficheiros ordenada por nome, filtrada por prefixo. Para a proxima pagina, envie nextStartAfter como startAfter. Com Accept: application/x-ndjson retorna todos os ficheiros a partir do cursor, um JSON por linha. Requer autenticacao JWT.",
+            security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Pagina de ficheiros retornada com sucesso")
+    @GetMapping(value = "/list", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StoredFilePage> listFiles(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) String startAfter,
+            @RequestParam(defaultValue = "100") int limit) {
         if (blobStorageService.isEmpty()) {
-            return ResponseEntity.ok(Collections.emptyList());
+            return ResponseEntity.ok(new StoredFilePage(Collections.emptyList(), null));
         }
 
-        List<String> files = blobStorageService.get().listFiles();
-        return ResponseEntity.ok(files);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(blobStorageService.get().listFiles(prefix, startAfter, pageSize));
+    }
+
+    @GetMapping(value = "/list", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFiles(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(required = false) String startAfter) {
+        StreamingResponseBody body = output -> {
+            if (blobStorageService.isEmpty()) {
+                return;
+            }
+            // Escreve linha a linha conforme os lotes saem do indice; nada fica acumulado
+            blobStorageService.get().forEachFile(prefix, startAfter, file -> {
+                try {
+                    output.write(objectMapper.writeValueAsBytes(file));
+                    output.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 }
@@ -0,0 +1,100 @@
+package com.soulsurf.backend.core.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * {@link BlobStorage} kept in a sorted map, for tests. Contents live on the heap, so it is only
+ * meant for small objects; there is no endpoint behind it, so it does not issue upload URLs.
+ */
+public class InMemoryBlobStorage implements BlobStorage {
+
+    private record Entry(byte[] content, String contentType, Instant createdAt) {
+    }
+
+    private final ConcurrentSkipListMap<String, Entry> objects = new ConcurrentSkipListMap<>();
+    private final String baseUrl;
+
+    public InMemoryBlobStorage(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    @Override
+    public void put(String objectName, InputStream body, long contentLength, String contentType) throws IOException {
+        BlobStorage.requireValidName(objectName);
+        if (contentLength > Integer.MAX_VALUE - 8) {
+            throw new IOException("Objeto grande demais para o storage em memoria: " + contentLength + " bytes");
+        }
+        byte[] content = body.readNBytes((int) contentLength);
+        if (content.length < contentLength) {
+            throw new IOException("Conteudo terminou em " + content.length + " de " + contentLength + " bytes");
+        }
+        objects.put(objectName, new Entry(content, contentType, Instant.now()));
+    }
+
+    @Override
+    public InputStream open(String objectName) throws IOException {
+        Entry entry = objects.get(BlobStorage.requireValidName(objectName));
+        if (entry == null) {
+            throw new NoSuchFileException(objectName);
+        }
+        return new ByteArrayInputStream(entry.content());
+    }
+
+    @Override
+    public boolean exists(String objectName) {
+        return objects.containsKey(BlobStorage.requireValidName(objectName));
+    }
+
+    @Override
+    public BlobObject stat(String objectName) throws IOException {
+        Entry entry = objects.get(BlobStorage.requireValidName(objectName));
+        if (entry == null) {
+            throw new NoSuchFileException(objectName);
+        }
+        return new BlobObject(objectName, entry.content().length, entry.createdAt());
+    }
+
+    @Override
+    public void delete(String objectName) {
+        objects.remove(BlobStorage.requireValidName(objectName));
+    }
+
+    @Override
+    public BlobListing list(String prefix, String start, int limit) {
+        String effectivePrefix = prefix == null ? "" : prefix;
+        String from = start == null || start.compareTo(effectivePrefix) < 0 ? effectivePrefix : start;
+        NavigableMap<String, Entry> tail = objects.tailMap(from, true);
+
+        List<BlobObject> page = new ArrayList<>(Math.min(limit, 256));
+        for (Map.Entry<String, Entry> object : tail.entrySet()) {
+            if (!object.getKey().startsWith(effectivePrefix)) {
+                break;
+            }
+            if (page.size() == limit) {
+                return new BlobListing(page, object.getKey());
+            }
+            page.add(new BlobObject(object.getKey(), object.getValue().content().length, object.getValue().createdAt()));
+        }
+        return new BlobListing(page, null);
+    }
+
+    @Override
+    public String url(String objectName) {
+        return baseUrl + objectName;
+    }
+
+    /** Content type the object was stored with, or {@code null} when there is no such object. */
+    public String contentType(String objectName) {
+        Entry entry = objects.get(objectName);
+        return entry == null ? null : entry.contentType();
+    }
+}
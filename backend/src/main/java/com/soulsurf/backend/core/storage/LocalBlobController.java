@@ -0,0 +1,79 @@
+package com.soulsurf.backend.core.storage;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
+import java.time.Instant;
+
+/**
+ * Serves the objects of the {@code local} storage backend under {@code storage.local.base-url},
+ * standing in for the public bucket URLs during development, and receives the direct uploads
+ * signed by {@link LocalBlobStorage#uploadUrl} in place of OCI pre-authenticated requests. A
+ * signature cannot be revoked, so an upload is only taken while its intent is pending and only
+ * once: after confirmation (or rejection) the same URL cannot replace the object.
+ */
+@RestController
+@Hidden
+@ConditionalOnExpression("${feature.blob.enabled:false} and '${storage.backend:oci}' == 'local'")
+public class LocalBlobController {
+
+    private final LocalBlobStorage blobStorage;
+    private final UploadIntentRepository uploadIntentRepository;
+
+    public LocalBlobController(LocalBlobStorage blobStorage, UploadIntentRepository uploadIntentRepository) {
+        this.blobStorage = blobStorage;
+        this.uploadIntentRepository = uploadIntentRepository;
+    }
+
+    @GetMapping("/blobs/{*objectName}")
+    public ResponseEntity<InputStreamResource> download(@PathVariable String objectName) throws IOException {
+        String name = stripLeadingSlash(objectName);
+        try {
+            MediaType mediaType = MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .body(new InputStreamResource(blobStorage.open(name)));
+        } catch (NoSuchFileException | IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/blobs/{*objectName}")
+    public ResponseEntity<Void> upload(@PathVariable String objectName,
+                                       @RequestParam long length,
+                                       @RequestParam long expires,
+                                       @RequestParam String signature,
+                                       HttpServletRequest request) throws IOException {
+        String name = stripLeadingSlash(objectName);
+        // A assinatura cobre nome, tamanho e validade; o corpo tem de ter exatamente o tamanho assinado
+        if (request.getContentLengthLong() != length
+                || !blobStorage.acceptsUpload(name, length, expires, signature, Instant.now())
+                || !uploadIntentRepository.existsByObjectName(name)) {
+            return ResponseEntity.status(403).build();
+        }
+        try {
+            blobStorage.putNew(name, request.getInputStream(), length);
+        } catch (FileAlreadyExistsException e) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+    // {*objectName} captura com a barra inicial
+    private static String stripLeadingSlash(String objectName) {
+        return objectName.startsWith("/") ? objectName.substring(1) : objectName;
+    }
+}
@@ -0,0 +1,296 @@
+package com.soulsurf.backend.core.storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * {@link BlobStorage} on a local directory ({@code storage.local.root}), for development and for
+ * upload throughput tests without OCI credentials.
+ * <p>
+ * Writes go to a hidden temporary file next to the target and are moved into place atomically,
+ * so readers never see a partial object. File sources are copied with
+ * {@link FileChannel#transferFrom}, which the OS can do without passing the bytes through the
+ * JVM; reads are memory-mapped in windows of {@value #READ_WINDOW_BYTES} bytes. Downloads are
+ * served under {@code storage.local.base-url} by {@link LocalBlobController}.
+ * <p>
+ * Upload URLs stand in for OCI pre-authenticated requests: a {@code PUT} to the object URL with
+ * the length and expiry signed by HMAC-SHA256 ({@code storage.local.upload-secret}, random per
+ * process when empty). A signature cannot be withdrawn, so those uploads are write-once
+ * ({@link #putNew}) and {@link LocalBlobController} only takes them while the upload intent is
+ * pending.
+ */
+public class LocalBlobStorage implements BlobStorage {
+
+    static final long READ_WINDOW_BYTES = 64L * 1024 * 1024;
+    private static final String TEMP_PREFIX = ".put-";
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    private final Path root;
+    private final String baseUrl;
+    private final SecretKeySpec uploadKey;
+
+    public LocalBlobStorage(Path root, String baseUrl) throws IOException {
+        this(root, baseUrl, "");
+    }
+
+    public LocalBlobStorage(Path root, String baseUrl, String uploadSecret) throws IOException {
+        this.root = Files.createDirectories(root).toRealPath();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        byte[] key = new byte[32];
+        if (uploadSecret == null || uploadSecret.isBlank()) {
+            // Sem segredo configurado as URLs so valem para esta instancia
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = uploadSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.uploadKey = new SecretKeySpec(key, SIGNATURE_ALGORITHM);
+    }
+
+    @Override
+    public void put(String objectName, InputStream body, long contentLength, String contentType) throws IOException {
+        write(objectName, contentLength, Channels.newChannel(body), true);
+    }
+
+    /**
+     * Like {@link #put(String, InputStream, long, String)}, but only creates the object.
+     *
+     * @throws FileAlreadyExistsException when {@code objectName} already exists
+     */
+    void putNew(String objectName, InputStream body, long contentLength) throws IOException {
+        write(objectName, contentLength, Channels.newChannel(body), false);
+    }
+
+    @Override
+    public void put(String objectName, Path source, String contentType) throws IOException {
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ)) {
+            write(objectName, input.size(), input, true);
+        }
+    }
+
+    private void write(String objectName, long contentLength, ReadableByteChannel input, boolean replace)
+            throws IOException {
+        Path target = resolve(objectName);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+        try {
+            try (FileChannel output = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < contentLength) {
+                    long transferred = output.transferFrom(input, position, contentLength - position);
+                    if (transferred <= 0) {
+                        throw new IOException("Conteudo terminou em " + position + " de " + contentLength + " bytes");
+                    }
+                    position += transferred;
+                }
+            }
+            if (replace) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                // O link falha atomicamente se o alvo ja existe; o move sobrescreveria no Linux
+                Files.createLink(target, temp);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream open(String objectName) throws IOException {
+        Path path = resolve(objectName);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(objectName);
+        }
+        return new MappedInputStream(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    @Override
+    public boolean exists(String objectName) {
+        return Files.isRegularFile(resolve(objectName));
+    }
+
+    @Override
+    public BlobObject stat(String objectName) throws IOException {
+        Path path = resolve(objectName);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(objectName);
+        }
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new BlobObject(objectName, attributes.size(), attributes.creationTime().toInstant());
+    }
+
+    @Override
+    public void delete(String objectName) throws IOException {
+        Files.deleteIfExists(resolve(objectName));
+    }
+
+    @Override
+    public BlobListing list(String prefix, String start, int limit) throws IOException {
+        String effectivePrefix = prefix == null ? "" : prefix;
+        List<BlobObject> objects = new ArrayList<>(limit);
+        String nextStartWith = null;
+        // Pensado para desenvolvimento: percorre a arvore e ordena os nomes a cada chamada
+        try (Stream<Path> files = Files.walk(root)) {
+            List<String> names = files
+                    .filter(Files::isRegularFile)
+                    .map(this::objectName)
+                    .filter(name -> name.startsWith(effectivePrefix) && !hidden(name))
+                    .filter(name -> start == null || name.compareTo(start) >= 0)
+                    .sorted()
+                    .limit(limit + 1L)
+                    .toList();
+            for (String name : names) {
+                if (objects.size() == limit) {
+                    nextStartWith = name;
+                    break;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(root.resolve(name), BasicFileAttributes.class);
+                objects.add(new BlobObject(name, attributes.size(), attributes.creationTime().toInstant()));
+            }
+        }
+        return new BlobListing(objects, nextStartWith);
+    }
+
+    @Override
+    public String url(String objectName) {
+        return baseUrl + objectName;
+    }
+
+    @Override
+    public boolean supportsDirectUploads() {
+        return true;
+    }
+
+    @Override
+    public UploadUrl uploadUrl(String objectName, long contentLength, Instant expiresAt) {
+        BlobStorage.requireValidName(objectName);
+        long expires = expiresAt.getEpochSecond();
+        return new UploadUrl(baseUrl + objectName + "?length=" + contentLength + "&expires=" + expires
+                + "&signature=" + sign(objectName, contentLength, expires), null);
+    }
+
+    /**
+     * Whether a {@code PUT} carries the signature issued by {@link #uploadUrl} for exactly this
+     * name and length and has not expired at {@code now}.
+     */
+    boolean acceptsUpload(String objectName, long contentLength, long expires, String signature, Instant now) {
+        if (signature == null || now.getEpochSecond() > expires) {
+            return false;
+        }
+        byte[] expected = sign(objectName, contentLength, expires).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(String objectName, long contentLength, long expires) {
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(uploadKey);
+            byte[] signature = mac.doFinal((objectName + "\n" + contentLength + "\n" + expires)
+                    .getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("HmacSHA256 indisponivel", e);
+        }
+    }
+
+    Path root() {
+        return root;
+    }
+
+    private Path resolve(String objectName) {
+        Path path = root.resolve(BlobStorage.requireValidName(objectName)).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Nome de objeto invalido: " + objectName);
+        }
+        return path;
+    }
+
+    private String objectName(Path path) {
+        return root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    // Temporarios de escrita em andamento (e qualquer arquivo oculto) nao sao objetos
+    private static boolean hidden(String name) {
+        return name.startsWith(".") || name.contains("/.");
+    }
+
+    /**
+     * Reads a file through read-only mappings of at most {@link #READ_WINDOW_BYTES}, remapping as
+     * it advances, so files of any size are read without heap buffers.
+     */
+    private static final class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        private MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return nextWindow() ? window.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextWindow()) {
+                return -1;
+            }
+            int count = Math.min(length, window.remaining());
+            window.get(buffer, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return window == null ? (int) Math.min(Integer.MAX_VALUE, size) : window.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private boolean nextWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            long position = window == null ? 0 : windowStart + window.capacity();
+            if (position >= size) {
+                return false;
+            }
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(READ_WINDOW_BYTES, size - position));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.soulsurf.backend.core.storage;
+
+import com.oracle.bmc.auth.SimpleAuthenticationDetailsProvider;
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.model.Range;
+import com.oracle.bmc.objectstorage.ObjectStorage;
+import com.oracle.bmc.objectstorage.ObjectStorageClient;
+import com.oracle.bmc.objectstorage.model.CreatePreauthenticatedRequestDetails;
+import com.oracle.bmc.objectstorage.model.ListObjects;
+import com.oracle.bmc.objectstorage.model.ObjectSummary;
+import com.oracle.bmc.objectstorage.model.PreauthenticatedRequest;
+import com.oracle.bmc.objectstorage.requests.CreatePreauthenticatedRequestRequest;
+import com.oracle.bmc.objectstorage.requests.DeleteObjectRequest;
+import com.oracle.bmc.objectstorage.requests.DeletePreauthenticatedRequestRequest;
+import com.oracle.bmc.objectstorage.requests.GetObjectRequest;
+import com.oracle.bmc.objectstorage.requests.HeadObjectRequest;
+import com.oracle.bmc.objectstorage.requests.ListObjectsRequest;
+import com.oracle.bmc.objectstorage.requests.PutObjectRequest;
+import com.oracle.bmc.objectstorage.responses.HeadObjectResponse;
+import com.oracle.bmc.objectstorage.transfer.UploadConfiguration;
+import com.oracle.bmc.objectstorage.transfer.UploadManager;
+import jakarta.annotation.PreDestroy;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link BlobStorage} on an OCI Object Storage bucket.
+ * <p>
+ * Uploads never hold the object on the heap: the SDK {@link UploadManager} streams the body, and
+ * objects of at least {@code oci.storage.upload.multipart-threshold-mb} go as an OCI multipart
+ * upload of {@code oci.storage.upload.part-size-mb} parts, up to
+ * {@code oci.storage.upload.parallel-parts} in flight; smaller ones as a single streamed PUT.
+ * <p>
+ * Upload URLs are write-only pre-authenticated requests (PARs) scoped to a single object, so
+ * clients send the bytes straight to the bucket; revoking one deletes the PAR.
+ */
+public class OciBlobStorage implements BlobStorage {
+
+    private final ObjectStorage objectStorageClient;
+    private final UploadManager uploadManager;
+    private final ExecutorService partExecutor;
+    private final String namespace;
+    private final String bucketName;
+    private final String region;
+
+    public OciBlobStorage(String region,
+                          String bucketName,
+                          String namespace,
+                          String userId,
+                          String tenancyId,
+                          String fingerprint,
+                          String privateKey,
+                          long multipartThresholdMb,
+                          int partSizeMb,
+                          int parallelParts) {
+        this(createClient(region, userId, tenancyId, fingerprint, privateKey),
+                region, bucketName, namespace, multipartThresholdMb, partSizeMb, parallelParts);
+    }
+
+    OciBlobStorage(ObjectStorage objectStorageClient,
+                   String region,
+                   String bucketName,
+                   String namespace,
+                   long multipartThresholdMb,
+                   int partSizeMb,
+                   int parallelParts) {
+        this.objectStorageClient = objectStorageClient;
+        this.bucketName = bucketName;
+        this.namespace = namespace;
+        this.region = region;
+
+        UploadConfiguration uploadConfiguration = UploadConfiguration.builder()
+                .allowMultipartUploads(true)
+                .allowParallelUploads(parallelParts > 1)
+                .minimumLengthForMultipartUpload(multipartThresholdMb)
+                .lengthPerUploadPart(partSizeMb)
+                .build();
+        this.uploadManager = new UploadManager(objectStorageClient, uploadConfiguration);
+
+        AtomicInteger threadSequence = new AtomicInteger();
+        this.partExecutor = Executors.newFixedThreadPool(Math.max(1, parallelParts), runnable -> {
+            Thread thread = new Thread(runnable, "oci-upload-part-" + threadSequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() throws Exception {
+        partExecutor.shutdownNow();
+        objectStorageClient.close();
+    }
+
+    @Override
+    public void put(String objectName, InputStream body, long contentLength, String contentType) {
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .namespaceName(namespace)
+                .bucketName(bucketName)
+                .objectName(BlobStorage.requireValidName(objectName))
+                .contentType(contentType)
+                .build();
+
+        UploadManager.UploadRequest uploadRequest = UploadManager.UploadRequest
+                .builder(body, contentLength)
+                .allowOverwrite(true)
+                .parallelUploadExecutorService(partExecutor)
+                .build(putRequest);
+        uploadManager.upload(uploadRequest);
+    }
+
+    @Override
+    public void put(String objectName, Path source, String contentType) throws IOException {
+        // FileInputStream: o SDK le as partes direto do arquivo, sem o buffer de retry em memoria
+        try (InputStream body = new FileInputStream(source.toFile())) {
+            put(objectName, body, Files.size(source), contentType);
+        }
+    }
+
+    @Override
+    public InputStream open(String objectName) throws IOException {
+        try {
+            return objectStorageClient.getObject(GetObjectRequest.builder()
+                    .namespaceName(namespace)
+                    .bucketName(bucketName)
+                    .objectName(BlobStorage.requireValidName(objectName))
+                    .build()).getInputStream();
+        } catch (BmcException e) {
+            throw notFoundOr(objectName, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String objectName) throws IOException {
+        try {
+            objectStorageClient.headObject(HeadObjectRequest.builder()
+                    .namespaceName(namespace)
+                    .bucketName(bucketName)
+                    .objectName(BlobStorage.requireValidName(objectName))
+                    .build());
+            return true;
+        } catch (BmcException e) {
+            if (e.getStatusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public BlobObject stat(String objectName) throws IOException {
+        try {
+            HeadObjectResponse head = objectStorageClient.headObject(HeadObjectRequest.builder()
+                    .namespaceName(namespace)
+                    .bucketName(bucketName)
+                    .objectName(BlobStorage.requireValidName(objectName))
+                    .build());
+            return new BlobObject(objectName,
+                    head.getContentLength() == null ? 0 : head.getContentLength(),
+                    head.getLastModified() == null ? null : head.getLastModified().toInstant());
+        } catch (BmcException e) {
+            throw notFoundOr(objectName, e);
+        }
+    }
+
+    @Override
+    public byte[] readHead(String objectName, int maxBytes) throws IOException {
+        // GET com Range: so os primeiros bytes saem do bucket
+        try (InputStream body = objectStorageClient.getObject(GetObjectRequest.builder()
+                .namespaceName(namespace)
+                .bucketName(bucketName)
+                .objectName(BlobStorage.requireValidName(objectName))
+                .range(new Range(0L, maxBytes - 1L))
+                .build()).getInputStream()) {
+            return body.readNBytes(maxBytes);
+        } catch (BmcException e) {
+            throw notFoundOr(objectName, e);
+        }
+    }
+
+    @Override
+    public void delete(String objectName) {
+        try {
+            objectStorageClient.deleteObject(DeleteObjectRequest.builder()
+                    .namespaceName(namespace)
+                    .bucketName(bucketName)
+                    .objectName(BlobStorage.requireValidName(objectName))
+                    .build());
+        } catch (BmcException e) {
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public BlobListing list(String prefix, String start, int limit) {
+        ListObjectsRequest listRequest = ListObjectsRequest.builder()
+                .namespaceName(namespace)
+                .bucketName(bucketName)
+                .prefix(prefix == null || prefix.isEmpty() ? null : prefix)
+                .start(start)
+                .limit(limit)
+                .fields("name,size,timeCreated")
+                .build();
+        ListObjects page = objectStorageClient.listObjects(listRequest).getListObjects();
+
+        List<BlobObject> objects = new ArrayList<>(page.getObjects().size());
+        for (ObjectSummary summary : page.getObjects()) {
+            objects.add(new BlobObject(summary.getName(),
+                    summary.getSize() == null ? 0 : summary.getSize(),
+                    summary.getTimeCreated() == null ? null : summary.getTimeCreated().toInstant()));
+        }
+        return new BlobListing(objects, page.getNextStartWith());
+    }
+
+    @Override
+    public String url(String objectName) {
+        return String.format(
+                "https://objectstorage.%s.oraclecloud.com/n/%s/b/%s/o/%s",
+                region, namespace, bucketName, objectName);
+    }
+
+    @Override
+    public boolean supportsDirectUploads() {
+        return true;
+    }
+
+    @Override
+    public UploadUrl uploadUrl(String objectName, long contentLength, Instant expiresAt) {
+        // A PAR nao limita o tamanho: ele e conferido na confirmacao do upload
+        CreatePreauthenticatedRequestDetails details = CreatePreauthenticatedRequestDetails.builder()
+                .name("upload-" + BlobStorage.requireValidName(objectName))
+                .objectName(objectName)
+                .accessType(CreatePreauthenticatedRequestDetails.AccessType.ObjectWrite)
+                .timeExpires(Date.from(expiresAt))
+                .build();
+        PreauthenticatedRequest par = objectStorageClient.createPreauthenticatedRequest(
+                CreatePreauthenticatedRequestRequest.builder()
+                        .namespaceName(namespace)
+                        .bucketName(bucketName)
+                        .createPreauthenticatedRequestDetails(details)
+                        .build())
+                .getPreauthenticatedRequest();
+        return new UploadUrl(String.format("https://objectstorage.%s.oraclecloud.com%s", region, par.getAccessUri()),
+                par.getId());
+    }
+
+    @Override
+    public void revokeUploadUrl(String uploadUrlId) {
+        if (uploadUrlId == null) {
+            return;
+        }
+        try {
+            objectStorageClient.deletePreauthenticatedRequest(DeletePreauthenticatedRequestRequest.builder()
+                    .namespaceName(namespace)
+                    .bucketName(bucketName)
+                    .parId(uploadUrlId)
+                    .build());
+        } catch (BmcException e) {
+            // PAR vencida ja foi removida pela OCI
+            if (e.getStatusCode() != 404) {
+                throw e;
+            }
+        }
+    }
+
+    private static RuntimeException notFoundOr(String objectName, BmcException e) throws NoSuchFileException {
+        if (e.getStatusCode() == 404) {
+            throw new NoSuchFileException(objectName);
+        }
+        return e;
+    }
+
+    private static ObjectStorage createClient(String region,
+                                              String userId,
+                                              String tenancyId,
+                                              String fingerprint,
+                                              String privateKey) {
+        SimpleAuthenticationDetailsProvider provider = SimpleAuthenticationDetailsProvider.builder()
+                .userId(userId)
+                .tenantId(tenancyId)
+                .fingerprint(fingerprint)
+                .privateKeySupplier(() -> readPrivateKey(privateKey))
+                .region(com.oracle.bmc.Region.fromRegionCodeOrId(region))
+                .build();
+
+        return ObjectStorageClient.builder().build(provider);
+    }
+
+    private static InputStream readPrivateKey(String privateKey) {
+        try {
+            if (looksLikeFilePath(privateKey)) {
+                return new FileInputStream(privateKey);
+            }
+
+            String normalized = privateKey.replace("\\n", "\n");
+            return new ByteArrayInputStream(normalized.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao ler chave privada OCI", e);
+        }
+    }
+
+    private static boolean looksLikeFilePath(String privateKey) {
+        if (privateKey == null || privateKey.isBlank()) {
+            return false;
+        }
+        return privateKey.startsWith("/")
+                || privateKey.startsWith("\\")
+                || privateKey.matches("^[A-Za-z]:\\\\.*");
+    }
+}
@@ -0,0 +1,50 @@
+package com.soulsurf.backend.core.storage;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Index entry of an object in the bucket. Content-addressed uploads carry the SHA-256 of their
+ * bytes, looked up before every upload so identical content is written once; objects found by
+ * the bucket sync (stored before content addressing) have no digest. The table also answers file
+ * listings, ordered by object name.
+ */
+@Entity
+@Table(name = "stored_blobs")
+@Getter
+@Setter
+@NoArgsConstructor
+public class StoredBlob implements Persistable<String> {
+
+    @Id
+    @Column(name = "object_name", length = 255)
+    private String objectName;
+
+    @Column(length = 64, unique = true)
+    private String digest;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public String getId() {
+        return objectName;
+    }
+
+    // Linhas so sao inseridas: save vira INSERT e um nome ja indexado falha pela PK em vez de sobrescrever
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,20 @@
+package com.soulsurf.backend.core.storage;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    Optional<StoredBlob> findByDigest(String digest);
+
+    List<StoredBlob> findByObjectNameStartingWithOrderByObjectNameAsc(String prefix, Limit limit);
+
+    // Keyset pela PK: cada pagina e uma varredura de intervalo, sem OFFSET
+    List<StoredBlob> findByObjectNameStartingWithAndObjectNameGreaterThanOrderByObjectNameAsc(
+            String prefix, String startAfter, Limit limit);
+}
@@ -0,0 +1,10 @@
+package com.soulsurf.backend.core.storage;
+
+import java.time.LocalDateTime;
+
+/**
+ * One object of the bucket as returned by {@code GET /api/files/list}. {@code contentType} is null
+ * for objects indexed by the bucket sync.
+ */
+public record StoredFile(String name, String url, long size, String contentType, LocalDateTime createdAt) {
+}
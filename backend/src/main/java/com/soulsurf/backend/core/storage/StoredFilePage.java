@@ -0,0 +1,10 @@
+package com.soulsurf.backend.core.storage;
+
+import java.util.List;
+
+/**
+ * A page of the file listing. {@code nextStartAfter} is the cursor for the next page ({@code null}
+ * on the last one).
+ */
+public record StoredFilePage(List<StoredFile> items, String nextStartAfter) {
+}
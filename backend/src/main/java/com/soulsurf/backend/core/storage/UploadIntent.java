@@ -0,0 +1,46 @@
+package com.soulsurf.backend.core.storage;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A direct upload URL handed to a client and not confirmed yet. Holds what the client declared,
+ * checked against the stored object on confirmation.
+ */
+@Entity
+@Table(name = "upload_intents")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UploadIntent {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "object_name", nullable = false, length = 255)
+    private String objectName;
+
+    @Column(name = "content_type", nullable = false, length = 100)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(nullable = false)
+    private String owner;
+
+    // Id da PAR na OCI, para revogar a escrita na confirmacao; nulo no backend local
+    @Column(name = "upload_url_id", length = 255)
+    private String uploadUrlId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.soulsurf.backend.core.storage;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadIntentRepository extends JpaRepository<UploadIntent, String> {
+
+    boolean existsByObjectName(String objectName);
+
+    List<UploadIntent> findByExpiresAtBeforeOrderByExpiresAtAsc(LocalDateTime cutoff, Limit limit);
+}
@@ -0,0 +1,8 @@
+package com.soulsurf.backend.core.storage;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+/** Body of {@code POST /api/files/upload-intents}: what the client is about to upload. */
+public record UploadIntentRequest(@NotBlank String contentType, @Positive long size) {
+}
@@ -0,0 +1,12 @@
+package com.soulsurf.backend.core.storage;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Where and how the client sends the file: {@code method} to {@code uploadUrl} with
+ * {@code headers}, before {@code expiresAt}, then {@code POST /api/files/upload-intents/{id}/confirm}.
+ */
+public record UploadIntentResponse(String id, String uploadUrl, String method, Map<String, String> headers,
+                                   Instant expiresAt) {
+}
@@ -0,0 +1,255 @@
+package com.soulsurf.backend.core.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Direct uploads: the client asks for an upload intent, sends the bytes straight to the storage
+ * through a short-lived URL ({@link BlobStorage#uploadUrl}: an OCI pre-authenticated request, or
+ * a signed URL of the local backend) and confirms. The app only handles metadata, so upload
+ * bandwidth does not go through servlet threads or the heap.
+ * <p>
+ * Confirmation checks the stored object against what was declared: exact size and the file
+ * signature of the declared content type (read with a ranged GET). A mismatching object is
+ * deleted. Write access is withdrawn before the checks (the PAR is deleted; local uploads are
+ * write-once and only accepted while the intent is pending), so the checked bytes are the ones
+ * that stay. Accepted objects are added to the {@link BlobIndex} under {@code uploads/} without a
+ * digest (the bytes are never read in full, so they are not deduplicated). Intents not confirmed
+ * within {@code storage.upload-intents.confirm-grace-seconds} after the URL expires are purged
+ * with their object. Metric: {@code storage.direct.uploads} (tag {@code result}: issued,
+ * confirmed, rejected).
+ */
+@Service
+@ConditionalOnProperty(name = "feature.blob.enabled", havingValue = "true")
+@Slf4j
+public class UploadIntentService {
+
+    private static final String OBJECT_PREFIX = "uploads/";
+    private static final int SIGNATURE_BYTES = 12;
+    private static final int PURGE_BATCH_SIZE = 500;
+    // Folga entre o fim da janela de confirmacao e a limpeza, para nao apagar um objeto no meio de uma confirmacao
+    private static final Duration PURGE_MARGIN = Duration.ofMinutes(5);
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/webp", ".webp");
+
+    private final BlobStorage blobStorage;
+    private final BlobIndex blobIndex;
+    private final UploadIntentRepository uploadIntentRepository;
+    private final long maxBytes;
+    private final Duration urlTtl;
+    private final Duration confirmGrace;
+    private final Clock clock;
+    private final Counter issued;
+    private final Counter confirmed;
+    private final Counter rejected;
+
+    @Autowired
+    public UploadIntentService(
+            BlobStorage blobStorage,
+            BlobIndex blobIndex,
+            UploadIntentRepository uploadIntentRepository,
+            MeterRegistry meterRegistry,
+            @Value("${storage.upload-intents.max-bytes:10485760}") long maxBytes,
+            @Value("${storage.upload-intents.url-ttl-seconds:900}") long urlTtlSeconds,
+            @Value("${storage.upload-intents.confirm-grace-seconds:3600}") long confirmGraceSeconds
+    ) {
+        this(blobStorage, blobIndex, uploadIntentRepository, meterRegistry, maxBytes,
+                Duration.ofSeconds(urlTtlSeconds), Duration.ofSeconds(confirmGraceSeconds), Clock.systemDefaultZone());
+    }
+
+    UploadIntentService(
+            BlobStorage blobStorage,
+            BlobIndex blobIndex,
+            UploadIntentRepository uploadIntentRepository,
+            MeterRegistry meterRegistry,
+            long maxBytes,
+            Duration urlTtl,
+            Duration confirmGrace,
+            Clock clock
+    ) {
+        this.blobStorage = blobStorage;
+        this.blobIndex = blobIndex;
+        this.uploadIntentRepository = uploadIntentRepository;
+        this.maxBytes = maxBytes;
+        this.urlTtl = urlTtl;
+        this.confirmGrace = confirmGrace;
+        this.clock = clock;
+        this.issued = Counter.builder("storage.direct.uploads").tag("result", "issued").register(meterRegistry);
+        this.confirmed = Counter.builder("storage.direct.uploads").tag("result", "confirmed").register(meterRegistry);
+        this.rejected = Counter.builder("storage.direct.uploads").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /** Whether the configured backend can issue upload URLs; {@link #create} needs it. */
+    public boolean supportsDirectUploads() {
+        return blobStorage.supportsDirectUploads();
+    }
+
+    /**
+     * Issues an upload URL for one file of {@code size} bytes of {@code contentType}.
+     *
+     * @throws IllegalArgumentException      when the type is not allowed or the size is out of range
+     * @throws UnsupportedOperationException when {@link #supportsDirectUploads()} is {@code false}
+     */
+    public UploadIntentResponse create(String owner, String contentType, long size) throws IOException {
+        String normalizedType = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT).trim();
+        String extension = EXTENSIONS.get(normalizedType);
+        if (extension == null) {
+            throw new IllegalArgumentException("Tipo de arquivo nao permitido.");
+        }
+        if (size <= 0 || size > maxBytes) {
+            throw new IllegalArgumentException("Tamanho de arquivo invalido: o limite e " + maxBytes + " bytes.");
+        }
+
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(urlTtl);
+        String id = UUID.randomUUID().toString();
+        String objectName = OBJECT_PREFIX + id + extension;
+        UploadUrl uploadUrl = blobStorage.uploadUrl(objectName, size, expiresAt);
+
+        UploadIntent intent = new UploadIntent();
+        intent.setId(id);
+        intent.setObjectName(objectName);
+        intent.setContentType(normalizedType);
+        intent.setSizeBytes(size);
+        intent.setOwner(owner);
+        intent.setUploadUrlId(uploadUrl.id());
+        intent.setExpiresAt(localDateTime(expiresAt));
+        intent.setCreatedAt(localDateTime(now));
+        uploadIntentRepository.save(intent);
+        issued.increment();
+
+        return new UploadIntentResponse(id, uploadUrl.url(), "PUT", Map.of("Content-Type", normalizedType), expiresAt);
+    }
+
+    /**
+     * Checks the uploaded object against the intent and indexes it.
+     *
+     * @throws IllegalArgumentException when the intent is unknown or expired, the file was not
+     *                                  uploaded yet or does not match what was declared
+     * @throws SecurityException        when the intent belongs to another user
+     */
+    public StoredFile confirm(String owner, String intentId) throws IOException {
+        UploadIntent intent = uploadIntentRepository.findById(intentId)
+                .orElseThrow(() -> new IllegalArgumentException("Upload nao encontrado."));
+        if (!intent.getOwner().equals(owner)) {
+            throw new SecurityException("Upload pertence a outro usuario.");
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (now.isAfter(intent.getExpiresAt().plus(confirmGrace))) {
+            throw new IllegalArgumentException("Upload expirado.");
+        }
+
+        if (!blobStorage.exists(intent.getObjectName())) {
+            // A intencao continua valida: o cliente pode terminar o envio e confirmar de novo
+            throw new IllegalArgumentException("Arquivo ainda nao foi enviado.");
+        }
+
+        // Fecha a escrita antes de conferir: sem isso a mesma URL sobrescreveria o objeto validado
+        closeUpload(intent);
+        BlobObject stored = blobStorage.stat(intent.getObjectName());
+        if (stored.size() != intent.getSizeBytes()) {
+            reject(intent);
+            throw new IllegalArgumentException("Tamanho enviado difere do declarado.");
+        }
+        if (!matchesSignature(intent.getContentType(),
+                blobStorage.readHead(intent.getObjectName(), SIGNATURE_BYTES))) {
+            reject(intent);
+            throw new IllegalArgumentException("Conteudo nao corresponde ao tipo " + intent.getContentType() + ".");
+        }
+
+        blobIndex.addMissing(List.of(BlobIndex.blob(intent.getObjectName(), null, intent.getContentType(),
+                stored.size(), now)));
+        confirmed.increment();
+        return new StoredFile(intent.getObjectName(), blobStorage.url(intent.getObjectName()), stored.size(),
+                intent.getContentType(), now);
+    }
+
+    @Scheduled(
+            initialDelayString = "${storage.upload-intents.purge-interval-ms:600000}",
+            fixedDelayString = "${storage.upload-intents.purge-interval-ms:600000}"
+    )
+    void purgeExpired() {
+        int purged = purgeExpiredIntents();
+        if (purged > 0) {
+            log.info("Uploads diretos: {} intencao(oes) vencida(s) removida(s)", purged);
+        }
+    }
+
+    /**
+     * Removes intents whose confirmation window is over, deleting whatever the client uploaded
+     * for them. Returns how many were removed.
+     */
+    int purgeExpiredIntents() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(confirmGrace).minus(PURGE_MARGIN);
+        int purged = 0;
+        List<UploadIntent> batch;
+        do {
+            batch = uploadIntentRepository.findByExpiresAtBeforeOrderByExpiresAtAsc(cutoff, Limit.of(PURGE_BATCH_SIZE));
+            for (UploadIntent intent : batch) {
+                try {
+                    closeUpload(intent);
+                    blobStorage.delete(intent.getObjectName());
+                    purged++;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Falha ao remover upload vencido {}: {}", intent.getObjectName(), e.getMessage());
+                    return purged;
+                }
+            }
+        } while (batch.size() == PURGE_BATCH_SIZE);
+        return purged;
+    }
+
+    // Revoga a URL e remove a intencao: daqui em diante nenhum PUT chega ao objeto
+    private void closeUpload(UploadIntent intent) throws IOException {
+        blobStorage.revokeUploadUrl(intent.getUploadUrlId());
+        uploadIntentRepository.delete(intent);
+    }
+
+    private void reject(UploadIntent intent) throws IOException {
+        blobStorage.delete(intent.getObjectName());
+        rejected.increment();
+    }
+
+    private LocalDateTime localDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, clock.getZone());
+    }
+
+    static boolean matchesSignature(String contentType, byte[] head) {
+        return switch (contentType) {
+            case "image/jpeg" -> startsWith(head, 0, new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+            case "image/png" -> startsWith(head, 0, new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+            case "image/webp" -> startsWith(head, 0, ascii("RIFF")) && startsWith(head, 8, ascii("WEBP"));
+            default -> false;
+        };
+    }
+
+    private static boolean startsWith(byte[] head, int offset, byte[] signature) {
+        return head.length >= offset + signature.length
+                && Arrays.equals(head, offset, offset + signature.length, signature, 0, signature.length);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,9 @@
+package com.soulsurf.backend.core.storage;
+
+/**
+ * A direct upload URL issued by {@link BlobStorage#uploadUrl}. {@code id} identifies it for
+ * {@link BlobStorage#revokeUploadUrl} (the PAR id on OCI); {@code null} when the backend has
+ * nothing to revoke.
+ */
+public record UploadUrl(String url, String id) {
+}
@@ -6,11 +6,12 @@ import com.soulsurf.backend.modules.comment.mapper.CommentMapper;
 import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.post.dto.PostDTO;
 import com.soulsurf.backend.modules.post.mapper.PostMapper;
+import com.soulsurf.backend.modules.post.service.FeedCacheInvalidator;
+import com.soulsurf.backend.modules.post.service.TimelineService;
 import com.soulsurf.backend.modules.user.entity.User;
 import com.soulsurf.backend.modules.comment.repository.CommentRepository;
 import com.soulsurf.backend.modules.post.repository.PostRepository;
 import com.soulsurf.backend.modules.user.repository.UserRepository;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.soulsurf.backend.modules.notification.service.NotificationService;
@@ -28,6 +29,8 @@ public class AdminService {
     private final NotificationService notificationService;
     private final PostMapper postMapper;
     private final CommentMapper commentMapper;
+    private final TimelineService timelineService;
+    private final FeedCacheInvalidator feedCacheInvalidator;
 
     public AdminService(UserRepository userRepository,
             PostRepository postRepository,
@@ -35,7 +38,9 @@ public class AdminService {
             AdminAuditService adminAuditService,
             NotificationService notificationService,
             PostMapper postMapper,
-            CommentMapper commentMapper) {
+            CommentMapper commentMapper,
+            TimelineService timelineService,
+            FeedCacheInvalidator feedCacheInvalidator) {
         this.userRepository = userRepository;
         this.postRepository = postRepository;
         this.commentRepository = commentRepository;
@@ -43,13 +48,15 @@ public class AdminService {
         this.notificationService = notificationService;
         this.postMapper = postMapper;
         this.commentMapper = commentMapper;
+        this.timelineService = timelineService;
+        this.feedCacheInvalidator = feedCacheInvalidator;
     }
 
     @Transactional(readOnly = true)
     public PostDTO getPost(Long postId, String actorEmail) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new IllegalArgumentException("Post nao encontrado"));
-        return postMapper.toDto(post, actorEmail);
+        return postMapper.toDtos(List.of(post), actorEmail).get(0);
     }
 
     @Transactional(readOnly = true)
@@ -65,31 +72,36 @@ public class AdminService {
     public void deleteUser(Long userId, String actorEmail) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
+        timelineService.onUserDeleted(userId);
         userRepository.delete(user);
         adminAuditService.log(actorEmail, "DELETE_USER", "USER", userId, null);
     }
 
     @Transactional
-    @CacheEvict(value = { "publicFeed", "userPosts", "followingPosts", "beachPosts", "postById" }, allEntries = true)
     public void deletePost(Long postId, String actorEmail) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new IllegalArgumentException("Post não encontrado"));
 
         notificationService.deleteNotificationsByPost(post);
+        timelineService.onPostDeleted(postId);
 
         postRepository.delete(post);
+        feedCacheInvalidator.postRemoved(postId);
         adminAuditService.log(actorEmail, "DELETE_POST", "POST", postId, null);
     }
 
     @Transactional
-    @CacheEvict(value = { "postById", "publicFeed", "followingPosts", "userPosts", "beachPosts" }, allEntries = true)
     public void deleteComment(Long commentId, String actorEmail) {
         Comment comment = commentRepository.findById(commentId)
                 .orElseThrow(() -> new IllegalArgumentException("Comentário não encontrado"));
 
-        notificationService.deleteNotificationsByComments(collectCommentTree(comment));
+        List<Comment> commentTree = collectCommentTree(comment);
+        notificationService.deleteNotificationsByComments(commentTree);
 
+        Long postId = comment.getPost().getId();
         commentRepository.delete(comment);
+        postRepository.adjustCommentsCount(postId, -commentTree.size());
+        feedCacheInvalidator.commentsChanged(postId);
         adminAuditService.log(actorEmail, "DELETE_COMMENT", "COMMENT", commentId, null);
     }
 
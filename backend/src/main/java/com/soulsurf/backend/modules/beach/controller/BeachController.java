@@ -1,6 +1,7 @@
 package com.soulsurf.backend.modules.beach.controller;
 
 import com.soulsurf.backend.modules.beach.dto.BeachDTO;
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
 import com.soulsurf.backend.modules.post.dto.PostDTO;
 import com.soulsurf.backend.modules.beach.entity.Beach;
 import com.soulsurf.backend.modules.beach.mapper.BeachMapper;
@@ -71,12 +72,16 @@ public class BeachController {
     @ApiResponse(responseCode = "200", description = "Posts encontrados")
     @ApiResponse(responseCode = "404", description = "Praia não encontrada")
     @GetMapping("/{id}/posts")
-    public ResponseEntity<List<PostDTO>> getBeachPosts(
+    public ResponseEntity<?> getBeachPosts(
             @Parameter(description = "ID da praia") @PathVariable Long id,
             @Parameter(description = "Número da página (começa em 0)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Tamanho da página") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Cursor de keyset <data>,<id> (vazio = primeira pagina). Quando informado, retorna pagina por cursor") @RequestParam(required = false) String after,
             @AuthenticationPrincipal UserDetails userDetails) {
         String userEmail = userDetails != null ? userDetails.getUsername() : null;
+        if (after != null) {
+            return ResponseEntity.ok(beachService.getBeachPostsAfter(id, FeedCursor.parse(after), size, userEmail));
+        }
         List<PostDTO> posts = beachService.getBeachPosts(id, page, size, userEmail);
         return ResponseEntity.ok(posts);
     }
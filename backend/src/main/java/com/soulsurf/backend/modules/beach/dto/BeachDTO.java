@@ -13,6 +13,8 @@ public class BeachDTO {
     private String descricao;
     private String localizacao;
     private String caminhoFoto;
+    private String caminhoFotoThumb;
+    private String caminhoFotoFeed;
     private String nivelExperiencia;
     private Double latitude;
     private Double longitude;
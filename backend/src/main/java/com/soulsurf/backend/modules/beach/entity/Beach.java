@@ -28,6 +28,13 @@ public class Beach {
     @Column(name = "caminho_foto")
     private String caminhoFoto;
 
+    // Variantes reduzidas de caminhoFoto (ImagePipeline); nulas em fotos anteriores a elas
+    @Column(name = "caminho_foto_thumb", length = 512)
+    private String caminhoFotoThumb;
+
+    @Column(name = "caminho_foto_feed", length = 512)
+    private String caminhoFotoFeed;
+
     @Column(name = "nivel_experiencia")
     private String nivelExperiencia; // Iniciante, Intermediário, Avançado
 
@@ -14,6 +14,8 @@ public class BeachMapper {
         dto.setDescricao(beach.getDescricao());
         dto.setLocalizacao(beach.getLocalizacao());
         dto.setCaminhoFoto(beach.getCaminhoFoto());
+        dto.setCaminhoFotoThumb(beach.getCaminhoFotoThumb());
+        dto.setCaminhoFotoFeed(beach.getCaminhoFotoFeed());
         dto.setNivelExperiencia(beach.getNivelExperiencia());
         dto.setLatitude(beach.getLatitude());
         dto.setLongitude(beach.getLongitude());
@@ -76,6 +76,7 @@ public class BeachMessageService {
         userDTO.setId(BeachMessage.getAutor().getId());
         userDTO.setUsername(BeachMessage.getAutor().getUsername());
         userDTO.setFotoPerfil(BeachMessage.getAutor().getFotoPerfil());
+        userDTO.setFotoPerfilThumb(BeachMessage.getAutor().getFotoPerfilThumb());
 
         dto.setAutor(userDTO);
 
@@ -1,22 +1,22 @@
 package com.soulsurf.backend.modules.beach.service;
 
 import com.soulsurf.backend.modules.beach.dto.BeachDTO;
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
 import com.soulsurf.backend.modules.post.dto.PostDTO;
+import com.soulsurf.backend.modules.post.dto.PostIdPage;
+import com.soulsurf.backend.modules.post.dto.PostSliceDTO;
 import com.soulsurf.backend.modules.beach.entity.Beach;
-import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.beach.mapper.BeachMapper;
-import com.soulsurf.backend.modules.post.mapper.PostMapper;
 import com.soulsurf.backend.modules.beach.repository.BeachRepository;
-import com.soulsurf.backend.modules.post.repository.PostRepository;
+import com.soulsurf.backend.modules.post.service.PostFeedQueryService;
+import com.soulsurf.backend.modules.post.service.PostReadModel;
 
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import com.soulsurf.backend.core.storage.OracleStorageService;
+import com.soulsurf.backend.core.image.ImageRenditions;
+import com.soulsurf.backend.core.image.ImageUploadService;
 
 import java.io.IOException;
 import java.util.List;
@@ -27,19 +27,21 @@ import java.util.stream.Collectors;
 public class BeachService {
 
     private final BeachRepository beachRepository;
-    private final PostRepository postRepository;
-    private final Optional<OracleStorageService> blobStorageService;
+    private final Optional<ImageUploadService> imageUploadService;
     private final BeachMapper beachMapper;
-    private final PostMapper postMapper;
-
-    public BeachService(BeachRepository beachRepository, PostRepository postRepository,
-            Optional<OracleStorageService> blobStorageService,
-            BeachMapper beachMapper, @Lazy PostMapper postMapper) {
+    private final PostFeedQueryService postFeedQueryService;
+    private final PostReadModel postReadModel;
+
+    public BeachService(BeachRepository beachRepository,
+            Optional<ImageUploadService> imageUploadService,
+            BeachMapper beachMapper,
+            @Lazy PostFeedQueryService postFeedQueryService,
+            @Lazy PostReadModel postReadModel) {
         this.beachRepository = beachRepository;
-        this.postRepository = postRepository;
-        this.blobStorageService = blobStorageService;
+        this.imageUploadService = imageUploadService;
         this.beachMapper = beachMapper;
-        this.postMapper = postMapper;
+        this.postFeedQueryService = postFeedQueryService;
+        this.postReadModel = postReadModel;
     }
 
     public Beach createBeach(String nome, String descricao, String localizacao, String nivelExperiencia,
@@ -52,10 +54,12 @@ public class BeachService {
         beach.setLatitude(latitude);
         beach.setLongitude(longitude);
 
-        if (blobStorageService.isPresent() && foto != null && !foto.isEmpty()) {
+        if (imageUploadService.isPresent() && foto != null && !foto.isEmpty()) {
             try {
-                String urlDaFoto = blobStorageService.get().uploadFile(foto);
-                beach.setCaminhoFoto(urlDaFoto);
+                ImageRenditions fotos = imageUploadService.get().upload(foto);
+                beach.setCaminhoFoto(fotos.full());
+                beach.setCaminhoFotoFeed(fotos.feed());
+                beach.setCaminhoFotoThumb(fotos.thumbnail());
             } catch (IOException e) {
                 throw new RuntimeException("Erro ao fazer upload da foto da praia: " + e.getMessage(), e);
             }
@@ -76,35 +80,21 @@ public class BeachService {
                 .map(beachMapper::toDto);
     }
 
-    @Cacheable(value = "beachPosts", key = "#beachId + '_' + #page + '_' + #size + '_' + (#currentUserEmail ?: 'anonymous')")
     @Transactional(readOnly = true)
     public List<PostDTO> getBeachPosts(Long beachId, int page, int size, String currentUserEmail) {
-        Beach beach = beachRepository.findById(beachId)
-                .orElseThrow(() -> new RuntimeException("Praia não encontrada"));
-
-        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("data").descending());
-
-        List<Post> posts;
-        if (currentUserEmail != null) {
-            posts = postRepository.findByBeachAndPublicoIsTrueOrUsuarioEmail(beach, currentUserEmail, pageRequest)
-                    .getContent();
-        } else {
-            posts = postRepository.findByBeachAndPublicoIsTrue(beach, pageRequest).getContent();
-        }
+        PostIdPage ids = postFeedQueryService.beachFeed(beachId, page, size, currentUserEmail);
+        return postReadModel.assemble(ids.postIds(), currentUserEmail);
+    }
 
-        return posts.stream()
-                .map(post -> postMapper.toDto(post, currentUserEmail))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public PostSliceDTO getBeachPostsAfter(Long beachId, FeedCursor after, int size, String currentUserEmail) {
+        PostIdPage ids = postFeedQueryService.beachFeedAfter(beachId, after, size, currentUserEmail);
+        return postReadModel.toSlice(ids, size, currentUserEmail);
     }
 
-    @Cacheable(value = "beachPosts", key = "#beachId + '_all_' + (#userEmail ?: 'anonymous')")
     @Transactional(readOnly = true)
     public List<PostDTO> getAllBeachPosts(Long beachId, String userEmail) {
-        Beach beach = beachRepository.findById(beachId)
-                .orElseThrow(() -> new RuntimeException("Praia não encontrada"));
-
-        return postRepository.findByBeachOrderByDataDesc(beach).stream()
-                .map(post -> postMapper.toDto(post, userEmail))
-                .collect(Collectors.toList());
+        PostIdPage ids = postFeedQueryService.allBeachPosts(beachId, userEmail);
+        return postReadModel.assemble(ids.postIds(), userEmail);
     }
 }
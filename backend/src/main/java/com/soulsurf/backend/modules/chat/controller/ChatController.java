@@ -67,7 +67,9 @@ public class ChatController {
                 if (otherId != null) {
                     userRepo.findByEmail(otherId).ifPresent(u -> {
                         r.setOtherUserName(u.getUsername());
-                        r.setOtherUserAvatarUrl(u.getFotoPerfil());
+                        // Lista de conversas so mostra o avatar pequeno
+                        r.setOtherUserAvatarUrl(u.getFotoPerfilThumb() != null
+                                ? u.getFotoPerfilThumb() : u.getFotoPerfil());
                     });
                 }
             }
@@ -5,6 +5,10 @@ import com.soulsurf.backend.modules.comment.entity.Comment;
 import org.springframework.stereotype.Component;
 import com.soulsurf.backend.modules.user.mapper.UserMapper;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -17,6 +21,40 @@ public class CommentMapper {
     }
 
     public CommentDTO toDto(Comment comment) {
+        CommentDTO dto = toFlatDto(comment);
+
+        dto.setReplies(comment.getReplies().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList()));
+
+        return dto;
+    }
+
+    /**
+     * Builds the reply tree of a single post from a flat, already-loaded list of its comments.
+     * Does NOT touch the lazy {@code replies} collections. Returns only the root comments.
+     */
+    public List<CommentDTO> toDtoTree(List<Comment> comments) {
+        Map<Long, CommentDTO> byId = new LinkedHashMap<>();
+        for (Comment comment : comments) {
+            byId.put(comment.getId(), toFlatDto(comment));
+        }
+
+        List<CommentDTO> roots = new ArrayList<>();
+        for (CommentDTO dto : byId.values()) {
+            if (dto.getParentId() == null) {
+                roots.add(dto);
+                continue;
+            }
+            CommentDTO parent = byId.get(dto.getParentId());
+            if (parent != null) {
+                parent.getReplies().add(dto);
+            }
+        }
+        return roots;
+    }
+
+    private CommentDTO toFlatDto(Comment comment) {
         CommentDTO dto = new CommentDTO();
         dto.setId(comment.getId());
         dto.setTexto(comment.getTexto());
@@ -27,12 +65,6 @@ public class CommentMapper {
         }
 
         dto.setUsuario(userMapper.toSimpleDto(comment.getUsuario()));
-
-        dto.setReplies(comment.getReplies().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList()));
-
         return dto;
     }
 }
-
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -16,6 +17,14 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // Comentários raiz (sem comentário pai), ordenados por data (decrescente)
     List<Comment> findByPostAndParentCommentIsNullOrderByDataDesc(Post post);
 
+    // Todos os comentários (raiz e respostas) de varios posts, com autor carregado
+    @Query("SELECT c FROM Comment c JOIN FETCH c.usuario WHERE c.post.id IN :postIds ORDER BY c.id ASC")
+    List<Comment> findByPostIdsWithUsuario(@Param("postIds") Collection<Long> postIds);
+
+    // Contagem de comentários agrupada por post (postId, count)
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countGroupedByPostIds(@Param("postIds") Collection<Long> postIds);
+
     // Contar comentários entre dois instantes de tempo
     @Query("SELECT COUNT(c) FROM Comment c WHERE c.data BETWEEN :start AND :end")
     long countCommentsBetween(@Param("start") java.time.LocalDateTime start,
@@ -7,9 +7,9 @@ import com.soulsurf.backend.modules.comment.repository.CommentRepository;
 import com.soulsurf.backend.modules.notification.event.NotificationEvent;
 import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.post.repository.PostRepository;
+import com.soulsurf.backend.modules.post.service.FeedCacheInvalidator;
 import com.soulsurf.backend.modules.user.entity.User;
 import com.soulsurf.backend.modules.user.repository.UserRepository;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -31,22 +31,24 @@ public class CommentService {
     private final ApplicationEventPublisher eventPublisher;
     private final SimpMessagingTemplate messagingTemplate;
     private final CommentMapper commentMapper;
+    private final FeedCacheInvalidator feedCacheInvalidator;
 
     public CommentService(CommentRepository commentRepository,
             PostRepository postRepository,
             UserRepository userRepository,
             ApplicationEventPublisher eventPublisher,
             SimpMessagingTemplate messagingTemplate,
-            CommentMapper commentMapper) {
+            CommentMapper commentMapper,
+            FeedCacheInvalidator feedCacheInvalidator) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.eventPublisher = eventPublisher;
         this.messagingTemplate = messagingTemplate;
         this.commentMapper = commentMapper;
+        this.feedCacheInvalidator = feedCacheInvalidator;
     }
 
-    @CacheEvict(value = { "postById", "publicFeed", "followingPosts", "userPosts", "beachPosts" }, allEntries = true)
     public CommentDTO createComment(Long postId, Long parentId, String texto, String userEmail) {
         User usuario = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario nao encontrado"));
@@ -66,6 +68,8 @@ public class CommentService {
         }
 
         comment = commentRepository.save(comment);
+        postRepository.adjustCommentsCount(postId, 1);
+        feedCacheInvalidator.commentsChanged(postId);
 
         processarMencoes(comment, usuario.getEmail());
 
@@ -109,12 +113,12 @@ public class CommentService {
                 .collect(Collectors.toList());
     }
 
-    @CacheEvict(value = { "postById", "publicFeed", "followingPosts", "userPosts", "beachPosts" }, allEntries = true)
     public CommentDTO updateComment(Long postId, Long commentId, String texto, String userEmail) {
         Comment comment = validateAndGetComment(postId, commentId, userEmail);
 
         comment.setTexto(texto);
         comment = commentRepository.save(comment);
+        feedCacheInvalidator.commentsChanged(postId);
 
         User usuario = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario nao encontrado"));
@@ -128,11 +132,14 @@ public class CommentService {
         return dto;
     }
 
-    @CacheEvict(value = { "postById", "publicFeed", "followingPosts", "userPosts", "beachPosts" }, allEntries = true)
     public void deleteComment(Long postId, Long commentId, String userEmail) {
         Comment comment = validateAndGetComment(postId, commentId, userEmail);
 
+        // Respostas sao removidas em cascata junto com o comentario
+        long removedCount = countCommentTree(comment);
         commentRepository.delete(comment);
+        postRepository.adjustCommentsCount(postId, -removedCount);
+        feedCacheInvalidator.commentsChanged(postId);
 
         CommentDTO dto = new CommentDTO();
         dto.setId(commentId);
@@ -162,6 +169,14 @@ public class CommentService {
         return comment;
     }
 
+    private long countCommentTree(Comment comment) {
+        long count = 1;
+        for (Comment reply : comment.getReplies()) {
+            count += countCommentTree(reply);
+        }
+        return count;
+    }
+
     public static class CommentEvent {
         private String type;
         private Long postId;
@@ -58,14 +58,14 @@ public class NotificationController {
         return ResponseEntity.ok(new MessageResponse("Token registrado com sucesso"));
     }
 
-    @Operation(summary = "Enviar push para usuario", description = "Envia uma notificacao push Expo para todos os aparelhos ativos do usuario destino", security = @SecurityRequirement(name = "bearerAuth"))
-    @ApiResponse(responseCode = "200", description = "Envio processado com sucesso")
+    @Operation(summary = "Enviar push para usuario", description = "Enfileira uma notificacao push Expo para todos os aparelhos ativos do usuario destino; o envio ao Expo acontece em segundo plano", security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "Mensagens enfileiradas (campo queued)")
     @PostMapping("/send-to-user")
     public ResponseEntity<Map<String, Integer>> sendToUser(
             @Valid @RequestBody SendPushNotificationRequest request,
             @AuthenticationPrincipal UserDetails userDetails) {
-        int sent = pushNotificationService.sendToUser(userDetails.getUsername(), request);
-        return ResponseEntity.ok(Map.of("sent", sent));
+        int queued = pushNotificationService.sendToUser(userDetails.getUsername(), request);
+        return ResponseEntity.ok(Map.of("queued", queued));
     }
 
     @Operation(summary = "Marcar notificação como lida", description = "Marca uma notificação específica como lida", security = @SecurityRequirement(name = "bearerAuth"))
@@ -0,0 +1,62 @@
+package com.soulsurf.backend.modules.notification.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification event that could not be delivered after all retries. Keeps the raw event
+ * fields (no foreign keys) so it can be inspected or replayed after the referenced rows change.
+ */
+@Entity
+@Table(name = "notification_dead_letters", indexes = {
+        @Index(name = "idx_notif_dead_letters_failed", columnList = "failed_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class NotificationDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private NotificationType type;
+
+    @Column(name = "sender_email")
+    private String senderEmail;
+
+    @Column(name = "followed_user_id")
+    private Long followedUserId;
+
+    @Column(name = "recipient_username")
+    private String recipientUsername;
+
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "comment_id")
+    private Long commentId;
+
+    @Column(name = "parent_comment_id")
+    private Long parentCommentId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.failedAt = LocalDateTime.now();
+    }
+}
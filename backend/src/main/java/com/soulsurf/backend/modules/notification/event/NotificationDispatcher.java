@@ -0,0 +1,283 @@
+package com.soulsurf.backend.modules.notification.event;
+
+import com.soulsurf.backend.modules.notification.entity.NotificationDeadLetter;
+import com.soulsurf.backend.modules.notification.entity.NotificationType;
+import com.soulsurf.backend.modules.notification.repository.NotificationDeadLetterRepository;
+import com.soulsurf.backend.modules.notification.service.NotificationService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers notification events off the request thread.
+ * <p>
+ * Events go to a fixed-size worker pool with a bounded queue. When the queue is full the
+ * submitting thread delivers the event itself (caller-runs), which slows producers down
+ * instead of dropping notifications or growing memory without bound.
+ * Transient failures (database/transaction errors) are retried with exponential backoff and
+ * full jitter; events that still fail, or fail permanently, are stored in
+ * {@code notification_dead_letters}. So do events still queued or waiting for a retry when the
+ * application shuts down, once the workers have had {@code shutdown-timeout-ms} to finish.
+ * <p>
+ * Exposes {@code notifications.dispatch.queue.depth} and {@code notifications.dispatch.queue.lag}
+ * (age of the oldest queued event) as gauges, plus a {@code notifications.dispatch} counter
+ * tagged by outcome.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationService notificationService;
+    private final NotificationDeadLetterRepository deadLetterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long retryBaseDelayMs;
+    private final long retryMaxDelayMs;
+    private final long shutdownTimeoutMs;
+
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledExecutorService retryScheduler;
+    // Retentativas agendadas: o shutdownNow do agendador devolve apenas wrappers opacos
+    private final Set<Delivery> pendingRetries = ConcurrentHashMap.newKeySet();
+
+    public NotificationDispatcher(NotificationService notificationService,
+            NotificationDeadLetterRepository deadLetterRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.dispatch.threads:4}") int threads,
+            @Value("${notifications.dispatch.queue-capacity:1000}") int queueCapacity,
+            @Value("${notifications.dispatch.max-attempts:4}") int maxAttempts,
+            @Value("${notifications.dispatch.retry-base-delay-ms:200}") long retryBaseDelayMs,
+            @Value("${notifications.dispatch.retry-max-delay-ms:10000}") long retryMaxDelayMs,
+            @Value("${notifications.dispatch.shutdown-timeout-ms:10000}") long shutdownTimeoutMs) {
+        this.notificationService = notificationService;
+        this.deadLetterRepository = deadLetterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.retryBaseDelayMs = retryBaseDelayMs;
+        this.retryMaxDelayMs = retryMaxDelayMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+                namedThreads("notification-dispatch-"), NotificationDispatcher::runOnCaller);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("notification-retry-"));
+
+        Gauge.builder("notifications.dispatch.queue.depth", queue, BlockingQueue::size)
+                .description("Eventos de notificacao aguardando entrega")
+                .register(meterRegistry);
+        Gauge.builder("notifications.dispatch.queue.lag", this, NotificationDispatcher::queueLagMillis)
+                .description("Idade do evento mais antigo na fila")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("notifications.dispatch.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public void dispatch(NotificationEvent event) {
+        submit(new Delivery(event, 1));
+    }
+
+    long queueLagMillis() {
+        Runnable head = queue.peek();
+        return head instanceof Delivery delivery ? System.currentTimeMillis() - delivery.enqueuedAt : 0L;
+    }
+
+    private void submit(Delivery delivery) {
+        try {
+            executor.execute(delivery);
+        } catch (RejectedExecutionException e) {
+            // Somente apos o shutdown; com o pool ativo a fila cheia roda no chamador
+            deadLetter(delivery, e);
+        }
+    }
+
+    // Backpressure: fila cheia entrega na thread de quem publicou o evento
+    private static void runOnCaller(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Dispatcher de notificacoes encerrado");
+        }
+        task.run();
+    }
+
+    private void deliver(Delivery delivery) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> createNotification(delivery.event));
+            count("delivered");
+        } catch (RuntimeException e) {
+            if (isTransient(e) && delivery.attempt < maxAttempts) {
+                long delay = backoffMillis(delivery.attempt);
+                log.warn("Falha ao entregar notificacao {} (tentativa {}/{}), nova tentativa em {} ms: {}",
+                        delivery.event.type(), delivery.attempt, maxAttempts, delay, e.getMessage());
+                count("retried");
+                scheduleRetry(new Delivery(delivery.event, delivery.attempt + 1), delay);
+                return;
+            }
+            deadLetter(delivery, e);
+        }
+    }
+
+    private void scheduleRetry(Delivery retry, long delayMs) {
+        pendingRetries.add(retry);
+        try {
+            retryScheduler.schedule(() -> {
+                if (pendingRetries.remove(retry)) {
+                    submit(retry);
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            if (pendingRetries.remove(retry)) {
+                deadLetter(retry, e);
+            }
+        }
+    }
+
+    // Backoff exponencial com "full jitter": espera aleatoria em [0, min(max, base * 2^(n-1))]
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    static boolean isTransient(Throwable e) {
+        return e instanceof DataAccessException || e instanceof TransactionException;
+    }
+
+    private void deadLetter(Delivery delivery, Exception cause) {
+        NotificationEvent event = delivery.event;
+        log.error("Notificacao {} descartada apos {} tentativa(s): {}",
+                event.type(), delivery.attempt, cause.getMessage());
+        count("dead_lettered");
+
+        NotificationDeadLetter deadLetter = new NotificationDeadLetter();
+        deadLetter.setType(event.type());
+        deadLetter.setSenderEmail(event.senderEmail());
+        deadLetter.setFollowedUserId(event.followedUserId());
+        deadLetter.setRecipientUsername(event.recipientUsername());
+        deadLetter.setPostId(event.postId());
+        deadLetter.setCommentId(event.commentId());
+        deadLetter.setParentCommentId(event.parentCommentId());
+        deadLetter.setAttempts(delivery.attempt);
+        deadLetter.setLastError(truncate(String.valueOf(cause.getMessage())));
+        try {
+            transactionTemplate.executeWithoutResult(status -> deadLetterRepository.save(deadLetter));
+        } catch (RuntimeException e) {
+            log.error("Falha ao gravar dead letter de notificacao {}: {}", event.type(), e.getMessage(), e);
+        }
+    }
+
+    private void createNotification(NotificationEvent event) {
+        if (event.type() == NotificationType.LIKE) {
+            notificationService.createLikeNotification(event.senderEmail(), event.postId());
+        } else if (event.type() == NotificationType.COMMENT) {
+            notificationService.createCommentNotification(event.senderEmail(), event.postId(), event.commentId());
+        } else if (event.type() == NotificationType.REPLY) {
+            notificationService.createReplyNotification(
+                    event.senderEmail(),
+                    event.postId(),
+                    event.commentId(),
+                    event.parentCommentId());
+        } else if (event.type() == NotificationType.MENTION) {
+            notificationService.createMentionNotification(
+                    event.senderEmail(),
+                    event.recipientUsername(),
+                    event.postId(),
+                    event.commentId());
+        } else if (event.type() == NotificationType.FOLLOW) {
+            notificationService.createFollowNotification(event.senderEmail(), event.followedUserId());
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("notifications.dispatch", "outcome", outcome).increment();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS)) {
+                deadLetterUndelivered(executor.shutdownNow());
+            }
+        } catch (InterruptedException e) {
+            deadLetterUndelivered(executor.shutdownNow());
+            Thread.currentThread().interrupt();
+        }
+        // Depois do pool: entregas em andamento ainda podem ter agendado retentativas
+        for (Delivery retry : List.copyOf(pendingRetries)) {
+            if (pendingRetries.remove(retry)) {
+                deadLetter(new Delivery(retry.event, retry.attempt - 1),
+                        new RejectedExecutionException("Retentativa cancelada no shutdown"));
+            }
+        }
+    }
+
+    private void deadLetterUndelivered(List<Runnable> undelivered) {
+        if (!undelivered.isEmpty()) {
+            log.warn("{} notificacao(oes) pendente(s) enviada(s) para dead letter no shutdown", undelivered.size());
+        }
+        RejectedExecutionException cause = new RejectedExecutionException("Dispatcher encerrado antes da entrega");
+        for (Runnable task : undelivered) {
+            if (task instanceof Delivery delivery) {
+                deadLetter(delivery, cause);
+            }
+        }
+    }
+
+    private final class Delivery implements Runnable {
+        private final NotificationEvent event;
+        private final int attempt;
+        private final long enqueuedAt = System.currentTimeMillis();
+
+        private Delivery(NotificationEvent event, int attempt) {
+            this.event = event;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void run() {
+            deliver(this);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.soulsurf.backend.modules.notification.repository;
+
+import com.soulsurf.backend.modules.notification.entity.NotificationDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationDeadLetterRepository extends JpaRepository<NotificationDeadLetter, Long> {
+}
@@ -3,8 +3,13 @@ package com.soulsurf.backend.modules.notification.repository;
 import com.soulsurf.backend.modules.notification.entity.PushToken;
 import com.soulsurf.backend.modules.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +18,13 @@ public interface PushTokenRepository extends JpaRepository<PushToken, Long> {
     Optional<PushToken> findByToken(String token);
 
     List<PushToken> findByUserAndActiveTrue(User user);
+
+    // Atualizacoes em lote a partir dos tickets/receipts da Expo
+    @Modifying
+    @Query("UPDATE PushToken t SET t.lastUsedAt = :now WHERE t.id IN :ids")
+    int markUsed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PushToken t SET t.active = false, t.updatedAt = :now WHERE t.id IN :ids AND t.active = true")
+    int deactivateByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
 }
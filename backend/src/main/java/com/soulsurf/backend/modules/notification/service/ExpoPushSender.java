@@ -0,0 +1,422 @@
+package com.soulsurf.backend.modules.notification.service;
+
+import com.soulsurf.backend.core.persistence.InClauseBatches;
+import com.soulsurf.backend.core.resilience.OutboundGuard;
+import com.soulsurf.backend.modules.notification.entity.PushToken;
+import com.soulsurf.backend.modules.notification.repository.PushTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched sender for the Expo push API.
+ * <p>
+ * Messages for any user are queued and, every {@code push.expo.batch-window-ms}, drained and
+ * sent in requests of up to {@value #MAX_MESSAGES_PER_REQUEST} messages, with at most
+ * {@code push.expo.max-concurrency} requests in flight. Expo answers with one ticket per
+ * message, in request order, which maps each ticket back to its token: tokens with
+ * {@code DeviceNotRegistered} tickets are deactivated right away, accepted tickets are kept
+ * for receipt polling. A second job fetches the receipts of tickets older than
+ * {@code push.expo.receipt-delay-ms} and deactivates, in bulk, the tokens Expo reports as
+ * not registered. On shutdown the queue is drained (for up to {@value #SHUTDOWN_DRAIN_SECONDS}
+ * seconds) after the notification dispatcher, which depends on this sender, has finished.
+ */
+@Component
+@Slf4j
+public class ExpoPushSender {
+
+    static final int MAX_MESSAGES_PER_REQUEST = 100;
+    static final int MAX_RECEIPT_IDS_PER_REQUEST = 1000;
+
+    private static final String SEND_PATH = "/--/api/v2/push/send";
+    private static final String RECEIPTS_PATH = "/--/api/v2/push/getReceipts";
+    private static final String DEVICE_NOT_REGISTERED = "DeviceNotRegistered";
+    private static final String DEFAULT_ANDROID_CHANNEL_ID = "default";
+    private static final String DEFAULT_IOS_SOUND = "default";
+    private static final String HIGH_PRIORITY = "high";
+    // Expo guarda os receipts por 24h
+    private static final Duration RECEIPT_RETENTION = Duration.ofHours(24);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    static final long SHUTDOWN_DRAIN_SECONDS = 10;
+
+    record OutgoingPush(Long tokenId, ExpoPushMessage message) {
+    }
+
+    record PendingReceipt(Long tokenId, LocalDateTime sentAt) {
+    }
+
+    private final PushTokenRepository pushTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+    private final int maxConcurrency;
+    private final Duration receiptDelay;
+
+    private final BlockingQueue<OutgoingPush> queue;
+    private final Map<String, PendingReceipt> pendingReceipts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ExpoPushSender(PushTokenRepository pushTokenRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            WebClient.Builder webClientBuilder,
+            OutboundGuard outboundGuard,
+            @Value("${push.expo.base-url:https://exp.host}") String baseUrl,
+            @Value("${push.expo.max-concurrency:4}") int maxConcurrency,
+            @Value("${push.expo.queue-capacity:10000}") int queueCapacity,
+            @Value("${push.expo.receipt-delay-ms:900000}") long receiptDelayMs) {
+        this(pushTokenRepository, transactionManager, meterRegistry,
+                webClientBuilder.clone().apply(outboundGuard.webClient("expo")).baseUrl(baseUrl).build(),
+                maxConcurrency, queueCapacity, Duration.ofMillis(receiptDelayMs));
+    }
+
+    ExpoPushSender(PushTokenRepository pushTokenRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            WebClient webClient,
+            int maxConcurrency,
+            int queueCapacity,
+            Duration receiptDelay) {
+        this.pushTokenRepository = pushTokenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.webClient = webClient;
+        this.maxConcurrency = maxConcurrency;
+        this.receiptDelay = receiptDelay;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("push.expo.queue.depth", queue, BlockingQueue::size);
+        meterRegistry.gauge("push.expo.receipts.pending", pendingReceipts, Map::size);
+    }
+
+    /**
+     * Queues one message per token. Returns how many were accepted by the queue.
+     */
+    public int enqueue(Collection<PushToken> tokens, String title, String body, Map<String, Object> data) {
+        int queued = 0;
+        for (PushToken token : tokens) {
+            if (queue.offer(new OutgoingPush(token.getId(), new ExpoPushMessage(token.getToken(), title, body, data)))) {
+                queued++;
+            } else {
+                meterRegistry.counter("push.expo.messages", "outcome", "dropped").increment();
+                log.warn("Fila de push cheia, mensagem descartada: tokenId={}", token.getId());
+            }
+        }
+        return queued;
+    }
+
+    @Scheduled(fixedDelayString = "${push.expo.batch-window-ms:250}")
+    public void flushQueued() {
+        flush();
+    }
+
+    /**
+     * Sends what is still queued before the context closes. Stops early when a round sends
+     * nothing (integration unavailable: the messages only went back to the queue); whatever is
+     * left is counted as dropped.
+     */
+    @PreDestroy
+    public void drainOnShutdown() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_DRAIN_SECONDS);
+        try {
+            int before;
+            while ((before = queue.size()) > 0 && System.nanoTime() < deadline) {
+                flush();
+                if (queue.size() >= before) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha ao enviar pushes pendentes no shutdown: {}", e.getMessage());
+        }
+        int dropped = queue.size();
+        if (dropped > 0) {
+            queue.clear();
+            meterRegistry.counter("push.expo.messages", "outcome", "dropped").increment(dropped);
+            log.warn("{} push(es) pendente(s) descartado(s) no shutdown", dropped);
+        }
+    }
+
+    /**
+     * Sends everything queued at call time. Returns how many tickets came back ok.
+     */
+    public int flush() {
+        List<OutgoingPush> drained = new ArrayList<>();
+        queue.drainTo(drained);
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        List<List<OutgoingPush>> chunks = new ArrayList<>();
+        for (int start = 0; start < drained.size(); start += MAX_MESSAGES_PER_REQUEST) {
+            chunks.add(drained.subList(start, Math.min(start + MAX_MESSAGES_PER_REQUEST, drained.size())));
+        }
+
+        List<ChunkResult> results = Flux.fromIterable(chunks)
+                .flatMap(this::sendChunk, maxConcurrency)
+                .collectList()
+                .block();
+
+        Set<Long> used = new HashSet<>();
+        Set<Long> notRegistered = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        int accepted = 0;
+        for (ChunkResult result : results == null ? List.<ChunkResult>of() : results) {
+            accepted += mapTickets(result, now, used, notRegistered);
+        }
+
+        updateTokens(used, notRegistered, now);
+        return accepted;
+    }
+
+    private Mono<ChunkResult> sendChunk(List<OutgoingPush> chunk) {
+        List<ExpoPushMessage> messages = chunk.stream().map(OutgoingPush::message).toList();
+        return webClient.post()
+                .uri(SEND_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(messages)
+                .retrieve()
+                .bodyToMono(ExpoPushResponse.class)
+                .timeout(REQUEST_TIMEOUT)
+                .map(response -> new ChunkResult(chunk, response))
+                .onErrorResume(e -> {
+                    if (OutboundGuard.isRejected(e)) {
+                        requeue(chunk);
+                        return Mono.empty();
+                    }
+                    log.warn("Expo push request failed: messages={}, message={}", chunk.size(), e.getMessage());
+                    meterRegistry.counter("push.expo.messages", "outcome", "failed").increment(chunk.size());
+                    return Mono.empty();
+                });
+    }
+
+    // Circuito aberto ou bulkhead cheio: a chamada nem saiu, as mensagens voltam para a fila
+    private void requeue(List<OutgoingPush> chunk) {
+        int requeued = 0;
+        for (OutgoingPush push : chunk) {
+            if (queue.offer(push)) {
+                requeued++;
+            }
+        }
+        meterRegistry.counter("push.expo.messages", "outcome", "deferred").increment(requeued);
+        meterRegistry.counter("push.expo.messages", "outcome", "dropped").increment(chunk.size() - requeued);
+        log.debug("Expo push adiado (integracao indisponivel): requeued={}, dropped={}", requeued, chunk.size() - requeued);
+    }
+
+    // Tickets voltam na mesma ordem das mensagens enviadas
+    private int mapTickets(ChunkResult result, LocalDateTime now, Set<Long> used, Set<Long> notRegistered) {
+        ExpoPushResponse response = result.response();
+        if (response.getErrors() != null) {
+            response.getErrors().forEach(error -> log.error(
+                    "Expo push request error: code={}, message={}", error.getCode(), error.getMessage()));
+        }
+        List<ExpoPushTicket> tickets = response.getData() == null ? List.of() : response.getData();
+        if (tickets.size() != result.chunk().size()) {
+            log.warn("Expo push ticket count mismatch: messages={}, tickets={}", result.chunk().size(), tickets.size());
+        }
+
+        int accepted = 0;
+        int limit = Math.min(tickets.size(), result.chunk().size());
+        for (int i = 0; i < limit; i++) {
+            Long tokenId = result.chunk().get(i).tokenId();
+            ExpoPushTicket ticket = tickets.get(i);
+            used.add(tokenId);
+
+            if ("ok".equalsIgnoreCase(ticket.getStatus())) {
+                accepted++;
+                if (ticket.getId() != null) {
+                    pendingReceipts.put(ticket.getId(), new PendingReceipt(tokenId, now));
+                }
+                continue;
+            }
+
+            Object expoError = ticket.getDetails() == null ? null : ticket.getDetails().get("error");
+            log.warn("Expo push ticket error: tokenId={}, status={}, error={}, message={}",
+                    tokenId, ticket.getStatus(), expoError, ticket.getMessage());
+            if (DEVICE_NOT_REGISTERED.equals(expoError)) {
+                notRegistered.add(tokenId);
+            }
+        }
+        meterRegistry.counter("push.expo.messages", "outcome", "ok").increment(accepted);
+        meterRegistry.counter("push.expo.messages", "outcome", "error").increment(limit - accepted);
+        return accepted;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${push.expo.receipt-poll-interval-ms:300000}",
+            initialDelayString = "${push.expo.receipt-poll-interval-ms:300000}"
+    )
+    public void pollReceipts() {
+        int deactivated = checkReceipts();
+        if (deactivated > 0) {
+            log.info("Push tokens desativados por receipt: {}", deactivated);
+        }
+    }
+
+    /**
+     * Fetches receipts for tickets older than the receipt delay and deactivates tokens whose
+     * device is no longer registered. Returns how many tokens were deactivated.
+     */
+    public int checkReceipts() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime readyBefore = now.minus(receiptDelay);
+        LocalDateTime expiredBefore = now.minus(RECEIPT_RETENTION);
+        pendingReceipts.values().removeIf(receipt -> receipt.sentAt().isBefore(expiredBefore));
+
+        List<String> ready = pendingReceipts.entrySet().stream()
+                .filter(entry -> !entry.getValue().sentAt().isAfter(readyBefore))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (ready.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> notRegistered = new HashSet<>();
+        for (int start = 0; start < ready.size(); start += MAX_RECEIPT_IDS_PER_REQUEST) {
+            List<String> ids = ready.subList(start, Math.min(start + MAX_RECEIPT_IDS_PER_REQUEST, ready.size()));
+            ExpoReceiptsResponse response = fetchReceipts(ids);
+            if (response == null || response.getData() == null) {
+                continue;
+            }
+            response.getData().forEach((ticketId, receipt) -> {
+                PendingReceipt pending = pendingReceipts.remove(ticketId);
+                if (pending == null || "ok".equalsIgnoreCase(receipt.getStatus())) {
+                    return;
+                }
+                Object expoError = receipt.getDetails() == null ? null : receipt.getDetails().get("error");
+                log.warn("Expo push receipt error: tokenId={}, error={}, message={}",
+                        pending.tokenId(), expoError, receipt.getMessage());
+                if (DEVICE_NOT_REGISTERED.equals(expoError)) {
+                    notRegistered.add(pending.tokenId());
+                }
+            });
+        }
+
+        return updateTokens(Set.of(), notRegistered, now);
+    }
+
+    private ExpoReceiptsResponse fetchReceipts(List<String> ids) {
+        try {
+            return webClient.post()
+                    .uri(RECEIPTS_PATH)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("ids", ids))
+                    .retrieve()
+                    .bodyToMono(ExpoReceiptsResponse.class)
+                    .timeout(REQUEST_TIMEOUT)
+                    .block();
+        } catch (RuntimeException e) {
+            // Os tickets continuam pendentes e entram na proxima rodada
+            log.warn("Expo receipts request failed: ids={}, message={}", ids.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private int updateTokens(Set<Long> used, Set<Long> notRegistered, LocalDateTime now) {
+        if (used.isEmpty() && notRegistered.isEmpty()) {
+            return 0;
+        }
+        Integer deactivated = transactionTemplate.execute(status -> {
+            for (List<Long> chunk : InClauseBatches.partition(used)) {
+                pushTokenRepository.markUsed(chunk, now);
+            }
+            int count = 0;
+            for (List<Long> chunk : InClauseBatches.partition(notRegistered)) {
+                count += pushTokenRepository.deactivateByIds(chunk, now);
+            }
+            return count;
+        });
+        if (deactivated != null && deactivated > 0) {
+            log.info("Push tokens marked inactive: count={}, reason={}", deactivated, DEVICE_NOT_REGISTERED);
+        }
+        return deactivated == null ? 0 : deactivated;
+    }
+
+    int pendingReceiptCount() {
+        return pendingReceipts.size();
+    }
+
+    Long pendingReceiptToken(String ticketId) {
+        PendingReceipt receipt = pendingReceipts.get(ticketId);
+        return receipt == null ? null : receipt.tokenId();
+    }
+
+    private record ChunkResult(List<OutgoingPush> chunk, ExpoPushResponse response) {
+    }
+
+    @Getter
+    static class ExpoPushMessage {
+        private final String to;
+        private final String title;
+        private final String body;
+        private final Map<String, Object> data;
+        private final String sound;
+        private final String channelId;
+        private final String priority;
+
+        ExpoPushMessage(String to, String title, String body, Map<String, Object> data) {
+            this.to = to;
+            this.title = title;
+            this.body = body;
+            this.data = data == null ? Map.of() : data;
+            this.sound = DEFAULT_IOS_SOUND;
+            this.channelId = DEFAULT_ANDROID_CHANNEL_ID;
+            this.priority = HIGH_PRIORITY;
+        }
+    }
+
+    @Getter
+    @Setter
+    private static class ExpoPushResponse {
+        private List<ExpoPushTicket> data;
+        private List<ExpoPushRequestError> errors;
+    }
+
+    @Getter
+    @Setter
+    private static class ExpoReceiptsResponse {
+        private Map<String, ExpoPushTicket> data;
+    }
+
+    @Getter
+    @Setter
+    private static class ExpoPushTicket {
+        private String status;
+        private String id;
+        private String message;
+        private Map<String, Object> details;
+    }
+
+    @Getter
+    @Setter
+    private static class ExpoPushRequestError {
+        private String code;
+        private String message;
+    }
+}
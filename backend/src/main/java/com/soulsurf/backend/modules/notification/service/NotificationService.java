@@ -16,6 +16,8 @@ import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashMap;
 import java.util.List;
@@ -47,6 +49,24 @@ public class NotificationService {
         this.pushNotificationService = pushNotificationService;
     }
 
+    // STOMP e push (HTTP para a Expo) so depois do commit, sem segurar a conexao do banco
+    private void fanOutAfterCommit(Notification notification) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendRealTimeNotification(notification);
+                    sendPushNotification(notification);
+                }
+            });
+            return;
+        }
+
+        sendRealTimeNotification(notification);
+        sendPushNotification(notification);
+    }
+
     private void sendRealTimeNotification(Notification notification) {
         try {
             NotificationDTO dto = notificationMapper.toDto(notification);
@@ -134,8 +154,7 @@ public class NotificationService {
                 postId,
                 sender.getUsername(),
                 recipient.getUsername());
-        sendRealTimeNotification(saved);
-        sendPushNotification(saved);
+        fanOutAfterCommit(saved);
     }
 
     @Transactional
@@ -161,8 +180,7 @@ public class NotificationService {
         notification.setComment(comment);
 
         Notification saved = notificationRepository.save(notification);
-        sendRealTimeNotification(saved);
-        sendPushNotification(saved);
+        fanOutAfterCommit(saved);
     }
 
     @Transactional
@@ -191,8 +209,7 @@ public class NotificationService {
         notification.setComment(comment);
 
         Notification saved = notificationRepository.save(notification);
-        sendRealTimeNotification(saved);
-        sendPushNotification(saved);
+        fanOutAfterCommit(saved);
     }
 
     @Transactional
@@ -220,8 +237,7 @@ public class NotificationService {
                 postId,
                 sender.getUsername(),
                 post.getUsuario().getUsername());
-        sendRealTimeNotification(saved);
-        sendPushNotification(saved);
+        fanOutAfterCommit(saved);
     }
 
     @Transactional
@@ -247,8 +263,7 @@ public class NotificationService {
                 saved.getId(),
                 sender.getUsername(),
                 recipient.getUsername());
-        sendRealTimeNotification(saved);
-        sendPushNotification(saved);
+        fanOutAfterCommit(saved);
     }
 
     @Transactional
@@ -17,4 +17,6 @@ public class PointOfInterestDTO {
     private Double longitude;
     private String telefone;
     private String caminhoFoto;
+    private String caminhoFotoThumb;
+    private String caminhoFotoFeed;
 }
@@ -23,6 +23,8 @@ public class PoiMapper {
         dto.setLongitude(poi.getLongitude());
         dto.setTelefone(poi.getTelefone());
         dto.setCaminhoFoto(poi.getCaminhoFoto());
+        dto.setCaminhoFotoThumb(poi.getCaminhoFotoThumb());
+        dto.setCaminhoFotoFeed(poi.getCaminhoFotoFeed());
 
         return dto;
     }
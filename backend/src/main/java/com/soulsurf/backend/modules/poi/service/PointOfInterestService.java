@@ -5,7 +5,8 @@ import com.soulsurf.backend.modules.poi.entity.PointOfInterest;
 import com.soulsurf.backend.modules.poi.entity.PoiCategory;
 import com.soulsurf.backend.modules.poi.mapper.PoiMapper;
 import com.soulsurf.backend.modules.poi.repository.PointOfInterestRepository;
-import com.soulsurf.backend.core.storage.OracleStorageService;
+import com.soulsurf.backend.core.image.ImageRenditions;
+import com.soulsurf.backend.core.image.ImageUploadService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -20,14 +21,14 @@ public class PointOfInterestService {
 
     private final PointOfInterestRepository poiRepository;
     private final PoiMapper poiMapper;
-    private final Optional<OracleStorageService> blobStorageService;
+    private final Optional<ImageUploadService> imageUploadService;
 
     public PointOfInterestService(PointOfInterestRepository poiRepository,
             PoiMapper poiMapper,
-            Optional<OracleStorageService> blobStorageService) {
+            Optional<ImageUploadService> imageUploadService) {
         this.poiRepository = poiRepository;
         this.poiMapper = poiMapper;
-        this.blobStorageService = blobStorageService;
+        this.imageUploadService = imageUploadService;
     }
 
     @Transactional(readOnly = true)
@@ -55,10 +56,12 @@ public class PointOfInterestService {
         poi.setLongitude(longitude);
         poi.setTelefone(telefone);
 
-        if (blobStorageService.isPresent() && foto != null && !foto.isEmpty()) {
+        if (imageUploadService.isPresent() && foto != null && !foto.isEmpty()) {
             try {
-                String urlDaFoto = blobStorageService.get().uploadFile(foto);
-                poi.setCaminhoFoto(urlDaFoto);
+                ImageRenditions fotos = imageUploadService.get().upload(foto);
+                poi.setCaminhoFoto(fotos.full());
+                poi.setCaminhoFotoFeed(fotos.feed());
+                poi.setCaminhoFotoThumb(fotos.thumbnail());
             } catch (IOException e) {
                 throw new RuntimeException("Erro ao fazer upload da foto do ponto de interesse: " + e.getMessage(), e);
             }
@@ -2,6 +2,7 @@ package com.soulsurf.backend.modules.post.controller;
 
 import com.soulsurf.backend.modules.post.controller.CreatePostRequest;
 import com.soulsurf.backend.modules.chat.dto.MessageResponse;
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
 import com.soulsurf.backend.modules.post.dto.PostDTO;
 import com.soulsurf.backend.modules.user.entity.User;
 import com.soulsurf.backend.modules.user.repository.UserRepository;
@@ -61,12 +62,16 @@ public class PostController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
         }
 
-        @Operation(summary = "Lista todos os posts públicos (Feed Principal)", description = "Retorna uma lista de todos os posts marcados como públicos, ideal para o feed principal.")
+        @Operation(summary = "Lista todos os posts públicos (Feed Principal)", description = "Retorna uma lista de todos os posts marcados como públicos, ideal para o feed principal. Com o parâmetro 'after' usa paginação por cursor (keyset).")
         @ApiResponse(responseCode = "200", description = "Posts listados com sucesso")
         @GetMapping("/home")
-        public ResponseEntity<Page<PostDTO>> getPublicFeed(
+        public ResponseEntity<?> getPublicFeed(
                         @RequestParam(defaultValue = "0") int page,
-                        @RequestParam(defaultValue = "20") int size) {
+                        @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "Cursor de keyset <data>,<id> (vazio = primeira pagina). Quando informado, retorna pagina por cursor sem total") @RequestParam(required = false) String after) {
+                if (after != null) {
+                        return ResponseEntity.ok(postService.getPublicFeedAfter(FeedCursor.parse(after), size));
+                }
                 Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "data"));
                 Page<PostDTO> posts = postService.getPublicFeed(pageable);
                 return ResponseEntity.ok(posts);
@@ -75,11 +80,15 @@ public class PostController {
         @Operation(summary = "Lista os posts dos usuários que você segue (Feed 'Seguindo')", description = "Retorna um feed com os posts das pessoas que o usuário autenticado segue. Requer autenticação JWT.", security = @SecurityRequirement(name = "bearerAuth"))
         @ApiResponse(responseCode = "200", description = "Feed 'seguindo' listado com sucesso")
         @GetMapping("/following")
-        public ResponseEntity<Page<PostDTO>> getFollowingPosts(
+        public ResponseEntity<?> getFollowingPosts(
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "Cursor de keyset <data>,<id> (vazio = primeira pagina). Quando informado, retorna pagina por cursor sem total") @RequestParam(required = false) String after,
                         Principal principal) {
                 String userEmail = principal.getName();
+                if (after != null) {
+                        return ResponseEntity.ok(postService.getFollowingPostsAfter(userEmail, FeedCursor.parse(after), size));
+                }
                 Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "data"));
                 Page<PostDTO> posts = postService.getFollowingPosts(userEmail, pageable);
                 return ResponseEntity.ok(posts);
@@ -88,11 +97,15 @@ public class PostController {
         @Operation(summary = "Lista os meus posts", description = "Retorna os posts do usuario autenticado, incluindo privados.", security = @SecurityRequirement(name = "bearerAuth"))
         @ApiResponse(responseCode = "200", description = "Posts retornados com sucesso")
         @GetMapping("/me")
-        public ResponseEntity<Page<PostDTO>> getMyPosts(
+        public ResponseEntity<?> getMyPosts(
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "Cursor de keyset <data>,<id> (vazio = primeira pagina). Quando informado, retorna pagina por cursor sem total") @RequestParam(required = false) String after,
                         @AuthenticationPrincipal UserDetails userDetails) {
                 String userEmail = userDetails.getUsername();
+                if (after != null) {
+                        return ResponseEntity.ok(postService.getPostsByUserEmailAfter(userEmail, userEmail, FeedCursor.parse(after), size));
+                }
                 Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "data"));
                 Page<PostDTO> posts = postService.getPostsByUserEmail(userEmail, userEmail, pageable);
                 return ResponseEntity.ok(posts);
@@ -121,13 +134,17 @@ public class PostController {
                         @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
         })
         @GetMapping("/user")
-        public ResponseEntity<Page<PostDTO>> getPostsByUser(
+        public ResponseEntity<?> getPostsByUser(
                         @Parameter(description = "E-mail do usuario") @RequestParam String email,
                         @RequestParam(defaultValue = "0") int page,
                         @RequestParam(defaultValue = "20") int size,
+                        @Parameter(description = "Cursor de keyset <data>,<id> (vazio = primeira pagina). Quando informado, retorna pagina por cursor sem total") @RequestParam(required = false) String after,
                         @AuthenticationPrincipal UserDetails userDetails) {
-                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "data"));
                 String requesterEmail = userDetails != null ? userDetails.getUsername() : null;
+                if (after != null) {
+                        return ResponseEntity.ok(postService.getPostsByUserEmailAfter(email, requesterEmail, FeedCursor.parse(after), size));
+                }
+                Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "data"));
                 Page<PostDTO> posts = postService.getPostsByUserEmail(email, requesterEmail, pageable);
                 return ResponseEntity.ok(posts);
         }
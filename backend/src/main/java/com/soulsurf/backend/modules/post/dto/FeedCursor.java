@@ -0,0 +1,37 @@
+package com.soulsurf.backend.modules.post.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Posicao de keyset (seek) nos feeds, ordenados por {@code (data DESC, id DESC)}.
+ * Serializado como {@code <data ISO>,<id>}, ex.: {@code 2025-03-01T10:15:30.123456,42}.
+ */
+public record FeedCursor(LocalDateTime data, Long id) {
+
+    // Cursor anterior a qualquer post: usado para a primeira pagina
+    public static final FeedCursor START = new FeedCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    public static FeedCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+
+        int separator = value.lastIndexOf(',');
+        if (separator <= 0 || separator == value.length() - 1) {
+            throw new IllegalArgumentException("Cursor invalido: use o formato <data>,<id>.");
+        }
+
+        try {
+            LocalDateTime data = LocalDateTime.parse(value.substring(0, separator).trim());
+            Long id = Long.parseLong(value.substring(separator + 1).trim());
+            return new FeedCursor(data, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor invalido: use o formato <data>,<id>.");
+        }
+    }
+
+    public String encode() {
+        return data + "," + id;
+    }
+}
@@ -16,6 +16,8 @@ public class PostDTO {
     // private String titulo;
     private String descricao;
     private String caminhoFoto;
+    private String caminhoFotoThumb;
+    private String caminhoFotoFeed;
     private LocalDateTime data;
     private UserDTO usuario;
     private boolean publico;
@@ -0,0 +1,12 @@
+package com.soulsurf.backend.modules.post.dto;
+
+import java.util.List;
+
+/**
+ * Esqueleto de uma pagina de feed: so os ids dos posts, na ordem do feed.
+ * E o que fica nos caches de feed; o conteudo vem do cache compartilhado de posts
+ * ({@code postById}) e o "curtido por mim" e calculado por leitor.
+ * {@code totalElements} so e preenchido em paginas por offset, {@code nextCursor} so em keyset.
+ */
+public record PostIdPage(List<Long> postIds, long totalElements, boolean hasNext, String nextCursor) {
+}
@@ -0,0 +1,20 @@
+package com.soulsurf.backend.modules.post.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// Pagina de feed por cursor: sem total de elementos (nao executa COUNT)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostSliceDTO {
+    private List<PostDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,9 +35,23 @@ public class Post {
     @Column(name = "caminho_foto")
     private String caminhoFoto;
 
+    // Variantes reduzidas de caminhoFoto (ImagePipeline); nulas em fotos anteriores a elas
+    @Column(name = "caminho_foto_thumb", length = 512)
+    private String caminhoFotoThumb;
+
+    @Column(name = "caminho_foto_feed", length = 512)
+    private String caminhoFotoFeed;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime data;
 
+    // Contadores desnormalizados: alterados apenas via update atomico no PostRepository
+    @Column(name = "likes_count", nullable = false, updatable = false)
+    private long likesCount = 0;
+
+    @Column(name = "comments_count", nullable = false, updatable = false)
+    private long commentsCount = 0;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_id", nullable = false)
     private User usuario;
@@ -53,6 +68,7 @@ public class Post {
 
     @PrePersist
     protected void onCreate() {
-        this.data = LocalDateTime.now();
+        // Mesma precisao da coluna TIMESTAMP(6): o cursor de keyset precisa casar com o valor gravado
+        this.data = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,41 @@
+package com.soulsurf.backend.modules.post.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One post materialized in a follower's timeline (fan-out-on-write).
+ * Derived data: rows are written by {@link com.soulsurf.backend.modules.post.service.TimelineService}
+ * and always joined back to {@code posts} when read, so there are no foreign keys.
+ */
+@Entity
+@Table(name = "timeline_entries", indexes = {
+        @Index(name = "idx_timeline_user_data_post", columnList = "user_id, post_data, post_id"),
+        @Index(name = "idx_timeline_user_author", columnList = "user_id, author_id"),
+        @Index(name = "idx_timeline_post_id", columnList = "post_id")
+})
+@IdClass(TimelineEntryId.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class TimelineEntry {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    // Copia de posts.data para ordenar/paginar o timeline sem ler a tabela de posts
+    @Column(name = "post_data", nullable = false)
+    private LocalDateTime postData;
+}
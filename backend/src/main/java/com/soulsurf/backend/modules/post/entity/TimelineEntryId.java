@@ -0,0 +1,34 @@
+package com.soulsurf.backend.modules.post.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class TimelineEntryId implements Serializable {
+    private Long userId;
+    private Long postId;
+
+    public TimelineEntryId(Long userId, Long postId) {
+        this.userId = userId;
+        this.postId = postId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimelineEntryId that = (TimelineEntryId) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(postId, that.postId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, postId);
+    }
+}
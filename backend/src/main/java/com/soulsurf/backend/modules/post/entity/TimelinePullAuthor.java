@@ -0,0 +1,33 @@
+package com.soulsurf.backend.modules.post.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * An author served by fan-out-on-read, whose posts are not copied into follower timelines.
+ * Kept by {@link com.soulsurf.backend.modules.post.service.TimelineService}; a row is only removed
+ * once the author's posts have been backfilled into those timelines.
+ */
+@Entity
+@Table(name = "timeline_pull_authors")
+@Getter
+@Setter
+@NoArgsConstructor
+public class TimelinePullAuthor {
+
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+
+    @Column(name = "promoted_at", nullable = false)
+    private LocalDateTime promotedAt;
+
+    public TimelinePullAuthor(Long authorId, LocalDateTime promotedAt) {
+        this.authorId = authorId;
+        this.promotedAt = promotedAt;
+    }
+}
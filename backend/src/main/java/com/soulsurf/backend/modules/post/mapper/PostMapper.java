@@ -1,15 +1,31 @@
 package com.soulsurf.backend.modules.post.mapper;
 
+import com.soulsurf.backend.core.persistence.InClauseBatches;
+import com.soulsurf.backend.modules.beach.entity.Beach;
+import com.soulsurf.backend.modules.beach.repository.BeachRepository;
+import com.soulsurf.backend.modules.comment.entity.Comment;
+import com.soulsurf.backend.modules.comment.repository.CommentRepository;
 import com.soulsurf.backend.modules.post.dto.PostDTO;
 import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.repository.LikeRepository;
+import com.soulsurf.backend.modules.user.dto.UserDTO;
 import com.soulsurf.backend.modules.user.entity.User;
-import com.soulsurf.backend.modules.post.service.LikeService;
 import com.soulsurf.backend.modules.user.mapper.UserMapper;
 import com.soulsurf.backend.modules.comment.mapper.CommentMapper;
 import com.soulsurf.backend.modules.beach.mapper.BeachMapper;
-import org.springframework.context.annotation.Lazy;
+import com.soulsurf.backend.modules.user.repository.FollowRepository;
+import com.soulsurf.backend.modules.user.repository.UserRepository;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -18,16 +34,28 @@ public class PostMapper {
     private final UserMapper userMapper;
     private final CommentMapper commentMapper;
     private final BeachMapper beachMapper;
-    private final LikeService likeService;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final UserRepository userRepository;
+    private final FollowRepository followRepository;
+    private final BeachRepository beachRepository;
 
     public PostMapper(UserMapper userMapper,
             CommentMapper commentMapper,
             BeachMapper beachMapper,
-            @Lazy LikeService likeService) {
+            LikeRepository likeRepository,
+            CommentRepository commentRepository,
+            UserRepository userRepository,
+            FollowRepository followRepository,
+            BeachRepository beachRepository) {
         this.userMapper = userMapper;
         this.commentMapper = commentMapper;
         this.beachMapper = beachMapper;
-        this.likeService = likeService;
+        this.likeRepository = likeRepository;
+        this.commentRepository = commentRepository;
+        this.userRepository = userRepository;
+        this.followRepository = followRepository;
+        this.beachRepository = beachRepository;
     }
 
     public PostDTO toDto(Post post) {
@@ -35,34 +63,93 @@ public class PostMapper {
     }
 
     public PostDTO toDto(Post post, String currentUserEmail) {
-        PostDTO dto = new PostDTO();
-        dto.setId(post.getId());
-        dto.setPublico(post.isPublico());
-        dto.setDescricao(post.getDescricao());
-        dto.setCaminhoFoto(post.getCaminhoFoto());
-        dto.setData(post.getData());
-
-        User usuario = post.getUsuario();
-        dto.setUsuario(userMapper.toDto(usuario));
-
-        if (post.getBeach() != null) {
-            dto.setBeach(beachMapper.toDto(post.getBeach()));
+        return toDtos(List.of(post), currentUserEmail).get(0);
+    }
+
+    /**
+     * Maps a whole page of posts using a constant number of grouped queries
+     * (authors, beaches, follower counts, liked-by-me flags and comments),
+     * instead of walking lazy associations post by post. Like/comment counts come
+     * from the denormalized columns on {@link Post}. Preserves the input order.
+     */
+    public List<PostDTO> toDtos(List<Post> posts, String currentUserEmail) {
+        if (posts.isEmpty()) {
+            return List.of();
+        }
+        if (posts.size() > InClauseBatches.MAX_SIZE) {
+            List<PostDTO> dtos = new ArrayList<>(posts.size());
+            for (List<Post> batch : InClauseBatches.partition(posts)) {
+                dtos.addAll(toDtos(batch, currentUserEmail));
+            }
+            return dtos;
+        }
+
+        Set<Long> postIds = new LinkedHashSet<>();
+        Set<Long> authorIds = new HashSet<>();
+        Set<Long> beachIds = new HashSet<>();
+        for (Post post : posts) {
+            postIds.add(post.getId());
+            authorIds.add(post.getUsuario().getId());
+            if (post.getBeach() != null) {
+                beachIds.add(post.getBeach().getId());
+            }
         }
 
-        dto.setComments(post.getComments().stream()
-                .filter(comment -> comment.getParentComment() == null)
-                .map(commentMapper::toDto)
-                .collect(Collectors.toList()));
+        Map<Long, User> authors = userRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Beach> beaches = beachIds.isEmpty()
+                ? Map.of()
+                : beachRepository.findAllById(beachIds).stream()
+                        .collect(Collectors.toMap(Beach::getId, Function.identity()));
+        Map<Long, Long> followersByUser = toCountMap(followRepository.countFollowersByUserIds(authorIds));
+        Map<Long, Long> followingByUser = toCountMap(followRepository.countFollowingByUserIds(authorIds));
+        Set<Long> likedPostIds = currentUserEmail == null
+                ? Set.of()
+                : new HashSet<>(likeRepository.findLikedPostIds(postIds, currentUserEmail));
+        Map<Long, List<Comment>> commentsByPost = commentRepository.findByPostIdsWithUsuario(postIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getPost().getId()));
 
-        dto.setLikesCount(likeService.countLikes(post.getId()));
-        if (currentUserEmail != null) {
-            dto.setLikedByCurrentUser(likeService.hasUserLiked(post.getId(), currentUserEmail));
-        } else {
-            dto.setLikedByCurrentUser(false);
+        Map<Long, UserDTO> authorDtos = new HashMap<>();
+        for (Map.Entry<Long, User> entry : authors.entrySet()) {
+            UserDTO author = userMapper.toSimpleDto(entry.getValue());
+            author.setSeguidoresCount(followersByUser.getOrDefault(entry.getKey(), 0L).intValue());
+            author.setSeguindoCount(followingByUser.getOrDefault(entry.getKey(), 0L).intValue());
+            authorDtos.put(entry.getKey(), author);
         }
-        dto.setCommentsCount(post.getComments().size());
 
-        return dto;
+        List<PostDTO> dtos = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            PostDTO dto = new PostDTO();
+            dto.setId(post.getId());
+            dto.setPublico(post.isPublico());
+            dto.setDescricao(post.getDescricao());
+            dto.setCaminhoFoto(post.getCaminhoFoto());
+            dto.setCaminhoFotoThumb(post.getCaminhoFotoThumb());
+            dto.setCaminhoFotoFeed(post.getCaminhoFotoFeed());
+            dto.setData(post.getData());
+
+            dto.setUsuario(authorDtos.get(post.getUsuario().getId()));
+
+            if (post.getBeach() != null) {
+                dto.setBeach(beachMapper.toDto(beaches.getOrDefault(post.getBeach().getId(), post.getBeach())));
+            }
+
+            dto.setComments(commentMapper.toDtoTree(commentsByPost.getOrDefault(post.getId(), List.of())));
+            dto.setCommentsCount(post.getCommentsCount());
+
+            dto.setLikesCount(post.getLikesCount());
+            dto.setLikedByCurrentUser(likedPostIds.contains(post.getId()));
+
+            dtos.add(dto);
+        }
+        return dtos;
     }
-}
 
+    private Map<Long, Long> toCountMap(Collection<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
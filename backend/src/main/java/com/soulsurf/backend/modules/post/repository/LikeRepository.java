@@ -4,8 +4,12 @@ import com.soulsurf.backend.modules.post.entity.Like;
 import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,5 +23,13 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     void deleteByPostAndUsuario(Post post, User usuario);
 
     void deleteAllByPost(Post post);
+
+    // Contagem de likes agrupada por post (postId, count) para uma pagina inteira do feed
+    @Query("SELECT l.post.id, COUNT(l) FROM Like l WHERE l.post.id IN :postIds GROUP BY l.post.id")
+    List<Object[]> countGroupedByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Ids dos posts (dentre os informados) curtidos pelo usuario
+    @Query("SELECT l.post.id FROM Like l WHERE l.post.id IN :postIds AND l.usuario.email = :email")
+    List<Long> findLikedPostIds(@Param("postIds") Collection<Long> postIds, @Param("email") String email);
 }
 
@@ -5,11 +5,16 @@ import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.user.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
     List<Post> findByPublicoIsTrueOrderByDataDesc();
@@ -28,6 +33,72 @@ public interface PostRepository extends JpaRepository<Post, Long> {
 
     Page<Post> findByBeachAndPublicoIsTrue(Beach beach, Pageable pageable);
 
+    // Keyset (seek) pagination sobre (data, id): posts estritamente anteriores ao cursor, sem COUNT.
+    // "p.data <= :data" vem primeiro para permitir range scan nos indices (x, data, id).
+    @Query("""
+        SELECT p FROM Post p
+        WHERE p.publico = true
+          AND p.data <= :data AND (p.data < :data OR p.id < :id)
+        ORDER BY p.data DESC, p.id DESC
+    """)
+    Slice<Post> findPublicFeedAfter(@Param("data") LocalDateTime data, @Param("id") Long id, Pageable pageable);
+
+    @Query("""
+        SELECT p FROM Post p
+        WHERE p.usuario IN :usuarios
+          AND p.data <= :data AND (p.data < :data OR p.id < :id)
+        ORDER BY p.data DESC, p.id DESC
+    """)
+    Slice<Post> findByUsuarioInAfter(@Param("usuarios") List<User> usuarios,
+                                     @Param("data") LocalDateTime data,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("""
+        SELECT p FROM Post p
+        WHERE p.usuario = :usuario
+          AND p.data <= :data AND (p.data < :data OR p.id < :id)
+        ORDER BY p.data DESC, p.id DESC
+    """)
+    Slice<Post> findByUsuarioAfter(@Param("usuario") User usuario,
+                                   @Param("data") LocalDateTime data,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    @Query("""
+        SELECT p FROM Post p
+        WHERE p.usuario = :usuario AND p.publico = true
+          AND p.data <= :data AND (p.data < :data OR p.id < :id)
+        ORDER BY p.data DESC, p.id DESC
+    """)
+    Slice<Post> findPublicByUsuarioAfter(@Param("usuario") User usuario,
+                                         @Param("data") LocalDateTime data,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @Query("""
+        SELECT p FROM Post p
+        WHERE p.beach = :beach AND (p.publico = true OR p.usuario.email = :email)
+          AND p.data <= :data AND (p.data < :data OR p.id < :id)
+        ORDER BY p.data DESC, p.id DESC
+    """)
+    Slice<Post> findVisibleByBeachAfter(@Param("beach") Beach beach,
+                                        @Param("email") String email,
+                                        @Param("data") LocalDateTime data,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    @Query("""
+        SELECT p FROM Post p
+        WHERE p.beach = :beach AND p.publico = true
+          AND p.data <= :data AND (p.data < :data OR p.id < :id)
+        ORDER BY p.data DESC, p.id DESC
+    """)
+    Slice<Post> findPublicByBeachAfter(@Param("beach") Beach beach,
+                                       @Param("data") LocalDateTime data,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
     @Query("SELECT COUNT(DISTINCT p.usuario.id) FROM Post p")
     long countDistinctAuthors();
 
@@ -43,5 +114,37 @@ public interface PostRepository extends JpaRepository<Post, Long> {
     @Query("SELECT p.beach.id, p.beach.nome, COUNT(p) FROM Post p WHERE p.data BETWEEN :start AND :end AND p.beach IS NOT NULL GROUP BY p.beach.id, p.beach.nome ORDER BY COUNT(p) DESC")
     java.util.List<Object[]> postsByBeachBetween(@Param("start") java.time.LocalDateTime start,
                                                  @Param("end") java.time.LocalDateTime end);
-}
 
+    // Contadores desnormalizados (likes_count / comments_count), atualizados atomicamente no banco
+    @Modifying
+    @Query("UPDATE Post p SET p.likesCount = p.likesCount + :delta WHERE p.id = :postId")
+    int adjustLikesCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Post p SET p.commentsCount = p.commentsCount + :delta WHERE p.id = :postId")
+    int adjustCommentsCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    // So aplica se os contadores nao mudaram desde a leitura (evita sobrescrever um toggle concorrente)
+    @Modifying
+    @Query("""
+        UPDATE Post p
+        SET p.likesCount = :likesCount, p.commentsCount = :commentsCount
+        WHERE p.id = :postId AND p.likesCount = :expectedLikes AND p.commentsCount = :expectedComments
+    """)
+    int repairCounters(@Param("postId") Long postId,
+                       @Param("expectedLikes") long expectedLikes,
+                       @Param("expectedComments") long expectedComments,
+                       @Param("likesCount") long likesCount,
+                       @Param("commentsCount") long commentsCount);
+
+    @Query("SELECT p.likesCount FROM Post p WHERE p.id = :postId")
+    Optional<Long> findLikesCountById(@Param("postId") Long postId);
+
+    // (id, likesCount) de varios posts de uma vez, para flush de likes e broadcast agrupado
+    @Query("SELECT p.id, p.likesCount FROM Post p WHERE p.id IN :postIds")
+    List<Object[]> findLikesCountsByIds(@Param("postIds") Collection<Long> postIds);
+
+    // Lote para reconciliacao: (id, likesCount, commentsCount) a partir de um id, em ordem crescente
+    @Query("SELECT p.id, p.likesCount, p.commentsCount FROM Post p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<Object[]> findCounterBatch(@Param("afterId") Long afterId, Pageable pageable);
+}
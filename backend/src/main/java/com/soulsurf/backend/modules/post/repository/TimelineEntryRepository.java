@@ -0,0 +1,113 @@
+package com.soulsurf.backend.modules.post.repository;
+
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.entity.TimelineEntry;
+import com.soulsurf.backend.modules.post.entity.TimelineEntryId;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    // Fan-out-on-write: um INSERT ... SELECT por post, direto de user_seguindo, sem carregar seguidores
+    @Modifying
+    @Query(value = """
+        INSERT INTO timeline_entries (user_id, post_id, author_id, post_data)
+        SELECT us.user_id, :postId, :authorId, :postData
+        FROM user_seguindo us
+        WHERE us.seguindo_id = :authorId
+          AND NOT EXISTS (SELECT 1 FROM timeline_entries t WHERE t.user_id = us.user_id AND t.post_id = :postId)
+    """, nativeQuery = true)
+    int fanOut(@Param("postId") Long postId,
+            @Param("authorId") Long authorId,
+            @Param("postData") LocalDateTime postData);
+
+    // Ao seguir alguem, copia os posts existentes do autor para o timeline do seguidor
+    @Modifying
+    @Query(value = """
+        INSERT INTO timeline_entries (user_id, post_id, author_id, post_data)
+        SELECT :userId, p.id, p.usuario_id, p.data
+        FROM posts p
+        WHERE p.usuario_id = :authorId
+          AND NOT EXISTS (SELECT 1 FROM timeline_entries t WHERE t.user_id = :userId AND t.post_id = p.id)
+    """, nativeQuery = true)
+    int backfill(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    // Redistribui todos os posts de um autor para todos os seus seguidores (autor saiu do fan-out-on-read)
+    @Modifying
+    @Query(value = """
+        INSERT INTO timeline_entries (user_id, post_id, author_id, post_data)
+        SELECT us.user_id, p.id, p.usuario_id, p.data
+        FROM user_seguindo us
+        JOIN posts p ON p.usuario_id = us.seguindo_id
+        WHERE us.seguindo_id = :authorId
+          AND NOT EXISTS (SELECT 1 FROM timeline_entries t WHERE t.user_id = us.user_id AND t.post_id = p.id)
+    """, nativeQuery = true)
+    int backfillFollowers(@Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.userId = :userId AND t.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("DELETE FROM TimelineEntry t WHERE t.userId = :userId OR t.authorId = :userId")
+    int deleteByUserIdOrAuthorId(@Param("userId") Long userId);
+
+    // Leitura do timeline materializado; a ordem vem do indice (user_id, post_data, post_id)
+    @Query(value = """
+        SELECT p FROM TimelineEntry t JOIN Post p ON p.id = t.postId
+        WHERE t.userId = :userId
+        ORDER BY t.postData DESC, t.postId DESC
+    """, countQuery = "SELECT COUNT(t) FROM TimelineEntry t WHERE t.userId = :userId")
+    Page<Post> findTimeline(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+        SELECT p FROM TimelineEntry t JOIN Post p ON p.id = t.postId
+        WHERE t.userId = :userId
+          AND t.postData <= :data AND (t.postData < :data OR t.postId < :id)
+        ORDER BY t.postData DESC, t.postId DESC
+    """)
+    Slice<Post> findTimelineAfter(@Param("userId") Long userId,
+            @Param("data") LocalDateTime data,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Timeline materializado + posts de autores com muitos seguidores (fan-out-on-read)
+    @Query(value = """
+        SELECT p FROM Post p
+        WHERE p.id IN (SELECT t.postId FROM TimelineEntry t WHERE t.userId = :userId)
+           OR p.usuario.id IN :pullAuthorIds
+        ORDER BY p.data DESC, p.id DESC
+    """, countQuery = """
+        SELECT COUNT(p) FROM Post p
+        WHERE p.id IN (SELECT t.postId FROM TimelineEntry t WHERE t.userId = :userId)
+           OR p.usuario.id IN :pullAuthorIds
+    """)
+    Page<Post> findTimelineWithAuthors(@Param("userId") Long userId,
+            @Param("pullAuthorIds") Collection<Long> pullAuthorIds,
+            Pageable pageable);
+
+    @Query("""
+        SELECT p FROM Post p
+        WHERE (p.id IN (SELECT t.postId FROM TimelineEntry t WHERE t.userId = :userId)
+               OR p.usuario.id IN :pullAuthorIds)
+          AND p.data <= :data AND (p.data < :data OR p.id < :id)
+        ORDER BY p.data DESC, p.id DESC
+    """)
+    Slice<Post> findTimelineWithAuthorsAfter(@Param("userId") Long userId,
+            @Param("pullAuthorIds") Collection<Long> pullAuthorIds,
+            @Param("data") LocalDateTime data,
+            @Param("id") Long id,
+            Pageable pageable);
+}
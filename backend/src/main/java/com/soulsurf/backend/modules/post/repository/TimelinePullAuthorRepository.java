@@ -0,0 +1,13 @@
+package com.soulsurf.backend.modules.post.repository;
+
+import com.soulsurf.backend.modules.post.entity.TimelinePullAuthor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface TimelinePullAuthorRepository extends JpaRepository<TimelinePullAuthor, Long> {
+
+    @Query("SELECT a.authorId FROM TimelinePullAuthor a")
+    List<Long> findAllAuthorIds();
+}
@@ -0,0 +1,198 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
+import com.soulsurf.backend.modules.post.dto.PostDTO;
+import com.soulsurf.backend.modules.post.dto.PostIdPage;
+import com.soulsurf.backend.modules.post.entity.Post;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * Targeted invalidation of the post caches.
+ * <p>
+ * Feed caches ({@code publicFeed}, {@code followingPosts}, {@code userPosts},
+ * {@code beachPosts}) only hold post ids, and each post's shared DTO lives once in
+ * {@code postById} (see {@link PostReadModel}). Changes to an existing post therefore patch or
+ * drop that single shared entry; feed entries are only touched when the set of posts in a feed
+ * changes. A new post only invalidates the "head" pages of the affected feeds, i.e. offset
+ * pages and the first keyset page; deeper keyset pages are unaffected because their cursor is
+ * older than the new post. All work runs after the surrounding transaction commits.
+ * <p>
+ * Relies on the key layout of {@link PostFeedQueryService}: keys start with the feed owner
+ * (user e-mail or beach id) and contain {@code after_} for keyset pages.
+ */
+@Component
+@Slf4j
+public class FeedCacheInvalidator {
+
+    static final String PUBLIC_FEED = "publicFeed";
+    static final String FOLLOWING_POSTS = "followingPosts";
+    static final String USER_POSTS = "userPosts";
+    static final String BEACH_POSTS = "beachPosts";
+
+    private static final List<String> FEED_CACHES = List.of(PUBLIC_FEED, FOLLOWING_POSTS, USER_POSTS, BEACH_POSTS);
+    private static final String START_CURSOR = FeedCursor.START.encode();
+
+    private final CacheManager cacheManager;
+    private final MeterRegistry meterRegistry;
+
+    public FeedCacheInvalidator(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void likesChanged(Long postId, long likesCount) {
+        afterCommit(() -> patchShared(postId, post -> post.setLikesCount(likesCount)));
+    }
+
+    public void descriptionChanged(Long postId, String descricao) {
+        afterCommit(() -> patchShared(postId, post -> post.setDescricao(descricao)));
+    }
+
+    // A arvore de comentarios faz parte do DTO compartilhado: recarregada na proxima leitura
+    public void commentsChanged(Long postId) {
+        afterCommit(() -> evictShared(postId));
+    }
+
+    public void postRemoved(Long postId) {
+        afterCommit(() -> {
+            evictShared(postId);
+            for (String cacheName : FEED_CACHES) {
+                evictMatching(cacheName, (key, value) -> value instanceof PostIdPage page && page.postIds().contains(postId));
+            }
+        });
+    }
+
+    public void postCreated(Post post) {
+        String authorEmail = post.getUsuario().getEmail();
+        Long beachId = post.getBeach() != null ? post.getBeach().getId() : null;
+        boolean publico = post.isPublico();
+        afterCommit(() -> {
+            if (publico) {
+                evictHeadPages(PUBLIC_FEED, "");
+            }
+            evictHeadPages(USER_POSTS, authorEmail + "_");
+            if (beachId != null) {
+                evictHeadPages(BEACH_POSTS, beachId + "_");
+            }
+        });
+    }
+
+    /** Head pages of every following feed (called once a post has been fanned out). */
+    public void followingFeedsChanged() {
+        afterCommit(() -> evictHeadPages(FOLLOWING_POSTS, ""));
+    }
+
+    /** Whole following feed of one user, e.g. after follow/unfollow. */
+    public void followingFeedChanged(String userEmail) {
+        afterCommit(() -> evictMatching(FOLLOWING_POSTS, (key, value) -> key.startsWith(userEmail + "_")));
+    }
+
+    public void allFollowingFeedsChanged() {
+        afterCommit(() -> evictMatching(FOLLOWING_POSTS, (key, value) -> true));
+    }
+
+    static boolean isHeadKey(String key) {
+        return !key.contains("after_") || key.contains(START_CURSOR);
+    }
+
+    private void evictHeadPages(String cacheName, String keyPrefix) {
+        evictMatching(cacheName, (key, value) -> key.startsWith(keyPrefix) && isHeadKey(key));
+    }
+
+    private void evictMatching(String cacheName, BiPredicate<String, Object> filter) {
+        Map<Object, Object> entries = entries(cacheName);
+        if (entries == null) {
+            return;
+        }
+        int evicted = 0;
+        for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+            if (filter.test(String.valueOf(entry.getKey()), entry.getValue())
+                    && entries.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        record(cacheName, "evicted", evicted);
+    }
+
+    // Acesso pelo mapa nativo para nao contar como leitura nas estatisticas do cache. O DTO em cache
+    // e lido por outras threads sem sincronizacao: troca a entrada por uma copia em vez de altera-lo
+    private void patchShared(Long postId, Consumer<PostDTO> patch) {
+        Map<Object, Object> entries = entries(PostReadModel.POST_CACHE);
+        if (entries == null) {
+            return;
+        }
+        boolean[] patched = new boolean[1];
+        entries.computeIfPresent(postId, (key, value) -> {
+            if (!(value instanceof PostDTO post)) {
+                return value;
+            }
+            PostDTO copy = PostReadModel.copyOf(post);
+            patch.accept(copy);
+            patched[0] = true;
+            return copy;
+        });
+        if (patched[0]) {
+            record(PostReadModel.POST_CACHE, "patched", 1);
+        }
+    }
+
+    private void evictShared(Long postId) {
+        Map<Object, Object> entries = entries(PostReadModel.POST_CACHE);
+        if (entries != null && entries.remove(postId) != null) {
+            record(PostReadModel.POST_CACHE, "evicted", 1);
+        }
+    }
+
+    private Map<Object, Object> entries(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().asMap();
+        }
+        if (cache != null) {
+            // Sem acesso as entradas: invalida tudo
+            cache.clear();
+        }
+        return null;
+    }
+
+    private void record(String cacheName, String action, int count) {
+        if (count > 0) {
+            meterRegistry.counter("feed.cache.invalidations", "cache", cacheName, "action", action).increment(count);
+        }
+    }
+
+    private void afterCommit(Runnable work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    run(work);
+                }
+            });
+            return;
+        }
+
+        run(work);
+    }
+
+    private void run(Runnable work) {
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao invalidar caches de feed: {}", e.getMessage(), e);
+        }
+    }
+}
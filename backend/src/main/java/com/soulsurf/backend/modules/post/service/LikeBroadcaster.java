@@ -0,0 +1,101 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.core.persistence.InClauseBatches;
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces like broadcasts on {@code /topic/posts/{id}/likes}.
+ * <p>
+ * Toggles only mark the post as dirty; every {@code posts.likes.broadcast-interval-ms} one
+ * frame is sent per dirty post with its latest count (persisted count plus what is still
+ * pending in {@link LikeIngestionService}). The frame keeps the username/liked of the last
+ * toggle in the window so clients can still sync their own "liked" state.
+ */
+@Component
+@Slf4j
+public class LikeBroadcaster {
+
+    record LastToggle(String username, boolean liked) {
+    }
+
+    private final PostRepository postRepository;
+    private final LikeIngestionService likeIngestionService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final ConcurrentHashMap<Long, LastToggle> dirty = new ConcurrentHashMap<>();
+
+    public LikeBroadcaster(PostRepository postRepository,
+            LikeIngestionService likeIngestionService,
+            SimpMessagingTemplate messagingTemplate) {
+        this.postRepository = postRepository;
+        this.likeIngestionService = likeIngestionService;
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    public void markChanged(Long postId, String username, boolean liked) {
+        dirty.put(postId, new LastToggle(username, liked));
+    }
+
+    @Scheduled(fixedDelayString = "${posts.likes.broadcast-interval-ms:250}")
+    public void broadcastPending() {
+        broadcast();
+    }
+
+    /**
+     * Sends one frame per post changed since the previous call. Returns how many were sent.
+     */
+    public int broadcast() {
+        Map<Long, LastToggle> changed = new HashMap<>();
+        for (Long postId : dirty.keySet()) {
+            LastToggle toggle = dirty.remove(postId);
+            if (toggle != null) {
+                changed.put(postId, toggle);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> persisted = persistedCounts(new ArrayList<>(changed.keySet()));
+        int sent = 0;
+        for (Map.Entry<Long, LastToggle> entry : changed.entrySet()) {
+            Long postId = entry.getKey();
+            Long count = persisted.get(postId);
+            if (count == null) {
+                // Post removido desde o toggle
+                continue;
+            }
+            LikeService.LikeEvent event = new LikeService.LikeEvent(postId,
+                    likeIngestionService.currentCount(postId, count),
+                    entry.getValue().username(),
+                    entry.getValue().liked());
+            try {
+                messagingTemplate.convertAndSend("/topic/posts/" + postId + "/likes", event);
+                sent++;
+            } catch (RuntimeException e) {
+                log.warn("Falha ao enviar likes do post {}: {}", postId, e.getMessage());
+            }
+        }
+        return sent;
+    }
+
+    private Map<Long, Long> persistedCounts(List<Long> postIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (List<Long> chunk : InClauseBatches.partition(postIds)) {
+            for (Object[] row : postRepository.findLikesCountsByIds(chunk)) {
+                counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+}
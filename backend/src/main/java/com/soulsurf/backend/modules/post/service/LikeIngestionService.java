@@ -0,0 +1,343 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.core.persistence.InClauseBatches;
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind ingestion of like toggles.
+ * <p>
+ * A toggle only updates memory: the final like state per (post, user) and a delta per post,
+ * so the caller and every reader see the new state immediately. A scheduled flush drains the pending states and persists them with batched
+ * JDBC statements in one transaction: inserts and deletes on {@code likes}, then one
+ * {@code likes_count} adjustment per post computed from the rows actually affected.
+ * Repeated toggles by the same user between flushes collapse into at most one write.
+ * <p>
+ * Until a state is committed it stays visible through {@link #pendingState} and
+ * {@link #pendingDelta}; the read paths add these on top of the database values through
+ * {@link #currentCount}. While a flush writes a post, its count is answered from the
+ * {@code likes_count} read before the write, and the delta and the new count are swapped in one
+ * step, so a like is never counted both in the database value and in the delta. Whatever is
+ * still pending when the context closes is flushed before the data source goes away.
+ */
+@Service
+@Slf4j
+public class LikeIngestionService {
+
+    private static final String INSERT_LIKE = """
+        INSERT INTO likes (post_id, usuario_id, data)
+        SELECT p.id, u.id, ? FROM posts p, users u
+        WHERE p.id = ? AND u.id = ?
+          AND NOT EXISTS (SELECT 1 FROM likes l WHERE l.post_id = p.id AND l.usuario_id = u.id)
+    """;
+    private static final String DELETE_LIKE = "DELETE FROM likes WHERE post_id = ? AND usuario_id = ?";
+    private static final String ADJUST_COUNT = "UPDATE posts SET likes_count = likes_count + ? WHERE id = ?";
+
+    record LikeKey(Long postId, String userEmail) {
+    }
+
+    // base = estado no banco quando o primeiro toggle chegou; liked = estado desejado
+    record PendingLike(Long userId, boolean base, boolean liked) {
+        int delta() {
+            return (liked ? 1 : 0) - (base ? 1 : 0);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostRepository postRepository;
+    private final FeedCacheInvalidator feedCacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<LikeKey, PendingLike> pending = new ConcurrentHashMap<>();
+    // Estados drenados cujo flush ainda nao terminou
+    private final ConcurrentHashMap<LikeKey, PendingLike> inFlight = new ConcurrentHashMap<>();
+    // pending = delta ainda fora de likes_count; committed = likes_count conhecido pelo flush
+    // (null enquanto nenhum flush tocou o post). Imutavel: cada ajuste troca o registro inteiro
+    record PostLikes(long pending, Long committed) {
+    }
+
+    private final ConcurrentHashMap<Long, PostLikes> postLikes = new ConcurrentHashMap<>();
+
+    public LikeIngestionService(JdbcTemplate jdbcTemplate,
+            PostRepository postRepository,
+            FeedCacheInvalidator feedCacheInvalidator,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postRepository = postRepository;
+        this.feedCacheInvalidator = feedCacheInvalidator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Flips the like of a user on a post and returns the new state.
+     * {@code persistedState} is only consulted when nothing is pending for this pair.
+     */
+    public boolean toggle(Long postId, Long userId, String userEmail, Supplier<Boolean> persistedState) {
+        LikeKey key = new LikeKey(postId, userEmail);
+        PendingLike updated = pending.compute(key, (k, current) -> {
+            PendingLike next;
+            if (current == null) {
+                PendingLike flushing = inFlight.get(k);
+                boolean base = flushing != null ? flushing.liked() : persistedState.get();
+                next = new PendingLike(userId, base, !base);
+            } else {
+                next = new PendingLike(userId, current.base(), !current.liked());
+            }
+            // Delta ajustado dentro do compute: o drain nunca ve o estado sem o delta correspondente
+            addDelta(postId, next.liked() ? 1 : -1);
+            return next;
+        });
+        return updated.liked();
+    }
+
+    /**
+     * Like state not yet persisted for this pair, or {@code null} when the database is current.
+     */
+    public Boolean pendingState(Long postId, String userEmail) {
+        LikeKey key = new LikeKey(postId, userEmail);
+        PendingLike state = pending.get(key);
+        if (state == null) {
+            state = inFlight.get(key);
+        }
+        return state != null ? state.liked() : null;
+    }
+
+    /**
+     * Likes added minus likes removed on a post that are not reflected in {@code likes_count} yet.
+     */
+    public long pendingDelta(Long postId) {
+        PostLikes likes = postLikes.get(postId);
+        return likes != null ? likes.pending() : 0L;
+    }
+
+    /**
+     * Count to show for a post. {@code persistedCount} (from the database or the post cache) is
+     * ignored once a flush has written the post: the count it committed is used instead, read
+     * together with the delta from one snapshot.
+     */
+    public long currentCount(Long postId, long persistedCount) {
+        PostLikes likes = postLikes.get(postId);
+        if (likes == null) {
+            return persistedCount;
+        }
+        return (likes.committed() != null ? likes.committed() : persistedCount) + likes.pending();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${posts.likes.flush-interval-ms:1000}",
+            initialDelayString = "${posts.likes.flush-interval-ms:1000}"
+    )
+    public void flushPending() {
+        try {
+            int written = flush();
+            if (written > 0) {
+                log.debug("Likes persistidos: {} alteracao(oes)", written);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Flush de likes adiado para o proximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            int written = flush();
+            if (written > 0) {
+                log.info("Shutdown: {} like(s) pendente(s) persistido(s)", written);
+            }
+        } catch (RuntimeException e) {
+            log.error("Falha ao persistir likes pendentes no shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Persists everything pending at call time. Returns how many like rows were written.
+     * States that could not be written for lack of a transaction (e.g. no connection) go back to
+     * the pending set for the next flush, and the failure is rethrown.
+     */
+    public synchronized int flush() {
+        // Posts assentados no flush anterior: o cache ja foi corrigido, leitores voltam ao valor persistido.
+        // remove(chave, valor) por entrada: um toggle concorrente troca o registro e impede a remocao
+        postLikes.entrySet().removeIf(entry -> entry.getValue().pending() == 0);
+
+        Map<LikeKey, PendingLike> drained = drain();
+        if (drained.isEmpty()) {
+            return 0;
+        }
+
+        Applied applied;
+        try {
+            pinPersistedCounts(drained.keySet());
+            applied = transactionTemplate.execute(status -> write(new ArrayList<>(drained.entrySet())));
+        } catch (DataAccessException e) {
+            log.warn("Falha no flush em lote de {} like(s), gravando individualmente: {}", drained.size(), e.getMessage());
+            applied = writeIndividually(drained);
+        } catch (RuntimeException e) {
+            // Nada foi gravado: os estados voltam para o proximo flush em vez de ficarem presos em inFlight
+            restore(drained);
+            throw e;
+        }
+
+        restore(applied.retry);
+        drained.keySet().removeAll(applied.retry.keySet());
+
+        Map<Long, Long> committedDeltas = applied.deltas;
+        Map<Long, Long> written = new HashMap<>();
+        drained.forEach((key, state) -> written.merge(key.postId(), (long) state.delta(), Long::sum));
+        written.forEach((postId, delta) -> {
+            long committedDelta = committedDeltas.getOrDefault(postId, 0L);
+            // Troca atomica: o delta sai no mesmo passo em que a contagem gravada entra
+            PostLikes settled = postLikes.compute(postId, (id, likes) -> {
+                long pendingDelta = (likes != null ? likes.pending() : 0L) - delta;
+                Long committed = likes != null && likes.committed() != null ? likes.committed() + committedDelta : null;
+                return pendingDelta == 0 && committed == null ? null : new PostLikes(pendingDelta, committed);
+            });
+            if (committedDelta != 0 && settled != null && settled.committed() != null) {
+                feedCacheInvalidator.likesChanged(postId, settled.committed());
+            }
+        });
+        drained.forEach(inFlight::remove);
+
+        return applied.rows;
+    }
+
+    private Map<LikeKey, PendingLike> drain() {
+        Map<LikeKey, PendingLike> drained = new HashMap<>();
+        for (LikeKey key : pending.keySet()) {
+            // computeIfPresent e atomico com toggle() para a mesma chave
+            pending.computeIfPresent(key, (k, state) -> {
+                inFlight.put(k, state);
+                drained.put(k, state);
+                return null;
+            });
+        }
+        return drained;
+    }
+
+    private Applied write(List<Map.Entry<LikeKey, PendingLike>> changes) {
+        List<Object[]> inserts = new ArrayList<>();
+        List<Long> insertPosts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Long> deletePosts = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (Map.Entry<LikeKey, PendingLike> change : changes) {
+            Long postId = change.getKey().postId();
+            PendingLike state = change.getValue();
+            if (state.delta() > 0) {
+                inserts.add(new Object[] { now, postId, state.userId() });
+                insertPosts.add(postId);
+            } else if (state.delta() < 0) {
+                deletes.add(new Object[] { postId, state.userId() });
+                deletePosts.add(postId);
+            }
+        }
+
+        Applied applied = new Applied();
+        if (!inserts.isEmpty()) {
+            applied.record(insertPosts, jdbcTemplate.batchUpdate(INSERT_LIKE, inserts), 1);
+        }
+        if (!deletes.isEmpty()) {
+            applied.record(deletePosts, jdbcTemplate.batchUpdate(DELETE_LIKE, deletes), -1);
+        }
+
+        List<Object[]> adjustments = new ArrayList<>();
+        applied.deltas.forEach((postId, delta) -> {
+            if (delta != 0) {
+                adjustments.add(new Object[] { delta, postId });
+            }
+        });
+        if (!adjustments.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_COUNT, adjustments);
+        }
+        return applied;
+    }
+
+    private Applied writeIndividually(Map<LikeKey, PendingLike> drained) {
+        Applied applied = new Applied();
+        drained.forEach((key, state) -> {
+            try {
+                applied.merge(transactionTemplate.execute(status -> write(List.of(Map.entry(key, state)))));
+            } catch (DataAccessException e) {
+                log.warn("Like descartado (post {}, usuario {}): {}", key.postId(), state.userId(), e.getMessage());
+            } catch (RuntimeException e) {
+                applied.retry.put(key, state);
+            }
+        });
+        return applied;
+    }
+
+    // Devolve estados drenados e nao gravados para pending. Toggles feitos durante o flush partiram
+    // do estado drenado: mantem o estado desejado mais recente e volta a base original. O delta do
+    // post ja soma os dois trechos, entao nao muda.
+    private void restore(Map<LikeKey, PendingLike> states) {
+        states.forEach((key, state) -> pending.compute(key, (k, current) -> {
+            inFlight.remove(k, state);
+            return current == null ? state : new PendingLike(current.userId(), state.base(), current.liked());
+        }));
+    }
+
+    // Linhas efetivamente gravadas, o delta resultante por post e o que fica para o proximo flush
+    private static final class Applied {
+        private final Map<Long, Long> deltas = new HashMap<>();
+        private final Map<LikeKey, PendingLike> retry = new HashMap<>();
+        private int rows;
+
+        void record(List<Long> postIds, int[] rowCounts, int sign) {
+            for (int i = 0; i < rowCounts.length; i++) {
+                // Drivers antigos podem nao informar a contagem por linha do lote
+                int affected = rowCounts[i] == Statement.SUCCESS_NO_INFO ? 1 : rowCounts[i];
+                deltas.merge(postIds.get(i), (long) affected * sign, Long::sum);
+                rows += affected;
+            }
+        }
+
+        void merge(Applied other) {
+            other.deltas.forEach((postId, delta) -> deltas.merge(postId, delta, Long::sum));
+            retry.putAll(other.retry);
+            rows += other.rows;
+        }
+    }
+
+    // Fixa likes_count antes da escrita: do commit ate a troca do delta os leitores usam este valor,
+    // nao o do banco (que ja inclui o like) somado ao delta (que tambem)
+    private void pinPersistedCounts(Collection<LikeKey> keys) {
+        List<Long> ids = keys.stream().map(LikeKey::postId).distinct().toList();
+        for (List<Long> chunk : InClauseBatches.partition(ids)) {
+            for (Object[] row : postRepository.findLikesCountsByIds(chunk)) {
+                long persisted = ((Number) row[1]).longValue();
+                postLikes.compute(((Number) row[0]).longValue(),
+                        (id, likes) -> new PostLikes(likes != null ? likes.pending() : 0L, persisted));
+            }
+        }
+    }
+
+    // Todo ajuste passa por compute na mesma chave, entao nenhum toggle se perde entre leitura e escrita
+    private void addDelta(Long postId, long delta) {
+        postLikes.compute(postId, (id, likes) -> {
+            long pendingDelta = (likes != null ? likes.pending() : 0L) + delta;
+            Long committed = likes != null ? likes.committed() : null;
+            return pendingDelta == 0 && committed == null ? null : new PostLikes(pendingDelta, committed);
+        });
+    }
+}
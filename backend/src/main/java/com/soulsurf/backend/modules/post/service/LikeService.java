@@ -1,22 +1,23 @@
 package com.soulsurf.backend.modules.post.service;
 
 import com.soulsurf.backend.modules.notification.event.NotificationEvent;
-import com.soulsurf.backend.modules.post.entity.Like;
 import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.post.repository.LikeRepository;
 import com.soulsurf.backend.modules.post.repository.PostRepository;
 import com.soulsurf.backend.modules.user.entity.User;
 import com.soulsurf.backend.modules.user.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
-
+/**
+ * Like toggles go through {@link LikeIngestionService} (in-memory state, persisted in
+ * batches) and {@link LikeBroadcaster} (one STOMP frame per post per interval), so a
+ * toggle does no writes on the request path. Reads add the pending state on top of the
+ * database values.
+ */
 @Service
 @Slf4j
 public class LikeService {
@@ -24,23 +25,25 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
-    private final SimpMessagingTemplate messagingTemplate;
     private final ApplicationEventPublisher eventPublisher;
+    private final LikeIngestionService likeIngestionService;
+    private final LikeBroadcaster likeBroadcaster;
 
     public LikeService(LikeRepository likeRepository,
             PostRepository postRepository,
             UserRepository userRepository,
-            SimpMessagingTemplate messagingTemplate,
-            ApplicationEventPublisher eventPublisher) {
+            ApplicationEventPublisher eventPublisher,
+            LikeIngestionService likeIngestionService,
+            LikeBroadcaster likeBroadcaster) {
         this.likeRepository = likeRepository;
         this.postRepository = postRepository;
         this.userRepository = userRepository;
-        this.messagingTemplate = messagingTemplate;
         this.eventPublisher = eventPublisher;
+        this.likeIngestionService = likeIngestionService;
+        this.likeBroadcaster = likeBroadcaster;
     }
 
-    @CacheEvict(value = { "postById", "publicFeed", "followingPosts", "userPosts", "beachPosts" }, allEntries = true)
-    @Transactional
+    @Transactional(readOnly = true)
     public boolean toggleLike(Long postId, String userEmail) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new RuntimeException("Post nao encontrado"));
@@ -48,19 +51,10 @@ public class LikeService {
         User usuario = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario nao encontrado"));
 
-        Optional<Like> existingLike = likeRepository.findByPostAndUsuario(post, usuario);
-
-        boolean isLiked;
-        if (existingLike.isPresent()) {
-            likeRepository.delete(existingLike.get());
-            isLiked = false;
-        } else {
-            Like like = new Like();
-            like.setPost(post);
-            like.setUsuario(usuario);
-            likeRepository.save(like);
-            isLiked = true;
+        boolean isLiked = likeIngestionService.toggle(postId, usuario.getId(), usuario.getEmail(),
+                () -> likeRepository.existsByPostAndUsuario(post, usuario));
 
+        if (isLiked) {
             if (!usuario.getId().equals(post.getUsuario().getId())) {
                 log.info(
                         "Like notification event published: postId={}, sender={}, recipient={}",
@@ -73,18 +67,14 @@ public class LikeService {
             }
         }
 
-        long likesCount = likeRepository.countByPost(post);
-
-        LikeEvent event = new LikeEvent(postId, likesCount, usuario.getUsername(), isLiked);
-        messagingTemplate.convertAndSend("/topic/posts/" + postId + "/likes", event);
-
+        likeBroadcaster.markChanged(postId, usuario.getUsername(), isLiked);
         return isLiked;
     }
 
     public long countLikes(Long postId) {
-        Post post = postRepository.findById(postId)
+        long persisted = postRepository.findLikesCountById(postId)
                 .orElseThrow(() -> new RuntimeException("Post nao encontrado"));
-        return likeRepository.countByPost(post);
+        return likeIngestionService.currentCount(postId, persisted);
     }
 
     public boolean hasUserLiked(Long postId, String userEmail) {
@@ -94,6 +84,10 @@ public class LikeService {
         User usuario = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario nao encontrado"));
 
+        Boolean pending = likeIngestionService.pendingState(postId, usuario.getEmail());
+        if (pending != null) {
+            return pending;
+        }
         return likeRepository.existsByPostAndUsuario(post, usuario);
     }
 
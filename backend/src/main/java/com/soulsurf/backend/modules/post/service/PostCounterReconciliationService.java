@@ -0,0 +1,97 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.comment.repository.CommentRepository;
+import com.soulsurf.backend.modules.post.repository.LikeRepository;
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repairs drift in the denormalized {@code likes_count} / {@code comments_count} columns.
+ * Each run walks one bounded batch of posts (by id), recounts likes and comments with two
+ * grouped queries and fixes only the rows that diverge. The cursor wraps around at the end.
+ */
+@Service
+@Slf4j
+public class PostCounterReconciliationService {
+
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final int batchSize;
+    private final AtomicLong cursor = new AtomicLong(0L);
+
+    public PostCounterReconciliationService(PostRepository postRepository,
+            LikeRepository likeRepository,
+            CommentRepository commentRepository,
+            @Value("${posts.counters.reconcile-batch-size:500}") int batchSize) {
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.commentRepository = commentRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${posts.counters.reconcile-interval-ms:60000}",
+            initialDelayString = "${posts.counters.reconcile-initial-delay-ms:60000}"
+    )
+    @Transactional
+    public void reconcileNextBatch() {
+        int repaired = reconcileBatch();
+        if (repaired > 0) {
+            log.info("Contadores de posts reconciliados: {} post(s) corrigido(s)", repaired);
+        }
+    }
+
+    /**
+     * Reconciles the next batch after the current cursor. Returns how many posts were repaired.
+     */
+    @Transactional
+    public int reconcileBatch() {
+        long afterId = cursor.get();
+        List<Object[]> batch = postRepository.findCounterBatch(afterId, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            cursor.set(0L);
+            return 0;
+        }
+
+        List<Long> postIds = batch.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        Map<Long, Long> actualLikes = toCountMap(likeRepository.countGroupedByPostIds(postIds));
+        Map<Long, Long> actualComments = toCountMap(commentRepository.countGroupedByPostIds(postIds));
+
+        int repaired = 0;
+        for (Object[] row : batch) {
+            Long postId = ((Number) row[0]).longValue();
+            long storedLikes = ((Number) row[1]).longValue();
+            long storedComments = ((Number) row[2]).longValue();
+            long likes = actualLikes.getOrDefault(postId, 0L);
+            long comments = actualComments.getOrDefault(postId, 0L);
+
+            if (storedLikes != likes || storedComments != comments) {
+                repaired += postRepository.repairCounters(postId, storedLikes, storedComments, likes, comments);
+                log.debug("Drift em post {}: likes {} -> {}, comments {} -> {}",
+                        postId, storedLikes, likes, storedComments, comments);
+            }
+        }
+
+        cursor.set(batch.size() < batchSize ? 0L : postIds.get(postIds.size() - 1));
+        return repaired;
+    }
+
+    private Map<Long, Long> toCountMap(List<Object[]> rows) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
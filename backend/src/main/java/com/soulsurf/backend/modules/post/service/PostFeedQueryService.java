@@ -0,0 +1,154 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.beach.entity.Beach;
+import com.soulsurf.backend.modules.beach.repository.BeachRepository;
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
+import com.soulsurf.backend.modules.post.dto.PostIdPage;
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import com.soulsurf.backend.modules.user.entity.User;
+import com.soulsurf.backend.modules.user.repository.UserRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Resolves which posts make up each feed page and caches only their ids ({@link PostIdPage}).
+ * Skeletons are keyed by what actually changes the result (feed owner, owner-vs-visitor
+ * visibility, page or cursor), not by the viewer, except where visibility itself depends on
+ * the viewer (beach feeds show the viewer's own private posts).
+ * <p>
+ * Key layout matters to {@link FeedCacheInvalidator}: keys start with the feed owner
+ * (e-mail or beach id) and keyset pages contain {@code after_}.
+ */
+@Service
+public class PostFeedQueryService {
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final BeachRepository beachRepository;
+    private final TimelineService timelineService;
+
+    public PostFeedQueryService(PostRepository postRepository,
+            UserRepository userRepository,
+            BeachRepository beachRepository,
+            TimelineService timelineService) {
+        this.postRepository = postRepository;
+        this.userRepository = userRepository;
+        this.beachRepository = beachRepository;
+        this.timelineService = timelineService;
+    }
+
+    @Cacheable(value = "publicFeed", key = "#pageable.pageNumber + '_' + #pageable.pageSize", unless = "#result.postIds().isEmpty()")
+    @Transactional(readOnly = true)
+    public PostIdPage publicFeed(Pageable pageable) {
+        return toIdPage(postRepository.findByPublicoIsTrue(pageable));
+    }
+
+    @Cacheable(value = "publicFeed", key = "'after_' + #after.encode() + '_' + #size", unless = "#result.postIds().isEmpty()")
+    @Transactional(readOnly = true)
+    public PostIdPage publicFeedAfter(FeedCursor after, int size) {
+        return toIdSlice(postRepository.findPublicFeedAfter(after.data(), after.id(), PageRequest.of(0, size)));
+    }
+
+    @Cacheable(value = "followingPosts", key = "#userEmail + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", unless = "#result.postIds().isEmpty()")
+    @Transactional(readOnly = true)
+    public PostIdPage followingFeed(String userEmail, Pageable pageable) {
+        User currentUser = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + userEmail));
+
+        return toIdPage(timelineService.getTimeline(currentUser.getId(), pageable));
+    }
+
+    @Cacheable(value = "followingPosts", key = "#userEmail + '_after_' + #after.encode() + '_' + #size", unless = "#result.postIds().isEmpty()")
+    @Transactional(readOnly = true)
+    public PostIdPage followingFeedAfter(String userEmail, FeedCursor after, int size) {
+        User currentUser = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + userEmail));
+
+        return toIdSlice(timelineService.getTimelineAfter(currentUser.getId(), after, size));
+    }
+
+    // O dono ve tambem os posts privados; os demais leitores compartilham a versao publica
+    @Cacheable(value = "userPosts", key = "#userEmail + '_' + (#owner ? 'owner' : 'public') + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", unless = "#result.postIds().isEmpty()")
+    @Transactional(readOnly = true)
+    public PostIdPage userFeed(String userEmail, boolean owner, Pageable pageable) {
+        User usuario = findAuthor(userEmail);
+        return toIdPage(owner
+                ? postRepository.findByUsuario(usuario, pageable)
+                : postRepository.findByUsuarioAndPublicoIsTrue(usuario, pageable));
+    }
+
+    @Cacheable(value = "userPosts", key = "#userEmail + '_' + (#owner ? 'owner' : 'public') + '_after_' + #after.encode() + '_' + #size", unless = "#result.postIds().isEmpty()")
+    @Transactional(readOnly = true)
+    public PostIdPage userFeedAfter(String userEmail, boolean owner, FeedCursor after, int size) {
+        User usuario = findAuthor(userEmail);
+        PageRequest limit = PageRequest.of(0, size);
+        return toIdSlice(owner
+                ? postRepository.findByUsuarioAfter(usuario, after.data(), after.id(), limit)
+                : postRepository.findPublicByUsuarioAfter(usuario, after.data(), after.id(), limit));
+    }
+
+    @Cacheable(value = "beachPosts", key = "#beachId + '_' + #page + '_' + #size + '_' + (#viewerEmail ?: 'anonymous')")
+    @Transactional(readOnly = true)
+    public PostIdPage beachFeed(Long beachId, int page, int size, String viewerEmail) {
+        Beach beach = findBeach(beachId);
+        PageRequest pageRequest = PageRequest.of(page, size, Sort.by("data").descending());
+        return toIdPage(viewerEmail != null
+                ? postRepository.findByBeachAndPublicoIsTrueOrUsuarioEmail(beach, viewerEmail, pageRequest)
+                : postRepository.findByBeachAndPublicoIsTrue(beach, pageRequest));
+    }
+
+    @Cacheable(value = "beachPosts", key = "#beachId + '_after_' + #after.encode() + '_' + #size + '_' + (#viewerEmail ?: 'anonymous')", unless = "#result.postIds().isEmpty()")
+    @Transactional(readOnly = true)
+    public PostIdPage beachFeedAfter(Long beachId, FeedCursor after, int size, String viewerEmail) {
+        Beach beach = findBeach(beachId);
+        PageRequest limit = PageRequest.of(0, size);
+        return toIdSlice(viewerEmail != null
+                ? postRepository.findVisibleByBeachAfter(beach, viewerEmail, after.data(), after.id(), limit)
+                : postRepository.findPublicByBeachAfter(beach, after.data(), after.id(), limit));
+    }
+
+    @Cacheable(value = "beachPosts", key = "#beachId + '_all_' + (#viewerEmail ?: 'anonymous')")
+    @Transactional(readOnly = true)
+    public PostIdPage allBeachPosts(Long beachId, String viewerEmail) {
+        List<Post> posts = postRepository.findByBeachOrderByDataDesc(findBeach(beachId));
+        return new PostIdPage(ids(posts), posts.size(), false, null);
+    }
+
+    private User findAuthor(String userEmail) {
+        return userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario nao encontrado com o e-mail: " + userEmail));
+    }
+
+    private Beach findBeach(Long beachId) {
+        return beachRepository.findById(beachId)
+                .orElseThrow(() -> new RuntimeException("Praia não encontrada"));
+    }
+
+    private PostIdPage toIdPage(Page<Post> posts) {
+        return new PostIdPage(ids(posts.getContent()), posts.getTotalElements(), posts.hasNext(), null);
+    }
+
+    private PostIdPage toIdSlice(Slice<Post> posts) {
+        List<Post> content = posts.getContent();
+        String nextCursor = null;
+        if (posts.hasNext() && !content.isEmpty()) {
+            Post last = content.get(content.size() - 1);
+            nextCursor = new FeedCursor(last.getData(), last.getId()).encode();
+        }
+        return new PostIdPage(ids(content), 0L, posts.hasNext(), nextCursor);
+    }
+
+    private List<Long> ids(List<Post> posts) {
+        return posts.stream().map(Post::getId).toList();
+    }
+}
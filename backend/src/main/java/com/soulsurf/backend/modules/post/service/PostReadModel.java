@@ -0,0 +1,171 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.core.persistence.InClauseBatches;
+import com.soulsurf.backend.modules.post.dto.PostDTO;
+import com.soulsurf.backend.modules.post.dto.PostIdPage;
+import com.soulsurf.backend.modules.post.dto.PostSliceDTO;
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.mapper.PostMapper;
+import com.soulsurf.backend.modules.post.repository.LikeRepository;
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Two-layer read model for posts.
+ * <p>
+ * The shared layer is one viewer-independent {@link PostDTO} per post, cached in
+ * {@code postById} under the post id (author, beach, counters, comment tree; never the
+ * "liked by me" flag). The per-viewer layer is the set of liked post ids for the page being
+ * served, computed with a single query, overlaid with the like toggles still pending in
+ * {@link LikeIngestionService}. Responses are shallow copies of the shared DTO with
+ * the viewer's flag applied, so the heavy parts (author, beach, comments) are never
+ * duplicated per viewer.
+ */
+@Component
+public class PostReadModel {
+
+    static final String POST_CACHE = "postById";
+
+    private final CacheManager cacheManager;
+    private final PostRepository postRepository;
+    private final LikeRepository likeRepository;
+    private final PostMapper postMapper;
+    private final LikeIngestionService likeIngestionService;
+
+    public PostReadModel(CacheManager cacheManager,
+            PostRepository postRepository,
+            LikeRepository likeRepository,
+            PostMapper postMapper,
+            LikeIngestionService likeIngestionService) {
+        this.cacheManager = cacheManager;
+        this.postRepository = postRepository;
+        this.likeRepository = likeRepository;
+        this.postMapper = postMapper;
+        this.likeIngestionService = likeIngestionService;
+    }
+
+    public Page<PostDTO> toPage(PostIdPage page, Pageable pageable, String viewerEmail) {
+        return new PageImpl<>(assemble(page.postIds(), viewerEmail), pageable, page.totalElements());
+    }
+
+    public PostSliceDTO toSlice(PostIdPage page, int size, String viewerEmail) {
+        return new PostSliceDTO(assemble(page.postIds(), viewerEmail), size, page.hasNext(), page.nextCursor());
+    }
+
+    /**
+     * Shared DTO of a single post, without viewer-specific data. Empty if the post does not exist.
+     */
+    public Optional<PostDTO> findShared(Long postId) {
+        return Optional.ofNullable(sharedPosts(List.of(postId)).get(postId));
+    }
+
+    public PostDTO forViewer(PostDTO shared, String viewerEmail) {
+        Set<Long> liked = viewerEmail == null ? Set.of() : likedPostIds(List.of(shared.getId()), viewerEmail);
+        return withLikedFlag(shared, isLiked(shared.getId(), viewerEmail, liked));
+    }
+
+    /**
+     * Builds the response for a feed page: shared DTOs in the given order plus the viewer's
+     * liked flags. Posts deleted since the ids were cached are skipped.
+     */
+    public List<PostDTO> assemble(List<Long> postIds, String viewerEmail) {
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostDTO> shared = sharedPosts(postIds);
+        Set<Long> liked = viewerEmail == null ? Set.of() : likedPostIds(postIds, viewerEmail);
+
+        List<PostDTO> result = new ArrayList<>(postIds.size());
+        for (Long postId : postIds) {
+            PostDTO dto = shared.get(postId);
+            if (dto != null) {
+                result.add(withLikedFlag(dto, isLiked(postId, viewerEmail, liked)));
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, PostDTO> sharedPosts(List<Long> postIds) {
+        Cache cache = cacheManager.getCache(POST_CACHE);
+        Map<Long, PostDTO> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long postId : postIds) {
+            Cache.ValueWrapper cached = cache != null ? cache.get(postId) : null;
+            if (cached != null && cached.get() instanceof PostDTO dto) {
+                found.put(postId, dto);
+            } else {
+                missing.add(postId);
+            }
+        }
+
+        for (List<Long> chunk : InClauseBatches.partition(missing)) {
+            List<Post> posts = postRepository.findAllById(chunk);
+            for (PostDTO dto : postMapper.toDtos(posts, null)) {
+                found.put(dto.getId(), dto);
+                if (cache != null) {
+                    cache.put(dto.getId(), dto);
+                }
+            }
+        }
+        return found;
+    }
+
+    private Set<Long> likedPostIds(List<Long> postIds, String viewerEmail) {
+        Set<Long> liked = new HashSet<>();
+        for (List<Long> chunk : InClauseBatches.partition(postIds)) {
+            liked.addAll(likeRepository.findLikedPostIds(chunk, viewerEmail));
+        }
+        return liked;
+    }
+
+    // Likes ainda nao persistidos prevalecem sobre o banco (read-your-writes)
+    private boolean isLiked(Long postId, String viewerEmail, Set<Long> persistedLikes) {
+        if (viewerEmail == null) {
+            return false;
+        }
+        Boolean pending = likeIngestionService.pendingState(postId, viewerEmail);
+        return pending != null ? pending : persistedLikes.contains(postId);
+    }
+
+    private PostDTO withLikedFlag(PostDTO shared, boolean liked) {
+        PostDTO dto = copyOf(shared);
+        dto.setLikesCount(likeIngestionService.currentCount(shared.getId(), shared.getLikesCount()));
+        dto.setLikedByCurrentUser(liked);
+        return dto;
+    }
+
+    /**
+     * Shallow copy of a cached post: author, beach and comments stay the shared instances. Cached
+     * DTOs are never modified after being cached; changes replace the entry with a patched copy.
+     */
+    static PostDTO copyOf(PostDTO shared) {
+        PostDTO dto = new PostDTO();
+        dto.setId(shared.getId());
+        dto.setDescricao(shared.getDescricao());
+        dto.setCaminhoFoto(shared.getCaminhoFoto());
+        dto.setCaminhoFotoThumb(shared.getCaminhoFotoThumb());
+        dto.setCaminhoFotoFeed(shared.getCaminhoFotoFeed());
+        dto.setData(shared.getData());
+        dto.setUsuario(shared.getUsuario());
+        dto.setPublico(shared.isPublico());
+        dto.setBeach(shared.getBeach());
+        dto.setComments(shared.getComments());
+        dto.setLikesCount(shared.getLikesCount());
+        dto.setCommentsCount(shared.getCommentsCount());
+        dto.setLikedByCurrentUser(shared.isLikedByCurrentUser());
+        return dto;
+    }
+}
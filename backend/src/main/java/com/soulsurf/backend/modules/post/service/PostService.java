@@ -2,7 +2,10 @@ package com.soulsurf.backend.modules.post.service;
 
 import jakarta.persistence.EntityNotFoundException;
 import com.soulsurf.backend.modules.post.controller.CreatePostRequest;
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
 import com.soulsurf.backend.modules.post.dto.PostDTO;
+import com.soulsurf.backend.modules.post.dto.PostIdPage;
+import com.soulsurf.backend.modules.post.dto.PostSliceDTO;
 import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.post.repository.PostRepository;
 import com.soulsurf.backend.modules.post.mapper.PostMapper;
@@ -14,12 +17,11 @@ import com.soulsurf.backend.modules.beach.repository.BeachRepository;
 import com.soulsurf.backend.modules.comment.entity.Comment;
 import com.soulsurf.backend.modules.comment.repository.CommentRepository;
 import com.soulsurf.backend.modules.notification.repository.NotificationRepository;
-import com.soulsurf.backend.core.storage.OracleStorageService;
+import com.soulsurf.backend.core.image.ImageRenditions;
+import com.soulsurf.backend.core.image.ImageUploadService;
 
 import org.springframework.transaction.annotation.Transactional;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.multipart.MultipartFile;
@@ -36,46 +38,61 @@ public class PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final BeachRepository beachRepository;
-    private final Optional<OracleStorageService> blobStorageService;
+    private final Optional<ImageUploadService> imageUploadService;
     private final NotificationRepository notificationRepository;
     private final CommentRepository commentRepository;
     private final LikeRepository likeRepository;
     private final PostMapper postMapper;
+    private final TimelineService timelineService;
+    private final FeedCacheInvalidator feedCacheInvalidator;
+    private final PostFeedQueryService postFeedQueryService;
+    private final PostReadModel postReadModel;
 
     public PostService(PostRepository postRepository,
             UserRepository userRepository,
             BeachRepository beachRepository,
-            Optional<OracleStorageService> blobStorageService,
+            Optional<ImageUploadService> imageUploadService,
             NotificationRepository notificationRepository,
             CommentRepository commentRepository,
             LikeRepository likeRepository,
-            PostMapper postMapper) {
+            PostMapper postMapper,
+            TimelineService timelineService,
+            FeedCacheInvalidator feedCacheInvalidator,
+            PostFeedQueryService postFeedQueryService,
+            PostReadModel postReadModel) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
         this.beachRepository = beachRepository;
-        this.blobStorageService = blobStorageService;
+        this.imageUploadService = imageUploadService;
         this.notificationRepository = notificationRepository;
         this.commentRepository = commentRepository;
         this.likeRepository = likeRepository;
         this.postMapper = postMapper;
+        this.timelineService = timelineService;
+        this.feedCacheInvalidator = feedCacheInvalidator;
+        this.postFeedQueryService = postFeedQueryService;
+        this.postReadModel = postReadModel;
     }
 
     @Transactional
-    @CacheEvict(value = { "publicFeed", "userPosts", "followingPosts", "beachPosts" }, allEntries = true)
     public PostDTO createPost(CreatePostRequest request, MultipartFile foto, String userEmail) {
         try {
             User usuario = userRepository.findByEmail(userEmail)
                     .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + userEmail));
 
-            String urlDaFoto = null;
-            if (blobStorageService.isPresent() && foto != null && !foto.isEmpty()) {
-                urlDaFoto = blobStorageService.get().uploadFile(foto);
+            ImageRenditions fotos = null;
+            if (imageUploadService.isPresent() && foto != null && !foto.isEmpty()) {
+                fotos = imageUploadService.get().upload(foto);
             }
 
             Post novoPost = new Post();
             novoPost.setDescricao(request.getDescricao());
             novoPost.setUsuario(usuario);
-            novoPost.setCaminhoFoto(urlDaFoto);
+            if (fotos != null) {
+                novoPost.setCaminhoFoto(fotos.full());
+                novoPost.setCaminhoFotoFeed(fotos.feed());
+                novoPost.setCaminhoFotoThumb(fotos.thumbnail());
+            }
             novoPost.setPublico(request.isPublico());
 
             if (request.getBeachId() != null) {
@@ -85,6 +102,8 @@ public class PostService {
             }
 
             postRepository.save(novoPost);
+            timelineService.onPostCreated(novoPost);
+            feedCacheInvalidator.postCreated(novoPost);
 
             return postMapper.toDto(novoPost, userEmail);
         } catch (IOException e) {
@@ -92,68 +111,61 @@ public class PostService {
         }
     }
 
-    @Cacheable(value = "publicFeed", key = "#pageable.pageNumber + '_' + #pageable.pageSize", unless = "#result.content.isEmpty()")
     @Transactional(readOnly = true)
     public Page<PostDTO> getPublicFeed(Pageable pageable) {
-        Page<Post> posts = postRepository.findByPublicoIsTrue(pageable);
-        return posts.map(post -> postMapper.toDto(post, null));
+        return postReadModel.toPage(postFeedQueryService.publicFeed(pageable), pageable, null);
     }
 
-    @Cacheable(value = "followingPosts", key = "#userEmail + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", unless = "#result.content.isEmpty()")
     @Transactional(readOnly = true)
-    public Page<PostDTO> getFollowingPosts(String userEmail, Pageable pageable) {
-        User currentUser = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado: " + userEmail));
-
-        List<User> followingUsers = currentUser.getSeguindo();
-
-        if (followingUsers.isEmpty()) {
-            return Page.empty(pageable);
-        }
+    public PostSliceDTO getPublicFeedAfter(FeedCursor after, int size) {
+        return postReadModel.toSlice(postFeedQueryService.publicFeedAfter(after, size), size, null);
+    }
 
-        Page<Post> posts = postRepository.findByUsuarioIn(followingUsers, pageable);
+    @Transactional(readOnly = true)
+    public Page<PostDTO> getFollowingPosts(String userEmail, Pageable pageable) {
+        return postReadModel.toPage(postFeedQueryService.followingFeed(userEmail, pageable), pageable, userEmail);
+    }
 
-        return posts.map(post -> postMapper.toDto(post, userEmail));
+    @Transactional(readOnly = true)
+    public PostSliceDTO getFollowingPostsAfter(String userEmail, FeedCursor after, int size) {
+        return postReadModel.toSlice(postFeedQueryService.followingFeedAfter(userEmail, after, size), size, userEmail);
     }
 
-    @Cacheable(value = "userPosts", key = "#userEmail + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", unless = "#result.content.isEmpty()")
     @Transactional(readOnly = true)
     public Page<PostDTO> getPostsByUserEmail(String userEmail, Pageable pageable) {
         return getPostsByUserEmail(userEmail, userEmail, pageable);
     }
 
-    @Cacheable(value = "userPosts", key = "#userEmail + '_' + (#requesterEmail == null ? 'anonymous' : #requesterEmail) + '_' + #pageable.pageNumber + '_' + #pageable.pageSize", unless = "#result.content.isEmpty()")
     @Transactional(readOnly = true)
     public Page<PostDTO> getPostsByUserEmail(String userEmail, String requesterEmail, Pageable pageable) {
-        User usuario = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario nao encontrado com o e-mail: " + userEmail));
-
-        boolean isOwner = requesterEmail != null && requesterEmail.equalsIgnoreCase(usuario.getEmail());
-        Page<Post> posts = isOwner
-                ? postRepository.findByUsuario(usuario, pageable)
-                : postRepository.findByUsuarioAndPublicoIsTrue(usuario, pageable);
+        boolean isOwner = requesterEmail != null && requesterEmail.equalsIgnoreCase(userEmail);
+        PostIdPage ids = postFeedQueryService.userFeed(userEmail, isOwner, pageable);
+        return postReadModel.toPage(ids, pageable, requesterEmail);
+    }
 
-        return posts.map(post -> postMapper.toDto(post, requesterEmail));
+    @Transactional(readOnly = true)
+    public PostSliceDTO getPostsByUserEmailAfter(String userEmail, String requesterEmail, FeedCursor after, int size) {
+        boolean isOwner = requesterEmail != null && requesterEmail.equalsIgnoreCase(userEmail);
+        PostIdPage ids = postFeedQueryService.userFeedAfter(userEmail, isOwner, after, size);
+        return postReadModel.toSlice(ids, size, requesterEmail);
     }
 
-    @Cacheable(value = "postById", key = "#id + '_' + (#requesterEmail ?: 'anonymous')")
     @Transactional(readOnly = true)
     public Optional<PostDTO> getPostById(Long id, String requesterEmail) {
-        Optional<Post> postOptional = postRepository.findById(id);
+        Optional<PostDTO> shared = postReadModel.findShared(id);
 
-        if (postOptional.isEmpty()) {
+        if (shared.isEmpty()) {
             return Optional.empty();
         }
 
-        Post post = postOptional.get();
-        if (post.isPublico() || (requesterEmail != null && post.getUsuario().getEmail().equals(requesterEmail))) {
-            return Optional.of(postMapper.toDto(post, requesterEmail));
+        PostDTO post = shared.get();
+        if (post.isPublico() || isAuthor(post, requesterEmail)) {
+            return Optional.of(postReadModel.forViewer(post, requesterEmail));
         }
 
         return Optional.empty();
     }
 
-    @CacheEvict(value = { "publicFeed", "userPosts", "followingPosts", "beachPosts", "postById" }, allEntries = true)
     public void updatePost(Long id, String descricao, String userEmail) {
         Post post = postRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Post não encontrado"));
@@ -164,9 +176,9 @@ public class PostService {
 
         post.setDescricao(descricao);
         postRepository.save(post);
+        feedCacheInvalidator.descriptionChanged(id, descricao);
     }
 
-    @CacheEvict(value = { "publicFeed", "userPosts", "followingPosts", "beachPosts", "postById" }, allEntries = true)
     @Transactional
     public void deletePost(Long postId, User requester) {
 
@@ -184,7 +196,14 @@ public class PostService {
         }
         likeRepository.deleteAllByPost(post);
         commentRepository.deleteAll(comments);
+        timelineService.onPostDeleted(post.getId());
         postRepository.delete(post);
+        feedCacheInvalidator.postRemoved(postId);
     }
-}
 
+    private boolean isAuthor(PostDTO post, String requesterEmail) {
+        return requesterEmail != null && userRepository.findByEmail(requesterEmail)
+                .map(requester -> requester.getId().equals(post.getUsuario().getId()))
+                .orElse(false);
+    }
+}
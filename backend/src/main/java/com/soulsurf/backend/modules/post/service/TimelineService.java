@@ -0,0 +1,236 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.entity.TimelinePullAuthor;
+import com.soulsurf.backend.modules.post.repository.TimelineEntryRepository;
+import com.soulsurf.backend.modules.post.repository.TimelinePullAuthorRepository;
+import com.soulsurf.backend.modules.user.repository.FollowRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the precomputed "following" timeline (fan-out-on-write).
+ * <p>
+ * A new post is copied into {@code timeline_entries} for every follower right after the
+ * creating transaction commits, so reading the feed is a single index range scan per user.
+ * Authors with more than {@code timeline.fanout.max-followers} followers are not fanned out;
+ * their posts are merged in at read time instead (fan-out-on-read), which keeps the cost of
+ * one post bounded. Unfollows and deletions prune entries inside the caller's transaction.
+ * <p>
+ * Fan-out-on-read authors are persisted in {@code timeline_pull_authors} and mirrored in memory
+ * (loaded at startup), so posting and reading never count followers. A background refresh every
+ * {@code timeline.fanout.refresh-interval-ms} promotes authors above the limit and demotes those
+ * below it: a demoted author's posts are backfilled into the follower timelines, at most
+ * {@code timeline.fanout.backfill-batch-size} authors per run, and only then is the row removed,
+ * so a restart never loses a pending demotion.
+ */
+@Service
+@Slf4j
+public class TimelineService {
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final TimelinePullAuthorRepository timelinePullAuthorRepository;
+    private final FollowRepository followRepository;
+    private final FeedCacheInvalidator feedCacheInvalidator;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxFollowers;
+    private final int backfillBatchSize;
+
+    // Espelho de timeline_pull_authors; so o refresh agendado altera
+    private final Set<Long> pullAuthorIds = ConcurrentHashMap.newKeySet();
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository,
+            TimelinePullAuthorRepository timelinePullAuthorRepository,
+            FollowRepository followRepository,
+            FeedCacheInvalidator feedCacheInvalidator,
+            PlatformTransactionManager transactionManager,
+            @Value("${timeline.fanout.max-followers:5000}") long maxFollowers,
+            @Value("${timeline.fanout.backfill-batch-size:50}") int backfillBatchSize) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.timelinePullAuthorRepository = timelinePullAuthorRepository;
+        this.followRepository = followRepository;
+        this.feedCacheInvalidator = feedCacheInvalidator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxFollowers = maxFollowers;
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    public void onPostCreated(Post post) {
+        Long postId = post.getId();
+        Long authorId = post.getUsuario().getId();
+        LocalDateTime data = post.getData();
+        afterCommit("fan-out do post " + postId, () -> fanOut(postId, authorId, data),
+                feedCacheInvalidator::followingFeedsChanged);
+    }
+
+    public void onFollow(Long followerId, String followerEmail, Long authorId) {
+        afterCommit("backfill do timeline " + followerId, () -> {
+            if (!pullAuthorIds.contains(authorId)) {
+                timelineEntryRepository.backfill(followerId, authorId);
+            }
+        }, () -> feedCacheInvalidator.followingFeedChanged(followerEmail));
+    }
+
+    // Executado na transacao do chamador: o post do autor nao pode continuar no feed apos o unfollow
+    public void onUnfollow(Long followerId, String followerEmail, Long authorId) {
+        timelineEntryRepository.deleteByUserIdAndAuthorId(followerId, authorId);
+        feedCacheInvalidator.followingFeedChanged(followerEmail);
+    }
+
+    public void onPostDeleted(Long postId) {
+        timelineEntryRepository.deleteByPostId(postId);
+    }
+
+    public void onUserDeleted(Long userId) {
+        timelineEntryRepository.deleteByUserIdOrAuthorId(userId);
+    }
+
+    /**
+     * Copies a post into the timelines of the author's followers. Returns how many entries
+     * were written, or {@code 0} when the author is served by fan-out-on-read.
+     */
+    public int fanOut(Long postId, Long authorId, LocalDateTime data) {
+        if (pullAuthorIds.contains(authorId)) {
+            return 0;
+        }
+        return timelineEntryRepository.fanOut(postId, authorId, data);
+    }
+
+    public Page<Post> getTimeline(Long userId, Pageable pageable) {
+        // A ordenacao vem da query; o Sort do Pageable referenciaria o alias errado
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Set<Long> pullAuthors = pullAuthorsFollowedBy(userId);
+        return pullAuthors.isEmpty()
+                ? timelineEntryRepository.findTimeline(userId, unsorted)
+                : timelineEntryRepository.findTimelineWithAuthors(userId, pullAuthors, unsorted);
+    }
+
+    public Slice<Post> getTimelineAfter(Long userId, FeedCursor after, int size) {
+        PageRequest limit = PageRequest.of(0, size);
+        Set<Long> pullAuthors = pullAuthorsFollowedBy(userId);
+        return pullAuthors.isEmpty()
+                ? timelineEntryRepository.findTimelineAfter(userId, after.data(), after.id(), limit)
+                : timelineEntryRepository.findTimelineWithAuthorsAfter(
+                        userId, pullAuthors, after.data(), after.id(), limit);
+    }
+
+    // Leitura de uma tabela pequena; a reconciliacao com as contagens de seguidores fica para o refresh
+    @PostConstruct
+    void loadPullAuthors() {
+        try {
+            pullAuthorIds.addAll(timelinePullAuthorRepository.findAllAuthorIds());
+            log.info("Timeline: {} autor(es) em fan-out-on-read", pullAuthorIds.size());
+        } catch (RuntimeException e) {
+            log.warn("Nao foi possivel carregar os autores de fan-out-on-read: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${timeline.fanout.refresh-interval-ms:300000}",
+            initialDelayString = "${timeline.fanout.refresh-initial-delay-ms:30000}"
+    )
+    public void refreshPullAuthors() {
+        Set<Long> refreshed = new HashSet<>(followRepository.findUserIdsWithMoreFollowersThan(maxFollowers));
+        Set<Long> persisted = new HashSet<>(timelinePullAuthorRepository.findAllAuthorIds());
+
+        List<TimelinePullAuthor> promoted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Long authorId : refreshed) {
+            if (!persisted.contains(authorId)) {
+                promoted.add(new TimelinePullAuthor(authorId, now));
+            }
+        }
+        if (!promoted.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> timelinePullAuthorRepository.saveAll(promoted));
+        }
+        // Inclui os persistidos: rebaixados ainda nao redistribuidos continuam servidos na leitura
+        pullAuthorIds.addAll(persisted);
+        pullAuthorIds.addAll(refreshed);
+
+        List<Long> demoted = persisted.stream().filter(authorId -> !refreshed.contains(authorId)).toList();
+        int backfilled = 0;
+        for (Long authorId : demoted.subList(0, Math.min(backfillBatchSize, demoted.size()))) {
+            if (backfillDemoted(authorId)) {
+                backfilled++;
+            }
+        }
+        if (backfilled > 0) {
+            feedCacheInvalidator.allFollowingFeedsChanged();
+        }
+        if (demoted.size() > backfilled) {
+            log.info("Timeline: {} autor(es) rebaixado(s) aguardando redistribuicao", demoted.size() - backfilled);
+        }
+    }
+
+    // Autor voltou para fan-out-on-write: materializa os posts que nao foram distribuidos. Sai do
+    // conjunto antes do backfill para que posts novos ja sejam distribuidos (o backfill ignora os
+    // repetidos); a linha so e apagada junto com o backfill, entao uma falha ou um restart repete
+    private boolean backfillDemoted(Long authorId) {
+        pullAuthorIds.remove(authorId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                timelineEntryRepository.backfillFollowers(authorId);
+                timelinePullAuthorRepository.deleteById(authorId);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            pullAuthorIds.add(authorId);
+            log.warn("Falha ao redistribuir os posts do autor {}: {}", authorId, e.getMessage());
+            return false;
+        }
+    }
+
+    private Set<Long> pullAuthorsFollowedBy(Long userId) {
+        if (pullAuthorIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> followed = new HashSet<>(followRepository.findFollowingIds(userId));
+        followed.retainAll(pullAuthorIds);
+        return followed;
+    }
+
+    private void afterCommit(String description, Runnable work, Runnable invalidation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runInNewTransaction(description, work, invalidation);
+                }
+            });
+            return;
+        }
+
+        runInNewTransaction(description, work, invalidation);
+    }
+
+    private void runInNewTransaction(String description, Runnable work, Runnable invalidation) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> work.run());
+            invalidation.run();
+        } catch (RuntimeException e) {
+            log.warn("Falha no {} apos commit: {}", description, e.getMessage(), e);
+        }
+    }
+}
@@ -15,7 +15,9 @@ public class UserDTO {
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String email;
     private String fotoPerfil;
+    private String fotoPerfilThumb;
     private String fotoCapa;
+    private String fotoCapaFeed;
     public String bio;
     private int seguidoresCount;
     private int seguindoCount;
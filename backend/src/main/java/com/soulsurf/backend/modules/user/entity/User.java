@@ -33,6 +33,13 @@ public class User {
     private String fotoCapa;
 
     private String fotoPerfil;
+
+    // Variantes reduzidas das fotos (ImagePipeline); nulas em fotos anteriores a elas
+    @Column(name = "foto_perfil_thumb", length = 512)
+    private String fotoPerfilThumb;
+
+    @Column(name = "foto_capa_feed", length = 512)
+    private String fotoCapaFeed;
     private String bio;
 
     // Relacionamento - seguidores (quem me segue)
@@ -17,7 +17,9 @@ public class UserMapper {
         dto.setUsername(user.getUsername());
         dto.setEmail(user.getEmail());
         dto.setFotoPerfil(user.getFotoPerfil());
+        dto.setFotoPerfilThumb(user.getFotoPerfilThumb());
         dto.setFotoCapa(user.getFotoCapa());
+        dto.setFotoCapaFeed(user.getFotoCapaFeed());
         dto.setBio(user.getBio());
         dto.setAdmin(user.isAdmin());
         dto.setBanned(user.isBanned());
@@ -42,7 +44,9 @@ public class UserMapper {
         dto.setUsername(user.getUsername());
         dto.setEmail(user.getEmail());
         dto.setFotoPerfil(user.getFotoPerfil());
+        dto.setFotoPerfilThumb(user.getFotoPerfilThumb());
         dto.setFotoCapa(user.getFotoCapa());
+        dto.setFotoCapaFeed(user.getFotoCapaFeed());
         dto.setBio(user.getBio());
         dto.setAdmin(user.isAdmin());
         dto.setBanned(user.isBanned());
@@ -57,6 +61,7 @@ public class UserMapper {
         dto.setId(user.getId());
         dto.setUsername(user.getUsername());
         dto.setFotoPerfil(user.getFotoPerfil());
+        dto.setFotoPerfilThumb(user.getFotoPerfilThumb());
         return dto;
     }
 }
@@ -3,8 +3,12 @@ package com.soulsurf.backend.modules.user.repository;
 import com.soulsurf.backend.modules.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface FollowRepository extends JpaRepository<User, Long> {
 
@@ -15,5 +19,42 @@ public interface FollowRepository extends JpaRepository<User, Long> {
         WHERE u.id = :followerId AND f.id = :followingId
     """)
     boolean existsByFollowerIdAndFollowingId(Long followerId, Long followingId);
-}
 
+    // Quantidade de seguidores por usuario (userId, count)
+    @Query("""
+        SELECT f.id, COUNT(u)
+        FROM User u
+        JOIN u.seguindo f
+        WHERE f.id IN :userIds
+        GROUP BY f.id
+    """)
+    List<Object[]> countFollowersByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    // Quantidade de usuarios seguidos por usuario (userId, count)
+    @Query("""
+        SELECT u.id, COUNT(f)
+        FROM User u
+        JOIN u.seguindo f
+        WHERE u.id IN :userIds
+        GROUP BY u.id
+    """)
+    List<Object[]> countFollowingByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("""
+        SELECT f.id
+        FROM User u
+        JOIN u.seguindo f
+        WHERE u.id = :userId
+    """)
+    List<Long> findFollowingIds(@Param("userId") Long userId);
+
+    // Autores com mais seguidores que o limite de fan-out do timeline
+    @Query("""
+        SELECT f.id
+        FROM User u
+        JOIN u.seguindo f
+        GROUP BY f.id
+        HAVING COUNT(u) > :threshold
+    """)
+    List<Long> findUserIdsWithMoreFollowersThan(@Param("threshold") long threshold);
+}
@@ -1,5 +1,6 @@
 package com.soulsurf.backend.modules.user.service;
 
+import com.soulsurf.backend.core.resilience.OutboundGuard;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -9,12 +10,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 @Service
 public class EmailService {
 
     private static final String RESEND_API_URL = "https://api.resend.com/emails";
-    private final OkHttpClient client = new OkHttpClient();
+    private static final String INTEGRATION = "resend";
+
+    private final OkHttpClient client;
+    private final OutboundGuard outboundGuard;
 
     @Value("${resend.api.key}")
     private String apiKey;
@@ -25,6 +30,11 @@ public class EmailService {
     @Value("${frontend.url:http://localhost:5173}")
     private String frontendUrl;
 
+    public EmailService(OutboundGuard outboundGuard) {
+        this.outboundGuard = outboundGuard;
+        this.client = outboundGuard.okHttpClient(INTEGRATION);
+    }
+
     public void sendPasswordResetEmail(String toEmail, String token, String code) {
         String resetLink = frontendUrl + "/reset-password?token=" + token;
         String htmlContent = """
@@ -68,13 +78,35 @@ public class EmailService {
                 .addHeader("Content-Type", "application/json")
                 .build();
 
+        ResendResult result;
+        try {
+            result = outboundGuard.call(INTEGRATION, () -> execute(request));
+        } catch (UncheckedIOException e) {
+            throw new RuntimeException("Erro de conexao com Resend: " + e.getCause().getMessage());
+        } catch (RuntimeException e) {
+            if (OutboundGuard.isRejected(e)) {
+                throw new RuntimeException("Servico de email indisponivel no momento. Tente novamente em instantes.");
+            }
+            throw e;
+        }
+        if (!result.successful()) {
+            throw new RuntimeException("Erro Resend: " + result.code() + " -> " + result.error());
+        }
+    }
+
+    // 5xx e falhas de rede contam para o circuit breaker; 4xx e erro da requisicao, nao da integracao
+    private ResendResult execute(Request request) {
         try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                String error = response.body() != null ? response.body().string() : "sem detalhes";
+            if (response.isSuccessful()) {
+                return new ResendResult(true, response.code(), null);
+            }
+            String error = response.body() != null ? response.body().string() : "sem detalhes";
+            if (response.code() >= 500) {
                 throw new RuntimeException("Erro Resend: " + response.code() + " -> " + error);
             }
+            return new ResendResult(false, response.code(), error);
         } catch (IOException e) {
-            throw new RuntimeException("Erro de conexao com Resend: " + e.getMessage());
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -91,4 +123,7 @@ public class EmailService {
 
         return "\"" + escaped + "\"";
     }
+
+    private record ResendResult(boolean successful, int code, String error) {
+    }
 }
@@ -31,7 +31,9 @@ public class FollowService {
             dto.setId(u.getId());
             dto.setUsername(u.getUsername());
             dto.setFotoPerfil(u.getFotoPerfil());
+            dto.setFotoPerfilThumb(u.getFotoPerfilThumb());
             dto.setFotoCapa(u.getFotoCapa());
+            dto.setFotoCapaFeed(u.getFotoCapaFeed());
             dto.setBio(u.getBio());
             return dto;
         }).toList();
@@ -1,5 +1,6 @@
 package com.soulsurf.backend.modules.user.service;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -16,13 +17,15 @@ import org.springframework.web.multipart.MultipartFile;
 
 import com.soulsurf.backend.modules.post.dto.PostDTO;
 import com.soulsurf.backend.modules.user.controller.SignupRequest;
-import com.soulsurf.backend.core.storage.OracleStorageService;
+import com.soulsurf.backend.core.image.ImageRenditions;
+import com.soulsurf.backend.core.image.ImageUploadService;
 import com.soulsurf.backend.modules.user.dto.UserDTO;
 import com.soulsurf.backend.modules.user.entity.User;
 import com.soulsurf.backend.modules.user.mapper.UserMapper;
 import com.soulsurf.backend.modules.user.repository.FollowRepository;
 import com.soulsurf.backend.modules.user.repository.UserRepository;
 import com.soulsurf.backend.modules.post.service.PostService;
+import com.soulsurf.backend.modules.post.service.TimelineService;
 import com.soulsurf.backend.modules.notification.event.NotificationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 
@@ -32,26 +35,29 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final PostService postService;
-    private final Optional<OracleStorageService> blobStorageService;
+    private final Optional<ImageUploadService> imageUploadService;
     private final FollowRepository followRepository;
     private final UserMapper userMapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final TimelineService timelineService;
 
     public UserService(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
             PostService postService,
-            Optional<OracleStorageService> blobStorageService,
+            Optional<ImageUploadService> imageUploadService,
             FollowRepository followRepository,
             UserMapper userMapper,
-            ApplicationEventPublisher eventPublisher) {
+            ApplicationEventPublisher eventPublisher,
+            TimelineService timelineService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.postService = postService;
-        this.blobStorageService = blobStorageService;
+        this.imageUploadService = imageUploadService;
         this.followRepository = followRepository;
         this.userMapper = userMapper;
         this.eventPublisher = eventPublisher;
+        this.timelineService = timelineService;
     }
 
     public boolean existsByEmail(String email) {
@@ -103,6 +109,7 @@ public class UserService {
         if (!follower.getSeguindo().contains(userToFollow)) {
             follower.getSeguindo().add(userToFollow);
             userRepository.save(follower);
+            timelineService.onFollow(follower.getId(), follower.getEmail(), userToFollow.getId());
             eventPublisher.publishEvent(NotificationEvent.follow(follower.getEmail(), followedId));
         }
     }
@@ -115,7 +122,9 @@ public class UserService {
         User userToUnfollow = userRepository.findById(followedId)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário a ser deixado de seguir não encontrado."));
 
-        follower.getSeguindo().remove(userToUnfollow);
+        if (follower.getSeguindo().remove(userToUnfollow)) {
+            timelineService.onUnfollow(follower.getId(), follower.getEmail(), userToUnfollow.getId());
+        }
         userRepository.save(follower);
     }
 
@@ -175,11 +184,12 @@ public class UserService {
         }
 
         if (fotoPerfil != null && !fotoPerfil.isEmpty()) {
-            if (blobStorageService.isPresent()) {
+            if (imageUploadService.isPresent()) {
                 try {
-                    String fotoPerfilUrl = blobStorageService.get().uploadFile(fotoPerfil);
-                    userToUpdate.setFotoPerfil(fotoPerfilUrl);
-                } catch (Exception e) {
+                    ImageRenditions fotos = imageUploadService.get().upload(fotoPerfil);
+                    userToUpdate.setFotoPerfil(fotos.full());
+                    userToUpdate.setFotoPerfilThumb(fotos.thumbnail());
+                } catch (IOException e) {
                     throw new RuntimeException("Erro ao fazer upload da foto de perfil: " + e.getMessage());
                 }
             } else {
@@ -188,11 +198,12 @@ public class UserService {
         }
 
         if (fotoCapa != null && !fotoCapa.isEmpty()) {
-            if (blobStorageService.isPresent()) {
+            if (imageUploadService.isPresent()) {
                 try {
-                    String fotoCapaUrl = blobStorageService.get().uploadFile(fotoCapa);
-                    userToUpdate.setFotoCapa(fotoCapaUrl);
-                } catch (Exception e) {
+                    ImageRenditions fotos = imageUploadService.get().upload(fotoCapa);
+                    userToUpdate.setFotoCapa(fotos.full());
+                    userToUpdate.setFotoCapaFeed(fotos.feed());
+                } catch (IOException e) {
                     throw new RuntimeException("Erro ao fazer upload da foto de capa: " + e.getMessage());
                 }
             } else {
@@ -2,21 +2,31 @@ package com.soulsurf.backend.modules.weather.controller;
 
 import com.soulsurf.backend.modules.weather.dto.WeatherDTO;
 import com.soulsurf.backend.modules.weather.dto.SurfConditionsDTO;
+import com.soulsurf.backend.modules.weather.dto.SurfForecastDTO;
 import com.soulsurf.backend.modules.weather.service.SurfConditionsService;
+import com.soulsurf.backend.modules.weather.service.SurfForecastService;
 import com.soulsurf.backend.modules.weather.service.WeatherService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/weather")
 public class WeatherController {
 
     private final WeatherService weatherService;
     private final SurfConditionsService surfConditionsService;
+    private final SurfForecastService surfForecastService;
 
-    public WeatherController(WeatherService weatherService, SurfConditionsService surfConditionsService) {
+    public WeatherController(
+            WeatherService weatherService,
+            SurfConditionsService surfConditionsService,
+            SurfForecastService surfForecastService
+    ) {
         this.weatherService = weatherService;
         this.surfConditionsService = surfConditionsService;
+        this.surfForecastService = surfForecastService;
     }
 
     @GetMapping("/current")
@@ -34,5 +44,16 @@ public class WeatherController {
         SurfConditionsDTO surfConditions = surfConditionsService.getSurfConditions(lat, lon, beach);
         return ResponseEntity.ok(surfConditions);
     }
-}
 
+    @GetMapping("/surf-conditions/batch")
+    public ResponseEntity<List<SurfConditionsDTO>> getSurfConditionsBatch(@RequestParam List<Long> beachIds) {
+        return ResponseEntity.ok(surfConditionsService.getSurfConditionsBatch(beachIds));
+    }
+
+    @GetMapping("/forecast")
+    public ResponseEntity<SurfForecastDTO> getForecast(@RequestParam Long beachId) {
+        return surfForecastService.getForecast(beachId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -20,6 +20,7 @@ public class SurfConditionsDTO {
     @Data
     @Builder
     public static class LocationDTO {
+        private Long beachId;
         private Double latitude;
         private Double longitude;
         private String timezone;
@@ -28,6 +29,7 @@ public class SurfConditionsDTO {
     @Data
     @Builder
     public static class MarineDTO {
+        private Boolean available;
         private Double waveHeightMeters;
         private Double waveDirectionDegrees;
         private Double wavePeriodSeconds;
@@ -39,6 +41,7 @@ public class SurfConditionsDTO {
     @Data
     @Builder
     public static class WindDTO {
+        private Boolean available;
         private Double windSpeedKmh;
         private Double windDirectionDegrees;
         private Double windGustKmh;
@@ -0,0 +1,33 @@
+package com.soulsurf.backend.modules.weather.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class SurfForecastDTO {
+    private Long beachId;
+    private String beachName;
+    private String generatedAt;
+    private String timezone;
+    private List<HourDTO> hours;
+    private List<SurfConditionsDTO.TideSurfWindowDTO> bestSurfWindows;
+
+    @Data
+    @Builder
+    public static class HourDTO {
+        private String time;
+        private Double waveHeightMeters;
+        private Double wavePeriodSeconds;
+        private Double waveDirectionDegrees;
+        private Double windSpeedKmh;
+        private Double windGustKmh;
+        private Double windDirectionDegrees;
+        private String tideStatus;
+        private Integer tideFillPercent;
+        private Integer score;
+        private String label;
+    }
+}
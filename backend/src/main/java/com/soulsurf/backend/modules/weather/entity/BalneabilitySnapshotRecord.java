@@ -0,0 +1,48 @@
+package com.soulsurf.backend.modules.weather.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last successfully parsed SEMACE bulletin for a source. The parsed points are kept as JSON so a
+ * restart can rebuild the in-memory snapshot without downloading and parsing the PDF again; the
+ * hash and HTTP validators let the next refresh skip an unchanged PDF.
+ */
+@Entity
+@Table(name = "balneability_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+public class BalneabilitySnapshotRecord {
+
+    @Id
+    @Column(length = 32)
+    private String source;
+
+    @Column(name = "report_url", nullable = false, length = 1000)
+    private String reportUrl;
+
+    private String period;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    private String etag;
+
+    @Column(name = "last_modified", length = 64)
+    private String lastModified;
+
+    @Lob
+    @Column(name = "points_json", nullable = false)
+    private String pointsJson;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+
+    @Column(name = "checked_at", nullable = false)
+    private LocalDateTime checkedAt;
+}
@@ -0,0 +1,37 @@
+package com.soulsurf.backend.modules.weather.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted hourly forecast of one beach. The series are kept in the binary columnar payload
+ * written by the forecast service; the other columns only describe it.
+ */
+@Entity
+@Table(name = "surf_forecasts")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SurfForecastRecord {
+
+    @Id
+    @Column(name = "beach_id")
+    private Long beachId;
+
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+
+    @Column(name = "starts_at", nullable = false)
+    private LocalDateTime startsAt;
+
+    @Column(nullable = false)
+    private int hours;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+}
@@ -0,0 +1,9 @@
+package com.soulsurf.backend.modules.weather.repository;
+
+import com.soulsurf.backend.modules.weather.entity.SurfForecastRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SurfForecastRepository extends JpaRepository<SurfForecastRecord, Long> {
+}
@@ -0,0 +1,344 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass tokenizer for the Apolo11 tide table page.
+ * <p>
+ * The page is read once, left to right, as a stream of tags and text runs; a small state machine
+ * per table row picks up the date ({@code font.mare_data}), the sunrise/sunset pair (the text after
+ * {@code <b>Nascente</b>} / {@code <b>Poente</b>}) and every tide event ({@code font.mare_nome}
+ * followed by two {@code font.mare} runs: time and height). Work is linear in the page size and
+ * nothing backtracks, so a shifted layout only drops the rows it no longer recognizes.
+ */
+final class ApoloTidePageParser {
+
+    private ApoloTidePageParser() {
+    }
+
+    record TidePage(List<SurfConditionsService.TideEvent> events, Map<LocalDate, SurfConditionsService.SunWindow> sunWindows) {
+    }
+
+    static TidePage parse(CharSequence html, ZoneId zone) {
+        if (html == null || html.length() == 0) {
+            return new TidePage(List.of(), Map.of());
+        }
+        RowState state = new RowState(zone);
+        int length = html.length();
+        int position = 0;
+        while (position < length) {
+            int tagStart = indexOf(html, '<', position);
+            if (tagStart < 0) {
+                state.text(html, position, length);
+                break;
+            }
+            if (tagStart > position) {
+                state.text(html, position, tagStart);
+            }
+            int tagEnd = indexOf(html, '>', tagStart + 1);
+            if (tagEnd < 0) {
+                break;
+            }
+            state.tag(html, tagStart + 1, tagEnd);
+            position = tagEnd + 1;
+        }
+        state.endRow();
+
+        state.events.sort(Comparator.comparing(SurfConditionsService.TideEvent::dateTime));
+        return new TidePage(List.copyOf(state.events), Map.copyOf(state.sunWindows));
+    }
+
+    // Estado da linha corrente; cada token e consumido uma unica vez
+    private static final class RowState {
+        private final ZoneId zone;
+        private final List<SurfConditionsService.TideEvent> events = new ArrayList<>();
+        private final Map<LocalDate, SurfConditionsService.SunWindow> sunWindows = new HashMap<>();
+
+        private FontClass font = FontClass.NONE;
+        private boolean inBold;
+        private boolean inRow;
+        private LocalDate date;
+        private SunLabel pendingSunLabel = SunLabel.NONE;
+        private LocalTime sunrise;
+        private LocalTime sunset;
+        private String pendingType;
+        private LocalTime pendingTime;
+
+        RowState(ZoneId zone) {
+            this.zone = zone;
+        }
+
+        void tag(CharSequence html, int start, int end) {
+            boolean closing = start < end && html.charAt(start) == '/';
+            int nameStart = closing ? start + 1 : start;
+            int nameEnd = nameStart;
+            while (nameEnd < end && isNameChar(html.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            int nameLength = nameEnd - nameStart;
+
+            if (nameIs(html, nameStart, nameLength, "tr")) {
+                endRow();
+                inRow = !closing;
+            } else if (nameIs(html, nameStart, nameLength, "font")) {
+                font = closing ? FontClass.NONE : FontClass.of(html, nameEnd, end);
+            } else if (nameIs(html, nameStart, nameLength, "b")) {
+                inBold = !closing;
+            } else if (nameIs(html, nameStart, nameLength, "td") && closing) {
+                pendingSunLabel = SunLabel.NONE;
+            }
+        }
+
+        void text(CharSequence html, int start, int end) {
+            if (!inRow) {
+                return;
+            }
+            while (start < end && Character.isWhitespace(html.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(html.charAt(end - 1))) {
+                end--;
+            }
+            if (start == end) {
+                return;
+            }
+
+            if (inBold) {
+                pendingSunLabel = regionIs(html, start, end, "Nascente") ? SunLabel.SUNRISE
+                        : regionIs(html, start, end, "Poente") ? SunLabel.SUNSET
+                        : SunLabel.NONE;
+                return;
+            }
+            if (pendingSunLabel != SunLabel.NONE) {
+                LocalTime time = parseClock(html, start, end, ':');
+                if (pendingSunLabel == SunLabel.SUNRISE) {
+                    sunrise = time;
+                } else {
+                    sunset = time;
+                }
+                pendingSunLabel = SunLabel.NONE;
+                return;
+            }
+
+            switch (font) {
+                case DATE -> {
+                    if (date == null) {
+                        date = parseDate(html, start, end);
+                    }
+                }
+                case TIDE_NAME -> {
+                    pendingType = regionIs(html, start, end, "ALTA") ? "ALTA"
+                            : regionIs(html, start, end, "BAIXA") ? "BAIXA"
+                            : null;
+                    pendingTime = null;
+                }
+                case TIDE_VALUE -> tideValue(html, start, end);
+                default -> {
+                }
+            }
+        }
+
+        private void tideValue(CharSequence html, int start, int end) {
+            if (pendingType == null) {
+                return;
+            }
+            if (pendingTime == null) {
+                pendingTime = parseClock(html, start, end, 'h');
+                if (pendingTime == null) {
+                    pendingType = null;
+                }
+                return;
+            }
+            Double height = html.charAt(end - 1) == 'm' || html.charAt(end - 1) == 'M'
+                    ? parseDecimal(html, start, end - 1)
+                    : null;
+            if (height != null && date != null) {
+                events.add(new SurfConditionsService.TideEvent(
+                        pendingType, ZonedDateTime.of(date, pendingTime, zone), height));
+            }
+            pendingType = null;
+            pendingTime = null;
+        }
+
+        void endRow() {
+            if (date != null && sunrise != null && sunset != null) {
+                sunWindows.putIfAbsent(date, new SurfConditionsService.SunWindow(sunrise, sunset));
+            }
+            inRow = false;
+            inBold = false;
+            font = FontClass.NONE;
+            date = null;
+            sunrise = null;
+            sunset = null;
+            pendingSunLabel = SunLabel.NONE;
+            pendingType = null;
+            pendingTime = null;
+        }
+    }
+
+    private enum SunLabel {
+        NONE, SUNRISE, SUNSET
+    }
+
+    private enum FontClass {
+        NONE, DATE, TIDE_NAME, TIDE_VALUE, OTHER;
+
+        // Le o atributo class= da tag sem alocar: valor com ou sem aspas
+        static FontClass of(CharSequence html, int start, int end) {
+            for (int index = start; index + 6 <= end; index++) {
+                if (regionMatches(html, index, "class=")) {
+                    int valueStart = index + 6;
+                    if (valueStart < end && (html.charAt(valueStart) == '"' || html.charAt(valueStart) == '\'')) {
+                        valueStart++;
+                    }
+                    int valueEnd = valueStart;
+                    while (valueEnd < end && isNameChar(html.charAt(valueEnd))) {
+                        valueEnd++;
+                    }
+                    if (regionIs(html, valueStart, valueEnd, "mare_data")) {
+                        return DATE;
+                    }
+                    if (regionIs(html, valueStart, valueEnd, "mare_nome")) {
+                        return TIDE_NAME;
+                    }
+                    if (regionIs(html, valueStart, valueEnd, "mare")) {
+                        return TIDE_VALUE;
+                    }
+                    return OTHER;
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    // dd/MM/yyyy no inicio do texto
+    private static LocalDate parseDate(CharSequence html, int start, int end) {
+        if (end - start < 10 || html.charAt(start + 2) != '/' || html.charAt(start + 5) != '/') {
+            return null;
+        }
+        int day = digits(html, start, start + 2);
+        int month = digits(html, start + 3, start + 5);
+        int year = digits(html, start + 6, start + 10);
+        if (day < 0 || month < 0 || year < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    // H:mm (sol) ou Hhmm (mare): 1-2 digitos, separador, 2 digitos
+    private static LocalTime parseClock(CharSequence html, int start, int end, char separator) {
+        int separatorIndex = start;
+        while (separatorIndex < end && html.charAt(separatorIndex) != separator) {
+            separatorIndex++;
+        }
+        int hourDigits = separatorIndex - start;
+        if (hourDigits < 1 || hourDigits > 2 || separatorIndex + 3 > end) {
+            return null;
+        }
+        int hour = digits(html, start, separatorIndex);
+        int minute = digits(html, separatorIndex + 1, separatorIndex + 3);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute);
+    }
+
+    // [-+]?\d+([.,]\d+)? sem passar por Double.parseDouble(String)
+    private static Double parseDecimal(CharSequence html, int start, int end) {
+        while (end > start && Character.isWhitespace(html.charAt(end - 1))) {
+            end--;
+        }
+        boolean negative = false;
+        if (start < end && (html.charAt(start) == '-' || html.charAt(start) == '+')) {
+            negative = html.charAt(start) == '-';
+            start++;
+        }
+        long mantissa = 0;
+        int scale = 0;
+        int digitCount = 0;
+        boolean fraction = false;
+        for (int index = start; index < end; index++) {
+            char c = html.charAt(index);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digitCount++;
+                if (fraction) {
+                    scale++;
+                }
+            } else if ((c == '.' || c == ',') && !fraction && digitCount > 0) {
+                fraction = true;
+            } else {
+                return null;
+            }
+            if (digitCount > 15) {
+                return null;
+            }
+        }
+        if (digitCount == 0 || (fraction && scale == 0)) {
+            return null;
+        }
+        double value = mantissa / Math.pow(10, scale);
+        return negative ? -value : value;
+    }
+
+    private static int digits(CharSequence html, int start, int end) {
+        int value = 0;
+        for (int index = start; index < end; index++) {
+            char c = html.charAt(index);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int indexOf(CharSequence html, char target, int from) {
+        if (html instanceof String string) {
+            return string.indexOf(target, from);
+        }
+        for (int index = from; index < html.length(); index++) {
+            if (html.charAt(index) == target) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+
+    private static boolean nameIs(CharSequence html, int start, int length, String name) {
+        return length == name.length() && regionMatches(html, start, name);
+    }
+
+    private static boolean regionIs(CharSequence html, int start, int end, String expected) {
+        return end - start == expected.length() && regionMatches(html, start, expected);
+    }
+
+    private static boolean regionMatches(CharSequence html, int start, String expected) {
+        if (start + expected.length() > html.length()) {
+            return false;
+        }
+        for (int index = 0; index < expected.length(); index++) {
+            if (Character.toLowerCase(html.charAt(start + index)) != Character.toLowerCase(expected.charAt(index))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
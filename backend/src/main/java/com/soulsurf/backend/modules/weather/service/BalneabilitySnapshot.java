@@ -0,0 +1,139 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, indexed view of one SEMACE bulletin. Point descriptions are normalized once when the
+ * snapshot is built, the status totals are precomputed and the matches of each normalized beach
+ * name are memoized, so a request never rescans or renormalizes the whole bulletin.
+ */
+final class BalneabilitySnapshot {
+
+    static final Set<String> IMPROPER_STATUS_CODES = Set.of("I", "I*");
+    static final Set<String> ALERT_STATUS_CODES = Set.of("EA");
+    static final Set<String> PROPER_STATUS_CODES = Set.of("P", "A");
+
+    // Os nomes consultados sao os das praias cadastradas; o limite so protege contra buscas livres
+    private static final int MAX_INDEXED_QUERIES = 512;
+
+    private final String reportUrl;
+    private final String period;
+    private final String contentHash;
+    private final Instant fetchedAt;
+    private final List<Point> points;
+    private final List<String> normalizedDescriptions;
+    private final int properCount;
+    private final int alertCount;
+    private final int improperCount;
+    private final Map<String, List<Point>> matchesByQuery = new ConcurrentHashMap<>();
+
+    BalneabilitySnapshot(String reportUrl, String period, String contentHash, Instant fetchedAt, List<Point> points) {
+        this.reportUrl = reportUrl;
+        this.period = period;
+        this.contentHash = contentHash;
+        this.fetchedAt = fetchedAt;
+        this.points = List.copyOf(points);
+
+        List<String> normalized = new ArrayList<>(points.size());
+        int proper = 0;
+        int alert = 0;
+        int improper = 0;
+        for (Point point : this.points) {
+            normalized.add(normalize(point.description()));
+            if (PROPER_STATUS_CODES.contains(point.statusCode())) {
+                proper++;
+            } else if (ALERT_STATUS_CODES.contains(point.statusCode())) {
+                alert++;
+            } else if (IMPROPER_STATUS_CODES.contains(point.statusCode())) {
+                improper++;
+            }
+        }
+        this.normalizedDescriptions = List.copyOf(normalized);
+        this.properCount = proper;
+        this.alertCount = alert;
+        this.improperCount = improper;
+    }
+
+    /**
+     * Points whose normalized description contains the normalized beach name. An empty query
+     * matches every point.
+     */
+    List<Point> match(String beachName) {
+        String query = normalize(beachName);
+        if (query.isEmpty()) {
+            return points;
+        }
+        List<Point> cached = matchesByQuery.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        List<Point> matched = scan(query);
+        if (matchesByQuery.size() < MAX_INDEXED_QUERIES) {
+            matchesByQuery.putIfAbsent(query, matched);
+        }
+        return matched;
+    }
+
+    private List<Point> scan(String query) {
+        List<Point> matched = new ArrayList<>();
+        for (int index = 0; index < points.size(); index++) {
+            if (normalizedDescriptions.get(index).contains(query)) {
+                matched.add(points.get(index));
+            }
+        }
+        return List.copyOf(matched);
+    }
+
+    static String normalize(String value) {
+        if (!StringUtils.hasText(value)) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "");
+        return normalized.toLowerCase(Locale.ROOT).trim();
+    }
+
+    String reportUrl() {
+        return reportUrl;
+    }
+
+    String period() {
+        return period;
+    }
+
+    String contentHash() {
+        return contentHash;
+    }
+
+    Instant fetchedAt() {
+        return fetchedAt;
+    }
+
+    List<Point> points() {
+        return points;
+    }
+
+    int properCount() {
+        return properCount;
+    }
+
+    int alertCount() {
+        return alertCount;
+    }
+
+    int improperCount() {
+        return improperCount;
+    }
+
+    record Point(String pointCode, String description, String statusCode) {
+    }
+}
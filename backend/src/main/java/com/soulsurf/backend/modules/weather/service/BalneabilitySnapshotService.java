@@ -0,0 +1,391 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soulsurf.backend.core.resilience.OutboundGuard;
+import com.soulsurf.backend.modules.weather.entity.BalneabilitySnapshotRecord;
+import com.soulsurf.backend.modules.weather.repository.BalneabilitySnapshotRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the SEMACE "Boletim das Praias de Fortaleza" as an in-memory {@link BalneabilitySnapshot}
+ * refreshed in the background, so surf-conditions requests never download or parse the PDF.
+ * <p>
+ * Each check reads the bulletin page, then asks for the PDF with the stored ETag/Last-Modified.
+ * A 304, or a body whose SHA-256 matches the current snapshot, skips the PDFBox parse. The last
+ * good snapshot is persisted and restored on startup; a restart only downloads again once the
+ * persisted check is older than the check interval.
+ */
+@Service
+@Slf4j
+public class BalneabilitySnapshotService {
+
+    static final String SOURCE = "fortaleza";
+
+    private static final Pattern FORTALEZA_BULLETIN_PATTERN = Pattern.compile(
+            "<a[^>]*href\\s*=\\s*[\"']([^\"']+\\.pdf)[\"'][^>]*>\\s*Boletim\\s+das\\s+Praias\\s+de\\s+Fortaleza\\s*</a>",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern FALLBACK_BULLETIN_PATTERN = Pattern.compile(
+            "(https?://[^\"'\\s>]*Boletim-[^\"'\\s>]*\\.pdf|/wp-content/uploads/[^\"'\\s>]*Boletim-[^\"'\\s>]*\\.pdf)",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern PERIOD_PATTERN = Pattern.compile(
+            "Per(?:i|\\u00ED)odo\\s*:\\s*([^\\r\\n]+)",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final Pattern BALNEABILITY_LINE_PATTERN = Pattern.compile(
+            "^(\\d{1,3}[A-Z]{1,2})\\s*-\\s*(.+?)\\s+(P|I\\*?|A|EA)\\.?$",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    private static final TypeReference<List<BalneabilitySnapshot.Point>> POINT_LIST = new TypeReference<>() {
+    };
+
+    private final WebClient webClient;
+    private final String bulletinPageUrl;
+    private final BalneabilitySnapshotRepository snapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration checkInterval;
+    private final Clock clock;
+    private final Object refreshLock = new Object();
+    private volatile BalneabilitySnapshot snapshot;
+    private volatile Validators validators = Validators.NONE;
+
+    @Autowired
+    public BalneabilitySnapshotService(
+            @Value("${surf.api.semace.bulletin-page-url}") String bulletinPageUrl,
+            @Value("${surf.balneability.check-interval-ms:3600000}") long checkIntervalMs,
+            BalneabilitySnapshotRepository snapshotRepository,
+            ObjectMapper objectMapper,
+            WebClient.Builder webClientBuilder,
+            OutboundGuard outboundGuard,
+            MeterRegistry meterRegistry
+    ) {
+        this(bulletinPageUrl, Duration.ofMillis(checkIntervalMs), snapshotRepository, objectMapper,
+                webClientBuilder.clone().apply(outboundGuard.webClient("semace")).build(), meterRegistry,
+                Clock.systemUTC());
+    }
+
+    BalneabilitySnapshotService(
+            String bulletinPageUrl,
+            Duration checkInterval,
+            BalneabilitySnapshotRepository snapshotRepository,
+            ObjectMapper objectMapper,
+            WebClient webClient,
+            MeterRegistry meterRegistry,
+            Clock clock
+    ) {
+        this.bulletinPageUrl = bulletinPageUrl;
+        this.checkInterval = checkInterval;
+        this.snapshotRepository = snapshotRepository;
+        this.objectMapper = objectMapper;
+        this.webClient = webClient;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Current snapshot, or empty until the first bulletin was restored or downloaded.
+     */
+    public Optional<BalneabilitySnapshot> current() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    @PostConstruct
+    void restorePersistedSnapshot() {
+        try {
+            snapshotRepository.findById(SOURCE).ifPresent(record -> {
+                snapshot = new BalneabilitySnapshot(
+                        record.getReportUrl(),
+                        record.getPeriod(),
+                        record.getContentHash(),
+                        record.getFetchedAt().toInstant(ZoneOffset.UTC),
+                        readPoints(record.getPointsJson()));
+                validators = new Validators(record.getEtag(), record.getLastModified(),
+                        record.getCheckedAt().toInstant(ZoneOffset.UTC));
+                log.info("Boletim de balneabilidade restaurado do banco: {} ponto(s), periodo {}",
+                        snapshot.points().size(), snapshot.period());
+            });
+        } catch (Exception e) {
+            log.warn("Nao foi possivel restaurar o boletim de balneabilidade salvo: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${surf.balneability.check-interval-ms:3600000}",
+            initialDelayString = "${surf.balneability.check-initial-delay-ms:30000}"
+    )
+    public void refreshIfDue() {
+        Instant checkedAt = validators.checkedAt();
+        if (snapshot != null && checkedAt != null && checkedAt.plus(checkInterval).isAfter(clock.instant())) {
+            return;
+        }
+        try {
+            RefreshResult result = refresh();
+            log.info("Boletim de balneabilidade verificado: {}", result);
+        } catch (Exception e) {
+            meterRegistry.counter("surf.balneability.refresh", "result", "failed").increment();
+            log.warn("Nao foi possivel atualizar o boletim de balneabilidade: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks the bulletin page now and swaps in a new snapshot when the PDF changed. Failures
+     * propagate and leave the current snapshot in place.
+     */
+    RefreshResult refresh() {
+        synchronized (refreshLock) {
+            RefreshResult result = meterRegistry.timer("surf.conditions.upstream.latency", "source", "semace")
+                    .record(this::checkBulletin);
+            meterRegistry.counter("surf.balneability.refresh", "result", result.name().toLowerCase(Locale.ROOT))
+                    .increment();
+            return result;
+        }
+    }
+
+    private RefreshResult checkBulletin() {
+        String html = webClient.get()
+                .uri(bulletinPageUrl)
+                .retrieve()
+                .bodyToMono(String.class)
+                .block();
+        if (!StringUtils.hasText(html)) {
+            throw new IllegalStateException("Sem resposta da fonte de balneabilidade.");
+        }
+
+        String pdfUrl = resolveFortalezaPdfUrl(html);
+        if (!StringUtils.hasText(pdfUrl)) {
+            throw new IllegalStateException("Boletim de Fortaleza nao foi localizado.");
+        }
+
+        BalneabilitySnapshot current = snapshot;
+        // Os validadores so valem para o mesmo PDF; um link novo sempre baixa o arquivo inteiro
+        Validators sent = current != null && pdfUrl.equals(current.reportUrl()) ? validators : Validators.NONE;
+        ResponseEntity<byte[]> response = webClient.get()
+                .uri(pdfUrl)
+                .headers(headers -> {
+                    if (sent.etag() != null) {
+                        headers.setIfNoneMatch(sent.etag());
+                    }
+                    if (sent.lastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, sent.lastModified());
+                    }
+                })
+                .exchangeToMono(clientResponse -> clientResponse.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .headers(clientResponse.headers().asHttpHeaders()).<byte[]>build())
+                        : clientResponse.statusCode().is2xxSuccessful()
+                                ? clientResponse.toEntity(byte[].class)
+                                : clientResponse.createException().flatMap(Mono::error))
+                .block();
+        if (response == null) {
+            throw new IllegalStateException("Sem resposta do boletim PDF.");
+        }
+
+        Instant now = clock.instant();
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && current != null) {
+            markChecked(response.getHeaders(), sent, now);
+            return RefreshResult.NOT_MODIFIED;
+        }
+
+        byte[] pdfBytes = response.getBody();
+        if (pdfBytes == null || pdfBytes.length == 0) {
+            throw new IllegalStateException("Boletim PDF vazio.");
+        }
+
+        String contentHash = sha256(pdfBytes);
+        if (current != null && pdfUrl.equals(current.reportUrl()) && contentHash.equals(current.contentHash())) {
+            markChecked(response.getHeaders(), sent, now);
+            return RefreshResult.UNCHANGED;
+        }
+
+        String pdfText = extractPdfText(pdfBytes);
+        List<BalneabilitySnapshot.Point> points = parseBalneabilityPoints(pdfText);
+        if (points.isEmpty()) {
+            throw new IllegalStateException("Nenhum ponto de balneabilidade foi encontrado no boletim.");
+        }
+
+        BalneabilitySnapshot refreshed = new BalneabilitySnapshot(pdfUrl, extractPeriod(pdfText), contentHash, now, points);
+        Validators refreshedValidators = Validators.from(response.getHeaders(), Validators.NONE, now);
+        persist(refreshed, refreshedValidators);
+        snapshot = refreshed;
+        validators = refreshedValidators;
+        return RefreshResult.UPDATED;
+    }
+
+    private void markChecked(HttpHeaders headers, Validators previous, Instant now) {
+        Validators checked = Validators.from(headers, previous, now);
+        validators = checked;
+        try {
+            snapshotRepository.findById(SOURCE).ifPresent(record -> {
+                record.setEtag(checked.etag());
+                record.setLastModified(checked.lastModified());
+                record.setCheckedAt(toLocal(now));
+                snapshotRepository.save(record);
+            });
+        } catch (Exception e) {
+            log.warn("Nao foi possivel registrar a verificacao do boletim de balneabilidade: {}", e.getMessage());
+        }
+    }
+
+    // Falha ao salvar nao impede o uso do snapshot novo; so custa um download extra no proximo restart
+    private void persist(BalneabilitySnapshot refreshed, Validators refreshedValidators) {
+        try {
+            BalneabilitySnapshotRecord record = snapshotRepository.findById(SOURCE)
+                    .orElseGet(BalneabilitySnapshotRecord::new);
+            record.setSource(SOURCE);
+            record.setReportUrl(refreshed.reportUrl());
+            record.setPeriod(refreshed.period());
+            record.setContentHash(refreshed.contentHash());
+            record.setEtag(refreshedValidators.etag());
+            record.setLastModified(refreshedValidators.lastModified());
+            record.setPointsJson(objectMapper.writeValueAsString(refreshed.points()));
+            record.setFetchedAt(toLocal(refreshed.fetchedAt()));
+            record.setCheckedAt(toLocal(refreshedValidators.checkedAt()));
+            snapshotRepository.save(record);
+        } catch (Exception e) {
+            log.warn("Nao foi possivel salvar o boletim de balneabilidade: {}", e.getMessage());
+        }
+    }
+
+    private List<BalneabilitySnapshot.Point> readPoints(String pointsJson) {
+        try {
+            return objectMapper.readValue(pointsJson, POINT_LIST);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Pontos de balneabilidade salvos estao corrompidos.", e);
+        }
+    }
+
+    private String resolveFortalezaPdfUrl(String html) {
+        Matcher fortalezaMatcher = FORTALEZA_BULLETIN_PATTERN.matcher(html);
+        if (fortalezaMatcher.find()) {
+            return resolveAbsoluteUrl(fortalezaMatcher.group(1));
+        }
+
+        Matcher fallbackMatcher = FALLBACK_BULLETIN_PATTERN.matcher(html);
+        if (fallbackMatcher.find()) {
+            return resolveAbsoluteUrl(fallbackMatcher.group(1));
+        }
+        return null;
+    }
+
+    private String resolveAbsoluteUrl(String href) {
+        if (!StringUtils.hasText(href)) {
+            return null;
+        }
+        return URI.create(bulletinPageUrl).resolve(href).toString();
+    }
+
+    private String extractPdfText(byte[] pdfBytes) {
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            return stripper.getText(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String extractPeriod(String pdfText) {
+        if (!StringUtils.hasText(pdfText)) {
+            return null;
+        }
+        Matcher matcher = PERIOD_PATTERN.matcher(pdfText);
+        if (matcher.find()) {
+            return matcher.group(1).trim();
+        }
+        return null;
+    }
+
+    private List<BalneabilitySnapshot.Point> parseBalneabilityPoints(String pdfText) {
+        List<BalneabilitySnapshot.Point> points = new ArrayList<>();
+        if (!StringUtils.hasText(pdfText)) {
+            return points;
+        }
+
+        String[] lines = pdfText.split("\\R");
+        for (String rawLine : lines) {
+            String normalizedLine = rawLine.trim().replaceAll("\\s+", " ");
+            Matcher matcher = BALNEABILITY_LINE_PATTERN.matcher(normalizedLine);
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            points.add(new BalneabilitySnapshot.Point(
+                    matcher.group(1).trim(),
+                    matcher.group(2).trim(),
+                    matcher.group(3).trim().toUpperCase(Locale.ROOT)
+            ));
+        }
+        return points;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    enum RefreshResult {
+        UPDATED,
+        UNCHANGED,
+        NOT_MODIFIED
+    }
+
+    private record Validators(String etag, String lastModified, Instant checkedAt) {
+        static final Validators NONE = new Validators(null, null, null);
+
+        // Um 304 pode omitir os validadores; nesse caso mantem os que ja foram enviados
+        static Validators from(HttpHeaders headers, Validators previous, Instant checkedAt) {
+            String etag = headers.getETag();
+            String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+            return new Validators(
+                    etag != null ? etag : previous.etag(),
+                    lastModified != null ? lastModified : previous.lastModified(),
+                    checkedAt);
+        }
+    }
+}
@@ -1,19 +1,26 @@
 package com.soulsurf.backend.modules.weather.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.soulsurf.backend.modules.beach.entity.Beach;
+import com.soulsurf.backend.modules.beach.repository.BeachRepository;
 import com.soulsurf.backend.modules.weather.dto.SurfConditionsDTO;
+import com.soulsurf.backend.core.cache.RefreshingCache;
+import com.soulsurf.backend.core.exception.UpstreamUnavailableException;
+import com.soulsurf.backend.core.resilience.OutboundGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
 
-import java.net.URI;
-import java.text.Normalizer;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -23,13 +30,16 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 @Slf4j
@@ -40,77 +50,73 @@ public class SurfConditionsService {
     private static final String WEATHER_CURRENT_FIELDS =
             "wind_speed_10m,wind_direction_10m,wind_gusts_10m,weather_code";
 
-    private static final Pattern FORTALEZA_BULLETIN_PATTERN = Pattern.compile(
-            "<a[^>]*href\\s*=\\s*[\"']([^\"']+\\.pdf)[\"'][^>]*>\\s*Boletim\\s+das\\s+Praias\\s+de\\s+Fortaleza\\s*</a>",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Pattern FALLBACK_BULLETIN_PATTERN = Pattern.compile(
-            "(https?://[^\"'\\s>]*Boletim-[^\"'\\s>]*\\.pdf|/wp-content/uploads/[^\"'\\s>]*Boletim-[^\"'\\s>]*\\.pdf)",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Pattern PERIOD_PATTERN = Pattern.compile(
-            "Per(?:i|\\u00ED)odo\\s*:\\s*([^\\r\\n]+)",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Pattern BALNEABILITY_LINE_PATTERN = Pattern.compile(
-            "^(\\d{1,3}[A-Z]{1,2})\\s*-\\s*(.+?)\\s+(P|I\\*?|A|EA)\\.?$",
-            Pattern.CASE_INSENSITIVE
-    );
-
-    private static final Set<String> IMPROPER_STATUS_CODES = Set.of("I", "I*");
-    private static final Set<String> ALERT_STATUS_CODES = Set.of("EA");
-    private static final Set<String> PROPER_STATUS_CODES = Set.of("P", "A");
+    static final String OPEN_METEO = "open-meteo";
+    private static final String APOLO11 = "apolo11";
     private static final String TIDE_PROVIDER = "Apolo11 - Tabua de Mares";
     private static final String TIDE_STATION = "Fortaleza / CE";
     private static final Duration TIDE_CACHE_TTL = Duration.ofHours(12);
-    private static final DateTimeFormatter APOLO_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-    private static final DateTimeFormatter APOLO_TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm");
     private static final DateTimeFormatter TIME_LABEL_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
 
-    private static final Pattern TIDE_ROW_PATTERN = Pattern.compile(
-            "<tr>\\s*<td[^>]*>\\s*<font\\s+class=mare_data>\\s*(\\d{2}/\\d{2}/\\d{4}).*?</tr>",
-            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
-    );
-
-    private static final Pattern TIDE_EVENT_PATTERN = Pattern.compile(
-            "<font\\s+class=mare_nome>\\s*(ALTA|BAIXA)\\s*</font>\\s*<br>\\s*"
-                    + "<font\\s+class=mare>\\s*(\\d{1,2})h(\\d{2})\\s*</font>\\s*<br>\\s*"
-                    + "<font\\s+class=mare>\\s*([-+]?\\d+(?:[\\.,]\\d+)?)m\\s*</font>",
-            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
-    );
-
-    private static final Pattern SUN_WINDOW_PATTERN = Pattern.compile(
-            "<b>\\s*Nascente\\s*</b>\\s*<BR>\\s*(\\d{1,2}:\\d{2}).*?"
-                    + "<b>\\s*Poente\\s*</b>\\s*<BR>\\s*(\\d{1,2}:\\d{2})",
-            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
-    );
-
     private final WebClient marineWebClient;
     private final WebClient weatherWebClient;
     private final WebClient webClient;
-    private final String semaceBulletinPageUrl;
     private final String tideForecastUrl;
     private final ZoneId tideZoneId;
     private final Object tideCacheLock = new Object();
     private volatile TideForecastSnapshot tideForecastSnapshot;
+    private final double cellDegrees;
+    private final MeterRegistry meterRegistry;
+    private final RefreshingCache<GridCell, CellConditions> conditionsCache;
+    private final BalneabilitySnapshotService balneabilitySnapshotService;
+    private final Duration marineTimeout;
+    private final Duration forecastTimeout;
+    private final Duration tideTimeout;
+    private final int maxBatchBeaches;
+    private final BeachRepository beachRepository;
 
     public SurfConditionsService(
             @Value("${surf.api.open-meteo.marine-url}") String marineApiUrl,
             @Value("${surf.api.open-meteo.forecast-url}") String forecastApiUrl,
-            @Value("${surf.api.semace.bulletin-page-url}") String semaceBulletinPageUrl,
             @Value("${surf.api.apolo11.tide-url}") String tideForecastUrl,
             @Value("${surf.api.tide.timezone:America/Sao_Paulo}") String tideTimezone,
-            WebClient.Builder webClientBuilder
+            @Value("${surf.conditions.cache.cell-degrees:0.05}") double cellDegrees,
+            @Value("${surf.conditions.cache.ttl-ms:600000}") long conditionsTtlMs,
+            @Value("${surf.conditions.cache.max-stale-ms:3600000}") long conditionsMaxStaleMs,
+            @Value("${surf.conditions.cache.max-cells:1000}") long maxCells,
+            @Value("${surf.conditions.timeout.marine-ms:4000}") long marineTimeoutMs,
+            @Value("${surf.conditions.timeout.forecast-ms:4000}") long forecastTimeoutMs,
+            @Value("${surf.conditions.timeout.tide-ms:6000}") long tideTimeoutMs,
+            @Value("${surf.conditions.batch.max-beaches:50}") int maxBatchBeaches,
+            WebClient.Builder webClientBuilder,
+            OutboundGuard outboundGuard,
+            MeterRegistry meterRegistry,
+            BalneabilitySnapshotService balneabilitySnapshotService,
+            BeachRepository beachRepository
     ) {
-        this.marineWebClient = webClientBuilder.baseUrl(marineApiUrl).build();
-        this.weatherWebClient = webClientBuilder.baseUrl(forecastApiUrl).build();
-        this.webClient = webClientBuilder.build();
-        this.semaceBulletinPageUrl = semaceBulletinPageUrl;
+        if (cellDegrees <= 0) {
+            throw new IllegalArgumentException("surf.conditions.cache.cell-degrees deve ser positivo.");
+        }
+        WebClient.Builder openMeteo = webClientBuilder.clone().apply(outboundGuard.webClient(OPEN_METEO));
+        this.marineWebClient = openMeteo.baseUrl(marineApiUrl).build();
+        this.weatherWebClient = openMeteo.baseUrl(forecastApiUrl).build();
+        this.webClient = webClientBuilder.clone().apply(outboundGuard.webClient(APOLO11)).build();
         this.tideForecastUrl = tideForecastUrl;
         this.tideZoneId = ZoneId.of(tideTimezone);
+        this.cellDegrees = cellDegrees;
+        this.meterRegistry = meterRegistry;
+        this.marineTimeout = Duration.ofMillis(marineTimeoutMs);
+        this.forecastTimeout = Duration.ofMillis(forecastTimeoutMs);
+        this.tideTimeout = Duration.ofMillis(tideTimeoutMs);
+        this.maxBatchBeaches = maxBatchBeaches;
+        this.beachRepository = beachRepository;
+
+        // Cargas nao bloqueiam thread: o futuro do WebClient completa no event loop do Netty
+        this.conditionsCache = RefreshingCache.async(
+                cell -> loadCellConditions(cell).toFuture(),
+                cells -> loadCellConditionsBatch(cells).toFuture(),
+                Duration.ofMillis(conditionsTtlMs), Duration.ofMillis(conditionsMaxStaleMs), maxCells,
+                meterRegistry, "surf.conditions.cache");
+        this.balneabilitySnapshotService = balneabilitySnapshotService;
     }
 
     @PostConstruct
@@ -129,27 +135,85 @@ public class SurfConditionsService {
     public SurfConditionsDTO getSurfConditions(double latitude, double longitude, String beachName) {
         validateCoordinates(latitude, longitude);
 
-        JsonNode marineResponse = fetchMarineCurrent(latitude, longitude);
-        JsonNode weatherResponse = fetchWeatherCurrent(latitude, longitude);
+        // Celula (marine + forecast) e mare correm em paralelo; a balneabilidade ja esta em memoria
+        GridCell cell = GridCell.of(latitude, longitude, cellDegrees);
+        Tuple2<CellConditions, SurfConditionsDTO.TideDTO> results = Mono.zip(
+                Mono.fromFuture(() -> conditionsCache.getAsync(cell)),
+                fetchTideForecastAsync()
+        ).block();
+        refreshIfPartial(Map.of(cell, results.getT1()));
+        return buildSurfConditions(latitude, longitude, beachName, null, results.getT1(), results.getT2(),
+                Instant.now().toString());
+    }
+
+    /**
+     * Surf conditions for several registered beaches in one round trip. Beaches are grouped by grid
+     * cell and every cell missing from the cache is fetched with a single multi-location Open-Meteo
+     * marine call plus a single forecast call. Results follow the order of {@code beachIds};
+     * unknown ids and beaches without coordinates are left out.
+     */
+    public List<SurfConditionsDTO> getSurfConditionsBatch(List<Long> beachIds) {
+        if (beachIds == null || beachIds.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma praia.");
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(beachIds);
+        if (distinctIds.size() > maxBatchBeaches) {
+            throw new IllegalArgumentException("Consulte no maximo " + maxBatchBeaches + " praias por vez.");
+        }
 
-        SurfConditionsDTO.MarineDTO marine = mapMarine(marineResponse.path("current"));
-        SurfConditionsDTO.WindDTO wind = mapWind(weatherResponse.path("current"));
+        Map<Long, Beach> beachesById = beachRepository.findAllById(distinctIds).stream()
+                .filter(beach -> beach.getLatitude() != null && beach.getLongitude() != null)
+                .collect(Collectors.toMap(Beach::getId, Function.identity()));
+        List<Beach> beaches = distinctIds.stream()
+                .map(beachesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        if (beaches.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, GridCell> cellsByBeach = new HashMap<>();
+        for (Beach beach : beaches) {
+            validateCoordinates(beach.getLatitude(), beach.getLongitude());
+            cellsByBeach.put(beach.getId(), GridCell.of(beach.getLatitude(), beach.getLongitude(), cellDegrees));
+        }
+
+        Tuple2<Map<GridCell, CellConditions>, SurfConditionsDTO.TideDTO> results = Mono.zip(
+                Mono.fromFuture(() -> conditionsCache.getAllAsync(new LinkedHashSet<>(cellsByBeach.values()))),
+                fetchTideForecastAsync()
+        ).block();
+        Map<GridCell, CellConditions> conditionsByCell = results.getT1();
+        refreshIfPartial(conditionsByCell);
+        SurfConditionsDTO.TideDTO tide = results.getT2();
+        String requestedAt = Instant.now().toString();
+
+        return beaches.stream()
+                .map(beach -> buildSurfConditions(beach.getLatitude(), beach.getLongitude(), beach.getNome(),
+                        beach.getId(), conditionsByCell.get(cellsByBeach.get(beach.getId())), tide, requestedAt))
+                .toList();
+    }
+
+    private SurfConditionsDTO buildSurfConditions(
+            double latitude,
+            double longitude,
+            String beachName,
+            Long beachId,
+            CellConditions conditions,
+            SurfConditionsDTO.TideDTO tide,
+            String requestedAt
+    ) {
+        SurfConditionsDTO.MarineDTO marine = conditions.marine();
+        SurfConditionsDTO.WindDTO wind = conditions.wind();
         SurfConditionsDTO.BalneabilityDTO balneability = fetchBalneability(beachName);
-        SurfConditionsDTO.TideDTO tide = fetchTideForecast();
         SurfConditionsDTO.SurfQualityDTO surfQuality = evaluateSurfQuality(marine, wind, balneability, tide);
 
-        String timezone = firstNonBlank(
-                marineResponse.path("timezone").asText(null),
-                weatherResponse.path("timezone").asText(null),
-                "GMT"
-        );
-
         return SurfConditionsDTO.builder()
-                .requestedAt(Instant.now().toString())
+                .requestedAt(requestedAt)
                 .location(SurfConditionsDTO.LocationDTO.builder()
+                        .beachId(beachId)
                         .latitude(latitude)
                         .longitude(longitude)
-                        .timezone(timezone)
+                        .timezone(conditions.timezone())
                         .build())
                 .marine(marine)
                 .wind(wind)
@@ -174,45 +238,136 @@ public class SurfConditionsService {
         }
     }
 
-    private JsonNode fetchMarineCurrent(double latitude, double longitude) {
-        JsonNode response = marineWebClient.get()
+    // Carga de uma celula: consulta o centro da celula, para que o snapshot valha para toda ela
+    private Mono<CellConditions> loadCellConditions(GridCell cell) {
+        return loadCellConditionsBatch(Set.of(cell)).map(conditions -> conditions.get(cell));
+    }
+
+    // Celula carregada com uma das fontes fora: responde com o que tem e recarrega em segundo plano,
+    // para que a parte faltante nao fique presa no cache ate o fim do TTL
+    private void refreshIfPartial(Map<GridCell, CellConditions> conditionsByCell) {
+        conditionsByCell.forEach((cell, conditions) -> {
+            if (conditions.partial()) {
+                conditionsCache.refresh(cell);
+            }
+        });
+    }
+
+    // Carga de varias celulas com uma chamada marine e uma forecast (listas de coordenadas do
+    // Open-Meteo). As duas saem juntas; o tempo da carga e o da fonte mais lenta, limitado pelos timeouts.
+    // Cada fonte cai sozinha: sem marine (ou sem vento) a celula sai com a outra metade; so sem as duas
+    // a carga falha
+    private Mono<Map<GridCell, CellConditions>> loadCellConditionsBatch(Set<GridCell> cells) {
+        List<GridCell> orderedCells = List.copyOf(cells);
+        String latitudes = orderedCells.stream()
+                .map(cell -> String.valueOf(cell.centerLatitude(cellDegrees)))
+                .collect(Collectors.joining(","));
+        String longitudes = orderedCells.stream()
+                .map(cell -> String.valueOf(cell.centerLongitude(cellDegrees)))
+                .collect(Collectors.joining(","));
+
+        return Mono.zip(
+                optional(upstream("open-meteo-marine", fetchMarineCurrent(latitudes, longitudes, orderedCells.size()),
+                        marineTimeout, "Nao foi possivel obter dados marinhos no momento.")),
+                optional(upstream("open-meteo-forecast", fetchWeatherCurrent(latitudes, longitudes, orderedCells.size()),
+                        forecastTimeout, "Nao foi possivel obter dados de vento no momento."))
+        ).flatMap(responses -> responses.getT1().isEmpty() && responses.getT2().isEmpty()
+                ? Mono.error(new UpstreamUnavailableException("Nao foi possivel obter condicoes do mar no momento.", null))
+                : Mono.just(toCellConditions(orderedCells, responses.getT1(), responses.getT2())));
+    }
+
+    // A falha ja foi registrada em upstream(); aqui vira "fonte ausente"
+    private static Mono<Optional<JsonNode>> optional(Mono<JsonNode> source) {
+        return source.map(Optional::of)
+                .onErrorResume(UpstreamUnavailableException.class, error -> Mono.just(Optional.empty()));
+    }
+
+    private Map<GridCell, CellConditions> toCellConditions(List<GridCell> orderedCells, Optional<JsonNode> marine,
+            Optional<JsonNode> weather) {
+        List<JsonNode> marineLocations = marine.map(SurfConditionsService::locations).orElse(null);
+        List<JsonNode> weatherLocations = weather.map(SurfConditionsService::locations).orElse(null);
+
+        Map<GridCell, CellConditions> conditions = new HashMap<>();
+        for (int index = 0; index < orderedCells.size(); index++) {
+            JsonNode marineResponse = marineLocations != null ? marineLocations.get(index) : MissingNode.getInstance();
+            JsonNode weatherResponse = weatherLocations != null ? weatherLocations.get(index) : MissingNode.getInstance();
+            String timezone = firstNonBlank(
+                    marineResponse.path("timezone").asText(null),
+                    weatherResponse.path("timezone").asText(null),
+                    "GMT"
+            );
+            conditions.put(orderedCells.get(index), new CellConditions(
+                    mapMarine(marineResponse.path("current")),
+                    mapWind(weatherResponse.path("current")),
+                    timezone));
+        }
+        return conditions;
+    }
+
+    // Com uma coordenada o Open-Meteo responde um objeto; com varias, um array na mesma ordem
+    static List<JsonNode> locations(JsonNode response) {
+        if (!response.isArray()) {
+            return List.of(response);
+        }
+        List<JsonNode> locations = new ArrayList<>(response.size());
+        response.forEach(locations::add);
+        return locations;
+    }
+
+    private boolean hasCurrentForEveryLocation(JsonNode response, int expectedLocations) {
+        List<JsonNode> locations = locations(response);
+        return locations.size() == expectedLocations
+                && locations.stream().noneMatch(location -> location.path("current").isMissingNode());
+    }
+
+    private <T> Mono<T> upstream(String source, Mono<T> call, Duration timeout, String failureMessage) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .timeout(timeout)
+                    .doFinally(signal -> sample.stop(
+                            meterRegistry.timer("surf.conditions.upstream.latency", "source", source)));
+        }).onErrorMap(error -> !(error instanceof UpstreamUnavailableException), error -> {
+            log.warn("Falha na fonte {}: {}", source, error.toString());
+            return new UpstreamUnavailableException(failureMessage, error);
+        });
+    }
+
+    private Mono<JsonNode> fetchMarineCurrent(String latitudes, String longitudes, int expectedLocations) {
+        return marineWebClient.get()
                 .uri(uriBuilder -> uriBuilder
-                        .queryParam("latitude", latitude)
-                        .queryParam("longitude", longitude)
+                        .queryParam("latitude", latitudes)
+                        .queryParam("longitude", longitudes)
                         .queryParam("timezone", "auto")
                         .queryParam("cell_selection", "sea")
                         .queryParam("current", MARINE_CURRENT_FIELDS)
                         .build())
                 .retrieve()
                 .bodyToMono(JsonNode.class)
-                .block();
-
-        if (response == null || response.path("current").isMissingNode()) {
-            throw new RuntimeException("Nao foi possivel obter dados marinhos no momento.");
-        }
-        return response;
+                .filter(response -> hasCurrentForEveryLocation(response, expectedLocations))
+                .switchIfEmpty(Mono.error(() -> new UpstreamUnavailableException(
+                        "Nao foi possivel obter dados marinhos no momento.", null)));
     }
 
-    private JsonNode fetchWeatherCurrent(double latitude, double longitude) {
-        JsonNode response = weatherWebClient.get()
+    private Mono<JsonNode> fetchWeatherCurrent(String latitudes, String longitudes, int expectedLocations) {
+        return weatherWebClient.get()
                 .uri(uriBuilder -> uriBuilder
-                        .queryParam("latitude", latitude)
-                        .queryParam("longitude", longitude)
+                        .queryParam("latitude", latitudes)
+                        .queryParam("longitude", longitudes)
                         .queryParam("timezone", "auto")
                         .queryParam("current", WEATHER_CURRENT_FIELDS)
                         .build())
                 .retrieve()
                 .bodyToMono(JsonNode.class)
-                .block();
-
-        if (response == null || response.path("current").isMissingNode()) {
-            throw new RuntimeException("Nao foi possivel obter dados de vento no momento.");
-        }
-        return response;
+                .filter(response -> hasCurrentForEveryLocation(response, expectedLocations))
+                .switchIfEmpty(Mono.error(() -> new UpstreamUnavailableException(
+                        "Nao foi possivel obter dados de vento no momento.", null)));
     }
 
+    // Sem "current" a fonte estava fora: campos nulos e available=false
     private SurfConditionsDTO.MarineDTO mapMarine(JsonNode marineCurrent) {
         return SurfConditionsDTO.MarineDTO.builder()
+                .available(!marineCurrent.isMissingNode())
                 .waveHeightMeters(getDouble(marineCurrent, "wave_height"))
                 .waveDirectionDegrees(getDouble(marineCurrent, "wave_direction"))
                 .wavePeriodSeconds(getDouble(marineCurrent, "wave_period"))
@@ -224,6 +379,7 @@ public class SurfConditionsService {
 
     private SurfConditionsDTO.WindDTO mapWind(JsonNode weatherCurrent) {
         return SurfConditionsDTO.WindDTO.builder()
+                .available(!weatherCurrent.isMissingNode())
                 .windSpeedKmh(getDouble(weatherCurrent, "wind_speed_10m"))
                 .windDirectionDegrees(getDouble(weatherCurrent, "wind_direction_10m"))
                 .windGustKmh(getDouble(weatherCurrent, "wind_gusts_10m"))
@@ -231,32 +387,24 @@ public class SurfConditionsService {
                 .build();
     }
 
-    private SurfConditionsDTO.BalneabilityDTO fetchBalneability(String beachName) {
-        try {
-            String html = webClient.get()
-                    .uri(semaceBulletinPageUrl)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            if (!StringUtils.hasText(html)) {
-                return unavailableBalneability(beachName, "Sem resposta da fonte de balneabilidade.");
-            }
-
-            String fortalezaPdfUrl = resolveFortalezaPdfUrl(html);
-            if (!StringUtils.hasText(fortalezaPdfUrl)) {
-                return unavailableBalneability(beachName, "Boletim de Fortaleza nao foi localizado.");
-            }
-
-            String pdfText = extractPdfText(fortalezaPdfUrl);
-            List<BalneabilityPoint> points = parseBalneabilityPoints(pdfText);
-            String period = extractPeriod(pdfText);
+    // Leitura apenas em memoria: o boletim e baixado e processado pelo BalneabilitySnapshotService
+    SurfConditionsDTO.BalneabilityDTO fetchBalneability(String beachName) {
+        return balneabilitySnapshotService.current()
+                .map(snapshot -> buildBalneabilityDto(beachName, snapshot))
+                .orElseGet(() -> unavailableBalneability(beachName,
+                        "Boletim de balneabilidade ainda nao foi carregado."));
+    }
 
-            return buildBalneabilityDto(beachName, fortalezaPdfUrl, period, points);
-        } catch (Exception e) {
-            log.warn("Falha ao consultar balneabilidade da SEMACE: {}", e.getMessage());
-            return unavailableBalneability(beachName, "Nao foi possivel consultar a balneabilidade agora.");
-        }
+    // A leitura da mare pode baixar a tabua (bloqueante): roda fora da thread do request e, se
+    // passar do timeout, responde sem mare; o download continua e aquece o cache para a proxima
+    private Mono<SurfConditionsDTO.TideDTO> fetchTideForecastAsync() {
+        return Mono.fromCallable(this::fetchTideForecast)
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(tideTimeout)
+                .onErrorResume(error -> {
+                    log.warn("Tabua de mares nao respondeu a tempo: {}", error.toString());
+                    return Mono.just(unavailableTide("Nao foi possivel consultar a tabua de mares agora."));
+                });
     }
 
     private SurfConditionsDTO.TideDTO fetchTideForecast() {
@@ -323,15 +471,15 @@ public class SurfConditionsService {
             throw new RuntimeException("Sem resposta da tabua de mares.");
         }
 
-        List<TideEvent> events = parseTideEvents(html);
-        if (events.isEmpty()) {
+        ApoloTidePageParser.TidePage page = ApoloTidePageParser.parse(html, tideZoneId);
+        if (page.events().isEmpty()) {
             throw new RuntimeException("Nenhum horario de mare foi encontrado na fonte.");
         }
 
         Instant loadedAt = Instant.now();
         return new TideForecastSnapshot(
-                events,
-                parseSunWindows(html),
+                page.events(),
+                page.sunWindows(),
                 loadedAt,
                 loadedAt.plus(TIDE_CACHE_TTL)
         );
@@ -350,70 +498,9 @@ public class SurfConditionsService {
     }
 
     SurfConditionsDTO.TideDTO buildTideDtoFromHtml(String html, ZonedDateTime now) {
-        List<TideEvent> events = parseTideEvents(html);
-        Map<LocalDate, SunWindow> sunWindows = parseSunWindows(html);
+        ApoloTidePageParser.TidePage page = ApoloTidePageParser.parse(html, tideZoneId);
         Instant loadedAt = now.toInstant();
-        return buildTideDto(events, sunWindows, now, loadedAt, loadedAt.plus(TIDE_CACHE_TTL));
-    }
-
-    List<TideEvent> parseTideEvents(String html) {
-        List<TideEvent> events = new ArrayList<>();
-        if (!StringUtils.hasText(html)) {
-            return events;
-        }
-
-        Matcher rowMatcher = TIDE_ROW_PATTERN.matcher(html);
-        while (rowMatcher.find()) {
-            LocalDate date = LocalDate.parse(rowMatcher.group(1), APOLO_DATE_FORMAT);
-            String rowHtml = rowMatcher.group(0);
-            Matcher eventMatcher = TIDE_EVENT_PATTERN.matcher(rowHtml);
-
-            while (eventMatcher.find()) {
-                String type = eventMatcher.group(1).trim().toUpperCase(Locale.ROOT);
-                int hour = Integer.parseInt(eventMatcher.group(2));
-                int minute = Integer.parseInt(eventMatcher.group(3));
-                double heightMeters = Double.parseDouble(eventMatcher.group(4).replace(',', '.'));
-
-                events.add(new TideEvent(
-                        type,
-                        ZonedDateTime.of(date, LocalTime.of(hour, minute), tideZoneId),
-                        heightMeters
-                ));
-            }
-        }
-
-        return events.stream()
-                .sorted(Comparator.comparing(TideEvent::dateTime))
-                .toList();
-    }
-
-    Map<LocalDate, SunWindow> parseSunWindows(String html) {
-        if (!StringUtils.hasText(html)) {
-            return Map.of();
-        }
-
-        Matcher rowMatcher = TIDE_ROW_PATTERN.matcher(html);
-        List<SunWindowByDate> windows = new ArrayList<>();
-        while (rowMatcher.find()) {
-            LocalDate date = LocalDate.parse(rowMatcher.group(1), APOLO_DATE_FORMAT);
-            Matcher sunMatcher = SUN_WINDOW_PATTERN.matcher(rowMatcher.group(0));
-            if (sunMatcher.find()) {
-                windows.add(new SunWindowByDate(
-                        date,
-                        new SunWindow(
-                                LocalTime.parse(sunMatcher.group(1), APOLO_TIME_FORMAT),
-                                LocalTime.parse(sunMatcher.group(2), APOLO_TIME_FORMAT)
-                        )
-                ));
-            }
-        }
-
-        return windows.stream()
-                .collect(Collectors.toMap(
-                        SunWindowByDate::date,
-                        SunWindowByDate::sunWindow,
-                        (first, second) -> first
-                ));
+        return buildTideDto(page.events(), page.sunWindows(), now, loadedAt, loadedAt.plus(TIDE_CACHE_TTL));
     }
 
     SurfConditionsDTO.TideDTO buildTideDto(
@@ -501,6 +588,15 @@ public class SurfConditionsService {
             Map<LocalDate, SunWindow> sunWindows,
             ZonedDateTime now
     ) {
+        return buildTideWindows(events, sunWindows).stream()
+                .filter(window -> window.endsAt().isAfter(now))
+                .limit(4)
+                .map(window -> toSurfWindowDto(window, now))
+                .toList();
+    }
+
+    // Janelas de meia mare enchendo (35% a 75% do trecho baixa -> alta), recortadas pela luz do dia
+    private List<TideWindow> buildTideWindows(List<TideEvent> events, Map<LocalDate, SunWindow> sunWindows) {
         List<TideWindow> windows = new ArrayList<>();
 
         for (int index = 0; index < events.size() - 1; index++) {
@@ -521,23 +617,47 @@ public class SurfConditionsService {
         }
 
         return windows.stream()
-                .filter(window -> window.endsAt().isAfter(now))
                 .sorted(Comparator.comparing(TideWindow::startsAt))
-                .limit(4)
-                .map(window -> {
-                    boolean activeNow = !now.isBefore(window.startsAt()) && !now.isAfter(window.endsAt());
-                    return SurfConditionsDTO.TideSurfWindowDTO.builder()
-                            .startsAt(window.startsAt().toOffsetDateTime().toString())
-                            .endsAt(window.endsAt().toOffsetDateTime().toString())
-                            .label(activeNow ? "Boa janela agora" : "Boa janela de surf")
-                            .score(activeNow ? 90 : 82)
-                            .activeNow(activeNow)
-                            .reason("Meia mare enchendo: costuma equilibrar profundidade e formacao da onda em beach breaks.")
-                            .build();
-                })
                 .toList();
     }
 
+    static SurfConditionsDTO.TideSurfWindowDTO toSurfWindowDto(TideWindow window, ZonedDateTime now) {
+        boolean activeNow = !now.isBefore(window.startsAt()) && !now.isAfter(window.endsAt());
+        return SurfConditionsDTO.TideSurfWindowDTO.builder()
+                .startsAt(window.startsAt().toOffsetDateTime().toString())
+                .endsAt(window.endsAt().toOffsetDateTime().toString())
+                .label(activeNow ? "Boa janela agora" : "Boa janela de surf")
+                .score(activeNow ? 90 : 82)
+                .activeNow(activeNow)
+                .reason("Meia mare enchendo: costuma equilibrar profundidade e formacao da onda em beach breaks.")
+                .build();
+    }
+
+    /**
+     * Tide reading for each of {@code hours} plus every surf window of the tide table, from the
+     * cached tide snapshot. Used by the forecast timeline; degrades to unavailable readings when
+     * the tide table cannot be loaded.
+     */
+    TideTimeline tideTimeline(List<Instant> hours) {
+        ZonedDateTime now = ZonedDateTime.now(tideZoneId);
+        try {
+            TideForecastSnapshot snapshot = getTideForecastSnapshot(now);
+            List<SurfConditionsDTO.TideDTO> hourly = hours.stream()
+                    .map(hour -> buildTideDto(snapshot.events(), snapshot.sunWindows(), hour.atZone(tideZoneId),
+                            snapshot.loadedAt(), snapshot.expiresAt()))
+                    .toList();
+            return new TideTimeline(hourly, buildTideWindows(snapshot.events(), snapshot.sunWindows()));
+        } catch (Exception e) {
+            log.warn("Falha ao montar a linha do tempo de mares: {}", e.getMessage());
+            SurfConditionsDTO.TideDTO unavailable = unavailableTide("Nao foi possivel consultar a tabua de mares agora.");
+            return new TideTimeline(hours.stream().map(hour -> unavailable).toList(), List.of());
+        }
+    }
+
+    ZoneId tideZone() {
+        return tideZoneId;
+    }
+
     private List<TideWindow> clipToDaylight(
             ZonedDateTime startsAt,
             ZonedDateTime endsAt,
@@ -701,95 +821,10 @@ public class SurfConditionsService {
                 .build();
     }
 
-    private String resolveFortalezaPdfUrl(String html) {
-        Matcher fortalezaMatcher = FORTALEZA_BULLETIN_PATTERN.matcher(html);
-        if (fortalezaMatcher.find()) {
-            return resolveAbsoluteUrl(fortalezaMatcher.group(1));
-        }
-
-        Matcher fallbackMatcher = FALLBACK_BULLETIN_PATTERN.matcher(html);
-        if (fallbackMatcher.find()) {
-            return resolveAbsoluteUrl(fallbackMatcher.group(1));
-        }
-        return null;
-    }
-
-    private String resolveAbsoluteUrl(String href) {
-        if (!StringUtils.hasText(href)) {
-            return null;
-        }
-        return URI.create(semaceBulletinPageUrl).resolve(href).toString();
-    }
-
-    private String extractPdfText(String pdfUrl) throws Exception {
-        byte[] pdfBytes = webClient.get()
-                .uri(pdfUrl)
-                .retrieve()
-                .bodyToMono(byte[].class)
-                .block();
-
-        if (pdfBytes == null || pdfBytes.length == 0) {
-            throw new RuntimeException("Boletim PDF vazio.");
-        }
-
-        try (PDDocument document = PDDocument.load(pdfBytes)) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
-        }
-    }
-
-    private String extractPeriod(String pdfText) {
-        if (!StringUtils.hasText(pdfText)) {
-            return null;
-        }
-        Matcher matcher = PERIOD_PATTERN.matcher(pdfText);
-        if (matcher.find()) {
-            return matcher.group(1).trim();
-        }
-        return null;
-    }
-
-    private List<BalneabilityPoint> parseBalneabilityPoints(String pdfText) {
-        List<BalneabilityPoint> points = new ArrayList<>();
-        if (!StringUtils.hasText(pdfText)) {
-            return points;
-        }
-
-        String[] lines = pdfText.split("\\R");
-        for (String rawLine : lines) {
-            String normalizedLine = rawLine.trim().replaceAll("\\s+", " ");
-            Matcher matcher = BALNEABILITY_LINE_PATTERN.matcher(normalizedLine);
-            if (!matcher.matches()) {
-                continue;
-            }
-
-            points.add(new BalneabilityPoint(
-                    matcher.group(1).trim(),
-                    matcher.group(2).trim(),
-                    matcher.group(3).trim().toUpperCase(Locale.ROOT)
-            ));
-        }
-        return points;
-    }
-
-    private SurfConditionsDTO.BalneabilityDTO buildBalneabilityDto(
-            String beachName,
-            String reportUrl,
-            String period,
-            List<BalneabilityPoint> points
-    ) {
-        String normalizedQuery = normalizeText(beachName);
-        boolean hasBeachQuery = StringUtils.hasText(normalizedQuery);
-
-        List<BalneabilityPoint> matchedPoints = hasBeachQuery
-                ? points.stream()
-                .filter(point -> normalizeText(point.description()).contains(normalizedQuery))
-                .toList()
-                : points;
-
-        int properCount = (int) points.stream().filter(point -> PROPER_STATUS_CODES.contains(point.statusCode())).count();
-        int alertCount = (int) points.stream().filter(point -> ALERT_STATUS_CODES.contains(point.statusCode())).count();
-        int improperCount = (int) points.stream().filter(point -> IMPROPER_STATUS_CODES.contains(point.statusCode())).count();
+    SurfConditionsDTO.BalneabilityDTO buildBalneabilityDto(String beachName, BalneabilitySnapshot snapshot) {
+        boolean hasBeachQuery = !BalneabilitySnapshot.normalize(beachName).isEmpty();
+        List<BalneabilitySnapshot.Point> points = snapshot.points();
+        List<BalneabilitySnapshot.Point> matchedPoints = snapshot.match(beachName);
 
         List<SurfConditionsDTO.BalneabilityPointDTO> mappedPoints = matchedPoints.stream()
                 .limit(30)
@@ -805,14 +840,14 @@ public class SurfConditionsService {
 
         return SurfConditionsDTO.BalneabilityDTO.builder()
                 .provider("SEMACE")
-                .reportUrl(reportUrl)
-                .period(period)
+                .reportUrl(snapshot.reportUrl())
+                .period(snapshot.period())
                 .beachQuery(beachName)
                 .overallStatus(overallStatus)
                 .totalPoints(points.size())
-                .properPoints(properCount)
-                .alertPoints(alertCount)
-                .improperPoints(improperCount)
+                .properPoints(snapshot.properCount())
+                .alertPoints(snapshot.alertCount())
+                .improperPoints(snapshot.improperCount())
                 .matchedPoints(mappedPoints)
                 .observation(observation)
                 .build();
@@ -832,17 +867,19 @@ public class SurfConditionsService {
                 .build();
     }
 
-    private String resolveOverallStatus(List<BalneabilityPoint> points) {
+    private String resolveOverallStatus(List<BalneabilitySnapshot.Point> points) {
         if (points.isEmpty()) {
             return "NAO_ENCONTRADO";
         }
 
-        boolean hasImproper = points.stream().anyMatch(point -> IMPROPER_STATUS_CODES.contains(point.statusCode()));
+        boolean hasImproper = points.stream()
+                .anyMatch(point -> BalneabilitySnapshot.IMPROPER_STATUS_CODES.contains(point.statusCode()));
         if (hasImproper) {
             return "IMPROPRIA";
         }
 
-        boolean hasAlert = points.stream().anyMatch(point -> ALERT_STATUS_CODES.contains(point.statusCode()));
+        boolean hasAlert = points.stream()
+                .anyMatch(point -> BalneabilitySnapshot.ALERT_STATUS_CODES.contains(point.statusCode()));
         if (hasAlert) {
             return "EM_ALERTA";
         }
@@ -876,7 +913,7 @@ public class SurfConditionsService {
         };
     }
 
-    private SurfConditionsDTO.SurfQualityDTO evaluateSurfQuality(
+    SurfConditionsDTO.SurfQualityDTO evaluateSurfQuality(
             SurfConditionsDTO.MarineDTO marine,
             SurfConditionsDTO.WindDTO wind,
             SurfConditionsDTO.BalneabilityDTO balneability,
@@ -898,6 +935,14 @@ public class SurfConditionsService {
         int score = 0;
         List<String> reasons = new ArrayList<>();
 
+        // Uma fonte fora nao zera a avaliacao: pontua o que chegou e avisa o que faltou
+        if (Boolean.FALSE.equals(marine.getAvailable())) {
+            reasons.add("Dados de ondas indisponiveis no momento; avaliacao parcial.");
+        }
+        if (Boolean.FALSE.equals(wind.getAvailable())) {
+            reasons.add("Dados de vento indisponiveis no momento; avaliacao parcial.");
+        }
+
         if (waveHeight != null) {
             if (waveHeight >= 0.7 && waveHeight <= 2.2) {
                 score += 2;
@@ -1002,15 +1047,6 @@ public class SurfConditionsService {
         return value.isInt() ? value.asInt() : null;
     }
 
-    private String normalizeText(String value) {
-        if (!StringUtils.hasText(value)) {
-            return "";
-        }
-        String normalized = Normalizer.normalize(value, Normalizer.Form.NFD)
-                .replaceAll("\\p{M}+", "");
-        return normalized.toLowerCase(Locale.ROOT).trim();
-    }
-
     private String firstNonBlank(String... values) {
         for (String value : values) {
             if (StringUtils.hasText(value)) {
@@ -1020,7 +1056,33 @@ public class SurfConditionsService {
         return null;
     }
 
-    private record BalneabilityPoint(String pointCode, String description, String statusCode) {
+    // Celula de uma grade lat/lon com lado cellDegrees (0.05 grau ~ 5,5 km)
+    record GridCell(long latitudeIndex, long longitudeIndex) {
+        static GridCell of(double latitude, double longitude, double cellDegrees) {
+            return new GridCell((long) Math.floor(latitude / cellDegrees), (long) Math.floor(longitude / cellDegrees));
+        }
+
+        double centerLatitude(double cellDegrees) {
+            return roundCoordinate((latitudeIndex + 0.5) * cellDegrees);
+        }
+
+        double centerLongitude(double cellDegrees) {
+            return roundCoordinate((longitudeIndex + 0.5) * cellDegrees);
+        }
+
+        private static double roundCoordinate(double value) {
+            return Math.round(value * 10_000d) / 10_000d;
+        }
+    }
+
+    private record CellConditions(
+            SurfConditionsDTO.MarineDTO marine,
+            SurfConditionsDTO.WindDTO wind,
+            String timezone) {
+
+        boolean partial() {
+            return Boolean.FALSE.equals(marine.getAvailable()) || Boolean.FALSE.equals(wind.getAvailable());
+        }
     }
 
     record TideEvent(String type, ZonedDateTime dateTime, double heightMeters) {
@@ -1034,13 +1096,13 @@ public class SurfConditionsService {
     ) {
     }
 
-    private record SunWindow(LocalTime sunrise, LocalTime sunset) {
+    record SunWindow(LocalTime sunrise, LocalTime sunset) {
     }
 
-    private record SunWindowByDate(LocalDate date, SunWindow sunWindow) {
+    record TideWindow(ZonedDateTime startsAt, ZonedDateTime endsAt) {
     }
 
-    private record TideWindow(ZonedDateTime startsAt, ZonedDateTime endsAt) {
+    record TideTimeline(List<SurfConditionsDTO.TideDTO> hourly, List<TideWindow> surfWindows) {
     }
 
     private record TideRecommendation(String label, String message) {
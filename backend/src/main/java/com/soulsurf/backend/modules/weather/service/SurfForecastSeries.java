@@ -0,0 +1,226 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Hourly forecast of one beach stored column by column: one primitive array per field, indexed by
+ * hour since {@link #startsAt()}. Missing upstream values are {@code NaN} (floats) or {@code -1}
+ * (tide fill). The same layout is written as a compact binary payload for the database.
+ */
+final class SurfForecastSeries {
+
+    static final List<String> QUALITY_LABELS = List.of("INDISPONIVEL", "RUIM", "REGULAR", "BOA");
+    static final List<String> TIDE_STATUSES = List.of("INDISPONIVEL", "ENCHENDO", "SECANDO", "VIRANDO");
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int STEP_SECONDS = 3600;
+
+    private final long beachId;
+    private final String beachName;
+    private final String timezone;
+    private final Instant generatedAt;
+    private final long startsAtEpochSecond;
+    private final float[] waveHeight;
+    private final float[] wavePeriod;
+    private final float[] waveDirection;
+    private final float[] windSpeed;
+    private final float[] windGust;
+    private final float[] windDirection;
+    private final byte[] score;
+    private final byte[] qualityLabel;
+    private final byte[] tideStatus;
+    private final byte[] tideFill;
+    // Janelas de surf pela mare: pares [inicio, fim] em epoch seconds
+    private final long[] surfWindows;
+
+    SurfForecastSeries(long beachId, String beachName, String timezone, Instant generatedAt, long startsAtEpochSecond,
+            float[] waveHeight, float[] wavePeriod, float[] waveDirection,
+            float[] windSpeed, float[] windGust, float[] windDirection,
+            byte[] score, byte[] qualityLabel, byte[] tideStatus, byte[] tideFill, long[] surfWindows) {
+        int hours = waveHeight.length;
+        if (IntStream.of(wavePeriod.length, waveDirection.length, windSpeed.length, windGust.length,
+                windDirection.length, score.length, qualityLabel.length, tideStatus.length, tideFill.length)
+                .anyMatch(length -> length != hours) || surfWindows.length % 2 != 0) {
+            throw new IllegalArgumentException("Colunas da previsao com tamanhos diferentes.");
+        }
+        this.beachId = beachId;
+        this.beachName = beachName;
+        this.timezone = timezone;
+        this.generatedAt = generatedAt;
+        this.startsAtEpochSecond = startsAtEpochSecond;
+        this.waveHeight = waveHeight;
+        this.wavePeriod = wavePeriod;
+        this.waveDirection = waveDirection;
+        this.windSpeed = windSpeed;
+        this.windGust = windGust;
+        this.windDirection = windDirection;
+        this.score = score;
+        this.qualityLabel = qualityLabel;
+        this.tideStatus = tideStatus;
+        this.tideFill = tideFill;
+        this.surfWindows = surfWindows;
+    }
+
+    int hours() {
+        return waveHeight.length;
+    }
+
+    Instant startsAt() {
+        return Instant.ofEpochSecond(startsAtEpochSecond);
+    }
+
+    Instant hourAt(int index) {
+        return Instant.ofEpochSecond(startsAtEpochSecond + (long) index * STEP_SECONDS);
+    }
+
+    /**
+     * Index of the hour that contains {@code instant}, clamped to the series bounds.
+     */
+    int indexOf(Instant instant) {
+        long offset = Math.floorDiv(instant.getEpochSecond() - startsAtEpochSecond, STEP_SECONDS);
+        return (int) Math.max(0, Math.min(hours(), offset));
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + hours() * 28 + surfWindows.length * 8);
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(FORMAT_VERSION);
+            output.writeLong(beachId);
+            output.writeUTF(beachName != null ? beachName : "");
+            output.writeUTF(timezone != null ? timezone : "");
+            output.writeLong(generatedAt.getEpochSecond());
+            output.writeLong(startsAtEpochSecond);
+            output.writeInt(hours());
+            for (float[] column : List.of(waveHeight, wavePeriod, waveDirection, windSpeed, windGust, windDirection)) {
+                for (float value : column) {
+                    output.writeFloat(value);
+                }
+            }
+            output.write(score);
+            output.write(qualityLabel);
+            output.write(tideStatus);
+            output.write(tideFill);
+            output.writeInt(surfWindows.length);
+            for (long bound : surfWindows) {
+                output.writeLong(bound);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static SurfForecastSeries decode(byte[] payload) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int version = input.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Versao de previsao desconhecida: " + version);
+            }
+            long beachId = input.readLong();
+            String beachName = input.readUTF();
+            String timezone = input.readUTF();
+            Instant generatedAt = Instant.ofEpochSecond(input.readLong());
+            long startsAt = input.readLong();
+            int hours = input.readInt();
+            float[][] floats = new float[6][hours];
+            for (float[] column : floats) {
+                for (int index = 0; index < hours; index++) {
+                    column[index] = input.readFloat();
+                }
+            }
+            byte[][] bytes = new byte[4][hours];
+            for (byte[] column : bytes) {
+                input.readFully(column);
+            }
+            long[] surfWindows = new long[input.readInt()];
+            for (int index = 0; index < surfWindows.length; index++) {
+                surfWindows[index] = input.readLong();
+            }
+            return new SurfForecastSeries(beachId, beachName, timezone, generatedAt, startsAt,
+                    floats[0], floats[1], floats[2], floats[3], floats[4], floats[5],
+                    bytes[0], bytes[1], bytes[2], bytes[3], surfWindows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Double toDouble(float value) {
+        return Float.isNaN(value) ? null : (double) value;
+    }
+
+    long beachId() {
+        return beachId;
+    }
+
+    String beachName() {
+        return beachName;
+    }
+
+    String timezone() {
+        return timezone;
+    }
+
+    Instant generatedAt() {
+        return generatedAt;
+    }
+
+    float waveHeight(int index) {
+        return waveHeight[index];
+    }
+
+    float wavePeriod(int index) {
+        return wavePeriod[index];
+    }
+
+    float waveDirection(int index) {
+        return waveDirection[index];
+    }
+
+    float windSpeed(int index) {
+        return windSpeed[index];
+    }
+
+    float windGust(int index) {
+        return windGust[index];
+    }
+
+    float windDirection(int index) {
+        return windDirection[index];
+    }
+
+    int score(int index) {
+        return score[index];
+    }
+
+    String qualityLabel(int index) {
+        return QUALITY_LABELS.get(qualityLabel[index]);
+    }
+
+    String tideStatus(int index) {
+        return TIDE_STATUSES.get(tideStatus[index]);
+    }
+
+    Integer tideFillPercent(int index) {
+        return tideFill[index] < 0 ? null : (int) tideFill[index];
+    }
+
+    int surfWindowCount() {
+        return surfWindows.length / 2;
+    }
+
+    Instant surfWindowStart(int index) {
+        return Instant.ofEpochSecond(surfWindows[index * 2]);
+    }
+
+    Instant surfWindowEnd(int index) {
+        return Instant.ofEpochSecond(surfWindows[index * 2 + 1]);
+    }
+}
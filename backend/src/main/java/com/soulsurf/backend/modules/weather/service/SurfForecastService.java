@@ -0,0 +1,424 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.soulsurf.backend.core.resilience.OutboundGuard;
+import com.soulsurf.backend.modules.beach.entity.Beach;
+import com.soulsurf.backend.modules.beach.repository.BeachRepository;
+import com.soulsurf.backend.modules.weather.dto.SurfConditionsDTO;
+import com.soulsurf.backend.modules.weather.dto.SurfForecastDTO;
+import com.soulsurf.backend.modules.weather.entity.SurfForecastRecord;
+import com.soulsurf.backend.modules.weather.repository.SurfForecastRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Precomputed hourly surf forecast per registered beach.
+ * <p>
+ * A scheduled job pulls the Open-Meteo hourly marine and wind series for every beach (grouped by
+ * the same grid cells as {@link SurfConditionsService}, several cells per upstream call), scores
+ * every hour with {@link SurfConditionsService#evaluateSurfQuality} and the tide model, and keeps
+ * the result as one {@link SurfForecastSeries} per beach, in memory and in {@code surf_forecasts}.
+ * {@link #getForecast(Long)} only reads memory: no upstream call happens on the request path.
+ */
+@Service
+@Slf4j
+public class SurfForecastService {
+
+    private static final String MARINE_HOURLY_FIELDS = "wave_height,wave_direction,wave_period";
+    private static final String WEATHER_HOURLY_FIELDS = "wind_speed_10m,wind_direction_10m,wind_gusts_10m";
+
+    // O Open-Meteo aceita listas de coordenadas; o lote so limita o tamanho da URL
+    private static final int CELLS_PER_REQUEST = 50;
+
+    private final WebClient marineWebClient;
+    private final WebClient weatherWebClient;
+    private final BeachRepository beachRepository;
+    private final SurfForecastRepository forecastRepository;
+    private final SurfConditionsService surfConditionsService;
+    private final MeterRegistry meterRegistry;
+    private final double cellDegrees;
+    private final int forecastDays;
+    private final Duration timeout;
+    private final Clock clock;
+    private volatile Map<Long, SurfForecastSeries> forecasts = Map.of();
+
+    @Autowired
+    public SurfForecastService(
+            @Value("${surf.api.open-meteo.marine-url}") String marineApiUrl,
+            @Value("${surf.api.open-meteo.forecast-url}") String forecastApiUrl,
+            @Value("${surf.conditions.cache.cell-degrees:0.05}") double cellDegrees,
+            @Value("${surf.forecast.days:3}") int forecastDays,
+            @Value("${surf.forecast.timeout-ms:15000}") long timeoutMs,
+            BeachRepository beachRepository,
+            SurfForecastRepository forecastRepository,
+            SurfConditionsService surfConditionsService,
+            WebClient.Builder webClientBuilder,
+            OutboundGuard outboundGuard,
+            MeterRegistry meterRegistry
+    ) {
+        this(webClientBuilder.clone().apply(outboundGuard.webClient(SurfConditionsService.OPEN_METEO))
+                        .baseUrl(marineApiUrl).build(),
+                webClientBuilder.clone().apply(outboundGuard.webClient(SurfConditionsService.OPEN_METEO))
+                        .baseUrl(forecastApiUrl).build(),
+                cellDegrees, forecastDays, Duration.ofMillis(timeoutMs), beachRepository, forecastRepository,
+                surfConditionsService, meterRegistry, Clock.systemUTC());
+    }
+
+    SurfForecastService(
+            WebClient marineWebClient,
+            WebClient weatherWebClient,
+            double cellDegrees,
+            int forecastDays,
+            Duration timeout,
+            BeachRepository beachRepository,
+            SurfForecastRepository forecastRepository,
+            SurfConditionsService surfConditionsService,
+            MeterRegistry meterRegistry,
+            Clock clock
+    ) {
+        this.marineWebClient = marineWebClient;
+        this.weatherWebClient = weatherWebClient;
+        this.cellDegrees = cellDegrees;
+        this.forecastDays = forecastDays;
+        this.timeout = timeout;
+        this.beachRepository = beachRepository;
+        this.forecastRepository = forecastRepository;
+        this.surfConditionsService = surfConditionsService;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+
+        Gauge.builder("surf.forecast.beaches", this, service -> service.forecasts.size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Forecast of a beach from the current hour on, or empty when the beach has no forecast yet.
+     */
+    public Optional<SurfForecastDTO> getForecast(Long beachId) {
+        SurfForecastSeries series = forecasts.get(beachId);
+        if (series == null) {
+            return Optional.empty();
+        }
+
+        Instant now = clock.instant();
+        ZoneId zone = ZoneId.of(series.timezone());
+        List<SurfForecastDTO.HourDTO> hours = new ArrayList<>();
+        for (int index = series.indexOf(now); index < series.hours(); index++) {
+            hours.add(SurfForecastDTO.HourDTO.builder()
+                    .time(series.hourAt(index).atZone(zone).toOffsetDateTime().toString())
+                    .waveHeightMeters(SurfForecastSeries.toDouble(series.waveHeight(index)))
+                    .wavePeriodSeconds(SurfForecastSeries.toDouble(series.wavePeriod(index)))
+                    .waveDirectionDegrees(SurfForecastSeries.toDouble(series.waveDirection(index)))
+                    .windSpeedKmh(SurfForecastSeries.toDouble(series.windSpeed(index)))
+                    .windGustKmh(SurfForecastSeries.toDouble(series.windGust(index)))
+                    .windDirectionDegrees(SurfForecastSeries.toDouble(series.windDirection(index)))
+                    .tideStatus(series.tideStatus(index))
+                    .tideFillPercent(series.tideFillPercent(index))
+                    .score(series.score(index))
+                    .label(series.qualityLabel(index))
+                    .build());
+        }
+
+        ZonedDateTime zonedNow = now.atZone(zone);
+        List<SurfConditionsDTO.TideSurfWindowDTO> windows = new ArrayList<>();
+        for (int index = 0; index < series.surfWindowCount() && windows.size() < 4; index++) {
+            if (series.surfWindowEnd(index).isAfter(now)) {
+                windows.add(SurfConditionsService.toSurfWindowDto(new SurfConditionsService.TideWindow(
+                        series.surfWindowStart(index).atZone(zone),
+                        series.surfWindowEnd(index).atZone(zone)), zonedNow));
+            }
+        }
+
+        return Optional.of(SurfForecastDTO.builder()
+                .beachId(series.beachId())
+                .beachName(series.beachName())
+                .generatedAt(series.generatedAt().toString())
+                .timezone(series.timezone())
+                .hours(hours)
+                .bestSurfWindows(windows)
+                .build());
+    }
+
+    @PostConstruct
+    void restorePersistedForecasts() {
+        try {
+            Map<Long, SurfForecastSeries> restored = new HashMap<>();
+            for (SurfForecastRecord record : forecastRepository.findAll()) {
+                restored.put(record.getBeachId(), SurfForecastSeries.decode(record.getPayload()));
+            }
+            forecasts = Map.copyOf(restored);
+            if (!restored.isEmpty()) {
+                log.info("Previsao de surf restaurada do banco para {} praia(s)", restored.size());
+            }
+        } catch (Exception e) {
+            log.warn("Nao foi possivel restaurar a previsao de surf salva: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${surf.forecast.refresh-interval-ms:3600000}",
+            initialDelayString = "${surf.forecast.initial-delay-ms:60000}"
+    )
+    public void refreshForecasts() {
+        try {
+            int beaches = refresh();
+            meterRegistry.counter("surf.forecast.refresh", "result", "updated").increment();
+            log.info("Previsao de surf atualizada para {} praia(s)", beaches);
+        } catch (Exception e) {
+            meterRegistry.counter("surf.forecast.refresh", "result", "failed").increment();
+            log.warn("Nao foi possivel atualizar a previsao de surf: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the forecast of every beach with coordinates. Returns how many beaches were updated.
+     * A failure leaves the previous forecasts in place.
+     */
+    synchronized int refresh() {
+        Map<SurfConditionsService.GridCell, List<Beach>> beachesByCell = new LinkedHashMap<>();
+        for (Beach beach : beachRepository.findAll()) {
+            if (beach.getLatitude() != null && beach.getLongitude() != null) {
+                beachesByCell.computeIfAbsent(
+                        SurfConditionsService.GridCell.of(beach.getLatitude(), beach.getLongitude(), cellDegrees),
+                        cell -> new ArrayList<>()).add(beach);
+            }
+        }
+
+        Map<SurfConditionsService.GridCell, HourlyCell> hourlyByCell = new HashMap<>();
+        List<SurfConditionsService.GridCell> cells = List.copyOf(beachesByCell.keySet());
+        for (int start = 0; start < cells.size(); start += CELLS_PER_REQUEST) {
+            hourlyByCell.putAll(fetchHourly(cells.subList(start, Math.min(start + CELLS_PER_REQUEST, cells.size()))));
+        }
+
+        Instant generatedAt = clock.instant();
+        String timezone = surfConditionsService.tideZone().getId();
+        // Todas as celulas compartilham o mesmo eixo de horas; a mare e uma so estacao
+        Map<List<Instant>, SurfConditionsService.TideTimeline> tideByAxis = new HashMap<>();
+        Map<Long, SurfForecastSeries> refreshed = new HashMap<>();
+        for (Map.Entry<SurfConditionsService.GridCell, List<Beach>> entry : beachesByCell.entrySet()) {
+            HourlyCell hourly = hourlyByCell.get(entry.getKey());
+            if (hourly == null || hourly.hours().isEmpty()) {
+                continue;
+            }
+            SurfConditionsService.TideTimeline tide = tideByAxis.computeIfAbsent(hourly.hours(),
+                    surfConditionsService::tideTimeline);
+            for (Beach beach : entry.getValue()) {
+                refreshed.put(beach.getId(), buildSeries(beach, hourly, tide, timezone, generatedAt));
+            }
+        }
+
+        persist(refreshed);
+        forecasts = Map.copyOf(refreshed);
+        return refreshed.size();
+    }
+
+    private SurfForecastSeries buildSeries(
+            Beach beach,
+            HourlyCell hourly,
+            SurfConditionsService.TideTimeline tide,
+            String timezone,
+            Instant generatedAt
+    ) {
+        int hours = hourly.hours().size();
+        byte[] score = new byte[hours];
+        byte[] qualityLabel = new byte[hours];
+        byte[] tideStatus = new byte[hours];
+        byte[] tideFill = new byte[hours];
+        SurfConditionsDTO.BalneabilityDTO balneability = surfConditionsService.fetchBalneability(beach.getNome());
+
+        for (int index = 0; index < hours; index++) {
+            SurfConditionsDTO.TideDTO tideAtHour = tide.hourly().get(index);
+            SurfConditionsDTO.SurfQualityDTO quality = surfConditionsService.evaluateSurfQuality(
+                    SurfConditionsDTO.MarineDTO.builder()
+                            .waveHeightMeters(SurfForecastSeries.toDouble(hourly.waveHeight()[index]))
+                            .wavePeriodSeconds(SurfForecastSeries.toDouble(hourly.wavePeriod()[index]))
+                            .waveDirectionDegrees(SurfForecastSeries.toDouble(hourly.waveDirection()[index]))
+                            .build(),
+                    SurfConditionsDTO.WindDTO.builder()
+                            .windSpeedKmh(SurfForecastSeries.toDouble(hourly.windSpeed()[index]))
+                            .windGustKmh(SurfForecastSeries.toDouble(hourly.windGust()[index]))
+                            .windDirectionDegrees(SurfForecastSeries.toDouble(hourly.windDirection()[index]))
+                            .build(),
+                    balneability,
+                    tideAtHour);
+            score[index] = (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, quality.getScore()));
+            qualityLabel[index] = (byte) Math.max(0, SurfForecastSeries.QUALITY_LABELS.indexOf(quality.getLabel()));
+            tideStatus[index] = (byte) Math.max(0, SurfForecastSeries.TIDE_STATUSES.indexOf(tideAtHour.getCurrentStatus()));
+            tideFill[index] = tideAtHour.getFillPercent() != null ? tideAtHour.getFillPercent().byteValue() : -1;
+        }
+
+        Instant firstHour = hourly.hours().get(0);
+        Instant lastHour = hourly.hours().get(hours - 1).plus(1, ChronoUnit.HOURS);
+        long[] surfWindows = tide.surfWindows().stream()
+                .filter(window -> window.endsAt().toInstant().isAfter(firstHour)
+                        && window.startsAt().toInstant().isBefore(lastHour))
+                .flatMapToLong(window -> LongStream.of(
+                        window.startsAt().toEpochSecond(), window.endsAt().toEpochSecond()))
+                .toArray();
+
+        return new SurfForecastSeries(beach.getId(), beach.getNome(), timezone, generatedAt,
+                firstHour.getEpochSecond(),
+                hourly.waveHeight(), hourly.wavePeriod(), hourly.waveDirection(),
+                hourly.windSpeed(), hourly.windGust(), hourly.windDirection(),
+                score, qualityLabel, tideStatus, tideFill, surfWindows);
+    }
+
+    private Map<SurfConditionsService.GridCell, HourlyCell> fetchHourly(List<SurfConditionsService.GridCell> cells) {
+        String latitudes = cells.stream()
+                .map(cell -> String.valueOf(cell.centerLatitude(cellDegrees)))
+                .collect(Collectors.joining(","));
+        String longitudes = cells.stream()
+                .map(cell -> String.valueOf(cell.centerLongitude(cellDegrees)))
+                .collect(Collectors.joining(","));
+
+        Tuple2<JsonNode, JsonNode> responses = Mono.zip(
+                timed("open-meteo-marine-hourly", marineWebClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .queryParam("latitude", latitudes)
+                                .queryParam("longitude", longitudes)
+                                .queryParam("cell_selection", "sea")
+                                .queryParam("hourly", MARINE_HOURLY_FIELDS)
+                                .queryParam("forecast_days", forecastDays)
+                                .queryParam("timeformat", "unixtime")
+                                .queryParam("timezone", "GMT")
+                                .build())
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)),
+                timed("open-meteo-forecast-hourly", weatherWebClient.get()
+                        .uri(uriBuilder -> uriBuilder
+                                .queryParam("latitude", latitudes)
+                                .queryParam("longitude", longitudes)
+                                .queryParam("hourly", WEATHER_HOURLY_FIELDS)
+                                .queryParam("forecast_days", forecastDays)
+                                .queryParam("timeformat", "unixtime")
+                                .queryParam("timezone", "GMT")
+                                .build())
+                        .retrieve()
+                        .bodyToMono(JsonNode.class))
+        ).block();
+
+        List<JsonNode> marineLocations = SurfConditionsService.locations(responses.getT1());
+        List<JsonNode> weatherLocations = SurfConditionsService.locations(responses.getT2());
+        if (marineLocations.size() != cells.size() || weatherLocations.size() != cells.size()) {
+            throw new IllegalStateException("Open-Meteo devolveu " + marineLocations.size() + "/"
+                    + weatherLocations.size() + " locais para " + cells.size() + " celulas.");
+        }
+
+        Map<SurfConditionsService.GridCell, HourlyCell> hourly = new HashMap<>();
+        for (int index = 0; index < cells.size(); index++) {
+            hourly.put(cells.get(index),
+                    HourlyCell.from(marineLocations.get(index).path("hourly"), weatherLocations.get(index).path("hourly")));
+        }
+        return hourly;
+    }
+
+    private <T> Mono<T> timed(String source, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                    .timeout(timeout)
+                    .doFinally(signal -> sample.stop(
+                            meterRegistry.timer("surf.conditions.upstream.latency", "source", source)));
+        });
+    }
+
+    // Reescreve as previsoes atualizadas e remove as de praias que sairam da lista
+    private void persist(Map<Long, SurfForecastSeries> refreshed) {
+        try {
+            List<SurfForecastRecord> records = new ArrayList<>(refreshed.size());
+            for (SurfForecastSeries series : refreshed.values()) {
+                SurfForecastRecord record = new SurfForecastRecord();
+                record.setBeachId(series.beachId());
+                record.setGeneratedAt(LocalDateTime.ofInstant(series.generatedAt(), ZoneOffset.UTC));
+                record.setStartsAt(LocalDateTime.ofInstant(series.startsAt(), ZoneOffset.UTC));
+                record.setHours(series.hours());
+                record.setPayload(series.encode());
+                records.add(record);
+            }
+            forecastRepository.saveAll(records);
+
+            Set<Long> stale = forecasts.keySet().stream()
+                    .filter(beachId -> !refreshed.containsKey(beachId))
+                    .collect(Collectors.toSet());
+            if (!stale.isEmpty()) {
+                forecastRepository.deleteAllByIdInBatch(stale);
+            }
+        } catch (Exception e) {
+            log.warn("Nao foi possivel salvar a previsao de surf: {}", e.getMessage());
+        }
+    }
+
+    private record HourlyCell(
+            List<Instant> hours,
+            float[] waveHeight,
+            float[] wavePeriod,
+            float[] waveDirection,
+            float[] windSpeed,
+            float[] windGust,
+            float[] windDirection
+    ) {
+        // O eixo e o da serie marinha; o vento e alinhado pelo horario, nao pela posicao
+        static HourlyCell from(JsonNode marineHourly, JsonNode weatherHourly) {
+            JsonNode marineTimes = marineHourly.path("time");
+            List<Instant> hours = new ArrayList<>(marineTimes.size());
+            marineTimes.forEach(time -> hours.add(Instant.ofEpochSecond(time.asLong())));
+
+            Map<Long, Integer> weatherIndex = new HashMap<>();
+            JsonNode weatherTimes = weatherHourly.path("time");
+            for (int index = 0; index < weatherTimes.size(); index++) {
+                weatherIndex.put(weatherTimes.get(index).asLong(), index);
+            }
+            int[] weatherPositions = hours.stream()
+                    .mapToInt(hour -> weatherIndex.getOrDefault(hour.getEpochSecond(), -1))
+                    .toArray();
+
+            return new HourlyCell(
+                    hours,
+                    column(marineHourly.path("wave_height"), null),
+                    column(marineHourly.path("wave_period"), null),
+                    column(marineHourly.path("wave_direction"), null),
+                    column(weatherHourly.path("wind_speed_10m"), weatherPositions),
+                    column(weatherHourly.path("wind_gusts_10m"), weatherPositions),
+                    column(weatherHourly.path("wind_direction_10m"), weatherPositions));
+        }
+
+        private static float[] column(JsonNode values, int[] positions) {
+            int size = positions != null ? positions.length : values.size();
+            float[] column = new float[size];
+            for (int index = 0; index < size; index++) {
+                int position = positions != null ? positions[index] : index;
+                JsonNode value = position >= 0 ? values.path(position) : null;
+                column[index] = value != null && value.isNumber() ? value.floatValue() : Float.NaN;
+            }
+            return column;
+        }
+    }
+}
@@ -1,44 +1,132 @@
 package com.soulsurf.backend.modules.weather.service;
 
+import com.soulsurf.backend.core.cache.RefreshingCache;
+import com.soulsurf.backend.core.exception.UpstreamUnavailableException;
+import com.soulsurf.backend.core.resilience.OutboundGuard;
 import com.soulsurf.backend.modules.weather.dto.WeatherDTO;
 import com.soulsurf.backend.modules.weather.dto.OpenWeatherResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Current weather per city from OpenWeatherMap, behind a {@link RefreshingCache} keyed by the
+ * normalized city name.
+ * <p>
+ * Entries are fresh for {@code weather.cache.ttl-ms}; concurrent misses for the same city share one
+ * upstream call, and a stale entry is still served while it reloads. Cities requested at least
+ * {@code weather.cache.hot-min-requests} times since the last cycle are reloaded in the background
+ * every {@code weather.cache.refresh-interval-ms}, so the default city never waits on the upstream.
+ * Metrics: {@code weather.current.cache.*} (requests, upstream loads, loads saved, size) and
+ * {@code weather.current.cache.proactive.refreshes}.
+ */
 @Service
 public class WeatherService {
 
+    private static final String METRIC_PREFIX = "weather.current.cache";
+
     private final WebClient webClient;
     private final String apiKey;
+    private final int hotMinRequests;
+    private final long maxCities;
+    private final RefreshingCache<String, WeatherDTO> cache;
+    private final Map<String, LongAdder> requestsSinceRefresh = new ConcurrentHashMap<>();
+    private final Counter proactiveRefreshes;
 
     public WeatherService(@Value("${weather.api.url}") String apiUrl,
                           @Value("${weather.api.key}") String apiKey,
-                          WebClient.Builder webClientBuilder) {
+                          @Value("${weather.cache.ttl-ms:600000}") long ttlMs,
+                          @Value("${weather.cache.max-stale-ms:1800000}") long maxStaleMs,
+                          @Value("${weather.cache.max-cities:500}") long maxCities,
+                          @Value("${weather.cache.hot-min-requests:2}") int hotMinRequests,
+                          WebClient.Builder webClientBuilder,
+                          OutboundGuard outboundGuard,
+                          MeterRegistry meterRegistry) {
         this.apiKey = apiKey;
-        this.webClient = webClientBuilder.baseUrl(apiUrl).build();
+        this.webClient = webClientBuilder.clone()
+                .apply(outboundGuard.webClient("openweathermap"))
+                .baseUrl(apiUrl)
+                .build();
+        this.hotMinRequests = hotMinRequests;
+        this.maxCities = maxCities;
+        // Recargas nao ocupam thread: varias cidades podem recarregar ao mesmo tempo
+        this.cache = RefreshingCache.async(city -> fetchCurrentWeather(city).toFuture(), null,
+                Duration.ofMillis(ttlMs), Duration.ofMillis(maxStaleMs), maxCities, meterRegistry, METRIC_PREFIX);
+        this.proactiveRefreshes = Counter.builder(METRIC_PREFIX + ".proactive.refreshes").register(meterRegistry);
     }
 
     public WeatherDTO getCurrentWeather(String cityName) {
+        String key = cityKey(cityName);
+        LongAdder requests = requestsSinceRefresh.get(key);
+        if (requests == null && requestsSinceRefresh.size() < maxCities) {
+            requests = requestsSinceRefresh.computeIfAbsent(key, ignored -> new LongAdder());
+        }
+        if (requests != null) {
+            requests.increment();
+        }
+        return cache.get(key);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${weather.cache.refresh-interval-ms:480000}",
+            initialDelayString = "${weather.cache.refresh-interval-ms:480000}"
+    )
+    void refreshHotCities() {
+        refreshHotCitiesAsync();
+    }
+
+    /**
+     * Reloads the cities that were hot in the last cycle and starts a new one. Failed reloads keep
+     * the cached value.
+     */
+    List<CompletableFuture<WeatherDTO>> refreshHotCitiesAsync() {
+        List<CompletableFuture<WeatherDTO>> refreshes = new ArrayList<>();
+        for (String key : List.copyOf(requestsSinceRefresh.keySet())) {
+            LongAdder requests = requestsSinceRefresh.remove(key);
+            if (requests != null && requests.sum() >= hotMinRequests) {
+                proactiveRefreshes.increment();
+                refreshes.add(cache.refresh(key));
+            }
+        }
+        return refreshes;
+    }
+
+    private Mono<WeatherDTO> fetchCurrentWeather(String cityName) {
         String uri = "?q={city}&appid={key}&units=metric&lang=pt";
 
-        OpenWeatherResponse response = this.webClient.get()
+        return this.webClient.get()
                 .uri(uri, cityName, apiKey)
                 .retrieve()
                 .bodyToMono(OpenWeatherResponse.class)
-                .block();
-
-        if (response == null || response.getWeather() == null || response.getWeather().isEmpty()) {
-            throw new RuntimeException("Dados de clima não disponíveis para " + cityName);
-        }
+                .onErrorMap(e -> e instanceof WebClientResponseException.NotFound
+                        ? new RuntimeException("Dados de clima não disponíveis para " + cityName)
+                        : new UpstreamUnavailableException("Servico de clima indisponivel no momento.", e))
+                .filter(response -> response.getWeather() != null && !response.getWeather().isEmpty())
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Dados de clima não disponíveis para " + cityName)))
+                .map(response -> WeatherDTO.builder()
+                        .cityName(response.getName())
+                        .temp(response.getMain().getTemp())
+                        .description(response.getWeather().get(0).getDescription())
+                        .iconCode(response.getWeather().get(0).getIcon())
+                        .build());
+    }
 
-        return WeatherDTO.builder()
-                .cityName(response.getName())
-                .temp(response.getMain().getTemp())
-                .description(response.getWeather().get(0).getDescription())
-                .iconCode(response.getWeather().get(0).getIcon())
-                .build();
+    // "Fortaleza,BR", " fortaleza, br " e "FORTALEZA,br" sao a mesma consulta
+    static String cityKey(String cityName) {
+        return cityName.strip().replaceAll("\\s*,\\s*", ",").toLowerCase(Locale.ROOT);
     }
 }
-
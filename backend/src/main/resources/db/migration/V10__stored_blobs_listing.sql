@@ -0,0 +1,7 @@
+-- stored_blobs passa a ser tambem o indice de listagem do bucket (GET /api/files/list).
+-- A chave vira o nome do objeto para paginar por keyset (object_name > :startAfter); objetos
+-- anteriores ao enderecamento por conteudo entram pela sincronizacao com o bucket, sem digest.
+ALTER TABLE stored_blobs DROP CONSTRAINT pk_stored_blobs;
+ALTER TABLE stored_blobs MODIFY (digest NULL);
+ALTER TABLE stored_blobs ADD CONSTRAINT pk_stored_blobs PRIMARY KEY (object_name);
+CREATE UNIQUE INDEX ux_stored_blobs_digest ON stored_blobs (digest);
@@ -0,0 +1,15 @@
+-- Uploads diretos para o storage (POST /api/files/upload-intents): cada linha e uma URL de
+-- upload emitida e ainda nao confirmada. A confirmacao remove a linha e indexa o objeto em
+-- stored_blobs; intencoes vencidas sao removidas junto com o objeto que nunca foi confirmado.
+CREATE TABLE upload_intents (
+    id VARCHAR2(36 CHAR) NOT NULL,
+    object_name VARCHAR2(255 CHAR) NOT NULL,
+    content_type VARCHAR2(100 CHAR) NOT NULL,
+    size_bytes NUMBER(19,0) NOT NULL,
+    owner VARCHAR2(255 CHAR) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_upload_intents PRIMARY KEY (id)
+);
+
+CREATE INDEX ix_upload_intents_expires ON upload_intents (expires_at);
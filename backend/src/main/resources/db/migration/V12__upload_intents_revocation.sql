@@ -0,0 +1,4 @@
+-- Id da PAR emitida para cada upload direto: a confirmacao (ou a rejeicao/limpeza) apaga a PAR
+-- para que o objeto validado nao possa ser sobrescrito pela mesma URL ate ela vencer.
+ALTER TABLE upload_intents ADD (upload_url_id VARCHAR2(255 CHAR));
+CREATE INDEX ix_upload_intents_object ON upload_intents (object_name);
@@ -0,0 +1,8 @@
+-- Autores servidos por fan-out-on-read (mais seguidores que timeline.fanout.max-followers).
+-- Persistido para sobreviver a restarts: um autor so sai daqui depois que os posts dele foram
+-- redistribuidos para os seguidores, entao um rebaixamento nunca se perde.
+CREATE TABLE timeline_pull_authors (
+    author_id NUMBER(19,0) NOT NULL,
+    promoted_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_timeline_pull_authors PRIMARY KEY (author_id)
+);
@@ -0,0 +1,12 @@
+-- Contadores desnormalizados de likes/comentarios por post.
+-- Mantidos por LikeService/CommentService/AdminService e reparados por PostCounterReconciliationService.
+ALTER TABLE posts ADD (
+    likes_count NUMBER(19,0) DEFAULT 0 NOT NULL,
+    comments_count NUMBER(19,0) DEFAULT 0 NOT NULL
+);
+
+UPDATE posts p
+SET likes_count = (SELECT COUNT(*) FROM likes l WHERE l.post_id = p.id),
+    comments_count = (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id);
+
+CREATE INDEX idx_comments_post_id ON comments (post_id);
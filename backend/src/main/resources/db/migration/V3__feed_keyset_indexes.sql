@@ -0,0 +1,7 @@
+-- Indices compostos para paginacao por cursor (keyset) em (data, id) nos feeds.
+-- O Oracle percorre os indices em ordem descendente para ORDER BY data DESC, id DESC.
+CREATE INDEX idx_posts_publico_data_id ON posts (publico, data, id);
+
+CREATE INDEX idx_posts_usuario_data_id ON posts (usuario_id, data, id);
+
+CREATE INDEX idx_posts_beach_data_id ON posts (beach_id, data, id);
@@ -0,0 +1,24 @@
+-- Timeline "seguindo" pre-computado (fan-out-on-write), mantido por TimelineService.
+-- Tabela derivada: sem FKs, as leituras sempre fazem join com posts.
+CREATE TABLE timeline_entries (
+    user_id NUMBER(19,0) NOT NULL,
+    post_id NUMBER(19,0) NOT NULL,
+    author_id NUMBER(19,0) NOT NULL,
+    post_data TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_timeline_entries PRIMARY KEY (user_id, post_id)
+);
+
+CREATE INDEX idx_timeline_user_data_post ON timeline_entries (user_id, post_data, post_id);
+
+CREATE INDEX idx_timeline_user_author ON timeline_entries (user_id, author_id);
+
+CREATE INDEX idx_timeline_post_id ON timeline_entries (post_id);
+
+-- Fan-out le os seguidores de um autor (seguindo_id); a PK so cobre user_id
+CREATE INDEX idx_user_seguindo_seguindo ON user_seguindo (seguindo_id, user_id);
+
+-- Materializa o historico das relacoes existentes
+INSERT INTO timeline_entries (user_id, post_id, author_id, post_data)
+SELECT us.user_id, p.id, p.usuario_id, p.data
+FROM user_seguindo us
+JOIN posts p ON p.usuario_id = us.seguindo_id;
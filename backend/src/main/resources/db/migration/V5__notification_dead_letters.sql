@@ -0,0 +1,18 @@
+-- Eventos de notificacao que esgotaram as tentativas de entrega (NotificationDispatcher).
+-- Guarda os campos crus do evento, sem FKs, para inspecao/reprocessamento.
+CREATE TABLE notification_dead_letters (
+    id NUMBER(19,0) GENERATED BY DEFAULT ON NULL AS IDENTITY,
+    type VARCHAR2(32 CHAR) NOT NULL,
+    sender_email VARCHAR2(255 CHAR),
+    followed_user_id NUMBER(19,0),
+    recipient_username VARCHAR2(255 CHAR),
+    post_id NUMBER(19,0),
+    comment_id NUMBER(19,0),
+    parent_comment_id NUMBER(19,0),
+    attempts NUMBER(10,0) NOT NULL,
+    last_error VARCHAR2(1000 CHAR),
+    failed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_notification_dead_letters PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_notif_dead_letters_failed ON notification_dead_letters (failed_at);
@@ -0,0 +1,14 @@
+-- Ultimo boletim de balneabilidade da SEMACE processado com sucesso (BalneabilitySnapshotService).
+-- Uma linha por fonte; evita baixar e reprocessar o PDF a cada restart.
+CREATE TABLE balneability_snapshots (
+    source VARCHAR2(32 CHAR) NOT NULL,
+    report_url VARCHAR2(1000 CHAR) NOT NULL,
+    period VARCHAR2(255 CHAR),
+    content_hash VARCHAR2(64 CHAR) NOT NULL,
+    etag VARCHAR2(255 CHAR),
+    last_modified VARCHAR2(64 CHAR),
+    points_json CLOB NOT NULL,
+    fetched_at TIMESTAMP(6) NOT NULL,
+    checked_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_balneability_snapshots PRIMARY KEY (source)
+);
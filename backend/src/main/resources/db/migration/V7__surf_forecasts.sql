@@ -0,0 +1,11 @@
+-- Previsao horaria pre-calculada por praia (SurfForecastService).
+-- payload guarda as series em formato colunar binario (SurfForecastSeries); sem FK para beaches
+-- porque a tabela e derivada e reescrita a cada atualizacao.
+CREATE TABLE surf_forecasts (
+    beach_id NUMBER(19,0) NOT NULL,
+    generated_at TIMESTAMP(6) NOT NULL,
+    starts_at TIMESTAMP(6) NOT NULL,
+    hours NUMBER(5,0) NOT NULL,
+    payload BLOB NOT NULL,
+    CONSTRAINT pk_surf_forecasts PRIMARY KEY (beach_id)
+);
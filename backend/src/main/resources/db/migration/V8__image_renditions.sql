@@ -0,0 +1,22 @@
+-- URLs das variantes reduzidas geradas no upload (ImagePipeline). A coluna original passa a
+-- guardar a variante "full"; linhas antigas ficam com as variantes nulas e os clientes caem
+-- para a foto original.
+ALTER TABLE posts ADD (
+    caminho_foto_thumb VARCHAR2(512 CHAR),
+    caminho_foto_feed VARCHAR2(512 CHAR)
+);
+
+ALTER TABLE beaches ADD (
+    caminho_foto_thumb VARCHAR2(512 CHAR),
+    caminho_foto_feed VARCHAR2(512 CHAR)
+);
+
+ALTER TABLE points_of_interest ADD (
+    caminho_foto_thumb VARCHAR2(512 CHAR),
+    caminho_foto_feed VARCHAR2(512 CHAR)
+);
+
+ALTER TABLE users ADD (
+    foto_perfil_thumb VARCHAR2(512 CHAR),
+    foto_capa_feed VARCHAR2(512 CHAR)
+);
@@ -0,0 +1,10 @@
+-- Indice de objetos do bucket enderecados por conteudo (BlobIndex).
+-- digest e o SHA-256 em hex dos bytes; um upload com digest ja indexado nao e reenviado.
+CREATE TABLE stored_blobs (
+    digest VARCHAR2(64 CHAR) NOT NULL,
+    object_name VARCHAR2(255 CHAR) NOT NULL,
+    content_type VARCHAR2(100 CHAR),
+    size_bytes NUMBER(19,0) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_stored_blobs PRIMARY KEY (digest)
+);
@@ -1,6 +1,6 @@
 package com.soulsurf.backend;
 
-import com.soulsurf.backend.core.storage.OracleStorageService;
+import com.soulsurf.backend.core.storage.BlobStorageService;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
@@ -11,7 +11,7 @@ import static org.mockito.Mockito.mock;
 public class TestConfig {
 
     @Bean
-    public OracleStorageService oracleStorageService() {
-        return mock(OracleStorageService.class);
+    public BlobStorageService blobStorageService() {
+        return mock(BlobStorageService.class);
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+package com.soulsurf.backend.core.cache;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshingCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = nanos::get;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void freshEntryIsServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        RefreshingCache<String, String> cache = cache(key -> key + "-" + loads.incrementAndGet(), Runnable::run);
+
+        assertEquals("a-1", cache.get("a"));
+        assertEquals("a-1", cache.get("a"));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("test.cache.requests").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("test.cache.requests").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneBackgroundRefreshRuns() {
+        AtomicInteger loads = new AtomicInteger();
+        DeferredExecutor executor = new DeferredExecutor();
+        RefreshingCache<String, String> cache = cache(key -> key + "-" + loads.incrementAndGet(), executor);
+
+        assertEquals("a-1", cache.get("a"));
+        executor.defer = true;
+        advance(Duration.ofMinutes(11));
+
+        // Valor antigo na hora; so uma recarga agendada mesmo com varias leituras
+        assertEquals("a-1", cache.get("a"));
+        assertEquals("a-1", cache.get("a"));
+        assertEquals(1, executor.pending.size());
+
+        executor.runPending();
+        assertEquals("a-2", cache.get("a"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousValue() {
+        AtomicInteger loads = new AtomicInteger();
+        RefreshingCache<String, String> cache = cache(key -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("upstream fora do ar");
+            }
+            return "ok";
+        }, Runnable::run);
+
+        assertEquals("ok", cache.get("a"));
+        advance(Duration.ofMinutes(11));
+
+        assertEquals("ok", cache.get("a"));
+        assertEquals("ok", cache.get("a"));
+    }
+
+    @Test
+    void entryOlderThanMaxStaleIsLoadedAgainAndMissFailuresPropagate() {
+        AtomicInteger loads = new AtomicInteger();
+        RefreshingCache<String, String> cache = cache(key -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("upstream fora do ar");
+            }
+            return "ok";
+        }, Runnable::run);
+
+        assertEquals("ok", cache.get("a"));
+        advance(Duration.ofHours(2));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> cache.get("a"));
+        assertEquals("upstream fora do ar", error.getMessage());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService loaderPool = Executors.newFixedThreadPool(2);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            RefreshingCache<String, String> cache = cache(key -> {
+                loads.incrementAndGet();
+                try {
+                    release.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "cell";
+            }, loaderPool);
+
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> cache.get("a")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("cell", result.get(1, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            loaderPool.shutdownNow();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void explicitRefreshReloadsBeforeStaleAndSavedLoadsAreCounted() {
+        AtomicInteger loads = new AtomicInteger();
+        RefreshingCache<String, String> cache = cache(key -> {
+            if (loads.incrementAndGet() == 3) {
+                throw new IllegalStateException("upstream fora do ar");
+            }
+            return key + "-" + loads.get();
+        }, Runnable::run);
+
+        assertEquals("a-1", cache.get("a"));
+        assertEquals("a-1", cache.get("a"));
+        assertEquals("a-1", cache.get("a"));
+
+        assertEquals("a-2", cache.refresh("a").join());
+        assertEquals("a-2", cache.get("a"));
+        // Recarga com falha mantem o valor atual
+        assertTrue(cache.refresh("a").isCompletedExceptionally());
+        assertEquals("a-2", cache.get("a"));
+
+        assertEquals(3.0, meterRegistry.get("test.cache.loads").functionCounter().count());
+        // 5 leituras contra 3 chamadas ao upstream (1 miss + 2 recargas)
+        assertEquals(2.0, meterRegistry.get("test.cache.loads.saved").functionCounter().count());
+    }
+
+    @Test
+    void bulkLookupLoadsOnlyMissingKeysInOneCall() {
+        List<Set<String>> bulkCalls = new ArrayList<>();
+        RefreshingCache<String, String> cache = new RefreshingCache<>(key -> key + "-single", keys -> {
+            bulkCalls.add(keys);
+            Map<String, String> values = new HashMap<>();
+            keys.forEach(key -> values.put(key, key + "-bulk"));
+            return values;
+        }, Duration.ofMinutes(10), Duration.ofMinutes(60), 100, Runnable::run, meterRegistry, "test.cache", ticker);
+
+        assertEquals("a-single", cache.get("a"));
+        Map<String, String> values = cache.getAllAsync(List.of("a", "b", "c")).join();
+
+        assertEquals(Map.of("a", "a-single", "b", "b-bulk", "c", "c-bulk"), values);
+        assertEquals(List.of(Set.of("b", "c")), bulkCalls);
+    }
+
+    @Test
+    void bulkLookupWithoutBulkLoaderLoadsMissingKeysOneByOne() {
+        List<String> loaded = new ArrayList<>();
+        RefreshingCache<String, String> cache = cache(key -> {
+            loaded.add(key);
+            return key + "-single";
+        }, Runnable::run);
+
+        assertEquals("a-single", cache.get("a"));
+        Map<String, String> values = cache.getAllAsync(List.of("a", "b", "c")).join();
+
+        assertEquals(Map.of("a", "a-single", "b", "b-single", "c", "c-single"), values);
+        assertEquals(List.of("a", "b", "c"), loaded);
+    }
+
+    @Test
+    void asyncLoadersStartEveryMissWithoutHoldingAThread() {
+        Map<String, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+        RefreshingCache<String, String> cache = RefreshingCache.async(
+                key -> pending.computeIfAbsent(key, ignored -> new CompletableFuture<>()),
+                null, Duration.ofMinutes(10), Duration.ofMinutes(60), 100, meterRegistry, "test.cache");
+
+        List<CompletableFuture<String>> reads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            reads.add(cache.getAsync("key-" + i));
+        }
+
+        // Todas as cargas ja sairam, embora nenhuma tenha respondido
+        assertEquals(20, pending.size());
+        assertTrue(reads.stream().noneMatch(CompletableFuture::isDone));
+        pending.forEach((key, future) -> future.complete(key + "-value"));
+        assertEquals("key-7-value", reads.get(7).join());
+        assertEquals("key-7-value", cache.get("key-7"));
+    }
+
+    private RefreshingCache<String, String> cache(Function<String, String> loader, Executor executor) {
+        return new RefreshingCache<>(loader, null, Duration.ofMinutes(10), Duration.ofMinutes(60), 100,
+                executor, meterRegistry, "test.cache", ticker);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static class DeferredExecutor implements Executor {
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private boolean defer;
+
+        @Override
+        public void execute(Runnable command) {
+            if (defer) {
+                pending.add(command);
+            } else {
+                command.run();
+            }
+        }
+
+        void runPending() {
+            while (!pending.isEmpty()) {
+                pending.poll().run();
+            }
+        }
+    }
+}
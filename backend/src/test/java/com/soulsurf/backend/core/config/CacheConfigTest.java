@@ -0,0 +1,50 @@
+package com.soulsurf.backend.core.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.soulsurf.backend.BaseIntegrationTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheConfigTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testAllFeedCachesAreBoundedAndInstrumented() {
+        for (String name : CacheConfig.DEFAULT_SPECS.keySet()) {
+            CaffeineCache cache = (CaffeineCache) cacheManager.getCache(name);
+            assertNotNull(cache, name);
+            assertTrue(cache.getNativeCache().policy().eviction().isPresent(), name + " sem limite");
+            assertTrue(cache.getNativeCache().policy().expireAfterWrite().isPresent(), name + " sem TTL");
+            assertNotNull(meterRegistry.find("cache.gets").tag("cache", name).functionCounter(), name + " sem metricas");
+        }
+        assertNull(cacheManager.getCache("unknownCache"));
+    }
+
+    @Test
+    public void testMaximumWeightCountsPostsPerEntry() {
+        Cache<Object, Object> cache = CacheConfig.buildCache("maximumWeight=50").executor(Runnable::run).build();
+
+        for (int page = 0; page < 10; page++) {
+            cache.put(page, new PageImpl<>(Collections.nCopies(20, "post")));
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.estimatedSize() <= 2);
+        assertEquals(20, CacheConfig.weightOf(new PageImpl<>(Collections.nCopies(20, "post"))));
+        assertEquals(1, CacheConfig.weightOf(new PageImpl<>(List.of())));
+    }
+}
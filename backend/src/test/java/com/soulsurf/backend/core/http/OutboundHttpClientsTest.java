@@ -0,0 +1,165 @@
+package com.soulsurf.backend.core.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundHttpClientsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Map<String, String> acceptEncoding = new ConcurrentHashMap<>();
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("outbound.default.read-timeout-ms", "3000")
+            .withProperty("outbound.default.max-in-memory-size-bytes", "1024")
+            .withProperty("outbound.pdf.max-in-memory-size-bytes", "65536")
+            .withProperty("outbound.narrow.max-connections", "1")
+            .withProperty("outbound.narrow.pending-acquire-max", "1")
+            .withProperty("outbound.h2.http2", "true")
+            .withProperty("outbound.mail.connect-timeout-ms", "1500")
+            .withProperty("outbound.mail.max-connections", "3");
+    private final OutboundHttpClients clients = new OutboundHttpClients(environment, meterRegistry);
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/large", exchange -> respond(exchange, "x".repeat(4096)));
+        server.createContext("/small", exchange -> respond(exchange, "ok"));
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(400);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, "ok");
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        clients.close();
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Test
+    void codecLimitIsSetPerPool() {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> get(client("api"), "/large"));
+        assertInstanceOf(DataBufferLimitException.class, rootCause(error));
+        assertEquals(4096, get(client("pdf"), "/large").length());
+    }
+
+    @Test
+    void clientsOfTheSamePoolShareOneConnector() {
+        assertSame(clients.connector("open-meteo"), clients.connector("open-meteo"));
+        assertNotSame(clients.connector("open-meteo"), clients.connector("apolo11"));
+        assertSame(clients.okHttpClient("mail"), clients.okHttpClient("mail"));
+    }
+
+    @Test
+    void requestsBeyondPoolAndPendingQueueFailFast() {
+        WebClient client = client("narrow");
+
+        List<String> outcomes = Flux.range(0, 3)
+                .flatMap(i -> client.get().uri("/slow").retrieve().bodyToMono(String.class)
+                        .onErrorResume(e -> Mono.just(rootCause(e).getClass().getSimpleName())), 3)
+                .collectList()
+                .block();
+
+        // 1 conexao + 1 na fila; a terceira requisicao e recusada na hora
+        assertEquals(2, outcomes.stream().filter("ok"::equals).count());
+        assertTrue(outcomes.contains("PoolAcquirePendingLimitException"), outcomes.toString());
+    }
+
+    @Test
+    void compressionAndHttp2FallBackToPlainHttp11() {
+        assertEquals("ok", get(client("h2"), "/small"));
+        assertTrue(acceptEncoding.getOrDefault("/small", "").contains("gzip"));
+    }
+
+    @Test
+    void poolMetricsArePublished() throws IOException {
+        Metrics.globalRegistry.add(meterRegistry);
+        try {
+            get(client("metered"), "/small");
+            assertNotNull(meterRegistry.find("reactor.netty.connection.provider.total.connections")
+                    .tag("name", "metered").gauge());
+        } finally {
+            Metrics.globalRegistry.remove(meterRegistry);
+        }
+
+        OkHttpClient okHttp = clients.okHttpClient("mail");
+        assertEquals(1500, okHttp.connectTimeoutMillis());
+        assertEquals(3000, okHttp.readTimeoutMillis());
+        assertEquals(3, okHttp.dispatcher().getMaxRequests());
+        try (Response response = okHttp.newCall(new Request.Builder().url(baseUrl() + "/small").build()).execute()) {
+            assertEquals("ok", response.body().string());
+        }
+        assertNotNull(meterRegistry.find("okhttp.pool.connection.count").tag("pool", "mail").gauge());
+        assertEquals(1, meterRegistry.get("okhttp.requests").tag("pool", "mail").timer().count());
+    }
+
+    private WebClient client(String pool) {
+        return WebClient.builder().apply(clients.webClient(pool)).baseUrl(baseUrl()).build();
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private String get(WebClient client, String path) {
+        return client.get().uri(path).retrieve().bodyToMono(String.class).block();
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        acceptEncoding.put(exchange.getRequestURI().getPath(), encoding != null ? encoding : "");
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (encoding != null && encoding.contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
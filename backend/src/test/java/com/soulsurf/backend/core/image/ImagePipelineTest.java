@@ -0,0 +1,209 @@
+package com.soulsurf.backend.core.image;
+
+import com.soulsurf.backend.core.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ImagePipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ImagePipeline pipeline;
+
+    @AfterEach
+    void shutdown() {
+        if (pipeline != null) {
+            pipeline.shutdown();
+        }
+    }
+
+    @Test
+    void largePhotoBecomesThreeRenditionsLargestFirst() throws IOException {
+        pipeline = pipeline(2, 8, false);
+
+        List<ImagePipeline.EncodedImage> images = pipeline.process(photo(4000, 3000, false, "png"));
+
+        assertEquals(List.of(ImageRendition.FULL, ImageRendition.FEED, ImageRendition.THUMBNAIL),
+                images.stream().map(ImagePipeline.EncodedImage::rendition).toList());
+        assertDimensions(2048, 1536, images.get(0));
+        assertDimensions(1080, 810, images.get(1));
+        assertDimensions(320, 240, images.get(2));
+        images.forEach(image -> assertEquals("image/jpeg", image.contentType()));
+        assertEquals(1, meterRegistry.get("image.pipeline.duration").timer().count());
+    }
+
+    @Test
+    void smallPhotoIsNeverUpscaled() throws IOException {
+        pipeline = pipeline(2, 8, false);
+
+        List<ImagePipeline.EncodedImage> images = pipeline.process(photo(600, 900, false, "jpeg"));
+
+        assertDimensions(600, 900, images.get(0));
+        assertDimensions(600, 900, images.get(1));
+        assertDimensions(213, 320, images.get(2));
+    }
+
+    @Test
+    void transparentSourceKeepsAlphaAsPngWithoutWebp() throws IOException {
+        pipeline = pipeline(2, 8, false);
+
+        List<ImagePipeline.EncodedImage> images = pipeline.process(photo(400, 400, true, "png"));
+
+        for (ImagePipeline.EncodedImage image : images) {
+            assertEquals("image/png", image.contentType());
+            assertTrue(read(image).getColorModel().hasAlpha());
+        }
+    }
+
+    @Test
+    void webpIsUsedWhenTheNativeEncoderLoads() throws IOException {
+        pipeline = pipeline(2, 8, true);
+        assumeTrue(pipeline.webpEnabled(), "libwebp indisponivel nesta plataforma");
+
+        List<ImagePipeline.EncodedImage> images = pipeline.process(photo(1600, 1200, true, "png"));
+
+        images.forEach(image -> assertEquals("image/webp", image.contentType()));
+        assertDimensions(1080, 810, images.get(1));
+    }
+
+    @Test
+    void exifOrientationIsAppliedBeforeScaling() throws IOException {
+        pipeline = pipeline(2, 8, false);
+        // Gravada deitada (60x30, esquerda vermelha, direita azul) com Orientation = 6
+        MockMultipartFile sideways;
+        try (InputStream input = ImagePipelineTest.class.getResourceAsStream("/fixtures/exif/orientation-6.jpg")) {
+            sideways = new MockMultipartFile("file", "retrato.jpg", "image/jpeg", input.readAllBytes());
+        }
+
+        List<ImagePipeline.EncodedImage> images = pipeline.process(sideways);
+
+        assertDimensions(30, 60, images.get(0));
+        BufferedImage upright = read(images.get(0));
+        assertTrue(isRed(upright.getRGB(15, 5)), "topo deveria ser a borda esquerda gravada");
+        assertTrue(isBlue(upright.getRGB(15, 55)), "base deveria ser a borda direita gravada");
+        assertDimensions(30, 60, images.get(2));
+    }
+
+    @Test
+    void nonImageAndOversizedUploadsAreRejected() {
+        pipeline = new ImagePipeline(1, 1, 5000, 1_000_000, 0.8f, false, meterRegistry);
+
+        assertThrows(IllegalArgumentException.class, () -> pipeline.process(
+                new MockMultipartFile("file", "onda.png", "image/png", "nao sou imagem".getBytes())));
+        assertThrows(IllegalArgumentException.class, () -> pipeline.process(photo(2000, 1000, false, "png")));
+    }
+
+    @Test
+    void saturatedPoolRefusesInsteadOfQueueingMore() throws Exception {
+        pipeline = pipeline(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MultipartFile blocking = blockingPhoto(started, release);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // Um em processamento, um na fila: o terceiro e recusado na hora
+            List<Future<List<ImagePipeline.EncodedImage>>> accepted = new ArrayList<>();
+            accepted.add(callers.submit(() -> pipeline.process(blocking)));
+            assertTrue(started.await(2, TimeUnit.SECONDS));
+            accepted.add(callers.submit(() -> pipeline.process(photo(50, 50, false, "png"))));
+            waitForQueueDepth(1);
+
+            assertThrows(ServiceBusyException.class, () -> pipeline.process(photo(50, 50, false, "png")));
+            assertEquals(1.0, meterRegistry.get("image.pipeline.rejected").counter().count());
+
+            release.countDown();
+            for (Future<List<ImagePipeline.EncodedImage>> result : accepted) {
+                assertEquals(3, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    private ImagePipeline pipeline(int threads, int queueCapacity, boolean webp) {
+        return new ImagePipeline(threads, queueCapacity, 5000, 40_000_000, 0.8f, webp, meterRegistry);
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (meterRegistry.get("image.pipeline.queue.depth").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "fila nao encheu");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void assertDimensions(int width, int height, ImagePipeline.EncodedImage image) throws IOException {
+        BufferedImage decoded = read(image);
+        assertEquals(width, decoded.getWidth());
+        assertEquals(height, decoded.getHeight());
+    }
+
+    private static boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+
+    private static boolean isBlue(int rgb) {
+        Color color = new Color(rgb);
+        return color.getBlue() > 200 && color.getRed() < 60;
+    }
+
+    private static BufferedImage read(ImagePipeline.EncodedImage image) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(image.bytes()));
+    }
+
+    private static MockMultipartFile photo(int width, int height, boolean alpha, String format) throws IOException {
+        return new MockMultipartFile("file", "onda." + format, "image/" + format, encode(width, height, alpha, format));
+    }
+
+    private static byte[] encode(int width, int height, boolean alpha, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(alpha ? new Color(0, 120, 200, 128) : new Color(0, 120, 200));
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+
+    // Segura o worker ate o teste liberar: so comeca a entregar bytes depois do release
+    private static MultipartFile blockingPhoto(CountDownLatch started, CountDownLatch release) throws IOException {
+        byte[] bytes = encode(50, 50, false, "png");
+        return new MockMultipartFile("file", "onda.png", "image/png", bytes) {
+            @Override
+            public InputStream getInputStream() {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new ByteArrayInputStream(bytes);
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.soulsurf.backend.core.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InClauseBatchesTest {
+
+    @Test
+    void splitsIntoBatchesOfAtMostMaxSizeKeepingOrder() {
+        List<Long> ids = LongStream.rangeClosed(1, 1201).boxed().toList();
+
+        List<List<Long>> batches = InClauseBatches.partition(ids);
+
+        assertEquals(List.of(500, 500, 201), batches.stream().map(List::size).toList());
+        assertEquals(1L, batches.get(0).get(0));
+        assertEquals(501L, batches.get(1).get(0));
+        assertEquals(1201L, batches.get(2).get(200));
+    }
+
+    @Test
+    void acceptsSetsAndEmptyCollections() {
+        Set<Long> ids = LongStream.rangeClosed(1, 3).boxed().collect(Collectors.toCollection(LinkedHashSet::new));
+
+        assertEquals(List.of(List.of(1L, 2L, 3L)), InClauseBatches.partition(ids));
+        assertTrue(InClauseBatches.partition(List.of()).isEmpty());
+    }
+}
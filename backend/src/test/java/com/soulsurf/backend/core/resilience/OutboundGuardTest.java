@@ -0,0 +1,211 @@
+package com.soulsurf.backend.core.resilience;
+
+import com.soulsurf.backend.core.http.OutboundHttpClients;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundGuardTest {
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+    private final BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(2)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("outbound.slow.read-timeout-ms", "200");
+    private final OutboundGuard guard = new OutboundGuard(circuitBreakers, bulkheads,
+            new OutboundHttpClients(environment, new SimpleMeterRegistry()));
+    private HttpServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/error", exchange -> respond(exchange, 503));
+        server.createContext("/missing", exchange -> respond(exchange, 404));
+        server.createContext("/slow", exchange -> {
+            sleep(600);
+            respond(exchange, 200);
+        });
+        // Cabecalhos na hora, corpo 600 ms depois
+        server.createContext("/slow-body", exchange -> {
+            hits.incrementAndGet();
+            exchange.sendResponseHeaders(200, 0);
+            exchange.getResponseBody().write("[".getBytes(StandardCharsets.UTF_8));
+            exchange.getResponseBody().flush();
+            sleep(600);
+            exchange.getResponseBody().write("]".getBytes(StandardCharsets.UTF_8));
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuitAndLaterCallsAreNotSent() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        WebClient client = client("flaky");
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WebClientResponseException.ServiceUnavailable.class, () -> get(client, "/error"));
+        }
+        RuntimeException rejected = assertThrows(RuntimeException.class, () -> get(client, "/error"));
+
+        assertTrue(OutboundGuard.isRejected(rejected));
+        assertEquals(4, hits.get());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker("flaky").getState());
+        assertEquals(1.0, meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tags("name", "flaky", "state", "open").gauge().value());
+    }
+
+    @Test
+    void clientErrorsDoNotCountAsIntegrationFailures() {
+        WebClient client = client("lookup");
+
+        for (int i = 0; i < 8; i++) {
+            assertThrows(WebClientResponseException.NotFound.class, () -> get(client, "/missing"));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.circuitBreaker("lookup").getState());
+        assertEquals(0, circuitBreakers.circuitBreaker("lookup").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheInFlightLimit() {
+        WebClient client = client("busy");
+
+        List<String> outcomes = Flux.range(0, 4)
+                .flatMap(i -> client.get().uri("/slow").retrieve().bodyToMono(String.class)
+                        .map(body -> "ok")
+                        .onErrorResume(BulkheadFullException.class, e -> Mono.just("rejected")), 4)
+                .collectList()
+                .block();
+
+        assertEquals(2, outcomes.stream().filter("ok"::equals).count());
+        assertEquals(2, outcomes.stream().filter("rejected"::equals).count());
+        assertEquals(2, hits.get());
+        // Rejeicao por lotacao nao abre o circuito
+        assertEquals(0, circuitBreakers.circuitBreaker("busy").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void bulkheadPermitIsHeldUntilTheBodyIsRead() {
+        WebClient client = client("streaming");
+
+        List<String> outcomes = Flux.range(0, 3)
+                .flatMap(i -> Mono.delay(Duration.ofMillis(i * 150L))
+                        .then(client.get().uri("/slow-body").retrieve().bodyToMono(String.class))
+                        .map(body -> "ok")
+                        .onErrorResume(BulkheadFullException.class, e -> Mono.just("rejected")), 3)
+                .collectList()
+                .block();
+
+        // A terceira chamada chega com as duas primeiras ainda lendo o corpo
+        assertEquals(2, outcomes.stream().filter("ok"::equals).count());
+        assertEquals(1, outcomes.stream().filter("rejected"::equals).count());
+        assertEquals(0, bulkheads.bulkhead("streaming").getMetrics().getMaxAllowedConcurrentCalls()
+                - bulkheads.bulkhead("streaming").getMetrics().getAvailableConcurrentCalls());
+        assertEquals(2, circuitBreakers.circuitBreaker("streaming").getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void timeoutWhileReadingTheBodyCountsAsIntegrationFailure() {
+        WebClient client = client("partial");
+
+        assertThrows(RuntimeException.class, () -> client.get().uri("/slow-body").retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofMillis(200))
+                .block());
+
+        assertEquals(1, circuitBreakers.circuitBreaker("partial").getMetrics().getNumberOfFailedCalls());
+        assertEquals(2, bulkheads.bulkhead("partial").getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void readTimeoutCountsAsIntegrationFailure() {
+        WebClient client = client("slow");
+
+        // Servidor responde em 600 ms; o read timeout da integracao e 200 ms
+        assertThrows(RuntimeException.class, () -> get(client, "/slow"));
+        assertEquals(1, circuitBreakers.circuitBreaker("slow").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void blockingCallsShareTheSameBreaker() {
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class, () -> guard.call("smtp", () -> {
+                attempts.incrementAndGet();
+                throw new IllegalStateException("falhou");
+            }));
+        }
+
+        assertThrows(CallNotPermittedException.class, () -> guard.call("smtp", attempts::incrementAndGet));
+        assertEquals(4, attempts.get());
+    }
+
+    private WebClient client(String integration) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        return WebClient.builder().apply(guard.webClient(integration)).baseUrl(baseUrl).build();
+    }
+
+    private String get(WebClient client, String path) {
+        return client.get().uri(path).retrieve().bodyToMono(String.class).block();
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        hits.incrementAndGet();
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.soulsurf.backend.core.storage;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BlobIndexTest {
+
+    private final StoredBlobRepository repository = mock(StoredBlobRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final BlobIndex blobIndex = new BlobIndex(repository, transactionManager);
+
+    @Test
+    void entryIsWrittenInItsOwnTransaction() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        blobIndex.record("abc", "abc.webp", "image/webp", 42);
+
+        verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(repository).saveAndFlush(argThat(blob -> "abc".equals(blob.getDigest())
+                && "abc.webp".equals(blob.getObjectName()) && blob.getSizeBytes() == 42));
+    }
+
+    @Test
+    void concurrentUploadOfTheSameContentIsNotAnError() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(repository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("pk_stored_blobs"));
+
+        assertDoesNotThrow(() -> blobIndex.record("abc", "abc.webp", "image/webp", 42));
+    }
+
+    @Test
+    void lookupReturnsTheStoredObjectName() {
+        StoredBlob blob = BlobIndex.blob("abc.jpg", "abc", "image/jpeg", 42, LocalDateTime.now());
+        when(repository.findByDigest("abc")).thenReturn(Optional.of(blob));
+
+        assertEquals(Optional.of("abc.jpg"), blobIndex.objectName("abc"));
+        assertEquals(Optional.empty(), blobIndex.objectName("def"));
+    }
+
+    @Test
+    void firstPageDoesNotCompareAgainstAnEmptyCursor() {
+        blobIndex.page("fotos/", null, 10);
+        blobIndex.page("fotos/", "", 10);
+        blobIndex.page("fotos/", "fotos/b.jpg", 10);
+
+        verify(repository, times(2)).findByObjectNameStartingWithOrderByObjectNameAsc("fotos/", Limit.of(10));
+        verify(repository).findByObjectNameStartingWithAndObjectNameGreaterThanOrderByObjectNameAsc(
+                "fotos/", "fotos/b.jpg", Limit.of(10));
+    }
+
+    @Test
+    void syncOnlyInsertsObjectsThatAreNotIndexed() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        LocalDateTime now = LocalDateTime.now();
+        StoredBlob known = BlobIndex.blob("a.jpg", "abc", "image/jpeg", 1, now);
+        when(repository.findAllById(List.of("a.jpg", "b.jpg"))).thenReturn(List.of(known));
+
+        int added = blobIndex.addMissing(List.of(
+                BlobIndex.blob("a.jpg", null, null, 1, now),
+                BlobIndex.blob("b.jpg", null, null, 2, now)));
+
+        assertEquals(1, added);
+        verify(repository).saveAndFlush(argThat(blob -> "b.jpg".equals(blob.getObjectName())));
+        verify(repository, never()).saveAndFlush(argThat(blob -> "a.jpg".equals(blob.getObjectName())));
+    }
+}
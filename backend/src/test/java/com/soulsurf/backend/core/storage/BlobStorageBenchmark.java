@@ -0,0 +1,102 @@
+package com.soulsurf.backend.core.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Upload and download throughput of the local backends, without OCI credentials.
+ * <p>
+ * Run from the backend directory after {@code mvn test-compile}:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.soulsurf.backend.core.storage.BlobStorageBenchmark
+ * </pre>
+ * {@code upload} is what {@link BlobStorageService#uploadFile} does after spooling;
+ * {@code download} what {@link LocalBlobController} does per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlobStorageBenchmark {
+
+    @Param({"local", "memory"})
+    public String backend;
+
+    @Param({"262144", "16777216"})
+    public int size;
+
+    private Path workDir;
+    private Path source;
+    private BlobStorage storage;
+    private final byte[] buffer = new byte[64 * 1024];
+
+    @Setup
+    public void createBackend() throws IOException {
+        workDir = Files.createTempDirectory("blob-benchmark-");
+        source = workDir.resolve("source.bin");
+        try (RandomAccessFile file = new RandomAccessFile(source.toFile(), "rw")) {
+            file.setLength(size);
+        }
+        storage = "local".equals(backend)
+                ? new LocalBlobStorage(workDir.resolve("blobs"), "http://localhost:8080/blobs/")
+                : new InMemoryBlobStorage("http://localhost/blobs/");
+        storage.put("leitura.bin", source, "application/octet-stream");
+    }
+
+    @TearDown
+    public void deleteWorkDir() throws IOException {
+        try (Stream<Path> files = Files.walk(workDir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public void upload() throws IOException {
+        storage.put("escrita.bin", source, "application/octet-stream");
+    }
+
+    @Benchmark
+    public long download() throws IOException {
+        long total = 0;
+        try (InputStream input = storage.open("leitura.bin")) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BlobStorageBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
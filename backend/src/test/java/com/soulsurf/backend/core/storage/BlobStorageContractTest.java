@@ -0,0 +1,142 @@
+package com.soulsurf.backend.core.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link BlobStorage} backend must share; each backend runs it through a subclass.
+ */
+abstract class BlobStorageContractTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BlobStorage storage;
+
+    protected abstract BlobStorage createStorage(Path tempDir) throws IOException;
+
+    @BeforeEach
+    void createBackend() throws IOException {
+        storage = createStorage(tempDir);
+    }
+
+    @Test
+    void storedBytesReadBackAndOverwrite() throws IOException {
+        put("onda.jpg", "primeira");
+        assertEquals("primeira", read("onda.jpg"));
+
+        put("onda.jpg", "segunda versao");
+        assertEquals("segunda versao", read("onda.jpg"));
+    }
+
+    @Test
+    void missingObjectIsReportedAsNoSuchFile() throws IOException {
+        assertThrows(NoSuchFileException.class, () -> storage.open("nada.jpg"));
+        assertThrows(NoSuchFileException.class, () -> storage.stat("nada.jpg"));
+        assertFalse(storage.exists("nada.jpg"));
+    }
+
+    @Test
+    void statAndHeadDoNotNeedTheWholeObject() throws IOException {
+        put("fotos/onda.jpg", "cabecalho e resto");
+
+        BlobObject stat = storage.stat("fotos/onda.jpg");
+
+        assertEquals("fotos/onda.jpg", stat.name());
+        assertEquals(17, stat.size());
+        assertEquals("cabecalho", new String(storage.readHead("fotos/onda.jpg", 9)));
+        assertEquals("cabecalho e resto", new String(storage.readHead("fotos/onda.jpg", 100)));
+    }
+
+    @Test
+    void deleteRemovesAndIsIdempotent() throws IOException {
+        put("onda.jpg", "foto");
+        assertTrue(storage.exists("onda.jpg"));
+
+        storage.delete("onda.jpg");
+        storage.delete("onda.jpg");
+
+        assertFalse(storage.exists("onda.jpg"));
+    }
+
+    @Test
+    void listingIsOrderedFilteredByPrefixAndPaged() throws IOException {
+        put("fotos/c.jpg", "c");
+        put("fotos/a.jpg", "a");
+        put("fotos/b.jpg", "bb");
+        put("videos/a.mp4", "v");
+        put("avatar.png", "p");
+
+        BlobListing first = storage.list("fotos/", null, 2);
+        BlobListing last = storage.list("fotos/", first.nextStartWith(), 2);
+
+        assertEquals(List.of("fotos/a.jpg", "fotos/b.jpg"), names(first));
+        assertEquals(2, first.objects().get(1).size());
+        assertEquals("fotos/c.jpg", first.nextStartWith());
+        assertEquals(List.of("fotos/c.jpg"), names(last));
+        assertNull(last.nextStartWith());
+        assertEquals(5, storage.list("", null, 10).objects().size());
+    }
+
+    @Test
+    void invalidNamesAreRejected() {
+        for (String name : new String[] {"", "/raiz.jpg", "../fora.jpg", "a//b.jpg", "a\\b.jpg", ".oculto"}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> storage.put(name, new ByteArrayInputStream(new byte[1]), 1, "image/jpeg"), name);
+        }
+    }
+
+    @Test
+    void shortBodyFailsWithoutLeavingAPartialObject() throws IOException {
+        assertThrows(IOException.class,
+                () -> storage.put("curto.jpg", new ByteArrayInputStream(new byte[10]), 20, "image/jpeg"));
+
+        assertFalse(storage.exists("curto.jpg"));
+        assertTrue(storage.list("", null, 10).objects().isEmpty());
+    }
+
+    @Test
+    void fileSourceMatchesStreamSource() throws IOException {
+        byte[] content = new byte[300_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        Path source = Files.write(tempDir.resolve("source.bin"), content);
+
+        storage.put("fotos/arquivo.bin", source, "application/octet-stream");
+
+        try (InputStream stored = storage.open("fotos/arquivo.bin")) {
+            assertArrayEquals(content, stored.readAllBytes());
+        }
+        assertTrue(storage.url("fotos/arquivo.bin").endsWith("/fotos/arquivo.bin"));
+    }
+
+    private void put(String name, String content) throws IOException {
+        byte[] bytes = content.getBytes();
+        storage.put(name, new ByteArrayInputStream(bytes), bytes.length, "text/plain");
+    }
+
+    private String read(String name) throws IOException {
+        try (InputStream stored = storage.open(name)) {
+            return new String(stored.readAllBytes());
+        }
+    }
+
+    private static List<String> names(BlobListing listing) {
+        List<String> names = new ArrayList<>();
+        listing.objects().forEach(object -> names.add(object.name()));
+        return names;
+    }
+}
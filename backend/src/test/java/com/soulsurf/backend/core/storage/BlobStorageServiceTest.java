@@ -0,0 +1,125 @@
+package com.soulsurf.backend.core.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BlobStorageServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlobIndex blobIndex = mock(BlobIndex.class);
+    private final Map<String, String> indexedObjects = new ConcurrentHashMap<>();
+    private final InMemoryBlobStorage storage = new InMemoryBlobStorage("http://localhost/blobs/");
+    private final BlobStorageService service = new BlobStorageService(storage, blobIndex, meterRegistry);
+
+    @BeforeEach
+    void indexInMemory() {
+        when(blobIndex.objectName(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(indexedObjects.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> indexedObjects.putIfAbsent(invocation.getArgument(0),
+                invocation.getArgument(1))).when(blobIndex).record(anyString(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    void identicalContentIsStoredOnceUnderItsDigest() throws Exception {
+        byte[] photo = "mesma foto".getBytes();
+
+        String first = service.uploadFile(new MockMultipartFile("file", "onda.JPG", "image/jpeg", photo));
+        String again = service.uploadFile(new MockMultipartFile("file", "outra-onda.jpg", "image/jpeg", photo));
+        String other = service.uploadFile(new MockMultipartFile("file", "onda.jpg", "image/jpeg", "outra".getBytes()));
+
+        // Nome e o SHA-256 do conteudo: independe do nome do arquivo e do horario do upload
+        String objectName = "ea2e621f3b1275c0b7f190d95fc70d967c40ef00f4ac0f35c310e20d0ee53bdf.jpg";
+        assertEquals("http://localhost/blobs/" + objectName, first);
+        assertEquals(first, again);
+        assertNotEquals(first, other);
+        assertEquals(objectName, indexedObjects.get(objectName.substring(0, 64)));
+        assertEquals(2, storage.list("", null, 10).objects().size());
+        try (InputStream stored = storage.open(objectName)) {
+            assertArrayEquals(photo, stored.readAllBytes());
+        }
+        assertEquals("image/jpeg", storage.contentType(objectName));
+        assertEquals(1.0, meterRegistry.get("storage.uploads").tag("result", "deduplicated").counter().count());
+        assertEquals(2.0, meterRegistry.get("storage.uploads").tag("result", "stored").counter().count());
+        assertEquals(photo.length, meterRegistry.get("storage.uploads.bytes.saved").counter().count());
+    }
+
+    @Test
+    void byteUploadsUseTheSameDigestNames() throws Exception {
+        byte[] photo = "mesma foto".getBytes();
+
+        String url = service.upload(photo, "image/jpeg", "JPG");
+
+        assertEquals(url, service.uploadFile(new MockMultipartFile("file", "onda.jpg", "image/jpeg", photo)));
+        assertTrue(storage.exists("ea2e621f3b1275c0b7f190d95fc70d967c40ef00f4ac0f35c310e20d0ee53bdf.jpg"));
+    }
+
+    @Test
+    void failedPutIsNotIndexed() {
+        BlobStorage failing = mock(BlobStorage.class, invocation -> {
+            throw new IOException("disco cheio");
+        });
+        BlobStorageService failingService = new BlobStorageService(failing, blobIndex, meterRegistry);
+
+        assertThrows(IOException.class, () -> failingService.upload("foto".getBytes(), "image/png", "png"));
+        assertTrue(indexedObjects.isEmpty());
+    }
+
+    @Test
+    void listingPagesComeFromTheIndexWithACursor() {
+        LocalDateTime now = LocalDateTime.now();
+        when(blobIndex.page(eq("fotos/"), isNull(), eq(3))).thenReturn(List.of(
+                BlobIndex.blob("fotos/a.jpg", "a", "image/jpeg", 1, now),
+                BlobIndex.blob("fotos/b.jpg", "b", "image/jpeg", 2, now),
+                BlobIndex.blob("fotos/c.jpg", null, null, 3, now)));
+        when(blobIndex.page(eq("fotos/"), eq("fotos/b.jpg"), eq(3))).thenReturn(List.of(
+                BlobIndex.blob("fotos/c.jpg", null, null, 3, now)));
+
+        StoredFilePage first = service.listFiles("fotos/", null, 2);
+        StoredFilePage last = service.listFiles("fotos/", first.nextStartAfter(), 2);
+
+        assertEquals(List.of("fotos/a.jpg", "fotos/b.jpg"), first.items().stream().map(StoredFile::name).toList());
+        assertEquals("http://localhost/blobs/fotos/a.jpg", first.items().get(0).url());
+        assertEquals("fotos/b.jpg", first.nextStartAfter());
+        assertEquals(List.of("fotos/c.jpg"), last.items().stream().map(StoredFile::name).toList());
+        assertNull(last.nextStartAfter());
+    }
+
+    @Test
+    void syncFollowsNextStartWithPastTheFirstThousandObjects() throws IOException {
+        for (int i = 0; i < 1005; i++) {
+            storage.put(String.format("%04d.jpg", i), new ByteArrayInputStream(new byte[10]), 10, "image/jpeg");
+        }
+        List<Integer> batches = new ArrayList<>();
+        when(blobIndex.addMissing(any())).thenAnswer(invocation -> {
+            int size = invocation.<Collection<?>>getArgument(0).size();
+            batches.add(size);
+            return size;
+        });
+
+        assertEquals(1005, service.syncIndexFromStorage());
+        assertEquals(List.of(1000, 5), batches);
+    }
+}
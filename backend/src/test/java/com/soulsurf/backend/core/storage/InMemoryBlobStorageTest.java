@@ -0,0 +1,26 @@
+package com.soulsurf.backend.core.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class InMemoryBlobStorageTest extends BlobStorageContractTest {
+
+    @Override
+    protected BlobStorage createStorage(Path tempDir) {
+        return new InMemoryBlobStorage("http://localhost/blobs");
+    }
+
+    @Test
+    void hasNoDirectUploads() {
+        BlobStorage storage = new InMemoryBlobStorage("http://localhost/blobs");
+
+        assertFalse(storage.supportsDirectUploads());
+        assertThrows(UnsupportedOperationException.class,
+                () -> storage.uploadUrl("onda.jpg", 10, Instant.now().plusSeconds(60)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.soulsurf.backend.core.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalBlobStorageTest extends BlobStorageContractTest {
+
+    private LocalBlobStorage storage;
+
+    @Override
+    protected BlobStorage createStorage(Path tempDir) throws IOException {
+        storage = new LocalBlobStorage(tempDir.resolve("blobs"), "http://localhost:8080/blobs");
+        return storage;
+    }
+
+    @Test
+    void objectsAreFilesUnderTheRootWithoutLeftoverTemporaries() throws IOException {
+        byte[] content = "onda".getBytes();
+        storage.put("fotos/onda.jpg", new ByteArrayInputStream(content), content.length, "image/jpeg");
+        assertThrows(IOException.class,
+                () -> storage.put("fotos/curto.jpg", new ByteArrayInputStream(content), 10, "image/jpeg"));
+
+        assertArrayEquals(content, Files.readAllBytes(storage.root().resolve("fotos/onda.jpg")));
+        try (Stream<Path> files = Files.list(storage.root().resolve("fotos"))) {
+            assertEquals(1, files.count());
+        }
+        assertEquals("http://localhost:8080/blobs/fotos/onda.jpg", storage.url("fotos/onda.jpg"));
+    }
+
+    @Test
+    void readsCrossMappedWindowBoundaries() throws IOException {
+        // Um byte alem da janela: forca o remapeamento no meio da leitura
+        Path source = Files.createFile(storage.root().resolve("grande.source"));
+        long size = LocalBlobStorage.READ_WINDOW_BYTES + 1;
+        try (var file = new java.io.RandomAccessFile(source.toFile(), "rw")) {
+            file.setLength(size);
+            file.seek(size - 1);
+            file.write(7);
+        }
+        storage.put("grande.bin", source, "application/octet-stream");
+        Files.delete(source);
+
+        long total = 0;
+        int last = -1;
+        byte[] buffer = new byte[1 << 20];
+        try (InputStream stored = storage.open("grande.bin")) {
+            int read;
+            while ((read = stored.read(buffer)) >= 0) {
+                total += read;
+                if (read > 0) {
+                    last = buffer[read - 1];
+                }
+            }
+        }
+        assertEquals(size, total);
+        assertEquals(7, last);
+    }
+
+    @Test
+    void uploadUrlIsAcceptedOnlyForItsNameLengthAndValidity() throws IOException {
+        Instant expiresAt = Instant.parse("2026-05-01T12:00:00Z");
+        assertTrue(storage.supportsDirectUploads());
+        String url = storage.uploadUrl("uploads/onda.jpg", 1024, expiresAt).url();
+
+        assertTrue(url.startsWith("http://localhost:8080/blobs/uploads/onda.jpg?length=1024&expires="
+                + expiresAt.getEpochSecond() + "&signature="), url);
+        String signature = url.substring(url.indexOf("&signature=") + "&signature=".length());
+        long expires = expiresAt.getEpochSecond();
+        Instant before = expiresAt.minusSeconds(60);
+
+        assertTrue(storage.acceptsUpload("uploads/onda.jpg", 1024, expires, signature, before));
+        assertFalse(storage.acceptsUpload("uploads/onda.jpg", 1024, expires, signature, expiresAt.plusSeconds(1)));
+        assertFalse(storage.acceptsUpload("uploads/onda.jpg", 4096, expires, signature, before));
+        assertFalse(storage.acceptsUpload("uploads/outra.jpg", 1024, expires, signature, before));
+        assertFalse(storage.acceptsUpload("uploads/onda.jpg", 1024, expires + 3600, signature, before));
+        assertFalse(storage.acceptsUpload("uploads/onda.jpg", 1024, expires, null, before));
+    }
+
+    @Test
+    void configuredSecretMakesUrlsValidAcrossInstances() throws IOException {
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        LocalBlobStorage first = new LocalBlobStorage(tempDir.resolve("a"), "http://localhost/blobs", "segredo");
+        LocalBlobStorage second = new LocalBlobStorage(tempDir.resolve("b"), "http://localhost/blobs", "segredo");
+
+        String url = first.uploadUrl("onda.jpg", 10, expiresAt).url();
+        String signature = url.substring(url.indexOf("&signature=") + "&signature=".length());
+
+        assertTrue(second.acceptsUpload("onda.jpg", 10, expiresAt.getEpochSecond(), signature, Instant.now()));
+        assertFalse(storage.acceptsUpload("onda.jpg", 10, expiresAt.getEpochSecond(), signature, Instant.now()));
+    }
+}
@@ -0,0 +1,374 @@
+package com.soulsurf.backend.core.storage;
+
+import com.oracle.bmc.model.BmcException;
+import com.oracle.bmc.objectstorage.model.CreatePreauthenticatedRequestDetails;
+import com.oracle.bmc.objectstorage.ObjectStorage;
+import com.oracle.bmc.objectstorage.model.ListObjects;
+import com.oracle.bmc.objectstorage.model.MultipartUpload;
+import com.oracle.bmc.objectstorage.model.ObjectSummary;
+import com.oracle.bmc.objectstorage.model.PreauthenticatedRequest;
+import com.oracle.bmc.objectstorage.requests.AbortMultipartUploadRequest;
+import com.oracle.bmc.objectstorage.requests.CommitMultipartUploadRequest;
+import com.oracle.bmc.objectstorage.requests.CreateMultipartUploadRequest;
+import com.oracle.bmc.objectstorage.requests.CreatePreauthenticatedRequestRequest;
+import com.oracle.bmc.objectstorage.requests.DeletePreauthenticatedRequestRequest;
+import com.oracle.bmc.objectstorage.requests.GetObjectRequest;
+import com.oracle.bmc.objectstorage.requests.ListObjectsRequest;
+import com.oracle.bmc.objectstorage.requests.PutObjectRequest;
+import com.oracle.bmc.objectstorage.requests.UploadPartRequest;
+import com.oracle.bmc.objectstorage.responses.CommitMultipartUploadResponse;
+import com.oracle.bmc.objectstorage.responses.CreateMultipartUploadResponse;
+import com.oracle.bmc.objectstorage.responses.CreatePreauthenticatedRequestResponse;
+import com.oracle.bmc.objectstorage.responses.DeletePreauthenticatedRequestResponse;
+import com.oracle.bmc.objectstorage.responses.GetObjectResponse;
+import com.oracle.bmc.objectstorage.responses.HeadObjectResponse;
+import com.oracle.bmc.objectstorage.responses.ListObjectsResponse;
+import com.oracle.bmc.objectstorage.responses.PutObjectResponse;
+import com.oracle.bmc.objectstorage.responses.UploadPartResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OciBlobStorageTest {
+
+    private static final long MIB = 1024 * 1024;
+    private static final long UPLOAD_SIZE = 48 * MIB;
+    // Bem abaixo do tamanho do arquivo: qualquer copia inteira para o heap estoura o limite
+    private static final long ALLOCATION_BUDGET = 8 * MIB;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final ObjectStorage objectStorage = mock(ObjectStorage.class);
+    private final BlobIndex blobIndex = mock(BlobIndex.class);
+    private final Map<String, String> indexedObjects = new ConcurrentHashMap<>();
+    private final Map<Long, Long> uploaderThreads = new ConcurrentHashMap<>();
+    private OciBlobStorage storage;
+    private BlobStorageService service;
+
+    @BeforeEach
+    void indexInMemory() {
+        when(blobIndex.objectName(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(indexedObjects.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> indexedObjects.putIfAbsent(invocation.getArgument(0),
+                invocation.getArgument(1))).when(blobIndex).record(anyString(), anyString(), any(), anyLong());
+    }
+
+    @AfterEach
+    void closeService() throws Exception {
+        if (storage != null) {
+            storage.close();
+        }
+    }
+
+    @Test
+    void smallObjectIsStreamedInOnePutWithoutBufferingOnHeap() throws Exception {
+        service = service(1024);
+        AtomicLong received = new AtomicLong();
+        when(objectStorage.putObject(any())).thenAnswer(invocation -> {
+            PutObjectRequest request = invocation.getArgument(0);
+            received.addAndGet(drain(request.getPutObjectBody()));
+            return PutObjectResponse.builder().eTag("etag").build();
+        });
+        Set<Path> spoolFilesBefore = spoolFiles();
+
+        long allocated = allocatedBytes(() -> service.uploadFile(new GeneratedMultipartFile("onda.png", UPLOAD_SIZE)));
+
+        assertEquals(UPLOAD_SIZE, received.get());
+        assertTrue(allocated < ALLOCATION_BUDGET, "alocou " + allocated / MIB + " MiB");
+        verify(objectStorage, never()).createMultipartUpload(any());
+        assertEquals(spoolFilesBefore, spoolFiles());
+    }
+
+    @Test
+    void largeObjectGoesAsParallelMultipartUploadWithConstantHeap() throws Exception {
+        service = service(16);
+        Map<Integer, Long> parts = new ConcurrentHashMap<>();
+        when(objectStorage.createMultipartUpload(any())).thenReturn(CreateMultipartUploadResponse.builder()
+                .multipartUpload(MultipartUpload.builder().uploadId("upload-1").build())
+                .build());
+        when(objectStorage.uploadPart(any())).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            assertTrue(Thread.currentThread().getName().startsWith("oci-upload-part-"));
+            parts.put(request.getUploadPartNum(), drain(request.getUploadPartBody()));
+            return UploadPartResponse.builder().eTag("part-" + request.getUploadPartNum()).build();
+        });
+        when(objectStorage.commitMultipartUpload(any()))
+                .thenReturn(CommitMultipartUploadResponse.builder().eTag("etag").build());
+
+        long allocated = allocatedBytes(() -> service.uploadFile(new GeneratedMultipartFile("onda.png", UPLOAD_SIZE)));
+
+        // 48 MiB em partes de 10 MiB: 4 cheias e uma de 8 MiB
+        assertEquals(Set.of(1, 2, 3, 4, 5), parts.keySet());
+        assertEquals(8 * MIB, parts.get(5));
+        assertEquals(UPLOAD_SIZE, parts.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(allocated < ALLOCATION_BUDGET, "alocou " + allocated / MIB + " MiB");
+        verify(objectStorage).commitMultipartUpload(any(CommitMultipartUploadRequest.class));
+        verify(objectStorage, never()).putObject(any());
+    }
+
+    @Test
+    void failedPartAbortsTheMultipartUploadAndRemovesTheSpoolFile() throws Exception {
+        service = service(16);
+        when(objectStorage.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder()
+                        .multipartUpload(MultipartUpload.builder().uploadId("upload-2").build())
+                        .build());
+        when(objectStorage.uploadPart(any())).thenAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            if (request.getUploadPartNum() == 3) {
+                throw new IllegalStateException("bucket indisponivel");
+            }
+            drain(request.getUploadPartBody());
+            return UploadPartResponse.builder().eTag("part").build();
+        });
+        Set<Path> spoolFilesBefore = spoolFiles();
+
+        assertThrows(RuntimeException.class,
+                () -> service.uploadFile(new GeneratedMultipartFile("onda.png", UPLOAD_SIZE)));
+
+        verify(objectStorage).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(objectStorage, never()).commitMultipartUpload(any());
+        assertEquals(spoolFilesBefore, spoolFiles());
+        // Upload que falhou nao entra no indice
+        assertTrue(indexedObjects.isEmpty());
+    }
+
+    @Test
+    void missingObjectsMapToNoSuchFileAndFalse() {
+        service = service(16);
+        BmcException notFound = new BmcException(404, "ObjectNotFound", "nao existe", "req-1");
+        when(objectStorage.getObject(any())).thenThrow(notFound);
+        when(objectStorage.headObject(any())).thenThrow(notFound);
+        when(objectStorage.deleteObject(any())).thenThrow(notFound);
+
+        assertThrows(NoSuchFileException.class, () -> storage.open("nada.jpg"));
+        assertDoesNotThrow(() -> assertFalse(storage.exists("nada.jpg")));
+        assertDoesNotThrow(() -> storage.delete("nada.jpg"));
+    }
+
+    @Test
+    void listingPassesTheCursorAndReturnsNextStartWith() {
+        service = service(16);
+        when(objectStorage.listObjects(any())).thenAnswer(invocation -> {
+            ListObjectsRequest request = invocation.getArgument(0);
+            assertEquals("fotos/", request.getPrefix());
+            assertEquals("fotos/b.jpg", request.getStart());
+            assertEquals(2, request.getLimit());
+            return ListObjectsResponse.builder()
+                    .listObjects(ListObjects.builder()
+                            .objects(List.of(
+                                    ObjectSummary.builder().name("fotos/b.jpg").size(10L).timeCreated(new Date(0)).build(),
+                                    ObjectSummary.builder().name("fotos/c.jpg").size(20L).build()))
+                            .nextStartWith("fotos/d.jpg")
+                            .build())
+                    .build();
+        });
+
+        BlobListing page = storage.list("fotos/", "fotos/b.jpg", 2);
+
+        assertEquals(List.of(new BlobObject("fotos/b.jpg", 10, Instant.EPOCH), new BlobObject("fotos/c.jpg", 20, null)),
+                page.objects());
+        assertEquals("fotos/d.jpg", page.nextStartWith());
+        assertEquals("https://objectstorage.sa-saopaulo-1.oraclecloud.com/n/namespace/b/bucket/o/fotos/b.jpg",
+                storage.url("fotos/b.jpg"));
+    }
+
+    @Test
+    void uploadUrlIsAWriteOnlyParForTheObjectAndRevokingDeletesIt() {
+        service = service(16);
+        Instant expiresAt = Instant.parse("2026-05-01T12:00:00Z");
+        when(objectStorage.createPreauthenticatedRequest(any())).thenAnswer(invocation -> {
+            CreatePreauthenticatedRequestRequest request = invocation.getArgument(0);
+            CreatePreauthenticatedRequestDetails details = request.getCreatePreauthenticatedRequestDetails();
+            assertEquals("bucket", request.getBucketName());
+            assertEquals("uploads/onda.jpg", details.getObjectName());
+            assertEquals(CreatePreauthenticatedRequestDetails.AccessType.ObjectWrite, details.getAccessType());
+            assertEquals(Date.from(expiresAt), details.getTimeExpires());
+            return CreatePreauthenticatedRequestResponse.builder()
+                    .preauthenticatedRequest(PreauthenticatedRequest.builder()
+                            .id("par-1")
+                            .accessUri("/p/token/n/namespace/b/bucket/o/uploads/onda.jpg")
+                            .build())
+                    .build();
+        });
+
+        assertTrue(storage.supportsDirectUploads());
+        UploadUrl uploadUrl = storage.uploadUrl("uploads/onda.jpg", 1024, expiresAt);
+        assertEquals(new UploadUrl(
+                "https://objectstorage.sa-saopaulo-1.oraclecloud.com/p/token/n/namespace/b/bucket/o/uploads/onda.jpg",
+                "par-1"), uploadUrl);
+
+        // PAR ja vencida: a OCI responde 404 e revogar continua sem erro
+        when(objectStorage.deletePreauthenticatedRequest(any()))
+                .thenReturn(DeletePreauthenticatedRequestResponse.builder().build())
+                .thenThrow(new BmcException(404, "NotFound", "PAR nao existe", "req-2"));
+        storage.revokeUploadUrl(uploadUrl.id());
+        storage.revokeUploadUrl(uploadUrl.id());
+        storage.revokeUploadUrl(null);
+
+        ArgumentCaptor<DeletePreauthenticatedRequestRequest> revoked =
+                ArgumentCaptor.forClass(DeletePreauthenticatedRequestRequest.class);
+        verify(objectStorage, times(2)).deletePreauthenticatedRequest(revoked.capture());
+        assertEquals("par-1", revoked.getValue().getParId());
+        assertEquals("bucket", revoked.getValue().getBucketName());
+    }
+
+    @Test
+    void statUsesHeadAndReadHeadAsksForARange() throws IOException {
+        service = service(16);
+        when(objectStorage.headObject(any())).thenReturn(HeadObjectResponse.builder()
+                .contentLength(2048L)
+                .lastModified(new Date(0))
+                .build());
+        when(objectStorage.getObject(any())).thenAnswer(invocation -> {
+            GetObjectRequest request = invocation.getArgument(0);
+            assertEquals(0L, request.getRange().getStartByte());
+            assertEquals(11L, request.getRange().getEndByte());
+            return GetObjectResponse.builder().inputStream(new ByteArrayInputStream(new byte[12])).build();
+        });
+
+        assertEquals(new BlobObject("uploads/onda.jpg", 2048, Instant.EPOCH), storage.stat("uploads/onda.jpg"));
+        assertEquals(12, storage.readHead("uploads/onda.jpg", 12).length);
+    }
+
+    // O fluxo completo: BlobStorageService faz o spool e o hash, o OciBlobStorage envia
+    private BlobStorageService service(long multipartThresholdMb) {
+        storage = new OciBlobStorage(objectStorage, "sa-saopaulo-1", "bucket", "namespace",
+                multipartThresholdMb, 10, 3);
+        return new BlobStorageService(storage, blobIndex, new SimpleMeterRegistry());
+    }
+
+    // Bytes alocados pela thread de teste e pelas threads que enviaram partes
+    private long allocatedBytes(Upload upload) throws IOException {
+        long callerThread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(callerThread);
+        upload.run();
+        long allocated = threads.getThreadAllocatedBytes(callerThread) - before;
+        for (Map.Entry<Long, Long> uploader : uploaderThreads.entrySet()) {
+            allocated += threads.getThreadAllocatedBytes(uploader.getKey()) - uploader.getValue();
+        }
+        return allocated;
+    }
+
+    private long drain(InputStream body) throws IOException {
+        long threadId = Thread.currentThread().getId();
+        uploaderThreads.putIfAbsent(threadId, threads.getThreadAllocatedBytes(threadId));
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        try (InputStream input = body) {
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    private static Set<Path> spoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(path -> path.getFileName().toString().startsWith("blob-upload-"))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Upload {
+        void run() throws IOException;
+    }
+
+    // Conteudo gerado sob demanda: nada do arquivo existe no heap do teste
+    private record GeneratedMultipartFile(String name, long size) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return name;
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/png";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return getInputStream().readAllBytes();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long position;
+
+                @Override
+                public int read() {
+                    return position < size ? (int) (position++ % 251) : -1;
+                }
+            };
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            byte[] buffer = new byte[64 * 1024];
+            try (OutputStream output = new FileOutputStream(dest)) {
+                for (long written = 0; written < size; ) {
+                    int length = (int) Math.min(buffer.length, size - written);
+                    for (int i = 0; i < length; i++) {
+                        buffer[i] = (byte) ((written + i) % 251);
+                    }
+                    output.write(buffer, 0, length);
+                    written += length;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.soulsurf.backend.core.storage;
+
+import com.soulsurf.backend.BaseIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoredBlobRepositoryTest extends BaseIntegrationTest {
+
+    @Autowired
+    private StoredBlobRepository repository;
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String name : List.of("fotos_2/c.jpg", "fotos_1/b.jpg", "fotosX1/z.jpg", "fotos_1/a.jpg", "perfil/a.jpg")) {
+            repository.save(BlobIndex.blob(name, null, null, 1, now));
+        }
+        repository.flush();
+    }
+
+    @Test
+    void keysetPagesAreOrderedByNameAndTreatPrefixLiterally() {
+        // "_" e curinga no LIKE: "fotosX1/z.jpg" nao pode aparecer no prefixo "fotos_"
+        List<StoredBlob> first = repository.findByObjectNameStartingWithOrderByObjectNameAsc("fotos_", Limit.of(2));
+        List<StoredBlob> next = repository.findByObjectNameStartingWithAndObjectNameGreaterThanOrderByObjectNameAsc(
+                "fotos_", first.get(1).getObjectName(), Limit.of(2));
+
+        assertEquals(List.of("fotos_1/a.jpg", "fotos_1/b.jpg"), names(first));
+        assertEquals(List.of("fotos_2/c.jpg"), names(next));
+    }
+
+    @Test
+    void digestIsOptionalButUnique() {
+        repository.saveAndFlush(BlobIndex.blob("abc.webp", "abc", "image/webp", 1, LocalDateTime.now()));
+
+        assertEquals("abc.webp", repository.findByDigest("abc").orElseThrow().getObjectName());
+        assertThrows(RuntimeException.class, () ->
+                repository.saveAndFlush(BlobIndex.blob("abc.jpg", "abc", "image/jpeg", 1, LocalDateTime.now())));
+    }
+
+    private static List<String> names(List<StoredBlob> blobs) {
+        return blobs.stream().map(StoredBlob::getObjectName).toList();
+    }
+}
@@ -0,0 +1,263 @@
+package com.soulsurf.backend.core.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UploadIntentServiceTest {
+
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1};
+    private static final Instant NOW = Instant.parse("2026-05-01T12:00:00Z");
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlobIndex blobIndex = mock(BlobIndex.class);
+    private final UploadIntentRepository repository = mock(UploadIntentRepository.class);
+    private final Map<String, UploadIntent> intents = new ConcurrentHashMap<>();
+    private final Map<String, StoredBlob> indexed = new ConcurrentHashMap<>();
+    private LocalBlobStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new LocalBlobStorage(tempDir, "http://localhost:8080/blobs/");
+        when(repository.save(any())).thenAnswer(invocation -> {
+            UploadIntent intent = invocation.getArgument(0);
+            intents.put(intent.getId(), intent);
+            return intent;
+        });
+        when(repository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(intents.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> intents.remove(invocation.<UploadIntent>getArgument(0).getId()))
+                .when(repository).delete(any());
+        when(repository.existsByObjectName(anyString())).thenAnswer(invocation -> intents.values().stream()
+                .anyMatch(intent -> intent.getObjectName().equals(invocation.getArgument(0))));
+        when(repository.findByExpiresAtBeforeOrderByExpiresAtAsc(any(), any())).thenAnswer(invocation -> {
+            LocalDateTime cutoff = invocation.getArgument(0);
+            return intents.values().stream().filter(intent -> intent.getExpiresAt().isBefore(cutoff)).toList();
+        });
+        when(blobIndex.addMissing(any())).thenAnswer(invocation -> {
+            Collection<StoredBlob> blobs = invocation.getArgument(0);
+            blobs.forEach(blob -> indexed.put(blob.getObjectName(), blob));
+            return blobs.size();
+        });
+    }
+
+    @Test
+    void intentIssuesASignedUrlForAFreshObjectName() throws IOException {
+        UploadIntentResponse response = service(NOW).create("surfista@soulsurf.com", "IMAGE/JPEG", 1024);
+
+        UploadIntent intent = intents.get(response.id());
+        assertTrue(intent.getObjectName().matches("uploads/[0-9a-f-]{36}\\.jpg"), intent.getObjectName());
+        assertTrue(response.uploadUrl().startsWith("http://localhost:8080/blobs/" + intent.getObjectName() + "?length=1024&"),
+                response.uploadUrl());
+        assertEquals("PUT", response.method());
+        assertEquals(Map.of("Content-Type", "image/jpeg"), response.headers());
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), response.expiresAt());
+        assertEquals("surfista@soulsurf.com", intent.getOwner());
+        assertEquals(1.0, meterRegistry.get("storage.direct.uploads").tag("result", "issued").counter().count());
+    }
+
+    @Test
+    void disallowedTypesAndSizesAreRefused() {
+        UploadIntentService service = service(NOW);
+
+        assertThrows(IllegalArgumentException.class, () -> service.create("a@b.com", "image/gif", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.create("a@b.com", "image/png", 0));
+        assertThrows(IllegalArgumentException.class, () -> service.create("a@b.com", "image/png", 10L * 1024 * 1024 + 1));
+        assertTrue(intents.isEmpty());
+    }
+
+    @Test
+    void confirmedUploadIsIndexedAndTheIntentRemoved() throws IOException {
+        UploadIntentService service = service(NOW);
+        String id = service.create("surfista@soulsurf.com", "image/jpeg", JPEG.length).id();
+        String objectName = intents.get(id).getObjectName();
+        storage.put(objectName, new ByteArrayInputStream(JPEG), JPEG.length, "image/jpeg");
+
+        StoredFile file = service.confirm("surfista@soulsurf.com", id);
+
+        assertEquals(objectName, file.name());
+        assertEquals("http://localhost:8080/blobs/" + objectName, file.url());
+        assertEquals(JPEG.length, file.size());
+        assertEquals("image/jpeg", indexed.get(objectName).getContentType());
+        assertNull(indexed.get(objectName).getDigest());
+        assertTrue(intents.isEmpty());
+        assertEquals(1.0, meterRegistry.get("storage.direct.uploads").tag("result", "confirmed").counter().count());
+    }
+
+    @Test
+    void confirmBeforeTheUploadKeepsTheIntent() throws IOException {
+        UploadIntentService service = service(NOW);
+        String id = service.create("surfista@soulsurf.com", "image/jpeg", JPEG.length).id();
+
+        assertThrows(IllegalArgumentException.class, () -> service.confirm("surfista@soulsurf.com", id));
+        assertTrue(intents.containsKey(id));
+    }
+
+    @Test
+    void uploadThatDiffersFromTheDeclarationIsDeleted() throws IOException {
+        UploadIntentService service = service(NOW);
+        String wrongSize = service.create("surfista@soulsurf.com", "image/jpeg", 100).id();
+        String wrongType = service.create("surfista@soulsurf.com", "image/png", JPEG.length).id();
+        for (String id : List.of(wrongSize, wrongType)) {
+            storage.put(intents.get(id).getObjectName(), new ByteArrayInputStream(JPEG), JPEG.length, "image/jpeg");
+        }
+        String wrongSizeObject = intents.get(wrongSize).getObjectName();
+        String wrongTypeObject = intents.get(wrongType).getObjectName();
+
+        assertThrows(IllegalArgumentException.class, () -> service.confirm("surfista@soulsurf.com", wrongSize));
+        assertThrows(IllegalArgumentException.class, () -> service.confirm("surfista@soulsurf.com", wrongType));
+
+        assertFalse(storage.exists(wrongSizeObject));
+        assertFalse(storage.exists(wrongTypeObject));
+        assertTrue(intents.isEmpty());
+        assertTrue(indexed.isEmpty());
+        assertEquals(2.0, meterRegistry.get("storage.direct.uploads").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void onlyTheOwnerConfirmsAndOnlyWithinTheGraceWindow() throws IOException {
+        String id = service(NOW).create("surfista@soulsurf.com", "image/jpeg", JPEG.length).id();
+        storage.put(intents.get(id).getObjectName(), new ByteArrayInputStream(JPEG), JPEG.length, "image/jpeg");
+
+        assertThrows(SecurityException.class, () -> service(NOW).confirm("outro@soulsurf.com", id));
+        // URL vence em 15 min, confirmacao aceita ate 1 h depois
+        UploadIntentService late = service(NOW.plus(Duration.ofMinutes(15)).plus(Duration.ofHours(1)).plusSeconds(1));
+        assertThrows(IllegalArgumentException.class, () -> late.confirm("surfista@soulsurf.com", id));
+        verify(blobIndex, never()).addMissing(any());
+    }
+
+    @Test
+    void expiredIntentsArePurgedWithTheirObject() throws IOException {
+        String expired = service(NOW).create("surfista@soulsurf.com", "image/jpeg", JPEG.length).id();
+        String expiredObject = intents.get(expired).getObjectName();
+        storage.put(expiredObject, new ByteArrayInputStream(JPEG), JPEG.length, "image/jpeg");
+        UploadIntentService later = service(NOW.plus(Duration.ofHours(2)));
+        String pending = later.create("surfista@soulsurf.com", "image/jpeg", JPEG.length).id();
+
+        assertEquals(1, later.purgeExpiredIntents());
+
+        assertFalse(storage.exists(expiredObject));
+        assertEquals(List.of(pending), List.copyOf(intents.keySet()));
+    }
+
+    @Test
+    void sameUrlCannotReplaceTheObjectOnceConfirmed() throws IOException {
+        LocalBlobController controller = new LocalBlobController(storage, repository);
+        UploadIntentService service = service(Instant.now());
+        UploadIntentResponse intent = service.create("surfista@soulsurf.com", "image/jpeg", JPEG.length);
+        byte[] other = new byte[JPEG.length];
+
+        assertEquals(200, put(controller, intent.uploadUrl(), JPEG));
+        // Escrita unica: nem antes da confirmacao a URL troca o conteudo
+        assertEquals(403, put(controller, intent.uploadUrl(), other));
+        StoredFile file = service.confirm("surfista@soulsurf.com", intent.id());
+        storage.delete(file.name());
+        assertEquals(403, put(controller, intent.uploadUrl(), other));
+
+        assertFalse(storage.exists(file.name()));
+    }
+
+    @Test
+    void rejectedUploadCannotBeSentAgainThroughItsUrl() throws IOException {
+        LocalBlobController controller = new LocalBlobController(storage, repository);
+        UploadIntentService service = service(Instant.now());
+        UploadIntentResponse intent = service.create("surfista@soulsurf.com", "image/png", JPEG.length);
+        String objectName = intents.get(intent.id()).getObjectName();
+
+        assertEquals(200, put(controller, intent.uploadUrl(), JPEG));
+        assertThrows(IllegalArgumentException.class, () -> service.confirm("surfista@soulsurf.com", intent.id()));
+
+        assertEquals(403, put(controller, intent.uploadUrl(), JPEG));
+        assertFalse(storage.exists(objectName));
+    }
+
+    @Test
+    void confirmRejectAndPurgeRevokeTheUploadUrl() throws IOException {
+        storage = spy(storage);
+        doAnswer(invocation -> new UploadUrl("https://bucket/p/" + invocation.getArgument(0),
+                "par-" + invocation.<String>getArgument(0))).when(storage).uploadUrl(anyString(), anyLong(), any());
+        UploadIntentService service = service(NOW);
+        String accepted = service.create("surfista@soulsurf.com", "image/jpeg", JPEG.length).id();
+        String rejectedIntent = service.create("surfista@soulsurf.com", "image/png", JPEG.length).id();
+        String expired = service.create("surfista@soulsurf.com", "image/jpeg", JPEG.length).id();
+        String acceptedObject = intents.get(accepted).getObjectName();
+        String rejectedObject = intents.get(rejectedIntent).getObjectName();
+        String expiredObject = intents.get(expired).getObjectName();
+        for (String objectName : List.of(acceptedObject, rejectedObject)) {
+            storage.put(objectName, new ByteArrayInputStream(JPEG), JPEG.length, "image/jpeg");
+        }
+
+        service.confirm("surfista@soulsurf.com", accepted);
+        assertThrows(IllegalArgumentException.class, () -> service.confirm("surfista@soulsurf.com", rejectedIntent));
+        service(NOW.plus(Duration.ofHours(2))).purgeExpiredIntents();
+
+        verify(storage).revokeUploadUrl("par-" + acceptedObject);
+        verify(storage).revokeUploadUrl("par-" + rejectedObject);
+        verify(storage).revokeUploadUrl("par-" + expiredObject);
+    }
+
+    @Test
+    void fileSignaturesMatchTheirTypes() {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+        byte[] webp = {'R', 'I', 'F', 'F', 1, 2, 3, 4, 'W', 'E', 'B', 'P'};
+
+        assertTrue(UploadIntentService.matchesSignature("image/jpeg", JPEG));
+        assertTrue(UploadIntentService.matchesSignature("image/png", png));
+        assertTrue(UploadIntentService.matchesSignature("image/webp", webp));
+        assertFalse(UploadIntentService.matchesSignature("image/webp", png));
+        assertFalse(UploadIntentService.matchesSignature("image/png", new byte[3]));
+    }
+
+    // PUT na URL assinada, como o cliente faria
+    private static int put(LocalBlobController controller, String uploadUrl, byte[] body) throws IOException {
+        URI uri = URI.create(uploadUrl);
+        Map<String, String> query = new HashMap<>();
+        for (String parameter : uri.getQuery().split("&")) {
+            String[] pair = parameter.split("=", 2);
+            query.put(pair[0], pair[1]);
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", uri.getPath());
+        request.setContent(body);
+        request.setContentType("image/jpeg");
+        String objectName = uri.getPath().substring("/blobs".length());
+        return controller.upload(objectName, Long.parseLong(query.get("length")), Long.parseLong(query.get("expires")),
+                query.get("signature"), request).getStatusCode().value();
+    }
+
+    private UploadIntentService service(Instant now) {
+        return new UploadIntentService(storage, blobIndex, repository, meterRegistry, 10L * 1024 * 1024,
+                Duration.ofMinutes(15), Duration.ofHours(1), Clock.fixed(now, ZoneId.of("America/Fortaleza")));
+    }
+}
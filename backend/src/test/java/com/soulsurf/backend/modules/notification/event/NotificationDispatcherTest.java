@@ -0,0 +1,195 @@
+package com.soulsurf.backend.modules.notification.event;
+
+import com.soulsurf.backend.modules.notification.entity.NotificationDeadLetter;
+import com.soulsurf.backend.modules.notification.entity.NotificationType;
+import com.soulsurf.backend.modules.notification.repository.NotificationDeadLetterRepository;
+import com.soulsurf.backend.modules.notification.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private NotificationDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private NotificationDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationDispatcher(notificationService, deadLetterRepository, transactionManager,
+                meterRegistry, 1, 1, 3, 1L, 5L, 200L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void testEventIsDeliveredOffCallerThread() {
+        List<String> threads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> threads.add(Thread.currentThread().getName()))
+                .when(notificationService).createLikeNotification("ana@example.com", 10L);
+
+        dispatcher.dispatch(NotificationEvent.like("ana@example.com", 10L));
+
+        verify(notificationService, timeout(1000)).createLikeNotification("ana@example.com", 10L);
+        assertTrue(threads.get(0).startsWith("notification-dispatch-"));
+        verifyNoInteractions(deadLetterRepository);
+    }
+
+    @Test
+    void testTransientFailureIsRetried() {
+        doThrow(new QueryTimeoutException("timeout"))
+                .doNothing()
+                .when(notificationService).createFollowNotification("ana@example.com", 2L);
+
+        dispatcher.dispatch(NotificationEvent.follow("ana@example.com", 2L));
+
+        verify(notificationService, timeout(1000).times(2)).createFollowNotification("ana@example.com", 2L);
+        verifyNoInteractions(deadLetterRepository);
+        assertEquals(1.0, meterRegistry.counter("notifications.dispatch", "outcome", "retried").count());
+    }
+
+    @Test
+    void testExhaustedRetriesGoToDeadLetterTable() {
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(notificationService).createLikeNotification("ana@example.com", 10L);
+
+        dispatcher.dispatch(NotificationEvent.like("ana@example.com", 10L));
+
+        ArgumentCaptor<NotificationDeadLetter> deadLetter = ArgumentCaptor.forClass(NotificationDeadLetter.class);
+        verify(deadLetterRepository, timeout(1000)).save(deadLetter.capture());
+        verify(notificationService, times(3)).createLikeNotification("ana@example.com", 10L);
+        assertEquals(NotificationType.LIKE, deadLetter.getValue().getType());
+        assertEquals(10L, deadLetter.getValue().getPostId());
+        assertEquals(3, deadLetter.getValue().getAttempts());
+        assertEquals("timeout", deadLetter.getValue().getLastError());
+    }
+
+    @Test
+    void testPermanentFailureIsNotRetried() {
+        doThrow(new RuntimeException("Post não encontrado"))
+                .when(notificationService).createLikeNotification("ana@example.com", 10L);
+
+        dispatcher.dispatch(NotificationEvent.like("ana@example.com", 10L));
+
+        ArgumentCaptor<NotificationDeadLetter> deadLetter = ArgumentCaptor.forClass(NotificationDeadLetter.class);
+        verify(deadLetterRepository, timeout(1000)).save(deadLetter.capture());
+        verify(notificationService, times(1)).createLikeNotification(any(), any());
+        assertEquals(1, deadLetter.getValue().getAttempts());
+    }
+
+    @Test
+    void testFullQueueDeliversOnCallerThread() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            if (Thread.currentThread().getName().startsWith("notification-dispatch-") && workerBusy.getCount() > 0) {
+                workerBusy.countDown();
+                release.await(1, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(notificationService).createFollowNotification(any(), any());
+
+        dispatcher.dispatch(NotificationEvent.follow("ana@example.com", 1L));
+        assertTrue(workerBusy.await(1, TimeUnit.SECONDS));
+        dispatcher.dispatch(NotificationEvent.follow("ana@example.com", 2L));
+        assertEquals(1.0, meterRegistry.get("notifications.dispatch.queue.depth").gauge().value());
+
+        // Fila (capacidade 1) cheia: o chamador entrega
+        dispatcher.dispatch(NotificationEvent.follow("ana@example.com", 3L));
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+
+        release.countDown();
+        verify(notificationService, timeout(1000).times(3)).createFollowNotification(any(), any());
+    }
+
+    @Test
+    void testScheduledRetryIsDeadLetteredOnShutdown() {
+        NotificationDispatcher slowRetries = new NotificationDispatcher(notificationService, deadLetterRepository,
+                transactionManager, meterRegistry, 1, 1, 3, 60_000L, 60_000L, 200L);
+        doThrow(new QueryTimeoutException("timeout"))
+                .when(notificationService).createFollowNotification("ana@example.com", 2L);
+
+        slowRetries.dispatch(NotificationEvent.follow("ana@example.com", 2L));
+        verify(notificationService, timeout(1000)).createFollowNotification("ana@example.com", 2L);
+        long deadline = System.currentTimeMillis() + 1000;
+        while (meterRegistry.counter("notifications.dispatch", "outcome", "retried").count() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        slowRetries.shutdown();
+
+        ArgumentCaptor<NotificationDeadLetter> deadLetter = ArgumentCaptor.forClass(NotificationDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertEquals(NotificationType.FOLLOW, deadLetter.getValue().getType());
+        assertEquals(2L, deadLetter.getValue().getFollowedUserId());
+        assertEquals("Retentativa cancelada no shutdown", deadLetter.getValue().getLastError());
+    }
+
+    @Test
+    void testQueuedEventsAreDeadLetteredWhenShutdownTimesOut() throws Exception {
+        CountDownLatch workerBusy = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBusy.countDown();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }).when(notificationService).createFollowNotification("ana@example.com", 1L);
+
+        dispatcher.dispatch(NotificationEvent.follow("ana@example.com", 1L));
+        assertTrue(workerBusy.await(1, TimeUnit.SECONDS));
+        dispatcher.dispatch(NotificationEvent.follow("ana@example.com", 2L));
+
+        dispatcher.shutdown();
+
+        ArgumentCaptor<NotificationDeadLetter> deadLetter = ArgumentCaptor.forClass(NotificationDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertEquals(2L, deadLetter.getValue().getFollowedUserId());
+        assertEquals(1, deadLetter.getValue().getAttempts());
+        verify(notificationService, never()).createFollowNotification("ana@example.com", 2L);
+    }
+
+    @Test
+    void testBackoffIsCappedAndJittered() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            long delay = dispatcher.backoffMillis(attempt);
+            assertTrue(delay >= 0 && delay <= 5L, "delay " + delay);
+        }
+        assertEquals(0.0, meterRegistry.get("notifications.dispatch.queue.lag").gauge().value());
+    }
+}
@@ -0,0 +1,257 @@
+package com.soulsurf.backend.modules.notification.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soulsurf.backend.modules.notification.entity.PushToken;
+import com.soulsurf.backend.modules.notification.repository.PushTokenRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExpoPushSenderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Mock
+    private PushTokenRepository pushTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HttpServer expoServer;
+    private ExecutorService serverExecutor;
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long sendLatencyMs;
+    private volatile int sendStatus = 200;
+    private volatile String receiptsBody = "{\"data\":{}}";
+
+    @BeforeEach
+    void startServer() throws IOException {
+        expoServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        expoServer.setExecutor(serverExecutor);
+        expoServer.createContext("/--/api/v2/push/send", this::handleSend);
+        expoServer.createContext("/--/api/v2/push/getReceipts",
+                exchange -> respond(exchange, 200, receiptsBody));
+        expoServer.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        expoServer.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void flushShouldSendChunksOfOneHundredAndMapTicketsBackToTokens() {
+        ExpoPushSender sender = sender(4, Duration.ofMinutes(15));
+        List<PushToken> tokens = tokens(250);
+
+        assertThat(sender.enqueue(tokens, "Soul Surf", "Nova onda", Map.of("type", "LIKE"))).isEqualTo(250);
+        int accepted = sender.flush();
+
+        assertThat(batchSizes).containsExactlyInAnyOrder(100, 100, 50);
+        // 1 a cada 50 tokens e "invalid" (DeviceNotRegistered no ticket)
+        assertThat(accepted).isEqualTo(245);
+        assertThat(sender.pendingReceiptCount()).isEqualTo(245);
+        assertThat(sender.pendingReceiptToken("ticket-ExpoPushToken[user-8]")).isEqualTo(9L);
+        assertThat(sender.pendingReceiptToken("ticket-ExpoPushToken[user-249]")).isEqualTo(250L);
+        assertThat(sender.pendingReceiptToken("ticket-ExpoPushToken[invalid-7]")).isNull();
+
+        assertThat(deactivatedIds()).containsExactlyInAnyOrder(8L, 58L, 108L, 158L, 208L);
+        verify(pushTokenRepository).markUsed(anyCollection(), any());
+    }
+
+    @Test
+    void flushShouldBoundConcurrentRequests() {
+        sendLatencyMs = 100;
+        ExpoPushSender sender = sender(3, Duration.ofMinutes(15));
+        sender.enqueue(tokens(1000), "Soul Surf", "Nova onda", Map.of());
+
+        long started = System.nanoTime();
+        sender.flush();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        assertThat(batchSizes).hasSize(10);
+        assertThat(maxInFlight.get()).isBetween(2, 3);
+        // 10 requisicoes de 100 ms em serie levariam 1 s
+        assertThat(elapsedMs).isLessThan(1000);
+    }
+
+    @Test
+    void checkReceiptsShouldDeactivateUnregisteredDevicesInBulk() {
+        ExpoPushSender sender = sender(4, Duration.ZERO);
+        sender.enqueue(tokens(3), "Soul Surf", "Nova onda", Map.of());
+        sender.flush();
+        receiptsBody = """
+                {
+                  "data": {
+                    "ticket-ExpoPushToken[user-0]": { "status": "ok" },
+                    "ticket-ExpoPushToken[user-1]": {
+                      "status": "error",
+                      "message": "Device is not registered",
+                      "details": { "error": "DeviceNotRegistered" }
+                    },
+                    "ticket-ExpoPushToken[user-2]": {
+                      "status": "error",
+                      "details": { "error": "MessageRateExceeded" }
+                    }
+                  }
+                }
+                """;
+        when(pushTokenRepository.deactivateByIds(anyCollection(), any())).thenReturn(1);
+
+        assertThat(sender.checkReceipts()).isEqualTo(1);
+
+        assertThat(deactivatedIds()).containsExactly(2L);
+        assertThat(sender.pendingReceiptCount()).isZero();
+    }
+
+    @Test
+    void failedRequestShouldNotTouchTokens() {
+        sendStatus = 500;
+        ExpoPushSender sender = sender(4, Duration.ofMinutes(15));
+        sender.enqueue(tokens(5), "Soul Surf", "Nova onda", Map.of());
+
+        assertThat(sender.flush()).isZero();
+        assertThat(sender.pendingReceiptCount()).isZero();
+        verify(pushTokenRepository, never()).markUsed(anyCollection(), any());
+    }
+
+    @Test
+    void shutdownShouldSendEverythingStillQueued() {
+        ExpoPushSender sender = sender(4, Duration.ofMinutes(15));
+        sender.enqueue(tokens(150), "Soul Surf", "Nova onda", Map.of());
+
+        sender.drainOnShutdown();
+
+        assertThat(batchSizes).containsExactlyInAnyOrder(100, 50);
+        assertThat(sender.pendingReceiptCount()).isEqualTo(147);
+    }
+
+    @Test
+    void shutdownShouldStopWhenTheIntegrationRejectsAndCountTheRestAsDropped() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // Circuito aberto: toda chamada volta para a fila sem sair
+        WebClient rejecting = WebClient.builder()
+                .baseUrl("http://127.0.0.1:" + expoServer.getAddress().getPort())
+                .filter((request, next) -> Mono.error(
+                        CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("expo"))))
+                .build();
+        ExpoPushSender sender = new ExpoPushSender(pushTokenRepository, transactionManager, meterRegistry,
+                rejecting, 4, 10_000, Duration.ofMinutes(15));
+        sender.enqueue(tokens(5), "Soul Surf", "Nova onda", Map.of());
+
+        long started = System.nanoTime();
+        sender.drainOnShutdown();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        assertThat(batchSizes).isEmpty();
+        assertThat(meterRegistry.counter("push.expo.messages", "outcome", "dropped").count()).isEqualTo(5.0);
+        assertThat(sender.flush()).isZero();
+    }
+
+    private void handleSend(HttpExchange exchange) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            JsonNode messages = MAPPER.readTree(exchange.getRequestBody().readAllBytes());
+            batchSizes.add(messages.size());
+            if (sendLatencyMs > 0) {
+                Thread.sleep(sendLatencyMs);
+            }
+            if (sendStatus != 200) {
+                respond(exchange, sendStatus, "{}");
+                return;
+            }
+
+            List<Map<String, Object>> tickets = new ArrayList<>();
+            for (JsonNode message : messages) {
+                String to = message.get("to").asText();
+                tickets.add(to.contains("invalid")
+                        ? Map.of("status", "error", "message", "Device is not registered",
+                                "details", Map.of("error", "DeviceNotRegistered"))
+                        : Map.of("status", "ok", "id", "ticket-" + to));
+            }
+            respond(exchange, 200, MAPPER.writeValueAsString(Map.of("data", tickets)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private ExpoPushSender sender(int maxConcurrency, Duration receiptDelay) {
+        String baseUrl = "http://127.0.0.1:" + expoServer.getAddress().getPort();
+        return new ExpoPushSender(pushTokenRepository, transactionManager, new SimpleMeterRegistry(),
+                WebClient.builder().baseUrl(baseUrl).build(), maxConcurrency, 10_000, receiptDelay);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> deactivatedIds() {
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(pushTokenRepository, atLeastOnce()).deactivateByIds(ids.capture(), any());
+        Set<Long> all = new HashSet<>();
+        ids.getAllValues().forEach(all::addAll);
+        return all;
+    }
+
+    private static List<PushToken> tokens(int count) {
+        List<PushToken> tokens = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PushToken token = new PushToken();
+            token.setId(i + 1L);
+            token.setToken(i % 50 == 7 ? "ExpoPushToken[invalid-" + i + "]" : "ExpoPushToken[user-" + i + "]");
+            token.setPlatform("android");
+            token.setActive(true);
+            tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -5,31 +5,18 @@ import com.soulsurf.backend.modules.notification.entity.PushToken;
 import com.soulsurf.backend.modules.notification.repository.PushTokenRepository;
 import com.soulsurf.backend.modules.user.entity.User;
 import com.soulsurf.backend.modules.user.repository.UserRepository;
-import com.sun.net.httpserver.HttpServer;
-import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.http.HttpHeaders;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientRequestException;
-import reactor.core.publisher.Mono;
-
-import java.io.IOException;
-import java.net.InetSocketAddress;
-import java.net.URI;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,14 +28,8 @@ class PushNotificationServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    private HttpServer expoServer;
-
-    @AfterEach
-    void tearDown() {
-        if (expoServer != null) {
-            expoServer.stop(0);
-        }
-    }
+    @Mock
+    private ExpoPushSender expoPushSender;
 
     @Test
     void registerDeviceTokenShouldTrimAndReactivateExistingToken() {
@@ -67,12 +48,7 @@ class PushNotificationServiceTest {
         when(userRepository.findByEmail("surfer@example.com")).thenReturn(Optional.of(user));
         when(pushTokenRepository.findByToken("ExpoPushToken[abc]")).thenReturn(Optional.of(existingToken));
 
-        PushNotificationService service = new PushNotificationService(
-                pushTokenRepository,
-                userRepository,
-                WebClient.builder().baseUrl("http://127.0.0.1").build());
-
-        service.registerDeviceToken("surfer@example.com", request);
+        service().registerDeviceToken("surfer@example.com", request);
 
         assertThat(existingToken.getUser()).isSameAs(user);
         assertThat(existingToken.getToken()).isEqualTo("ExpoPushToken[abc]");
@@ -82,126 +58,33 @@ class PushNotificationServiceTest {
     }
 
     @Test
-    void sendToUserShouldSendOneExpoRequestPerTokenAndDeactivateInvalidTokens() throws IOException {
-        AtomicReference<String> requestMethod = new AtomicReference<>();
-        AtomicReference<String> requestPath = new AtomicReference<>();
-        List<String> requestBodies = new ArrayList<>();
-
-        PushNotificationService service = serviceWithExpoResponse(
-                body -> body.contains("ExpoPushToken[invalid]")
-                        ? """
-                        {
-                          "data": [
-                            {
-                              "status": "error",
-                              "message": "Device is not registered",
-                              "details": { "error": "DeviceNotRegistered" }
-                            }
-                          ]
-                        }
-                        """
-                        : """
-                        {
-                          "data": [
-                            { "status": "ok", "id": "ticket-ok" }
-                          ]
-                        }
-                        """,
-                requestMethod,
-                requestPath,
-                requestBodies);
-
+    void sendToUserShouldQueueOneMessagePerActiveToken() {
         User recipient = new User();
         recipient.setId(7L);
         recipient.setUsername("target");
 
-        PushToken validToken = pushToken(10L, "ExpoPushToken[ok]");
-        PushToken invalidToken = pushToken(11L, "ExpoPushToken[invalid]");
-        List<PushToken> tokens = List.of(validToken, invalidToken);
-
+        List<PushToken> tokens = List.of(pushToken(10L, "ExpoPushToken[a]"), pushToken(11L, "ExpoPushToken[b]"));
         when(pushTokenRepository.findByUserAndActiveTrue(recipient)).thenReturn(tokens);
+        when(expoPushSender.enqueue(tokens, "Soul Surf", "Nova onda", Map.of("type", "LIKE"))).thenReturn(2);
 
-        int accepted = service.sendToUser(recipient, "Soul Surf", "Nova onda", Map.of("type", "LIKE"));
-
-        assertThat(accepted).isEqualTo(1);
-        assertThat(requestMethod.get()).isEqualTo("POST");
-        assertThat(requestPath.get()).isEqualTo("/--/api/v2/push/send");
-        assertThat(requestBodies).hasSize(2);
-        assertThat(requestBodies.get(0))
-                .contains("\"to\":\"ExpoPushToken[ok]\"")
-                .contains("\"title\":\"Soul Surf\"")
-                .contains("\"body\":\"Nova onda\"")
-                .contains("\"type\":\"LIKE\"")
-                .contains("\"sound\":\"default\"")
-                .contains("\"channelId\":\"default\"")
-                .contains("\"priority\":\"high\"")
-                .doesNotContain("ExpoPushToken[invalid]");
-        assertThat(requestBodies.get(1))
-                .contains("\"to\":\"ExpoPushToken[invalid]\"")
-                .doesNotContain("ExpoPushToken[ok]");
-        assertThat(validToken.getLastUsedAt()).isNotNull();
-        assertThat(invalidToken.getLastUsedAt()).isNotNull();
-        assertThat(invalidToken.isActive()).isFalse();
-        verify(pushTokenRepository).saveAll(tokens);
+        int queued = service().sendToUser(recipient, "Soul Surf", "Nova onda", Map.of("type", "LIKE"));
+
+        assertThat(queued).isEqualTo(2);
     }
 
     @Test
-    void sendToUserShouldReturnZeroWhenExpoRequestFails() {
-        WebClient failingClient = WebClient.builder()
-                .exchangeFunction(request -> Mono.error(new WebClientRequestException(
-                        new IOException("TLS handshake failed"),
-                        request.method(),
-                        URI.create("https://exp.host/--/api/v2/push/send"),
-                        HttpHeaders.EMPTY)))
-                .build();
-
-        PushNotificationService service = new PushNotificationService(
-                pushTokenRepository,
-                userRepository,
-                failingClient);
-
+    void sendToUserShouldSkipUsersWithoutTokens() {
         User recipient = new User();
         recipient.setId(7L);
-        recipient.setUsername("target");
-
-        PushToken token = pushToken(10L, "ExpoPushToken[broken]");
-        List<PushToken> tokens = List.of(token);
-
-        when(pushTokenRepository.findByUserAndActiveTrue(recipient)).thenReturn(tokens);
 
-        int accepted = service.sendToUser(recipient, "Soul Surf", "Nova onda", Map.of("type", "LIKE"));
+        when(pushTokenRepository.findByUserAndActiveTrue(recipient)).thenReturn(List.of());
 
-        assertThat(accepted).isZero();
-        assertThat(token.getLastUsedAt()).isNull();
-        verify(pushTokenRepository, never()).saveAll(tokens);
+        assertThat(service().sendToUser(recipient, "Soul Surf", "Nova onda", Map.of())).isZero();
+        verifyNoInteractions(expoPushSender);
     }
 
-    private PushNotificationService serviceWithExpoResponse(
-            Function<String, String> responseBodyFactory,
-            AtomicReference<String> requestMethod,
-            AtomicReference<String> requestPath,
-            List<String> requestBodies) throws IOException {
-        expoServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
-        expoServer.createContext("/--/api/v2/push/send", exchange -> {
-            requestMethod.set(exchange.getRequestMethod());
-            requestPath.set(exchange.getRequestURI().getPath());
-            String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-            requestBodies.add(requestBody);
-
-            String responseBody = responseBodyFactory.apply(requestBody);
-            byte[] bytes = responseBody.getBytes(StandardCharsets.UTF_8);
-            exchange.getResponseHeaders().add("Content-Type", "application/json");
-            exchange.sendResponseHeaders(200, bytes.length);
-            exchange.getResponseBody().write(bytes);
-            exchange.close();
-        });
-        expoServer.start();
-
-        String baseUrl = "http://127.0.0.1:" + expoServer.getAddress().getPort();
-        return new PushNotificationService(
-                pushTokenRepository,
-                userRepository,
-                WebClient.builder().baseUrl(baseUrl).build());
+    private PushNotificationService service() {
+        return new PushNotificationService(pushTokenRepository, userRepository, expoPushSender);
     }
 
     private static PushToken pushToken(Long id, String token) {
@@ -8,7 +8,9 @@ import com.soulsurf.backend.modules.notification.entity.Notification;
 import com.soulsurf.backend.modules.notification.entity.NotificationType;
 import com.soulsurf.backend.modules.notification.repository.NotificationRepository;
 import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.repository.LikeRepository;
 import com.soulsurf.backend.modules.post.repository.PostRepository;
+import com.soulsurf.backend.modules.post.service.LikeIngestionService;
 import com.soulsurf.backend.modules.user.entity.User;
 import com.soulsurf.backend.modules.user.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +43,12 @@ public class LikeControllerTest extends BaseIntegrationTest {
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private LikeIngestionService likeIngestionService;
+
     private String jwtToken;
     private Long testPostId;
     private User postOwner;
@@ -100,7 +108,13 @@ public class LikeControllerTest extends BaseIntegrationTest {
     public void testLikePost() throws Exception {
         mockMvc.perform(post("/api/posts/" + testPostId + "/likes")
                 .header("Authorization", "Bearer " + jwtToken))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likesCount").value(1));
+
+        mockMvc.perform(post("/api/posts/" + testPostId + "/likes")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likesCount").value(0));
     }
 
     @Test
@@ -126,8 +140,45 @@ public class LikeControllerTest extends BaseIntegrationTest {
         }
     }
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testPendingLikesAreFlushedInBatch() throws Exception {
+        try {
+            mockMvc.perform(post("/api/posts/" + testPostId + "/likes")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.likesCount").value(1));
+
+            org.assertj.core.api.Assertions.assertThat(likeRepository.count()).isZero();
+
+            likeIngestionService.flush();
+
+            org.assertj.core.api.Assertions.assertThat(likeRepository.count()).isEqualTo(1);
+            org.assertj.core.api.Assertions.assertThat(postRepository.findLikesCountById(testPostId)).contains(1L);
+
+            mockMvc.perform(get("/api/posts/" + testPostId + "/likes/status")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.liked").value(true));
+
+            mockMvc.perform(post("/api/posts/" + testPostId + "/likes")
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.likesCount").value(0));
+
+            likeIngestionService.flush();
+
+            org.assertj.core.api.Assertions.assertThat(likeRepository.count()).isZero();
+            org.assertj.core.api.Assertions.assertThat(postRepository.findLikesCountById(testPostId)).contains(0L);
+        } finally {
+            cleanDatabase();
+        }
+    }
+
     private void cleanDatabase() {
+        likeIngestionService.flush();
         notificationRepository.deleteAll();
+        likeRepository.deleteAll();
         postRepository.deleteAll();
         userRepository.deleteAll();
     }
@@ -131,4 +131,46 @@ public class PostControllerTest extends BaseIntegrationTest {
                                 .header("Authorization", "Bearer " + jwtToken))
                                 .andExpect(status().isOk());
         }
+
+        @Test
+        public void testPublicFeedKeysetPagination() throws Exception {
+                for (String descricao : new String[] { "Second session", "Third session" }) {
+                        mockMvc.perform(multipart("/api/posts")
+                                        .header("Authorization", "Bearer " + jwtToken)
+                                        .param("publico", "true")
+                                        .param("descricao", descricao))
+                                        .andExpect(status().isCreated());
+                }
+
+                MvcResult firstPage = mockMvc.perform(get("/api/posts/home")
+                                .header("Authorization", "Bearer " + jwtToken)
+                                .param("after", "")
+                                .param("size", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()").value(2))
+                                .andExpect(jsonPath("$.hasNext").value(true))
+                                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                                .andReturn();
+
+                @SuppressWarnings("unchecked")
+                Map<String, Object> firstMap = objectMapper.readValue(firstPage.getResponse().getContentAsString(), Map.class);
+                String nextCursor = (String) firstMap.get("nextCursor");
+
+                mockMvc.perform(get("/api/posts/home")
+                                .header("Authorization", "Bearer " + jwtToken)
+                                .param("after", nextCursor)
+                                .param("size", "2"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.content.length()").value(1))
+                                .andExpect(jsonPath("$.content[0].descricao").value("Amazing surf session today!"))
+                                .andExpect(jsonPath("$.hasNext").value(false));
+        }
+
+        @Test
+        public void testPublicFeedRejectsInvalidCursor() throws Exception {
+                mockMvc.perform(get("/api/posts/home")
+                                .header("Authorization", "Bearer " + jwtToken)
+                                .param("after", "not-a-cursor"))
+                                .andExpect(status().isBadRequest());
+        }
 }
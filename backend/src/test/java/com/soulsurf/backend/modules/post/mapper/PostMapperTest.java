@@ -0,0 +1,127 @@
+package com.soulsurf.backend.modules.post.mapper;
+
+import com.soulsurf.backend.modules.beach.mapper.BeachMapper;
+import com.soulsurf.backend.modules.beach.repository.BeachRepository;
+import com.soulsurf.backend.modules.comment.entity.Comment;
+import com.soulsurf.backend.modules.comment.mapper.CommentMapper;
+import com.soulsurf.backend.modules.comment.repository.CommentRepository;
+import com.soulsurf.backend.modules.post.dto.PostDTO;
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.repository.LikeRepository;
+import com.soulsurf.backend.modules.user.entity.User;
+import com.soulsurf.backend.modules.user.mapper.UserMapper;
+import com.soulsurf.backend.modules.user.repository.FollowRepository;
+import com.soulsurf.backend.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostMapperTest {
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private BeachRepository beachRepository;
+
+    private PostMapper postMapper;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        UserMapper userMapper = new UserMapper();
+        postMapper = new PostMapper(userMapper, new CommentMapper(userMapper), new BeachMapper(),
+                likeRepository, commentRepository, userRepository, followRepository, beachRepository);
+
+        author = new User();
+        author.setId(1L);
+        author.setUsername("author");
+        author.setEmail("author@example.com");
+    }
+
+    @Test
+    void testToDtosUsesGroupedQueriesForWholePage() {
+        Post first = post(10L);
+        first.setLikesCount(3L);
+        first.setCommentsCount(2L);
+        Post second = post(11L);
+        Post third = post(12L);
+
+        Comment root = comment(100L, first, null);
+        Comment reply = comment(101L, first, root);
+
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+        when(followRepository.countFollowersByUserIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 5L }));
+        when(followRepository.countFollowingByUserIds(anyCollection())).thenReturn(List.of());
+        when(likeRepository.findLikedPostIds(anyCollection(), eq("viewer@example.com"))).thenReturn(List.of(12L));
+        when(commentRepository.findByPostIdsWithUsuario(anyCollection())).thenReturn(List.of(root, reply));
+
+        List<PostDTO> dtos = postMapper.toDtos(List.of(first, second, third), "viewer@example.com");
+
+        assertEquals(List.of(10L, 11L, 12L), dtos.stream().map(PostDTO::getId).toList());
+        assertEquals(3L, dtos.get(0).getLikesCount());
+        assertEquals(0L, dtos.get(1).getLikesCount());
+        assertTrue(dtos.get(2).isLikedByCurrentUser());
+        assertFalse(dtos.get(0).isLikedByCurrentUser());
+        assertEquals(2L, dtos.get(0).getCommentsCount());
+        assertEquals(1, dtos.get(0).getComments().size());
+        assertEquals(1, dtos.get(0).getComments().get(0).getReplies().size());
+        assertEquals(5, dtos.get(0).getUsuario().getSeguidoresCount());
+
+        verify(userRepository, times(1)).findAllById(anyCollection());
+        verify(likeRepository, times(1)).findLikedPostIds(anyCollection(), any());
+        verify(commentRepository, times(1)).findByPostIdsWithUsuario(anyCollection());
+        verify(likeRepository, never()).countByPost(any());
+        verifyNoInteractions(beachRepository);
+    }
+
+    @Test
+    void testToDtosSkipsLikedQueryForAnonymousViewer() {
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(author));
+
+        List<PostDTO> dtos = postMapper.toDtos(List.of(post(10L)), null);
+
+        assertFalse(dtos.get(0).isLikedByCurrentUser());
+        verify(likeRepository, never()).findLikedPostIds(anyCollection(), any());
+    }
+
+    private Post post(Long id) {
+        Post post = new Post();
+        post.setId(id);
+        post.setDescricao("post " + id);
+        post.setUsuario(author);
+        return post;
+    }
+
+    private Comment comment(Long id, Post post, Comment parent) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setTexto("comment " + id);
+        comment.setPost(post);
+        comment.setUsuario(author);
+        comment.setParentComment(parent);
+        return comment;
+    }
+}
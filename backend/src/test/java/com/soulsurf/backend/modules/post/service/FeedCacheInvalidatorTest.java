@@ -0,0 +1,141 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.beach.entity.Beach;
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
+import com.soulsurf.backend.modules.post.dto.PostDTO;
+import com.soulsurf.backend.modules.post.dto.PostIdPage;
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FeedCacheInvalidatorTest {
+
+    private CaffeineCacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private FeedCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager("publicFeed", "followingPosts", "userPosts", "beachPosts", "postById");
+        meterRegistry = new SimpleMeterRegistry();
+        invalidator = new FeedCacheInvalidator(cacheManager, meterRegistry);
+    }
+
+    @Test
+    void testLikePatchesSharedPostWithoutTouchingFeeds() {
+        PostDTO shared = dto(10L);
+        cache("postById").put(10L, shared);
+        cache("publicFeed").put("0_20", ids(10L, 11L));
+
+        invalidator.likesChanged(10L, 7L);
+
+        // O DTO em cache pode estar sendo copiado por outra thread: e substituido, nunca alterado
+        PostDTO patched = (PostDTO) cache("postById").get(10L).get();
+        assertNotSame(shared, patched);
+        assertEquals(0L, shared.getLikesCount());
+        assertEquals(7L, patched.getLikesCount());
+        assertEquals(shared.getDescricao(), patched.getDescricao());
+        assertNotNull(cache("publicFeed").get("0_20"));
+        assertEquals(1.0, meterRegistry.counter("feed.cache.invalidations", "cache", "postById", "action", "patched").count());
+    }
+
+    @Test
+    void testDescriptionEditReplacesSharedPostWithCopy() {
+        PostDTO shared = dto(10L);
+        shared.setLikesCount(3L);
+        cache("postById").put(10L, shared);
+
+        invalidator.descriptionChanged(10L, "nova descricao");
+
+        PostDTO patched = (PostDTO) cache("postById").get(10L).get();
+        assertEquals("onda 10", shared.getDescricao());
+        assertEquals("nova descricao", patched.getDescricao());
+        assertEquals(3L, patched.getLikesCount());
+    }
+
+    @Test
+    void testCommentEvictsOnlyTheSharedPost() {
+        cache("postById").put(10L, dto(10L));
+        cache("postById").put(11L, dto(11L));
+        cache("userPosts").put("a@example.com_owner_0_20", ids(10L));
+
+        invalidator.commentsChanged(10L);
+
+        assertNull(cache("postById").get(10L));
+        assertNotNull(cache("postById").get(11L));
+        assertNotNull(cache("userPosts").get("a@example.com_owner_0_20"));
+    }
+
+    @Test
+    void testRemovedPostEvictsFeedPagesContainingIt() {
+        cache("postById").put(10L, dto(10L));
+        cache("userPosts").put("a@example.com_owner_0_20", ids(10L));
+        cache("userPosts").put("b@example.com_owner_0_20", ids(20L));
+        cache("beachPosts").put("3_all_anonymous", ids(10L));
+
+        invalidator.postRemoved(10L);
+
+        assertNull(cache("postById").get(10L));
+        assertNull(cache("userPosts").get("a@example.com_owner_0_20"));
+        assertNotNull(cache("userPosts").get("b@example.com_owner_0_20"));
+        assertNull(cache("beachPosts").get("3_all_anonymous"));
+    }
+
+    @Test
+    void testNewPostEvictsOnlyHeadPagesOfAffectedFeeds() {
+        String deepCursor = new FeedCursor(LocalDateTime.of(2024, 1, 1, 0, 0), 5L).encode();
+        cache("publicFeed").put("0_20", ids(1L));
+        cache("publicFeed").put("after_" + FeedCursor.START.encode() + "_20", ids(1L));
+        cache("publicFeed").put("after_" + deepCursor + "_20", ids(1L));
+        cache("userPosts").put("author@example.com_public_0_20", ids(1L));
+        cache("userPosts").put("other@example.com_public_0_20", ids(2L));
+        cache("beachPosts").put("3_0_20_anonymous", ids(1L));
+        cache("beachPosts").put("4_0_20_anonymous", ids(2L));
+
+        invalidator.postCreated(post("author@example.com", 3L));
+
+        assertNull(cache("publicFeed").get("0_20"));
+        assertNull(cache("publicFeed").get("after_" + FeedCursor.START.encode() + "_20"));
+        assertNotNull(cache("publicFeed").get("after_" + deepCursor + "_20"));
+        assertNull(cache("userPosts").get("author@example.com_public_0_20"));
+        assertNotNull(cache("userPosts").get("other@example.com_public_0_20"));
+        assertNull(cache("beachPosts").get("3_0_20_anonymous"));
+        assertNotNull(cache("beachPosts").get("4_0_20_anonymous"));
+    }
+
+    private Cache cache(String name) {
+        return cacheManager.getCache(name);
+    }
+
+    private PostDTO dto(Long id) {
+        PostDTO dto = new PostDTO();
+        dto.setId(id);
+        dto.setDescricao("onda " + id);
+        return dto;
+    }
+
+    private PostIdPage ids(Long... postIds) {
+        return new PostIdPage(List.of(postIds), postIds.length, false, null);
+    }
+
+    private Post post(String authorEmail, Long beachId) {
+        User author = new User();
+        author.setEmail(authorEmail);
+        Beach beach = new Beach();
+        beach.setId(beachId);
+        Post post = new Post();
+        post.setUsuario(author);
+        post.setBeach(beach);
+        post.setPublico(true);
+        return post;
+    }
+}
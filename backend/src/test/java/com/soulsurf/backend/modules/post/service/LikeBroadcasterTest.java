@@ -0,0 +1,78 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeBroadcasterTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private LikeIngestionService likeIngestionService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private LikeBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new LikeBroadcaster(postRepository, likeIngestionService, messagingTemplate);
+    }
+
+    @Test
+    void testTogglesInOneWindowBecomeOneFramePerPost() {
+        broadcaster.markChanged(10L, "ana", true);
+        broadcaster.markChanged(10L, "bia", true);
+        broadcaster.markChanged(10L, "ana", false);
+        broadcaster.markChanged(11L, "caio", true);
+        when(postRepository.findLikesCountsByIds(anyCollection()))
+                .thenReturn(List.of(new Object[] { 10L, 5L }, new Object[] { 11L, 0L }));
+        when(likeIngestionService.currentCount(10L, 5L)).thenReturn(6L);
+        when(likeIngestionService.currentCount(11L, 0L)).thenReturn(1L);
+
+        assertEquals(2, broadcaster.broadcast());
+
+        ArgumentCaptor<LikeService.LikeEvent> event = ArgumentCaptor.forClass(LikeService.LikeEvent.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/posts/10/likes"), event.capture());
+        assertEquals(6L, event.getValue().getLikesCount());
+        assertEquals("ana", event.getValue().getUsername());
+        assertFalse(event.getValue().isLiked());
+        verify(messagingTemplate).convertAndSend(eq("/topic/posts/11/likes"), any(Object.class));
+        verify(postRepository, times(1)).findLikesCountsByIds(anyCollection());
+    }
+
+    @Test
+    void testNothingIsSentWithoutChanges() {
+        assertEquals(0, broadcaster.broadcast());
+
+        verifyNoInteractions(postRepository);
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void testRemovedPostsAreSkipped() {
+        broadcaster.markChanged(10L, "ana", true);
+        when(postRepository.findLikesCountsByIds(anyCollection())).thenReturn(List.of());
+
+        assertEquals(0, broadcaster.broadcast());
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+    }
+}
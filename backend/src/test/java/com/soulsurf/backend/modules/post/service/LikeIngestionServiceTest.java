@@ -0,0 +1,248 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeIngestionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private FeedCacheInvalidator feedCacheInvalidator;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LikeIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LikeIngestionService(jdbcTemplate, postRepository, feedCacheInvalidator, transactionManager);
+    }
+
+    @Test
+    void testToggleIsVisibleBeforeFlush() {
+        assertTrue(service.toggle(10L, 1L, "ana@example.com", () -> false));
+
+        assertEquals(Boolean.TRUE, service.pendingState(10L, "ana@example.com"));
+        assertEquals(1L, service.pendingDelta(10L));
+        assertEquals(8L, service.currentCount(10L, 7L));
+        assertNull(service.pendingState(10L, "bia@example.com"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testRepeatedTogglesCollapseWithoutWrites() {
+        service.toggle(10L, 1L, "ana@example.com", () -> true);
+        service.toggle(10L, 1L, "ana@example.com", () -> {
+            throw new AssertionError("estado pendente deve ser usado");
+        });
+
+        assertEquals(Boolean.TRUE, service.pendingState(10L, "ana@example.com"));
+        assertEquals(0L, service.pendingDelta(10L));
+
+        assertEquals(0, service.flush());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertNull(service.pendingState(10L, "ana@example.com"));
+    }
+
+    @Test
+    void testFlushBatchesInsertsAndOneCounterUpdatePerPost() {
+        service.toggle(10L, 1L, "ana@example.com", () -> false);
+        service.toggle(10L, 2L, "bia@example.com", () -> false);
+        service.toggle(10L, 3L, "caio@example.com", () -> true);
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO likes"), anyList())).thenReturn(new int[] { 1, 1 });
+        when(jdbcTemplate.batchUpdate(startsWith("DELETE"), anyList())).thenReturn(new int[] { 1 });
+        when(postRepository.findLikesCountsByIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 10L, 5L }));
+
+        assertEquals(3, service.flush());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> adjustments = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE posts"), adjustments.capture());
+        assertEquals(1, adjustments.getValue().size());
+        assertArrayEquals(new Object[] { 1L, 10L }, adjustments.getValue().get(0));
+
+        verify(feedCacheInvalidator).likesChanged(10L, 6L);
+        assertEquals(0L, service.pendingDelta(10L));
+        assertNull(service.pendingState(10L, "ana@example.com"));
+        // Ate o proximo flush a contagem gravada vale mais que um valor persistido antigo
+        assertEquals(6L, service.currentCount(10L, 5L));
+    }
+
+    @Test
+    void testCountIsNotDoubledBetweenCommitAndDeltaHandover() {
+        service.toggle(10L, 1L, "ana@example.com", () -> false);
+        when(postRepository.findLikesCountsByIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 10L, 5L }));
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO likes"), anyList())).thenReturn(new int[] { 1 });
+        List<Long> seenDuringWrite = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(startsWith("UPDATE posts"), anyList())).thenAnswer(invocation -> {
+            // Leitor que ja ve likes_count = 6 no banco enquanto o delta ainda nao saiu
+            seenDuringWrite.add(service.currentCount(10L, 6L));
+            return new int[] { 1 };
+        });
+
+        service.flush();
+
+        assertEquals(List.of(6L), seenDuringWrite);
+        assertEquals(6L, service.currentCount(10L, 6L));
+        verify(feedCacheInvalidator).likesChanged(10L, 6L);
+
+        // Assentado: no flush seguinte o post volta a usar o valor persistido
+        service.flush();
+        assertEquals(6L, service.currentCount(10L, 6L));
+        assertEquals(7L, service.currentCount(10L, 7L));
+    }
+
+    @Test
+    void testCounterFollowsRowsActuallyWritten() {
+        service.toggle(10L, 1L, "ana@example.com", () -> false);
+        // Like ja existente (ou post removido): nada inserido, contador intacto
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 0 });
+
+        assertEquals(0, service.flush());
+
+        verify(jdbcTemplate, never()).batchUpdate(startsWith("UPDATE posts"), anyList());
+        assertEquals(0L, service.pendingDelta(10L));
+    }
+
+    @Test
+    void testFailedBatchFallsBackToSingleWrites() {
+        service.toggle(10L, 1L, "ana@example.com", () -> false);
+        service.toggle(11L, 1L, "ana@example.com", () -> false);
+        when(jdbcTemplate.batchUpdate(contains("INSERT INTO likes"), anyList()))
+                .thenThrow(new DataIntegrityViolationException("lote"))
+                .thenReturn(new int[] { 1 })
+                .thenThrow(new DataIntegrityViolationException("linha"));
+        when(postRepository.findLikesCountsByIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 10L, 1L }));
+
+        assertEquals(1, service.flush());
+        assertEquals(0L, service.pendingDelta(10L));
+        assertEquals(0L, service.pendingDelta(11L));
+    }
+
+    @Test
+    void testFlushWithoutTransactionKeepsStatesPendingForNextFlush() {
+        service.toggle(10L, 1L, "ana@example.com", () -> false);
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("sem conexao"))
+                .thenReturn(null);
+
+        assertThrows(CannotCreateTransactionException.class, service::flush);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(Boolean.TRUE, service.pendingState(10L, "ana@example.com"));
+        assertEquals(1L, service.pendingDelta(10L));
+
+        // Toggles depois da falha partem do estado devolvido, nao do banco
+        service.toggle(10L, 1L, "ana@example.com", () -> {
+            throw new AssertionError("estado pendente deve ser usado");
+        });
+        service.toggle(10L, 1L, "ana@example.com", () -> {
+            throw new AssertionError("estado pendente deve ser usado");
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1 });
+
+        assertEquals(1, service.flush());
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO likes"), anyList());
+        assertNull(service.pendingState(10L, "ana@example.com"));
+        assertEquals(0L, service.pendingDelta(10L));
+    }
+
+    @Test
+    void testShutdownFlushesPendingLikes() {
+        service.toggle(10L, 1L, "ana@example.com", () -> false);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1 });
+
+        service.flushOnShutdown();
+
+        verify(jdbcTemplate).batchUpdate(contains("INSERT INTO likes"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE posts"), anyList());
+        assertNull(service.pendingState(10L, "ana@example.com"));
+        assertEquals(0L, service.pendingDelta(10L));
+    }
+
+    @Test
+    void testShutdownFlushFailureDoesNotPropagate() {
+        service.toggle(10L, 1L, "ana@example.com", () -> false);
+        when(postRepository.findLikesCountsByIds(anyCollection())).thenThrow(new IllegalStateException("fechado"));
+
+        assertDoesNotThrow(service::flushOnShutdown);
+    }
+
+    @Test
+    void testConcurrentTogglesAndFlushesKeepDeltaConsistent() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            int[] rows = new int[invocation.<List<?>>getArgument(1).size()];
+            Arrays.fill(rows, 1);
+            return rows;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (!done.get()) {
+                    service.flush();
+                }
+            });
+            List<Future<?>> togglers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long userId = t;
+                togglers.add(executor.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        // Numero par de toggles por usuario: o estado final e sem like
+                        service.toggle(10L, userId, "user" + userId + "@example.com", () -> false);
+                    }
+                }));
+            }
+            for (Future<?> toggler : togglers) {
+                toggler.get(30, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        service.flush();
+        assertEquals(0L, service.pendingDelta(10L));
+        for (long userId = 0; userId < 4; userId++) {
+            assertNull(service.pendingState(10L, "user" + userId + "@example.com"));
+        }
+    }
+}
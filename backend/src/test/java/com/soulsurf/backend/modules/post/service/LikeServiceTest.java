@@ -1,5 +1,6 @@
 package com.soulsurf.backend.modules.post.service;
 
+import com.soulsurf.backend.modules.notification.event.NotificationEvent;
 import com.soulsurf.backend.modules.post.entity.Like;
 import com.soulsurf.backend.modules.post.entity.Post;
 import com.soulsurf.backend.modules.post.repository.LikeRepository;
@@ -12,12 +13,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,14 +35,20 @@ public class LikeServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private LikeIngestionService likeIngestionService;
+
+    @Mock
+    private LikeBroadcaster likeBroadcaster;
 
     @InjectMocks
     private LikeService likeService;
 
     private User testUser;
+    private User owner;
     private Post testPost;
-    private Like testLike;
 
     @BeforeEach
     void setUp() {
@@ -49,40 +57,72 @@ public class LikeServiceTest {
         testUser.setEmail("test@example.com");
         testUser.setId(1L);
 
+        owner = new User();
+        owner.setUsername("owner");
+        owner.setEmail("owner@example.com");
+        owner.setId(2L);
+
         testPost = new Post();
         testPost.setId(10L);
-        testPost.setUsuario(testUser);
-
-        testLike = new Like();
-        testLike.setId(100L);
-        testLike.setPost(testPost);
-        testLike.setUsuario(testUser);
+        testPost.setUsuario(owner);
     }
 
     @Test
     void testToggleLike_AddLike() {
         when(postRepository.findById(10L)).thenReturn(Optional.of(testPost));
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(likeRepository.findByPostAndUsuario(testPost, testUser)).thenReturn(Optional.empty());
-        when(likeRepository.save(any(Like.class))).thenReturn(testLike);
+        when(likeIngestionService.toggle(eq(10L), eq(1L), eq("test@example.com"), any())).thenReturn(true);
 
         boolean isLiked = likeService.toggleLike(10L, "test@example.com");
 
         assertTrue(isLiked);
-        verify(likeRepository, times(1)).save(any(Like.class));
-        verify(likeRepository, never()).delete(any(Like.class));
+        verify(likeBroadcaster).markChanged(10L, "testuser", true);
+        verify(eventPublisher).publishEvent(any(NotificationEvent.class));
+        verify(likeRepository, never()).save(any(Like.class));
+        verify(postRepository, never()).adjustLikesCount(any(), anyLong());
     }
 
     @Test
     void testToggleLike_RemoveLike() {
         when(postRepository.findById(10L)).thenReturn(Optional.of(testPost));
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-        when(likeRepository.findByPostAndUsuario(testPost, testUser)).thenReturn(Optional.of(testLike));
+        when(likeIngestionService.toggle(eq(10L), eq(1L), eq("test@example.com"), any())).thenReturn(false);
 
         boolean isLiked = likeService.toggleLike(10L, "test@example.com");
 
         assertFalse(isLiked);
-        verify(likeRepository, times(1)).delete(testLike);
-        verify(likeRepository, never()).save(any(Like.class));
+        verify(likeBroadcaster).markChanged(10L, "testuser", false);
+        verifyNoInteractions(eventPublisher);
+        verify(likeRepository, never()).delete(any(Like.class));
+    }
+
+    @Test
+    void testToggleLike_OwnPostDoesNotNotify() {
+        testPost.setUsuario(testUser);
+        when(postRepository.findById(10L)).thenReturn(Optional.of(testPost));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(likeIngestionService.toggle(eq(10L), eq(1L), eq("test@example.com"), any())).thenReturn(true);
+
+        likeService.toggleLike(10L, "test@example.com");
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void testCountLikesIncludesPendingToggles() {
+        when(postRepository.findLikesCountById(10L)).thenReturn(Optional.of(3L));
+        when(likeIngestionService.currentCount(10L, 3L)).thenReturn(4L);
+
+        assertEquals(4L, likeService.countLikes(10L));
+    }
+
+    @Test
+    void testHasUserLikedPrefersPendingState() {
+        when(postRepository.findById(10L)).thenReturn(Optional.of(testPost));
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(likeIngestionService.pendingState(10L, "test@example.com")).thenReturn(Boolean.FALSE);
+
+        assertFalse(likeService.hasUserLiked(10L, "test@example.com"));
+        verify(likeRepository, never()).existsByPostAndUsuario(any(), any());
     }
 }
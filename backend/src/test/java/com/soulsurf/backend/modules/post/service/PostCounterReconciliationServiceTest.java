@@ -0,0 +1,62 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.comment.repository.CommentRepository;
+import com.soulsurf.backend.modules.post.repository.LikeRepository;
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostCounterReconciliationServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private PostCounterReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new PostCounterReconciliationService(
+                postRepository, likeRepository, commentRepository, 2);
+    }
+
+    @Test
+    void testRepairsOnlyDriftedPostsAndAdvancesCursor() {
+        when(postRepository.findCounterBatch(eq(0L), any(Pageable.class))).thenReturn(List.of(
+                new Object[] { 1L, 3L, 1L },
+                new Object[] { 2L, 0L, 0L }));
+        when(likeRepository.countGroupedByPostIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 3L }, new Object[] { 2L, 4L }));
+        when(commentRepository.countGroupedByPostIds(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 1L }));
+        when(postRepository.repairCounters(2L, 0L, 0L, 4L, 0L)).thenReturn(1);
+
+        int repaired = reconciliationService.reconcileBatch();
+
+        assertEquals(1, repaired);
+        verify(postRepository, times(1)).repairCounters(anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+
+        when(postRepository.findCounterBatch(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        assertEquals(0, reconciliationService.reconcileBatch());
+        verify(postRepository).findCounterBatch(eq(2L), any(Pageable.class));
+    }
+}
@@ -0,0 +1,117 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.post.dto.PostDTO;
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.mapper.PostMapper;
+import com.soulsurf.backend.modules.post.repository.LikeRepository;
+import com.soulsurf.backend.modules.post.repository.PostRepository;
+import com.soulsurf.backend.modules.user.dto.UserDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PostReadModelTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private LikeRepository likeRepository;
+
+    @Mock
+    private PostMapper postMapper;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LikeIngestionService likeIngestionService;
+
+    private PostReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        likeIngestionService = new LikeIngestionService(jdbcTemplate, postRepository,
+                mock(FeedCacheInvalidator.class), transactionManager);
+        readModel = new PostReadModel(new CaffeineCacheManager("postById"), postRepository, likeRepository, postMapper,
+                likeIngestionService);
+    }
+
+    @Test
+    void testSharedPostIsBuiltOnceAndOverlaidPerViewer() {
+        Post first = new Post();
+        first.setId(10L);
+        Post second = new Post();
+        second.setId(11L);
+        when(postRepository.findAllById(List.of(10L, 11L))).thenReturn(List.of(first, second));
+        when(postMapper.toDtos(anyList(), isNull())).thenReturn(List.of(shared(10L), shared(11L)));
+        when(likeRepository.findLikedPostIds(anyCollection(), eq("ana@example.com"))).thenReturn(List.of(11L));
+        when(likeRepository.findLikedPostIds(anyCollection(), eq("bia@example.com"))).thenReturn(List.of(10L));
+
+        List<PostDTO> ana = readModel.assemble(List.of(10L, 11L), "ana@example.com");
+        List<PostDTO> bia = readModel.assemble(List.of(10L, 11L), "bia@example.com");
+        List<PostDTO> anonymous = readModel.assemble(List.of(11L, 10L), null);
+
+        assertEquals(List.of(false, true), ana.stream().map(PostDTO::isLikedByCurrentUser).toList());
+        assertEquals(List.of(true, false), bia.stream().map(PostDTO::isLikedByCurrentUser).toList());
+        assertEquals(List.of(11L, 10L), anonymous.stream().map(PostDTO::getId).toList());
+        assertSame(ana.get(0).getUsuario(), bia.get(0).getUsuario());
+
+        verify(postMapper, times(1)).toDtos(anyList(), any());
+        verify(likeRepository, times(2)).findLikedPostIds(anyCollection(), any());
+    }
+
+    @Test
+    void testPendingLikesAreOverlaidOnSharedPost() {
+        Post post = new Post();
+        post.setId(10L);
+        PostDTO shared = shared(10L);
+        shared.setLikesCount(4L);
+        when(postRepository.findAllById(List.of(10L))).thenReturn(List.of(post));
+        when(postMapper.toDtos(anyList(), isNull())).thenReturn(List.of(shared));
+        when(likeRepository.findLikedPostIds(anyCollection(), eq("ana@example.com"))).thenReturn(List.of());
+
+        likeIngestionService.toggle(10L, 1L, "ana@example.com", () -> false);
+
+        PostDTO ana = readModel.assemble(List.of(10L), "ana@example.com").get(0);
+        PostDTO anonymous = readModel.assemble(List.of(10L), null).get(0);
+
+        assertTrue(ana.isLikedByCurrentUser());
+        assertEquals(5L, ana.getLikesCount());
+        assertEquals(5L, anonymous.getLikesCount());
+        assertEquals(4L, readModel.findShared(10L).orElseThrow().getLikesCount());
+    }
+
+    @Test
+    void testDeletedPostsAreSkipped() {
+        when(postRepository.findAllById(List.of(10L))).thenReturn(List.of());
+        when(postMapper.toDtos(anyList(), isNull())).thenReturn(List.of());
+
+        assertTrue(readModel.assemble(List.of(10L), null).isEmpty());
+        assertTrue(readModel.findShared(10L).isEmpty());
+    }
+
+    private PostDTO shared(Long id) {
+        PostDTO dto = new PostDTO();
+        dto.setId(id);
+        dto.setUsuario(new UserDTO());
+        return dto;
+    }
+}
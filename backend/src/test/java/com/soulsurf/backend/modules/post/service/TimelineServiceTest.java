@@ -0,0 +1,168 @@
+package com.soulsurf.backend.modules.post.service;
+
+import com.soulsurf.backend.modules.post.dto.FeedCursor;
+import com.soulsurf.backend.modules.post.entity.Post;
+import com.soulsurf.backend.modules.post.entity.TimelinePullAuthor;
+import com.soulsurf.backend.modules.post.repository.TimelineEntryRepository;
+import com.soulsurf.backend.modules.post.repository.TimelinePullAuthorRepository;
+import com.soulsurf.backend.modules.user.entity.User;
+import com.soulsurf.backend.modules.user.repository.FollowRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimelineServiceTest {
+
+    @Mock
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Mock
+    private TimelinePullAuthorRepository timelinePullAuthorRepository;
+
+    @Mock
+    private FollowRepository followRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private FeedCacheInvalidator feedCacheInvalidator;
+
+    private TimelineService timelineService;
+
+    @BeforeEach
+    void setUp() {
+        timelineService = new TimelineService(timelineEntryRepository, timelinePullAuthorRepository, followRepository,
+                feedCacheInvalidator, transactionManager, 100, 2);
+    }
+
+    @Test
+    void testPostCreatedFansOutToFollowersAndInvalidatesFollowingFeeds() {
+        LocalDateTime data = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+        timelineService.onPostCreated(post(10L, 1L, data));
+
+        verify(timelineEntryRepository).fanOut(10L, 1L, data);
+        verify(feedCacheInvalidator).followingFeedsChanged();
+        // Criar um post nao conta seguidores
+        verifyNoInteractions(followRepository);
+    }
+
+    @Test
+    void testHighFollowerAuthorIsServedOnRead() {
+        when(followRepository.findUserIdsWithMoreFollowersThan(100L)).thenReturn(List.of(1L));
+        when(timelinePullAuthorRepository.findAllAuthorIds()).thenReturn(List.of());
+        timelineService.refreshPullAuthors();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TimelinePullAuthor>> promoted = ArgumentCaptor.forClass(List.class);
+        verify(timelinePullAuthorRepository).saveAll(promoted.capture());
+        assertEquals(List.of(1L), promoted.getValue().stream().map(TimelinePullAuthor::getAuthorId).toList());
+
+        assertEquals(0, timelineService.fanOut(10L, 1L, LocalDateTime.now()));
+        verify(timelineEntryRepository, never()).fanOut(anyLong(), anyLong(), any());
+
+        when(followRepository.findFollowingIds(7L)).thenReturn(List.of(1L, 2L));
+        when(timelineEntryRepository.findTimelineWithAuthorsAfter(eq(7L), anyCollection(), any(), any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        timelineService.getTimelineAfter(7L, FeedCursor.START, 20);
+
+        verify(timelineEntryRepository).findTimelineWithAuthorsAfter(eq(7L), eq(Set.of(1L)), any(), any(), any(Pageable.class));
+        verify(timelineEntryRepository, never()).findTimelineAfter(anyLong(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void testReadWithoutHighFollowerAuthorsUsesMaterializedTimelineOnly() {
+        when(timelineEntryRepository.findTimelineAfter(eq(7L), any(), any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        timelineService.getTimelineAfter(7L, FeedCursor.START, 20);
+
+        verifyNoInteractions(followRepository);
+    }
+
+    @Test
+    void testStartupLoadsPersistedPullAuthorsWithoutCountingFollowers() {
+        when(timelinePullAuthorRepository.findAllAuthorIds()).thenReturn(List.of(1L));
+        when(followRepository.findFollowingIds(5L)).thenReturn(List.of(1L, 3L));
+        when(timelineEntryRepository.findTimelineWithAuthors(eq(5L), anyCollection(), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        timelineService.loadPullAuthors();
+        timelineService.getTimeline(5L, Pageable.ofSize(20));
+
+        verify(timelineEntryRepository).findTimelineWithAuthors(eq(5L), eq(Set.of(1L)), any(Pageable.class));
+        assertEquals(0, timelineService.fanOut(10L, 1L, LocalDateTime.now()));
+        verify(followRepository, never()).findUserIdsWithMoreFollowersThan(anyLong());
+        verify(timelineEntryRepository, never()).backfillFollowers(anyLong());
+    }
+
+    @Test
+    void testDemotedAuthorIsBackfilledBeforeItsRowIsRemoved() {
+        // Rebaixado enquanto a aplicacao estava parada: so a tabela sabe que ele era fan-out-on-read
+        when(timelinePullAuthorRepository.findAllAuthorIds()).thenReturn(List.of(1L));
+        when(followRepository.findUserIdsWithMoreFollowersThan(100L)).thenReturn(List.of());
+
+        timelineService.refreshPullAuthors();
+
+        InOrder order = inOrder(timelineEntryRepository, timelinePullAuthorRepository);
+        order.verify(timelineEntryRepository).backfillFollowers(1L);
+        order.verify(timelinePullAuthorRepository).deleteById(1L);
+        verify(feedCacheInvalidator).allFollowingFeedsChanged();
+        timelineService.fanOut(10L, 1L, LocalDateTime.of(2024, 5, 1, 10, 0));
+        verify(timelineEntryRepository).fanOut(eq(10L), eq(1L), any());
+    }
+
+    @Test
+    void testDemotionsAreBackfilledInBatchesAndFailuresStayPending() {
+        when(timelinePullAuthorRepository.findAllAuthorIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(followRepository.findUserIdsWithMoreFollowersThan(100L)).thenReturn(List.of());
+        when(timelineEntryRepository.backfillFollowers(anyLong()))
+                .thenThrow(new QueryTimeoutException("lento"))
+                .thenReturn(4);
+
+        timelineService.refreshPullAuthors();
+
+        // Lote de 2: uma falha e um sucesso; o terceiro fica para a proxima execucao
+        verify(timelineEntryRepository, times(2)).backfillFollowers(anyLong());
+        verify(timelinePullAuthorRepository, times(1)).deleteById(anyLong());
+        verify(feedCacheInvalidator).allFollowingFeedsChanged();
+        for (Long authorId : List.of(1L, 2L, 3L)) {
+            timelineService.fanOut(10L, authorId, LocalDateTime.now());
+        }
+        verify(timelineEntryRepository).fanOut(eq(10L), eq(2L), any());
+        verify(timelineEntryRepository, times(1)).fanOut(anyLong(), anyLong(), any());
+    }
+
+    private Post post(Long id, Long authorId, LocalDateTime data) {
+        User author = new User();
+        author.setId(authorId);
+        Post post = new Post();
+        post.setId(id);
+        post.setUsuario(author);
+        post.setData(data);
+        return post;
+    }
+}
@@ -0,0 +1,66 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizer vs. the old regex parser over the captured Apolo11 pages.
+ * <p>
+ * Run from the backend directory after {@code mvn test-compile}:
+ * <pre>
+ * mvn exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.soulsurf.backend.modules.weather.service.ApoloTidePageParserBenchmark
+ * </pre>
+ * Use {@code -prof gc} (via JMH arguments) to compare allocation per parse as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApoloTidePageParserBenchmark {
+
+    private static final ZoneId FORTALEZA = ZoneId.of("America/Fortaleza");
+
+    @Param({"fortaleza-2026-05.html", "fortaleza-2026-05-sem-fechamento.html"})
+    public String fixture;
+
+    private String html;
+
+    @Setup
+    public void loadFixture() {
+        html = ApoloTidePageParserTest.fixture(fixture);
+    }
+
+    @Benchmark
+    public ApoloTidePageParser.TidePage tokenizer() {
+        return ApoloTidePageParser.parse(html, FORTALEZA);
+    }
+
+    @Benchmark
+    public ApoloTidePageParser.TidePage regex() {
+        return RegexTidePageParser.parse(html, FORTALEZA);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ApoloTidePageParserBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApoloTidePageParserTest {
+
+    private static final ZoneId FORTALEZA = ZoneId.of("America/Fortaleza");
+
+    @Test
+    void matchesRegexParserOnCapturedMonthPage() {
+        String html = fixture("fortaleza-2026-05.html");
+
+        ApoloTidePageParser.TidePage page = ApoloTidePageParser.parse(html, FORTALEZA);
+        ApoloTidePageParser.TidePage reference = RegexTidePageParser.parse(html, FORTALEZA);
+
+        assertEquals(120, page.events().size());
+        assertEquals(31, page.sunWindows().size());
+        assertEquals(reference.events(), page.events());
+        assertEquals(reference.sunWindows(), page.sunWindows());
+
+        SurfConditionsService.TideEvent first = page.events().get(0);
+        assertEquals("ALTA", first.type());
+        assertEquals(ZonedDateTime.of(2026, 5, 1, 1, 10, 0, 0, FORTALEZA), first.dateTime());
+        // 01/05 usa virgula decimal ("2,20m")
+        assertEquals(2.2, first.heightMeters(), 1e-9);
+        assertEquals(new SurfConditionsService.SunWindow(LocalTime.of(5, 28), LocalTime.of(17, 25)),
+                page.sunWindows().get(LocalDate.of(2026, 5, 1)));
+    }
+
+    @Test
+    void rowsWithoutClosingTagAreStillParsedInLinearTime() {
+        String html = fixture("fortaleza-2026-05-sem-fechamento.html").repeat(4);
+
+        ApoloTidePageParser.TidePage page = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> ApoloTidePageParser.parse(html, FORTALEZA));
+
+        // A regex perde todas as linhas quando o </tr> some; o tokenizer fecha a linha no proximo <tr>
+        assertEquals(120 * 4, page.events().size());
+        assertEquals(31, page.sunWindows().size());
+        assertEquals(0, RegexTidePageParser.parse(fixture("fortaleza-2026-05-sem-fechamento.html"), FORTALEZA)
+                .events().size());
+    }
+
+    @Test
+    void acceptsTagCaseQuotedClassesAndSkipsMalformedValues() {
+        String html = """
+                <TR><TD><FONT CLASS="mare_data">13/05/2026</FONT></TD>
+                  <td><font class='sol'><B>Nascente</B><br>5:31</font><font class=sol><b>Poente</b><br>17:28</font></td>
+                  <td><font class=mare_nome> alta </font><br><font class=mare>1h55</font><br><font class=mare>2.26m</font></td>
+                  <td><font class=mare_nome>BAIXA</font><br><font class=mare>25h05</font><br><font class=mare>0.28m</font></td>
+                  <td><font class=mare_nome>BAIXA</font><br><font class=mare>8h05</font><br><font class=mare>-0.1m</font></td>
+                  <td><font class=mare_nome>ALTA</font><br><font class=mare>14h21</font><br><font class=mare>n/d</font></td>
+                </TR>
+                <tr><td><font class=mare_data>99/99/2026</font></td>
+                  <td><font class=mare_nome>ALTA</font><br><font class=mare>2h00</font><br><font class=mare>2.00m</font></td>
+                </tr>
+                """;
+
+        ApoloTidePageParser.TidePage page = ApoloTidePageParser.parse(html, FORTALEZA);
+
+        assertEquals(2, page.events().size());
+        assertEquals("ALTA", page.events().get(0).type());
+        assertEquals(-0.1, page.events().get(1).heightMeters(), 1e-9);
+        assertEquals(new SurfConditionsService.SunWindow(LocalTime.of(5, 31), LocalTime.of(17, 28)),
+                page.sunWindows().get(LocalDate.of(2026, 5, 13)));
+    }
+
+    @Test
+    void emptyOrUnrelatedPageYieldsNothing() {
+        assertTrue(ApoloTidePageParser.parse("", FORTALEZA).events().isEmpty());
+        assertTrue(ApoloTidePageParser.parse(null, FORTALEZA).sunWindows().isEmpty());
+        assertTrue(ApoloTidePageParser.parse("<html><body><p>Manutencao</body>", FORTALEZA).events().isEmpty());
+    }
+
+    static String fixture(String name) {
+        try (InputStream input = ApoloTidePageParserTest.class.getResourceAsStream("/fixtures/apolo11/" + name)) {
+            if (input == null) {
+                throw new IllegalStateException("Fixture nao encontrada: " + name);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.ISO_8859_1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
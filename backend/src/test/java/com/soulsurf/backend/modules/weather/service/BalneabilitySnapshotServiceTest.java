@@ -0,0 +1,202 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soulsurf.backend.modules.weather.entity.BalneabilitySnapshotRecord;
+import com.soulsurf.backend.modules.weather.repository.BalneabilitySnapshotRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BalneabilitySnapshotServiceTest {
+
+    private static final String PAGE_HTML = """
+            <html><body>
+              <a href="/wp-content/uploads/Boletim-Fortaleza.pdf">Boletim das Praias de Fortaleza</a>
+            </body></html>
+            """;
+
+    @Mock
+    private BalneabilitySnapshotRepository snapshotRepository;
+
+    private final AtomicReference<BalneabilitySnapshotRecord> stored = new AtomicReference<>();
+    private final AtomicInteger pdfDownloads = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final Clock clock = Clock.fixed(Instant.parse("2026-05-13T12:00:00Z"), ZoneOffset.UTC);
+    private HttpServer semaceServer;
+    private volatile byte[] pdf;
+    private volatile String etag = "\"v1\"";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pdf = bulletinPdf("I", "P");
+        semaceServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        semaceServer.createContext("/semace", exchange -> respond(exchange, 200, PAGE_HTML.getBytes(StandardCharsets.UTF_8)));
+        semaceServer.createContext("/wp-content/uploads/Boletim-Fortaleza.pdf", this::handlePdf);
+        semaceServer.start();
+
+        lenient().when(snapshotRepository.findById(BalneabilitySnapshotService.SOURCE))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get()));
+        lenient().when(snapshotRepository.save(any(BalneabilitySnapshotRecord.class))).thenAnswer(invocation -> {
+            BalneabilitySnapshotRecord record = invocation.getArgument(0);
+            stored.set(record);
+            return record;
+        });
+    }
+
+    @AfterEach
+    void stopServer() {
+        semaceServer.stop(0);
+    }
+
+    @Test
+    void refreshParsesIndexesAndPersistsBulletin() {
+        BalneabilitySnapshotService service = service();
+
+        assertThat(service.refresh()).isEqualTo(BalneabilitySnapshotService.RefreshResult.UPDATED);
+
+        BalneabilitySnapshot snapshot = service.current().orElseThrow();
+        assertThat(snapshot.points()).hasSize(2);
+        assertThat(snapshot.period()).isEqualTo("11/05/2026 a 17/05/2026");
+        assertThat(snapshot.reportUrl()).endsWith("/wp-content/uploads/Boletim-Fortaleza.pdf");
+        assertThat(snapshot.match("praia de iracema")).extracting(BalneabilitySnapshot.Point::statusCode)
+                .containsExactly("I");
+        assertThat(stored.get().getContentHash()).isEqualTo(snapshot.contentHash());
+        assertThat(stored.get().getEtag()).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void unchangedBulletinIsNotDownloadedOrParsedAgain() {
+        BalneabilitySnapshotService service = service();
+        service.refresh();
+        BalneabilitySnapshot first = service.current().orElseThrow();
+
+        assertThat(service.refresh()).isEqualTo(BalneabilitySnapshotService.RefreshResult.NOT_MODIFIED);
+        assertThat(notModifiedResponses.get()).isEqualTo(1);
+
+        // Sem ETag o servidor devolve o PDF inteiro; o hash igual evita o parse
+        etag = null;
+        assertThat(service.refresh()).isEqualTo(BalneabilitySnapshotService.RefreshResult.UNCHANGED);
+
+        assertThat(pdfDownloads.get()).isEqualTo(2);
+        assertThat(service.current().orElseThrow()).isSameAs(first);
+    }
+
+    @Test
+    void changedBulletinReplacesSnapshot() throws IOException {
+        BalneabilitySnapshotService service = service();
+        service.refresh();
+
+        pdf = bulletinPdf("I", "I");
+        etag = "\"v2\"";
+
+        assertThat(service.refresh()).isEqualTo(BalneabilitySnapshotService.RefreshResult.UPDATED);
+        assertThat(service.current().orElseThrow().improperCount()).isEqualTo(2);
+        assertThat(stored.get().getEtag()).isEqualTo("\"v2\"");
+    }
+
+    @Test
+    void restartRestoresPersistedSnapshotWithoutDownloading() {
+        service().refresh();
+        int downloads = pdfDownloads.get();
+
+        BalneabilitySnapshotService restarted = service();
+        restarted.restorePersistedSnapshot();
+        restarted.refreshIfDue();
+
+        assertThat(pdfDownloads.get()).isEqualTo(downloads);
+        assertThat(restarted.current().orElseThrow().match("Praia do Futuro")).hasSize(1);
+    }
+
+    @Test
+    void failedRefreshKeepsCurrentSnapshot() {
+        BalneabilitySnapshotService service = service();
+        service.refresh();
+        semaceServer.removeContext("/semace");
+        semaceServer.createContext("/semace", exchange -> respond(exchange, 200, "<html></html>".getBytes(StandardCharsets.UTF_8)));
+
+        assertThatThrownBy(service::refresh).isInstanceOf(IllegalStateException.class);
+        assertThat(service.current()).isPresent();
+    }
+
+    private BalneabilitySnapshotService service() {
+        String baseUrl = "http://127.0.0.1:" + semaceServer.getAddress().getPort();
+        return new BalneabilitySnapshotService(baseUrl + "/semace", Duration.ofHours(1), snapshotRepository,
+                new ObjectMapper(), WebClient.create(), new SimpleMeterRegistry(), clock);
+    }
+
+    private void handlePdf(HttpExchange exchange) throws IOException {
+        String currentEtag = etag;
+        if (currentEtag != null && currentEtag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedResponses.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        pdfDownloads.incrementAndGet();
+        if (currentEtag != null) {
+            exchange.getResponseHeaders().add("ETag", currentEtag);
+        }
+        respond(exchange, 200, pdf);
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private static byte[] bulletinPdf(String iracemaStatus, String futuroStatus) throws IOException {
+        List<String> lines = List.of(
+                "Boletim das Praias de Fortaleza",
+                "Periodo: 11/05/2026 a 17/05/2026",
+                "01L - Praia de Iracema - Rua dos Tabajaras " + iracemaStatus,
+                "02L - Praia do Futuro - Barraca Crocobeach " + futuroStatus);
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream output = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(PDType1Font.HELVETICA, 11);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 700);
+                for (String line : lines) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+            document.save(output);
+            return output.toByteArray();
+        }
+    }
+}
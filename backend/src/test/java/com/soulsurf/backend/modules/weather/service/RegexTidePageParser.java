@@ -0,0 +1,78 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regex implementation the tide page used to be parsed with, kept as the reference for
+ * {@link ApoloTidePageParserTest} and the baseline of {@link ApoloTidePageParserBenchmark}.
+ */
+final class RegexTidePageParser {
+
+    private static final DateTimeFormatter APOLO_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter APOLO_TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm");
+
+    private static final Pattern TIDE_ROW_PATTERN = Pattern.compile(
+            "<tr>\\s*<td[^>]*>\\s*<font\\s+class=mare_data>\\s*(\\d{2}/\\d{2}/\\d{4}).*?</tr>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+
+    private static final Pattern TIDE_EVENT_PATTERN = Pattern.compile(
+            "<font\\s+class=mare_nome>\\s*(ALTA|BAIXA)\\s*</font>\\s*<br>\\s*"
+                    + "<font\\s+class=mare>\\s*(\\d{1,2})h(\\d{2})\\s*</font>\\s*<br>\\s*"
+                    + "<font\\s+class=mare>\\s*([-+]?\\d+(?:[\\.,]\\d+)?)m\\s*</font>",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+
+    private static final Pattern SUN_WINDOW_PATTERN = Pattern.compile(
+            "<b>\\s*Nascente\\s*</b>\\s*<BR>\\s*(\\d{1,2}:\\d{2}).*?"
+                    + "<b>\\s*Poente\\s*</b>\\s*<BR>\\s*(\\d{1,2}:\\d{2})",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL
+    );
+
+    private RegexTidePageParser() {
+    }
+
+    static ApoloTidePageParser.TidePage parse(String html, ZoneId zone) {
+        List<SurfConditionsService.TideEvent> events = new ArrayList<>();
+        Map<LocalDate, SurfConditionsService.SunWindow> sunWindows = new HashMap<>();
+
+        Matcher rowMatcher = TIDE_ROW_PATTERN.matcher(html);
+        while (rowMatcher.find()) {
+            LocalDate date = LocalDate.parse(rowMatcher.group(1), APOLO_DATE_FORMAT);
+            String rowHtml = rowMatcher.group(0);
+
+            Matcher eventMatcher = TIDE_EVENT_PATTERN.matcher(rowHtml);
+            while (eventMatcher.find()) {
+                events.add(new SurfConditionsService.TideEvent(
+                        eventMatcher.group(1).trim().toUpperCase(Locale.ROOT),
+                        ZonedDateTime.of(date, LocalTime.of(
+                                Integer.parseInt(eventMatcher.group(2)),
+                                Integer.parseInt(eventMatcher.group(3))), zone),
+                        Double.parseDouble(eventMatcher.group(4).replace(',', '.'))
+                ));
+            }
+
+            Matcher sunMatcher = SUN_WINDOW_PATTERN.matcher(rowHtml);
+            if (sunMatcher.find()) {
+                sunWindows.putIfAbsent(date, new SurfConditionsService.SunWindow(
+                        LocalTime.parse(sunMatcher.group(1), APOLO_TIME_FORMAT),
+                        LocalTime.parse(sunMatcher.group(2), APOLO_TIME_FORMAT)));
+            }
+        }
+
+        events.sort(Comparator.comparing(SurfConditionsService.TideEvent::dateTime));
+        return new ApoloTidePageParser.TidePage(events, sunWindows);
+    }
+}
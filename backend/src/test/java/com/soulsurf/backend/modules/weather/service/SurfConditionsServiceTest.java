@@ -1,16 +1,49 @@
 package com.soulsurf.backend.modules.weather.service;
 
+import com.soulsurf.backend.core.exception.UpstreamUnavailableException;
+import com.soulsurf.backend.core.http.OutboundHttpClients;
+import com.soulsurf.backend.core.resilience.OutboundGuard;
+import com.soulsurf.backend.modules.beach.entity.Beach;
+import com.soulsurf.backend.modules.beach.repository.BeachRepository;
 import com.soulsurf.backend.modules.weather.dto.SurfConditionsDTO;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class SurfConditionsServiceTest {
 
@@ -35,13 +68,27 @@ class SurfConditionsServiceTest {
             </table>
             """;
 
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final Set<String> failing = ConcurrentHashMap.newKeySet();
+
     private final SurfConditionsService service = new SurfConditionsService(
             "http://localhost/marine",
             "http://localhost/forecast",
-            "http://localhost/semace",
             "http://localhost/mare",
             "America/Fortaleza",
-            WebClient.builder()
+            0.05,
+            600_000L,
+            3_600_000L,
+            100L,
+            4_000L,
+            4_000L,
+            6_000L,
+            50,
+            WebClient.builder(),
+            outboundGuard(),
+            new SimpleMeterRegistry(),
+            mock(BalneabilitySnapshotService.class),
+            mock(BeachRepository.class)
     );
 
     @Test
@@ -69,4 +116,251 @@ class SurfConditionsServiceTest {
         assertEquals("SECANDO", tide.getCurrentStatus());
         assertEquals("Mar secando", tide.getCurrentLabel());
     }
+
+    @Test
+    void nearbyCoordinatesShareOneGridCell() {
+        SurfConditionsService.GridCell iracema = SurfConditionsService.GridCell.of(-3.7214, -38.5136, 0.05);
+        SurfConditionsService.GridCell meireles = SurfConditionsService.GridCell.of(-3.7255, -38.5019, 0.05);
+        SurfConditionsService.GridCell futuro = SurfConditionsService.GridCell.of(-3.7512, -38.4526, 0.05);
+
+        assertEquals(iracema, meireles);
+        assertNotEquals(iracema, futuro);
+        assertEquals(-3.725, iracema.centerLatitude(0.05));
+        assertEquals(-38.525, iracema.centerLongitude(0.05));
+    }
+
+    @Test
+    void balneabilityMatchesNormalizedBeachNameAgainstSnapshot() {
+        BalneabilitySnapshot snapshot = new BalneabilitySnapshot(
+                "http://localhost/semace/boletim.pdf",
+                "11/05/2026 a 17/05/2026",
+                "hash",
+                Instant.now(),
+                List.of(
+                        new BalneabilitySnapshot.Point("1L", "Praia de Iracema - Rua dos Tabajaras", "I"),
+                        new BalneabilitySnapshot.Point("2L", "PRAIA DE IRACEMA - ESPIGAO", "P"),
+                        new BalneabilitySnapshot.Point("3L", "Praia do Futuro - Barraca Crocobeach", "P"),
+                        new BalneabilitySnapshot.Point("4L", "Meireles - Aterro", "EA")
+                ));
+
+        SurfConditionsDTO.BalneabilityDTO iracema = service.buildBalneabilityDto("Praia de Iracéma", snapshot);
+        SurfConditionsDTO.BalneabilityDTO futuro = service.buildBalneabilityDto("praia do futuro", snapshot);
+        SurfConditionsDTO.BalneabilityDTO unknown = service.buildBalneabilityDto("Cumbuco", snapshot);
+
+        assertEquals(2, iracema.getMatchedPoints().size());
+        assertEquals("IMPROPRIA", iracema.getOverallStatus());
+        assertEquals("PROPRIA", futuro.getOverallStatus());
+        assertEquals("NAO_ENCONTRADO", unknown.getOverallStatus());
+        assertEquals(4, iracema.getTotalPoints());
+        assertEquals(2, iracema.getProperPoints());
+        assertEquals(1, iracema.getAlertPoints());
+        assertEquals(1, iracema.getImproperPoints());
+        assertTrue(snapshot.match("PRAIA DE IRACEMA") == snapshot.match("praia de iracema"));
+    }
+
+    @Test
+    void upstreamCallsRunConcurrentlySoLatencyIsTheSlowestSource() throws Exception {
+        Map<String, Long> delays = new ConcurrentHashMap<>(Map.of("/marine", 0L, "/forecast", 0L, "/mare", 0L));
+        HttpServer server = upstreamServer(delays);
+        try {
+            // Aquece o Netty do WebClient antes de medir
+            upstreamService(server, 6_000L).getSurfConditions(-3.72, -38.51, null);
+
+            delays.putAll(Map.of("/marine", 600L, "/forecast", 600L, "/mare", 600L));
+            SurfConditionsService upstreamService = upstreamService(server, 6_000L);
+
+            long startedAt = System.nanoTime();
+            SurfConditionsDTO conditions = upstreamService.getSurfConditions(-3.72, -38.51, "Iracema");
+            long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+
+            assertEquals(1.2, conditions.getMarine().getWaveHeightMeters());
+            assertEquals(14.0, conditions.getWind().getWindSpeedKmh());
+            assertEquals("INDISPONIVEL", conditions.getBalneability().getOverallStatus());
+            assertTrue(elapsedMs >= 600, "elapsed " + elapsedMs + " ms");
+            assertTrue(elapsedMs < 1_200, "chamadas sequenciais levariam 1800 ms; levou " + elapsedMs + " ms");
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    void slowTideSourceTimesOutIntoUnavailableTide() throws Exception {
+        HttpServer server = upstreamServer(new ConcurrentHashMap<>(Map.of("/marine", 0L, "/forecast", 0L, "/mare", 3_000L)));
+        try {
+            long startedAt = System.nanoTime();
+            SurfConditionsDTO conditions = upstreamService(server, 300L).getSurfConditions(-3.72, -38.51, null);
+            long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+
+            assertEquals("INDISPONIVEL", conditions.getTide().getCurrentStatus());
+            assertEquals(1.2, conditions.getMarine().getWaveHeightMeters());
+            assertTrue(elapsedMs < 2_000, "elapsed " + elapsedMs + " ms");
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    void batchFetchesEveryMissingCellWithOneMarineAndOneForecastCall() throws Exception {
+        HttpServer server = upstreamServer(new ConcurrentHashMap<>(Map.of("/marine", 0L, "/forecast", 0L, "/mare", 0L)));
+        try {
+            BeachRepository beachRepository = mock(BeachRepository.class);
+            when(beachRepository.findAllById(any())).thenReturn(List.of(
+                    beach(1L, "Praia de Iracema", -3.7214, -38.5136),
+                    beach(2L, "Meireles", -3.7255, -38.5019),
+                    beach(3L, "Praia do Futuro", -3.7512, -38.4526),
+                    beach(4L, "Sem coordenadas", null, null)));
+            SurfConditionsService upstreamService = upstreamService(server, 6_000L, beachRepository);
+
+            List<SurfConditionsDTO> conditions = upstreamService.getSurfConditionsBatch(List.of(3L, 1L, 2L, 4L, 99L));
+
+            assertEquals(List.of(3L, 1L, 2L), conditions.stream().map(dto -> dto.getLocation().getBeachId()).toList());
+            // Iracema e Meireles estao na mesma celula: duas celulas, um unico par de chamadas
+            assertEquals(1, requests.get("/marine").get());
+            assertEquals(1, requests.get("/forecast").get());
+            assertEquals(conditions.get(1).getMarine(), conditions.get(2).getMarine());
+            assertNotEquals(conditions.get(0).getMarine(), conditions.get(1).getMarine());
+            assertNotNull(conditions.get(0).getSurfQuality());
+
+            upstreamService.getSurfConditionsBatch(List.of(1L, 3L));
+            assertEquals(1, requests.get("/marine").get());
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    void marineOutageStillScoresWindAndRecoversInBackground() throws Exception {
+        failing.add("/marine");
+        HttpServer server = upstreamServer(new ConcurrentHashMap<>(Map.of("/marine", 0L, "/forecast", 0L, "/mare", 0L)));
+        try {
+            SurfConditionsService upstreamService = upstreamService(server, 6_000L);
+
+            SurfConditionsDTO conditions = upstreamService.getSurfConditions(-3.72, -38.51, "Iracema");
+
+            assertFalse(conditions.getMarine().getAvailable());
+            assertEquals(null, conditions.getMarine().getWaveHeightMeters());
+            assertTrue(conditions.getWind().getAvailable());
+            assertEquals(14.0, conditions.getWind().getWindSpeedKmh());
+            assertNotEquals("INDISPONIVEL", conditions.getSurfQuality().getLabel());
+            assertTrue(conditions.getSurfQuality().getReasons().contains("Vento fraco a moderado."));
+            assertTrue(conditions.getSurfQuality().getReasons()
+                    .contains("Dados de ondas indisponiveis no momento; avaliacao parcial."));
+
+            // Celula parcial recarrega em segundo plano assim que a fonte volta
+            failing.clear();
+            upstreamService.getSurfConditions(-3.72, -38.51, "Iracema");
+            long deadline = System.currentTimeMillis() + 2_000;
+            SurfConditionsDTO recovered = upstreamService.getSurfConditions(-3.72, -38.51, "Iracema");
+            while (!recovered.getMarine().getAvailable() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                recovered = upstreamService.getSurfConditions(-3.72, -38.51, "Iracema");
+            }
+            assertEquals(1.2, recovered.getMarine().getWaveHeightMeters());
+        } finally {
+            stop(server);
+        }
+    }
+
+    @Test
+    void bothOpenMeteoSourcesDownIsAnUpstreamFailure() throws Exception {
+        failing.addAll(Set.of("/marine", "/forecast"));
+        HttpServer server = upstreamServer(new ConcurrentHashMap<>(Map.of("/marine", 0L, "/forecast", 0L, "/mare", 0L)));
+        try {
+            SurfConditionsService upstreamService = upstreamService(server, 6_000L);
+
+            assertThrows(UpstreamUnavailableException.class,
+                    () -> upstreamService.getSurfConditions(-3.72, -38.51, null));
+        } finally {
+            stop(server);
+        }
+    }
+
+    private Beach beach(Long id, String nome, Double latitude, Double longitude) {
+        Beach beach = new Beach();
+        beach.setId(id);
+        beach.setNome(nome);
+        beach.setLatitude(latitude);
+        beach.setLongitude(longitude);
+        return beach;
+    }
+
+    private SurfConditionsService upstreamService(HttpServer server, long tideTimeoutMs) {
+        return upstreamService(server, tideTimeoutMs, mock(BeachRepository.class));
+    }
+
+    private SurfConditionsService upstreamService(HttpServer server, long tideTimeoutMs, BeachRepository beachRepository) {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new SurfConditionsService(
+                baseUrl + "/marine",
+                baseUrl + "/forecast",
+                baseUrl + "/mare",
+                "America/Fortaleza",
+                0.05,
+                600_000L,
+                3_600_000L,
+                100L,
+                2_000L,
+                2_000L,
+                tideTimeoutMs,
+                50,
+                WebClient.builder(),
+                outboundGuard(),
+                new SimpleMeterRegistry(),
+                mock(BalneabilitySnapshotService.class),
+                beachRepository
+        );
+    }
+
+    private HttpServer upstreamServer(Map<String, Long> delays) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/marine", delayed(delays, "/marine", index ->
+                "{\"timezone\":\"America/Fortaleza\",\"current\":{\"wave_height\":" + (1.2 + index) + ",\"wave_period\":9.0}}"));
+        server.createContext("/forecast", delayed(delays, "/forecast", index ->
+                "{\"timezone\":\"America/Fortaleza\",\"current\":{\"wind_speed_10m\":14.0,\"weather_code\":1}}"));
+        server.createContext("/mare", delayed(delays, "/mare", index -> TIDE_HTML));
+        server.start();
+        return server;
+    }
+
+    // Responde um objeto por coordenada, como o Open-Meteo: array quando ha mais de uma
+    private HttpHandler delayed(Map<String, Long> delays, String path, IntFunction<String> bodyForLocation) {
+        return exchange -> {
+            try {
+                Thread.sleep(delays.get(path));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            if (failing.contains(path)) {
+                exchange.sendResponseHeaders(500, -1);
+                exchange.close();
+                return;
+            }
+            String query = exchange.getRequestURI().getQuery();
+            Matcher latitudes = Pattern.compile("latitude=([^&]*)").matcher(query != null ? query : "");
+            int locations = latitudes.find() ? latitudes.group(1).split(",|%2C").length : 1;
+            respond(exchange, locations == 1
+                    ? bodyForLocation.apply(0)
+                    : IntStream.range(0, locations).mapToObj(bodyForLocation).collect(Collectors.joining(",", "[", "]")));
+        };
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", body.startsWith("<") ? "text/html" : "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private void stop(HttpServer server) {
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+    }
+
+    static OutboundGuard outboundGuard() {
+        return new OutboundGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                new OutboundHttpClients(new MockEnvironment(), new SimpleMeterRegistry()));
+    }
 }
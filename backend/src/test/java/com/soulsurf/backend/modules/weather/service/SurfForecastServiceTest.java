@@ -0,0 +1,245 @@
+package com.soulsurf.backend.modules.weather.service;
+
+import com.soulsurf.backend.modules.beach.entity.Beach;
+import com.soulsurf.backend.modules.beach.repository.BeachRepository;
+import com.soulsurf.backend.modules.weather.dto.SurfForecastDTO;
+import com.soulsurf.backend.modules.weather.entity.SurfForecastRecord;
+import com.soulsurf.backend.modules.weather.repository.SurfForecastRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SurfForecastServiceTest {
+
+    private static final Instant FIRST_HOUR = Instant.parse("2026-05-13T00:00:00Z");
+    private static final int HOURS = 24;
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final List<SurfForecastRecord> stored = new ArrayList<>();
+    private final Clock clock = Clock.fixed(Instant.parse("2026-05-13T12:30:00Z"), ZoneOffset.UTC);
+    private final BeachRepository beachRepository = mock(BeachRepository.class);
+    private final SurfForecastRepository forecastRepository = mock(SurfForecastRepository.class);
+    private HttpServer server;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/marine", perLocation("/marine", index -> hourly(
+                "\"wave_height\":" + series(hour -> String.valueOf(1.0 + index * 0.5 + hour * 0.01))
+                        + ",\"wave_period\":" + series(hour -> "10.0")
+                        + ",\"wave_direction\":" + series(hour -> hour == 3 ? "null" : "90"))));
+        server.createContext("/forecast", perLocation("/forecast", index -> hourly(
+                "\"wind_speed_10m\":" + series(hour -> "12.0")
+                        + ",\"wind_gusts_10m\":" + series(hour -> "18.0")
+                        + ",\"wind_direction_10m\":" + series(hour -> "120"))));
+        server.createContext("/mare", exchange -> respond(exchange, "<html></html>"));
+        server.start();
+
+        when(beachRepository.findAll()).thenReturn(List.of(
+                beach(1L, "Praia de Iracema", -3.7214, -38.5136),
+                beach(2L, "Meireles", -3.7255, -38.5019),
+                beach(3L, "Praia do Futuro", -3.7512, -38.4526),
+                beach(4L, "Sem coordenadas", null, null)));
+        when(forecastRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            stored.clear();
+            ((Iterable<SurfForecastRecord>) invocation.getArgument(0)).forEach(stored::add);
+            return List.copyOf(stored);
+        });
+        when(forecastRepository.findAll()).thenAnswer(invocation -> List.copyOf(stored));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void refreshScoresEveryHourWithOneMarineAndOneForecastCall() {
+        SurfForecastService service = service();
+
+        assertEquals(3, service.refresh());
+
+        // Tres praias em duas celulas: um unico par de chamadas horarias
+        assertEquals(1, requests.get("/marine").get());
+        assertEquals(1, requests.get("/forecast").get());
+
+        SurfForecastDTO iracema = service.getForecast(1L).orElseThrow();
+        assertEquals("Praia de Iracema", iracema.getBeachName());
+        // Serve a partir da hora corrente (12h UTC)
+        assertEquals(HOURS - 12, iracema.getHours().size());
+        SurfForecastDTO.HourDTO first = iracema.getHours().get(0);
+        assertTrue(first.getTime().startsWith("2026-05-13T09:00-03:00"), first.getTime());
+        assertEquals(1.12, first.getWaveHeightMeters(), 0.001);
+        assertEquals(12.0, first.getWindSpeedKmh());
+        assertNotNull(first.getScore());
+        assertNotEquals("INDISPONIVEL", first.getLabel());
+        assertEquals("INDISPONIVEL", first.getTideStatus());
+        assertNull(first.getTideFillPercent());
+
+        SurfForecastDTO futuro = service.getForecast(3L).orElseThrow();
+        assertEquals(1.62, futuro.getHours().get(0).getWaveHeightMeters(), 0.001);
+        assertFalse(service.getForecast(4L).isPresent());
+    }
+
+    @Test
+    void readsNeverCallUpstream() {
+        SurfForecastService service = service();
+        service.refresh();
+
+        for (int i = 0; i < 20; i++) {
+            service.getForecast(1L).orElseThrow();
+            service.getForecast(2L).orElseThrow();
+        }
+
+        assertEquals(1, requests.get("/marine").get());
+        assertEquals(1, requests.get("/forecast").get());
+    }
+
+    @Test
+    void restartRestoresPersistedForecastWithoutUpstreamCalls() {
+        SurfForecastService first = service();
+        first.refresh();
+        SurfForecastDTO before = first.getForecast(2L).orElseThrow();
+
+        SurfForecastService restarted = service();
+        restarted.restorePersistedForecasts();
+
+        assertEquals(before, restarted.getForecast(2L).orElseThrow());
+        assertEquals(1, requests.get("/marine").get());
+    }
+
+    @Test
+    void seriesPayloadRoundTrips() {
+        SurfForecastSeries series = new SurfForecastSeries(7L, "Cumbuco", "America/Fortaleza", FIRST_HOUR,
+                FIRST_HOUR.getEpochSecond(),
+                new float[]{1.5f, Float.NaN}, new float[]{9f, 10f}, new float[]{80f, 90f},
+                new float[]{15f, 20f}, new float[]{22f, 30f}, new float[]{100f, 110f},
+                new byte[]{70, 45}, new byte[]{3, 2}, new byte[]{1, 0}, new byte[]{55, -1},
+                new long[]{FIRST_HOUR.getEpochSecond(), FIRST_HOUR.plusSeconds(7200).getEpochSecond()});
+
+        SurfForecastSeries decoded = SurfForecastSeries.decode(series.encode());
+
+        assertEquals("Cumbuco", decoded.beachName());
+        assertEquals(2, decoded.hours());
+        assertNull(SurfForecastSeries.toDouble(decoded.waveHeight(1)));
+        assertEquals("BOA", decoded.qualityLabel(0));
+        assertEquals("ENCHENDO", decoded.tideStatus(0));
+        assertEquals(55, decoded.tideFillPercent(0));
+        assertNull(decoded.tideFillPercent(1));
+        assertEquals(FIRST_HOUR.plusSeconds(7200), decoded.surfWindowEnd(0));
+        assertArrayEquals(series.encode(), decoded.encode());
+    }
+
+    @Test
+    void beachesThatLostCoordinatesAreDeleted() {
+        SurfForecastService service = service();
+        service.refresh();
+
+        when(beachRepository.findAll()).thenReturn(List.of(beach(1L, "Praia de Iracema", -3.7214, -38.5136)));
+        service.refresh();
+
+        assertFalse(service.getForecast(3L).isPresent());
+        verify(forecastRepository).deleteAllByIdInBatch(anyCollection());
+    }
+
+    private SurfForecastService service() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        SurfConditionsService surfConditionsService = new SurfConditionsService(
+                baseUrl + "/marine",
+                baseUrl + "/forecast",
+                baseUrl + "/mare",
+                "America/Fortaleza",
+                0.05,
+                600_000L,
+                3_600_000L,
+                100L,
+                2_000L,
+                2_000L,
+                2_000L,
+                50,
+                WebClient.builder(),
+                SurfConditionsServiceTest.outboundGuard(),
+                new SimpleMeterRegistry(),
+                mock(BalneabilitySnapshotService.class),
+                beachRepository);
+        return new SurfForecastService(WebClient.create(baseUrl + "/marine"), WebClient.create(baseUrl + "/forecast"),
+                0.05, 1, Duration.ofSeconds(5), beachRepository, forecastRepository, surfConditionsService,
+                new SimpleMeterRegistry(), clock);
+    }
+
+    private Beach beach(Long id, String nome, Double latitude, Double longitude) {
+        Beach beach = new Beach();
+        beach.setId(id);
+        beach.setNome(nome);
+        beach.setLatitude(latitude);
+        beach.setLongitude(longitude);
+        return beach;
+    }
+
+    private static String hourly(String fields) {
+        return "{\"hourly\":{\"time\":" + series(hour -> String.valueOf(FIRST_HOUR.getEpochSecond() + hour * 3600L))
+                + "," + fields + "}}";
+    }
+
+    private static String series(IntFunction<String> valueAt) {
+        return IntStream.range(0, HOURS).mapToObj(valueAt).collect(Collectors.joining(",", "[", "]"));
+    }
+
+    // Responde um objeto por coordenada, como o Open-Meteo: array quando ha mais de uma
+    private HttpHandler perLocation(String path, IntFunction<String> bodyForLocation) {
+        return exchange -> {
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            Matcher latitudes = Pattern.compile("latitude=([^&]*)").matcher(query != null ? query : "");
+            int locations = latitudes.find() ? latitudes.group(1).split(",|%2C").length : 1;
+            respond(exchange, locations == 1
+                    ? bodyForLocation.apply(0)
+                    : IntStream.range(0, locations).mapToObj(bodyForLocation).collect(Collectors.joining(",", "[", "]")));
+        };
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", body.startsWith("<") ? "text/html" : "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -1,7 +1,10 @@
 package com.soulsurf.backend.modules.weather.service;
 
+import com.soulsurf.backend.core.exception.UpstreamUnavailableException;
+import com.soulsurf.backend.core.resilience.OutboundGuard;
 import com.soulsurf.backend.modules.weather.dto.OpenWeatherResponse;
 import com.soulsurf.backend.modules.weather.dto.WeatherDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,12 +15,27 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,22 +56,143 @@ public class WeatherServiceTest {
     @Mock
     private WebClient.Builder webClientBuilder;
 
+    @Mock
+    private OutboundGuard outboundGuard;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private WeatherService weatherService;
 
     @BeforeEach
     void setUp() {
+        when(webClientBuilder.clone()).thenReturn(webClientBuilder);
+        when(webClientBuilder.apply(any())).thenReturn(webClientBuilder);
         when(webClientBuilder.baseUrl(anyString())).thenReturn(webClientBuilder);
         when(webClientBuilder.build()).thenReturn(webClient);
-        weatherService = new WeatherService("http://test.com", "testKey", webClientBuilder);
+        weatherService = new WeatherService("http://test.com", "testKey", 600_000, 1_800_000, 100, 2,
+                webClientBuilder, outboundGuard, meterRegistry);
     }
 
     @Test
     void testGetCurrentWeather() {
+        OpenWeatherResponse mockResponse = response("Sao Paulo", 25.0);
+
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), anyString(), org.mockito.ArgumentMatchers.any()))
+                .thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(OpenWeatherResponse.class)).thenReturn(Mono.just(mockResponse));
+
+        WeatherDTO result = weatherService.getCurrentWeather("Sao Paulo");
+
+        assertNotNull(result);
+        assertEquals(25.0, result.getTemp());
+        assertEquals("Clear sky", result.getDescription());
+        assertEquals("Sao Paulo", result.getCityName());
+    }
+
+    @Test
+    void concurrentRequestsForTheSameCityShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        stubUpstream(Mono.fromCallable(() -> {
+            upstreamCalls.incrementAndGet();
+            release.await(2, TimeUnit.SECONDS);
+            return response("Fortaleza", 29.0);
+        }));
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<WeatherDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String city = i % 2 == 0 ? "Fortaleza,BR" : " fortaleza, br ";
+                results.add(callers.submit(() -> weatherService.getCurrentWeather(city)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<WeatherDTO> result : results) {
+                assertEquals(29.0, result.get(2, TimeUnit.SECONDS).getTemp());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        verify(requestHeadersUriSpec).uri(anyString(), eq("fortaleza,br"), eq("testKey"));
+        assertEquals(7.0, meterRegistry.get("weather.current.cache.loads.saved").functionCounter().count());
+    }
+
+    @Test
+    void hotCitiesAreRefreshedInBackgroundAndColdOnesAreNot() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        stubUpstream(Mono.fromCallable(() -> response("Cidade", 20.0 + upstreamCalls.incrementAndGet())));
+
+        assertEquals(21.0, weatherService.getCurrentWeather("Fortaleza,BR").getTemp());
+        assertEquals(21.0, weatherService.getCurrentWeather("Fortaleza,BR").getTemp());
+        assertEquals(22.0, weatherService.getCurrentWeather("Recife,BR").getTemp());
+
+        List<CompletableFuture<WeatherDTO>> refreshes = weatherService.refreshHotCitiesAsync();
+        CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new)).join();
+
+        // So Fortaleza (2 pedidos) e recarregada; o valor novo ja esta no cache
+        assertEquals(1, refreshes.size());
+        assertEquals(23.0, weatherService.getCurrentWeather("Fortaleza,BR").getTemp());
+        assertEquals(22.0, weatherService.getCurrentWeather("Recife,BR").getTemp());
+        assertEquals(3, upstreamCalls.get());
+        assertEquals(1.0, meterRegistry.get("weather.current.cache.proactive.refreshes").counter().count());
+
+        // Nova janela: sem pedidos suficientes, nada e recarregado
+        assertTrue(weatherService.refreshHotCitiesAsync().isEmpty());
+    }
+
+    @Test
+    void hotCitiesAreRefreshedConcurrently() {
+        stubUpstream(Mono.delay(Duration.ofMillis(300)).map(ignored -> response("Cidade", 25.0)));
+        for (int i = 0; i < 5; i++) {
+            weatherService.getCurrentWeather("Cidade " + i + ",BR");
+            weatherService.getCurrentWeather("Cidade " + i + ",BR");
+        }
+
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<WeatherDTO>> refreshes = weatherService.refreshHotCitiesAsync();
+        CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new)).join();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+
+        assertEquals(5, refreshes.size());
+        // Em uma unica thread de recarga levariam 1500 ms
+        assertTrue(elapsedMs < 1_000, "elapsed " + elapsedMs + " ms");
+    }
+
+    @Test
+    void upstreamFailuresAreNotCached() {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        stubUpstream(Mono.fromCallable(() -> {
+            if (upstreamCalls.incrementAndGet() == 1) {
+                throw new IllegalStateException("timeout");
+            }
+            return response("Fortaleza", 28.0);
+        }));
+
+        assertThrows(UpstreamUnavailableException.class, () -> weatherService.getCurrentWeather("Fortaleza,BR"));
+        assertEquals(28.0, weatherService.getCurrentWeather("Fortaleza,BR").getTemp());
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private void stubUpstream(Mono<OpenWeatherResponse> body) {
+        when(webClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), anyString(), org.mockito.ArgumentMatchers.any()))
+                .thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(OpenWeatherResponse.class)).thenReturn(body);
+    }
+
+    private static OpenWeatherResponse response(String name, double temp) {
         OpenWeatherResponse mockResponse = new OpenWeatherResponse();
-        mockResponse.setName("Sao Paulo");
+        mockResponse.setName(name);
 
         OpenWeatherResponse.MainData main = new OpenWeatherResponse.MainData();
-        main.setTemp(25.0);
+        main.setTemp(temp);
         main.setFeelsLike(26.0);
         main.setTempMin(22.0);
         main.setTempMax(28.0);
@@ -65,18 +204,6 @@ public class WeatherServiceTest {
         cond.setDescription("Clear sky");
         cond.setIcon("01d");
         mockResponse.setWeather(Arrays.asList(cond));
-
-        when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        when(requestHeadersUriSpec.uri(anyString(), anyString(), org.mockito.ArgumentMatchers.any()))
-                .thenReturn(requestHeadersSpec);
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.bodyToMono(OpenWeatherResponse.class)).thenReturn(Mono.just(mockResponse));
-
-        WeatherDTO result = weatherService.getCurrentWeather("Sao Paulo");
-
-        assertNotNull(result);
-        assertEquals(25.0, result.getTemp());
-        assertEquals("Clear sky", result.getDescription());
-        assertEquals("Sao Paulo", result.getCityName());
+        return mockResponse;
     }
 }